@@ -27,10 +27,12 @@ import java.util.ArrayList;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.asf.AsfTag;
 import org.jaudiotagger.audio.wav.WavTag;
 import org.jaudiotagger.audio.real.RealTag;
+import org.jaudiotagger.audio.aiff.AiffTag;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
@@ -68,6 +70,16 @@ public class AudioFile
      */
     protected Tag tag;
 
+    /**
+     * The parts of the file that were read
+     */
+    private ReadProjection readProjection = ReadProjection.ALL;
+
+    /**
+     * The format the file was read as, which is the format of its content if that does not match its extension
+     */
+    private String format;
+
     public AudioFile()
     {
 
@@ -115,6 +127,32 @@ public class AudioFile
         AudioFileIO.write(this);
     }
 
+    /**
+     * @return the parts of the file that were read, only a file read with {@link ReadProjection#ALL} can be written
+     */
+    public ReadProjection getReadProjection()
+    {
+        return readProjection;
+    }
+
+    void setReadProjection(ReadProjection readProjection)
+    {
+        this.readProjection = readProjection;
+    }
+
+    /**
+     * @return the format the file was read as, or null if it was not read by {@link AudioFileIO}
+     */
+    String getFormat()
+    {
+        return format;
+    }
+
+    void setFormat(String format)
+    {
+        this.format = format;
+    }
+
     /**
      * Set the file to store the info in
      *
@@ -171,7 +209,7 @@ public class AudioFile
     public String toString()
     {
         return "AudioFile " + getFile().getAbsolutePath()
-                + "  --------\n" + audioHeader.toString() + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
+                + "  --------\n" + ((audioHeader == null) ? "" : audioHeader.toString()) + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
     }
 
     /**
@@ -208,7 +246,7 @@ public class AudioFile
         // Unless opened as readonly the file must be writable
         if (readOnly)
         {
-            newFile = new RandomAccessFile(file, "r");
+            newFile = AudioFileOperation.current().open(file, "r");
         }
         else
         {
@@ -217,7 +255,7 @@ public class AudioFile
                 logger.severe("Unable to write:" + file.getPath());
                 throw new ReadOnlyFileException(ErrorMessage.NO_PERMISSIONS_TO_WRITE_TO_FILE.getMsg(file.getPath()));
             }
-            newFile = new RandomAccessFile(file, "rws");
+            newFile = AudioFileOperation.current().open(file, "rws");
         }
         return newFile;
     }
@@ -287,6 +325,12 @@ public class AudioFile
         {
             return new RealTag();
         }
+        else if(SupportedFileFormat.AIF.getFilesuffix().equals(file.getName().substring(file.getName().lastIndexOf('.')))
+                || SupportedFileFormat.AIFF.getFilesuffix().equals(file.getName().substring(file.getName().lastIndexOf('.')))
+                || SupportedFileFormat.AIFC.getFilesuffix().equals(file.getName().substring(file.getName().lastIndexOf('.'))))
+        {
+            return new AiffTag();
+        }
         else
         {
             throw new RuntimeException("Unable to create default tag for this file format");
@@ -0,0 +1,361 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.KeyNotFoundException;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagField;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Cache of the audio header and tag values of files, so files that have not changed since they were last read do not
+ * have to be parsed again
+ * <p/>
+ * Files are keyed by their absolute path and the cached values are only used if the length and last modified time of
+ * the file are unchanged, so checking a file costs a stat of the file rather than a read. Each file is held in a
+ * compact binary form and decoded into an {@link AudioFile} when it is requested, with a {@link CachedAudioHeader}
+ * and a {@link CachedTag} holding the text values of the generic fields. These cached views cannot be written back to
+ * the file.
+ * <p/>
+ * The cache holds at most the given number of files, discarding the least recently used, and can be saved to and
+ * loaded from a file so it persists between runs. It is safe to use from multiple threads.
+ */
+public class AudioFileCache
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio");
+
+    private static final int CACHE_FILE_ID = 0x4a415443;
+    private static final int CACHE_FILE_VERSION = 1;
+
+    private static final String ENCODING = "UTF-8";
+
+    private static class CachedEntry
+    {
+        private final long length;
+        private final long lastModified;
+        private final byte[] data;
+
+        private CachedEntry(long length, long lastModified, byte[] data)
+        {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.data = data;
+        }
+    }
+
+    private final int maximumEntries;
+    private final LinkedHashMap<String, CachedEntry> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * @param maximumEntries maximum number of files held
+     */
+    public AudioFileCache(final int maximumEntries)
+    {
+        if (maximumEntries <= 0)
+        {
+            throw new IllegalArgumentException("Maximum entries must be positive:" + maximumEntries);
+        }
+        this.maximumEntries = maximumEntries;
+        this.entries = new LinkedHashMap<String, CachedEntry>(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest)
+            {
+                return size() > maximumEntries;
+            }
+        };
+    }
+
+    /**
+     * Read the file, using the cached values if the file is unchanged since it was cached, otherwise the file is read
+     * with {@link AudioFileIO} and its values added to the cache
+     *
+     * @param f
+     * @return a cached view of the file, or the file read by {@link AudioFileIO} if it was not in the cache
+     * @throws CannotReadException
+     * @throws IOException
+     * @throws TagException
+     * @throws ReadOnlyFileException
+     * @throws InvalidAudioFrameException
+     */
+    public AudioFile read(File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        File file = f.getAbsoluteFile();
+        String path = file.getPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        CachedEntry entry;
+        synchronized (entries)
+        {
+            entry = entries.get(path);
+            if (entry != null && entry.length == length && entry.lastModified == lastModified)
+            {
+                hitCount++;
+            }
+            else
+            {
+                entry = null;
+                missCount++;
+            }
+        }
+        if (entry != null)
+        {
+            return decode(file, entry.data);
+        }
+
+        AudioFile audioFile = AudioFileIO.read(file);
+        byte[] data = encode(audioFile);
+        synchronized (entries)
+        {
+            entries.put(path, new CachedEntry(length, lastModified, data));
+        }
+        return audioFile;
+    }
+
+    /**
+     * Remove the file from the cache
+     *
+     * @param f
+     */
+    public void remove(File f)
+    {
+        synchronized (entries)
+        {
+            entries.remove(f.getAbsolutePath());
+        }
+    }
+
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of files held
+     */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    public int getMaximumEntries()
+    {
+        return maximumEntries;
+    }
+
+    /**
+     * @return the number of reads that used the cached values
+     */
+    public long getHitCount()
+    {
+        synchronized (entries)
+        {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return the number of reads that had to read the file
+     */
+    public long getMissCount()
+    {
+        synchronized (entries)
+        {
+            return missCount;
+        }
+    }
+
+    /**
+     * Save the cache, files are saved from least to most recently used so the order is kept when loaded
+     *
+     * @param cacheFile
+     * @throws IOException
+     */
+    public void save(File cacheFile) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)));
+        try
+        {
+            out.writeInt(CACHE_FILE_ID);
+            out.writeInt(CACHE_FILE_VERSION);
+            synchronized (entries)
+            {
+                out.writeInt(entries.size());
+                for (Map.Entry<String, CachedEntry> next : entries.entrySet())
+                {
+                    writeString(out, next.getKey());
+                    out.writeLong(next.getValue().length);
+                    out.writeLong(next.getValue().lastModified);
+                    out.writeInt(next.getValue().data.length);
+                    out.write(next.getValue().data);
+                }
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Add the files held in a saved cache, a cache file that does not exist or was saved by a different version is
+     * ignored
+     *
+     * @param cacheFile
+     * @throws IOException if the cache file cannot be read or is truncated
+     */
+    public void load(File cacheFile) throws IOException
+    {
+        if (!cacheFile.exists())
+        {
+            return;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+        try
+        {
+            if (in.readInt() != CACHE_FILE_ID || in.readInt() != CACHE_FILE_VERSION)
+            {
+                logger.warning("Ignoring cache file with unknown format:" + cacheFile);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++)
+            {
+                String path = readString(in);
+                long length = in.readLong();
+                long lastModified = in.readLong();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                synchronized (entries)
+                {
+                    entries.put(path, new CachedEntry(length, lastModified, data));
+                }
+            }
+        }
+        catch (EOFException eofe)
+        {
+            throw new IOException("Cache file is truncated:" + cacheFile);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Encode the audio header, and the values of every generic field of the tag other than artwork
+     */
+    private byte[] encode(AudioFile audioFile) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+
+        AudioHeader header = audioFile.getAudioHeader();
+        writeString(out, header.getEncodingType());
+        writeString(out, header.getBitRate());
+        out.writeLong(header.getBitRateAsNumber());
+        writeString(out, header.getSampleRate());
+        out.writeInt(header.getSampleRateAsNumber());
+        writeString(out, header.getFormat());
+        writeString(out, header.getChannels());
+        out.writeBoolean(header.isVariableBitRate());
+        out.writeInt(header.getTrackLength());
+
+        Tag tag = audioFile.getTag();
+        out.writeBoolean(tag != null);
+        if (tag != null)
+        {
+            for (FieldKey key : FieldKey.values())
+            {
+                if (key == FieldKey.COVER_ART)
+                {
+                    continue;
+                }
+                try
+                {
+                    List<TagField> fields = tag.getFields(key);
+                    int count = Math.max(1, fields.size());
+                    for (int i = 0; i < count; i++)
+                    {
+                        String value = tag.getValue(key, i);
+                        if (value != null && value.length() > 0)
+                        {
+                            out.writeUTF(key.name());
+                            writeString(out, value);
+                        }
+                    }
+                }
+                catch (KeyNotFoundException knfe)
+                {
+                    //Not supported by this format
+                }
+                catch (UnsupportedOperationException uoe)
+                {
+                    //Not supported by this format
+                }
+            }
+            out.writeUTF("");
+        }
+        out.close();
+        return baos.toByteArray();
+    }
+
+    private AudioFile decode(File file, byte[] data) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        CachedAudioHeader header = new CachedAudioHeader(readString(in), readString(in), in.readLong(), readString(in), in.readInt(), readString(in), readString(in), in.readBoolean(), in.readInt());
+
+        CachedTag tag = null;
+        if (in.readBoolean())
+        {
+            tag = new CachedTag();
+            String id;
+            while ((id = in.readUTF()).length() > 0)
+            {
+                tag.addValue(id, readString(in));
+            }
+        }
+        return new AudioFile(file, header, tag);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(ENCODING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, ENCODING);
+    }
+}
@@ -22,6 +22,8 @@ import org.jaudiotagger.audio.generic.Utils;
 
 import java.io.FileFilter;
 import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * <p>This is a simple FileFilter that will only allow the file supported by this library.</p>
@@ -34,6 +36,19 @@ import java.io.File;
  */
 public class AudioFileFilter implements FileFilter
 {
+    /**
+     * Lower case suffixes of the supported formats
+     */
+    private static final Set<String> SUPPORTED_EXTENSIONS = new HashSet<String>();
+
+    static
+    {
+        for (SupportedFileFormat next : SupportedFileFormat.values())
+        {
+            SUPPORTED_EXTENSIONS.add(next.getFilesuffix());
+        }
+    }
+
     /**
      * allows Directories
      */
@@ -68,20 +83,15 @@ public class AudioFileFilter implements FileFilter
             return allowDirectories;
         }
 
-        String ext = Utils.getExtension(f);
+        return isSupportedExtension(Utils.getExtension(f));
+    }
 
-        try
-        {
-            if (SupportedFileFormat.valueOf(ext.toUpperCase()) != null)
-            {
-                return true;
-            }
-        }
-        catch(IllegalArgumentException iae)
-        {
-            //Not known enum value
-            return false;    
-        }
-        return false;
-	}
+    /**
+     * @param ext lower case file extension
+     * @return true if files with the extension are supported by the library
+     */
+    public static boolean isSupportedExtension(String ext)
+    {
+        return SUPPORTED_EXTENSIONS.contains(ext);
+    }
 }
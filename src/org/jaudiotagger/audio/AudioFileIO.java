@@ -34,10 +34,13 @@ import org.jaudiotagger.audio.mp4.Mp4FileWriter;
 import org.jaudiotagger.audio.ogg.OggFileReader;
 import org.jaudiotagger.audio.ogg.OggFileWriter;
 import org.jaudiotagger.audio.real.RealFileReader;
+import org.jaudiotagger.audio.aiff.AiffFileReader;
+import org.jaudiotagger.audio.aiff.AiffFileWriter;
 import org.jaudiotagger.audio.wav.WavFileReader;
 import org.jaudiotagger.audio.wav.WavFileWriter;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -121,7 +124,7 @@ public class AudioFileIO
      *
      * @return The default instance.
      */
-    public static AudioFileIO getDefaultAudioFileIO()
+    public static synchronized AudioFileIO getDefaultAudioFileIO()
     {
         if (defaultInstance == null)
         {
@@ -150,6 +153,75 @@ public class AudioFileIO
         return getDefaultAudioFileIO().readFile(f);
     }
 
+    /**
+     * <p/>
+     * Read the tag contained in the given file using the given options rather than the current options of
+     * {@link org.jaudiotagger.tag.TagOptionSingleton}.
+     * </p>
+     *
+     * @param f       The file to read.
+     * @param options The options to use for the whole of the read.
+     * @return The AudioFile with the file tag and the file encoding info.
+     * @throws CannotReadException If the file could not be read, the extension wasn't
+     *                             recognized, or an IO error occurred during the read.
+     * @throws org.jaudiotagger.tag.TagException
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public static AudioFile read(File f, TagOptions options)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        TagOptions previousOptions = options.use();
+        try
+        {
+            return getDefaultAudioFileIO().readFile(f);
+        }
+        finally
+        {
+            TagOptions.restore(previousOptions);
+        }
+    }
+
+    /**
+     * <p/>
+     * Read the parts of the given file selected by the projection, without reading the parts that are not needed
+     * where the format allows it.
+     * </p>
+     *
+     * @param f          The file to read.
+     * @param projection The parts of the file to read.
+     * @return The AudioFile, which cannot be written unless the projection is {@link ReadProjection#ALL}.
+     * @throws CannotReadException If the file could not be read, the format wasn't
+     *                             recognized, or an IO error occurred during the read.
+     * @throws org.jaudiotagger.tag.TagException
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public static AudioFile read(File f, ReadProjection projection)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readFile(f, projection);
+    }
+
+    /**
+     * <p/>
+     * Probe the given file for the size of its tag region, its free padding and the start of the audio,
+     * without reading the tag itself.
+     * </p>
+     *
+     * @param f The file to probe.
+     * @return the tag region of the file
+     * @throws CannotReadException If the file could not be read, the extension wasn't
+     *                             recognized or cannot be probed, or an IO error occurred.
+     * @throws java.io.IOException
+     */
+    public static TagRegion readTagRegion(File f) throws CannotReadException, IOException
+    {
+        return getDefaultAudioFileIO().readFileTagRegion(f);
+    }
+
     /**
      * <p/>
      * Write the tag contained in the audioFile in the actual file on the disk.
@@ -164,6 +236,30 @@ public class AudioFileIO
         getDefaultAudioFileIO().writeFile(f);
     }
 
+    /**
+     * <p/>
+     * Write the tag contained in the audioFile in the actual file on the disk, using the given options rather than the
+     * current options of {@link org.jaudiotagger.tag.TagOptionSingleton}.
+     * </p>
+     *
+     * @param f       The AudioFile to be written
+     * @param options The options to use for the whole of the write.
+     * @throws CannotWriteException If the file could not be written/accessed, the extension
+     *                              wasn't recognized, or other IO error occurred.
+     */
+    public static void write(AudioFile f, TagOptions options) throws CannotWriteException
+    {
+        TagOptions previousOptions = options.use();
+        try
+        {
+            getDefaultAudioFileIO().writeFile(f);
+        }
+        finally
+        {
+            TagOptions.restore(previousOptions);
+        }
+    }
+
     /**
      * This member is used to broadcast modification events to registered
      */
@@ -207,15 +303,15 @@ public class AudioFileIO
      */
     public void deleteTag(AudioFile f) throws CannotReadException, CannotWriteException
     {
-        String ext = Utils.getExtension(f.getFile());
+        String format = getFormat(f);
 
-        Object afw = writers.get(ext);
+        AudioFileWriter afw = writers.get(format);
         if (afw == null)
         {
-            throw new CannotWriteException(ErrorMessage.NO_DELETER_FOR_THIS_FORMAT.getMsg(ext));
+            throw new CannotWriteException(ErrorMessage.NO_DELETER_FOR_THIS_FORMAT.getMsg(format));
         }
 
-        ((AudioFileWriter) afw).delete(f);
+        afw.delete(f);
     }
 
     /**
@@ -237,6 +333,10 @@ public class AudioFileIO
         final RealFileReader realReader = new RealFileReader();
         readers.put(SupportedFileFormat.RA.getFilesuffix(), realReader);
         readers.put(SupportedFileFormat.RM.getFilesuffix(), realReader);
+        final AiffFileReader aiffReader = new AiffFileReader();
+        readers.put(SupportedFileFormat.AIF.getFilesuffix(), aiffReader);
+        readers.put(SupportedFileFormat.AIFF.getFilesuffix(), aiffReader);
+        readers.put(SupportedFileFormat.AIFC.getFilesuffix(), aiffReader);
 
         // Tag Writers
         writers.put(SupportedFileFormat.OGG.getFilesuffix(), new OggFileWriter());
@@ -248,6 +348,10 @@ public class AudioFileIO
         writers.put(SupportedFileFormat.M4B.getFilesuffix(), new Mp4FileWriter());                
         writers.put(SupportedFileFormat.WAV.getFilesuffix(), new WavFileWriter());
         writers.put(SupportedFileFormat.WMA.getFilesuffix(), new AsfFileWriter());
+        final AiffFileWriter aiffWriter = new AiffFileWriter();
+        writers.put(SupportedFileFormat.AIF.getFilesuffix(), aiffWriter);
+        writers.put(SupportedFileFormat.AIFF.getFilesuffix(), aiffWriter);
+        writers.put(SupportedFileFormat.AIFC.getFilesuffix(), aiffWriter);
 
         // Register modificationHandler
         Iterator<AudioFileWriter> it = writers.values().iterator();
@@ -273,17 +377,166 @@ public class AudioFileIO
      */
     public AudioFile readFile(File f)
             throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readFile(f, ReadProjection.ALL);
+    }
+
+    /**
+     * <p/>
+     * Read the parts of the given file selected by the projection.
+     * </p>
+     *
+     * @param f          The file to read.
+     * @param projection The parts of the file to read.
+     * @return The AudioFile, which cannot be written unless the projection is {@link ReadProjection#ALL}.
+     * @throws CannotReadException If the file could not be read, the format wasn't
+     *                             recognized, or an IO error occurred during the read.
+     * @throws org.jaudiotagger.tag.TagException
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public AudioFile readFile(File f, ReadProjection projection)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         checkFileExists(f);
-        String ext = Utils.getExtension(f);
+        String format = getFormat(f);
+        AudioFile audioFile;
+        try
+        {
+            audioFile = readers.get(format).read(f, projection);
+        }
+        catch (CannotReadException cre)
+        {
+            format = getFormatOfRejectedFile(f, format, cre);
+            audioFile = readers.get(format).read(f, projection);
+        }
+        catch (InvalidAudioFrameException iafe)
+        {
+            format = getFormatOfRejectedFile(f, format, iafe);
+            audioFile = readers.get(format).read(f, projection);
+        }
+        audioFile.setReadProjection(projection);
+        audioFile.setFormat(format);
+        return audioFile;
+    }
 
-        AudioFileReader afr = readers.get(ext);
-        if (afr == null)
+    /**
+     * Find the format to read the file as from its extension, or from the signature at the start of the file if the
+     * extension is not known
+     *
+     * @param f
+     * @return the format, which is a key of the readers
+     * @throws CannotReadException if there is no reader for the file, or it is an ogg file without a vorbis stream
+     * @throws IOException
+     */
+    private String getFormat(File f) throws CannotReadException, IOException
+    {
+        String ext = Utils.getExtension(f);
+        if (readers.containsKey(ext))
+        {
+            return ext;
+        }
+        String format = getFormatFromContent(f, null);
+        if (format == null)
         {
             throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
         }
+        return format;
+    }
 
-        return afr.read(f);
+    /**
+     * Find the format of a file that the reader for the format it was read as has rejected, so that it can be read
+     * again by the reader for its content
+     *
+     * @param f
+     * @param format  the format the file was read as
+     * @param failure why the reader rejected the file
+     * @return the format of the content
+     * @throws E the failure, if the content is not of another supported format
+     * @throws CannotReadException if it is an ogg file without a vorbis stream
+     * @throws IOException
+     */
+    private <E extends Exception> String getFormatOfRejectedFile(File f, String format, E failure) throws E, CannotReadException, IOException
+    {
+        String detectedFormat = getFormatFromContent(f, readers.get(format));
+        if (detectedFormat == null)
+        {
+            throw failure;
+        }
+        return detectedFormat;
+    }
+
+    /**
+     * Find the format of the file from the signature at the start of the file, this is only done when the extension
+     * is not known or its reader has rejected the file so that files with the right extension are not opened an extra
+     * time. Content that only looks like mp3 is ignored when the extension has a reader, because an ID3 tag or an
+     * mpeg frame sync is no proof of an mp3 file.
+     *
+     * @param f
+     * @param extensionReader the reader for the extension of the file, or null if the extension is not known
+     * @return the format of the content if its reader differs from the extension reader, otherwise null
+     * @throws CannotReadException if it is an ogg file without a vorbis stream
+     * @throws IOException
+     */
+    private String getFormatFromContent(File f, AudioFileReader extensionReader) throws CannotReadException, IOException
+    {
+        //Unreadable files are reported by the reader
+        if (!f.canRead())
+        {
+            return null;
+        }
+
+        byte[] header = AudioFormatDetector.readHeader(f);
+        SupportedFileFormat format = AudioFormatDetector.detect(header);
+        if (format == SupportedFileFormat.OGG)
+        {
+            String codec = AudioFormatDetector.getOggCodec(header);
+            if (codec != null && !codec.equals("vorbis"))
+            {
+                throw new CannotReadException(ErrorMessage.OGG_CODEC_NOT_SUPPORTED.getMsg(f.getPath(), codec));
+            }
+        }
+
+        if (format == null || (extensionReader != null && format == SupportedFileFormat.MP3))
+        {
+            return null;
+        }
+        if (extensionReader != null)
+        {
+            if (extensionReader.getClass() == readers.get(format.getFilesuffix()).getClass())
+            {
+                return null;
+            }
+            logger.warning(ErrorMessage.FILE_CONTENT_DOES_NOT_MATCH_EXTENSION.getMsg(f.getPath(), Utils.getExtension(f), format.getFilesuffix()));
+        }
+        return format.getFilesuffix();
+    }
+
+    /**
+     * <p/>
+     * Probe the given file for the size of its tag region, its free padding and the start of the audio,
+     * without reading the tag itself.
+     * </p>
+     *
+     * @param f The file to probe.
+     * @return the tag region of the file
+     * @throws CannotReadException If the file could not be read, the extension wasn't
+     *                             recognized or cannot be probed, or an IO error occurred.
+     * @throws java.io.IOException
+     */
+    public TagRegion readFileTagRegion(File f) throws CannotReadException, IOException
+    {
+        checkFileExists(f);
+        String format = getFormat(f);
+        try
+        {
+            return readers.get(format).readTagRegion(f);
+        }
+        catch (CannotReadException cre)
+        {
+            return readers.get(getFormatOfRejectedFile(f, format, cre)).readTagRegion(f);
+        }
     }
 
     /**
@@ -323,14 +576,39 @@ public class AudioFileIO
      */
     public void writeFile(AudioFile f) throws CannotWriteException
     {
-        String ext = Utils.getExtension(f.getFile());
+        if (!f.getReadProjection().isAll())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTLY_READ.getMsg(f.getFile().getPath(), f.getReadProjection()));
+        }
+        if (f.getAudioHeader() instanceof CachedAudioHeader)
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_CACHED_VIEW.getMsg(f.getFile().getPath()));
+        }
+
+        String format = getFormat(f);
 
-        AudioFileWriter afw = writers.get(ext);
+        AudioFileWriter afw = writers.get(format);
         if (afw == null)
         {
-            throw new CannotWriteException(ErrorMessage.NO_WRITER_FOR_THIS_FORMAT.getMsg(ext));
+            throw new CannotWriteException(ErrorMessage.NO_WRITER_FOR_THIS_FORMAT.getMsg(format));
         }
 
         afw.write(f);
     }
+
+    /**
+     * The format to write the file as, which is the format it was read as so that a file whose extension does not
+     * match its content is written by the writer for its content
+     *
+     * @param f
+     * @return the format, which is a key of the writers
+     */
+    private String getFormat(AudioFile f)
+    {
+        if (f.getFormat() != null)
+        {
+            return f.getFormat();
+        }
+        return Utils.getExtension(f.getFile());
+    }
 }
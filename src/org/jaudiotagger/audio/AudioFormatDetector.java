@@ -0,0 +1,166 @@
+package org.jaudiotagger.audio;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Detects the format of an audio file from the signature at the start of the file rather than from its extension.
+ * <p/>
+ * Only the first {@link #HEADER_SIZE} bytes are looked at. Container formats have a definite signature, but mp3 has
+ * none, a file starting with an ID3 tag or an mpeg frame sync is reported as {@link SupportedFileFormat#MP3} even
+ * though an ID3 tag may also be found in front of flac and ogg files.
+ */
+public class AudioFormatDetector
+{
+    /**
+     * Number of bytes read from the start of the file
+     */
+    public static final int HEADER_SIZE = 64;
+
+    private static final byte[] ASF_HEADER_GUID = new byte[]{
+            (byte) 0x30, (byte) 0x26, (byte) 0xB2, (byte) 0x75, (byte) 0x8E, (byte) 0x66, (byte) 0xCF, (byte) 0x11,
+            (byte) 0xA6, (byte) 0xD9, (byte) 0x00, (byte) 0xAA, (byte) 0x00, (byte) 0x62, (byte) 0xCE, (byte) 0x6C};
+
+    private static final int OGG_PAGE_HEADER_SIZE = 27;
+    private static final int OGG_PAGE_SEGMENTS_POS = 26;
+
+    /**
+     * Read the start of the file
+     *
+     * @param f
+     * @return the first {@link #HEADER_SIZE} bytes, or the whole file if it is shorter
+     * @throws IOException
+     */
+    public static byte[] readHeader(File f) throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(f, "r");
+        try
+        {
+            byte[] header = new byte[(int) Math.min(HEADER_SIZE, raf.length())];
+            raf.readFully(header);
+            return header;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * @param header start of the file
+     * @return the format identified by the header, or null if not recognised
+     */
+    public static SupportedFileFormat detect(byte[] header)
+    {
+        if (startsWith(header, 0, "fLaC"))
+        {
+            return SupportedFileFormat.FLAC;
+        }
+        else if (startsWith(header, 0, "OggS"))
+        {
+            return SupportedFileFormat.OGG;
+        }
+        else if (startsWith(header, 4, "ftyp"))
+        {
+            return SupportedFileFormat.M4A;
+        }
+        else if ((startsWith(header, 0, "RIFF") || startsWith(header, 0, "RF64") || startsWith(header, 0, "BW64")) && startsWith(header, 8, "WAVE"))
+        {
+            return SupportedFileFormat.WAV;
+        }
+        else if (startsWith(header, 0, "FORM") && (startsWith(header, 8, "AIFF") || startsWith(header, 8, "AIFC")))
+        {
+            return SupportedFileFormat.AIFF;
+        }
+        else if (startsWith(header, 0, ASF_HEADER_GUID))
+        {
+            return SupportedFileFormat.WMA;
+        }
+        else if (startsWith(header, 0, ".RMF"))
+        {
+            return SupportedFileFormat.RM;
+        }
+        else if (startsWith(header, 0, "ID3") || isMpegFrameSync(header))
+        {
+            return SupportedFileFormat.MP3;
+        }
+        return null;
+    }
+
+    /**
+     * Identify the codec of the first logical stream of an ogg file from the start of its first packet
+     *
+     * @param header start of an ogg file
+     * @return the codec name, such as vorbis or FLAC, or null if not recognised
+     */
+    public static String getOggCodec(byte[] header)
+    {
+        if (header.length <= OGG_PAGE_HEADER_SIZE)
+        {
+            return null;
+        }
+        int start = OGG_PAGE_HEADER_SIZE + (header[OGG_PAGE_SEGMENTS_POS] & 0xff);
+        if (header.length > start && header[start] == 0x01 && startsWith(header, start + 1, "vorbis"))
+        {
+            return "vorbis";
+        }
+        else if (header.length > start && header[start] == 0x7f && startsWith(header, start + 1, "FLAC"))
+        {
+            return "FLAC";
+        }
+        else if (startsWith(header, start, "OpusHead"))
+        {
+            return "Opus";
+        }
+        else if (startsWith(header, start, "Speex"))
+        {
+            return "Speex";
+        }
+        return null;
+    }
+
+    /**
+     * An mpeg audio frame starts with eleven set bits followed by a layer that is not the reserved value, which
+     * also rules out aac adts headers
+     */
+    private static boolean isMpegFrameSync(byte[] header)
+    {
+        return header.length >= 2
+                && (header[0] & 0xff) == 0xff
+                && (header[1] & 0xe0) == 0xe0
+                && (header[1] & 0x06) != 0;
+    }
+
+    private static boolean startsWith(byte[] header, int offset, String signature)
+    {
+        if (header.length < offset + signature.length())
+        {
+            return false;
+        }
+        for (int i = 0; i < signature.length(); i++)
+        {
+            if (header[offset + i] != (byte) signature.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] header, int offset, byte[] signature)
+    {
+        if (header.length < offset + signature.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++)
+        {
+            if (header[offset + i] != signature[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package org.jaudiotagger.audio;
+
+/**
+ * The audio header of a file as held by {@link AudioFileCache}, a copy of the values of the header that was read from
+ * the file
+ */
+public class CachedAudioHeader implements AudioHeader
+{
+    private final String encodingType;
+    private final String bitRate;
+    private final long bitRateAsNumber;
+    private final String sampleRate;
+    private final int sampleRateAsNumber;
+    private final String format;
+    private final String channels;
+    private final boolean isVariableBitRate;
+    private final int trackLength;
+
+    CachedAudioHeader(String encodingType, String bitRate, long bitRateAsNumber, String sampleRate, int sampleRateAsNumber, String format, String channels, boolean isVariableBitRate, int trackLength)
+    {
+        this.encodingType = encodingType;
+        this.bitRate = bitRate;
+        this.bitRateAsNumber = bitRateAsNumber;
+        this.sampleRate = sampleRate;
+        this.sampleRateAsNumber = sampleRateAsNumber;
+        this.format = format;
+        this.channels = channels;
+        this.isVariableBitRate = isVariableBitRate;
+        this.trackLength = trackLength;
+    }
+
+    public String getEncodingType()
+    {
+        return encodingType;
+    }
+
+    public String getBitRate()
+    {
+        return bitRate;
+    }
+
+    public long getBitRateAsNumber()
+    {
+        return bitRateAsNumber;
+    }
+
+    public String getSampleRate()
+    {
+        return sampleRate;
+    }
+
+    public int getSampleRateAsNumber()
+    {
+        return sampleRateAsNumber;
+    }
+
+    public String getFormat()
+    {
+        return format;
+    }
+
+    public String getChannels()
+    {
+        return channels;
+    }
+
+    public boolean isVariableBitRate()
+    {
+        return isVariableBitRate;
+    }
+
+    public int getTrackLength()
+    {
+        return trackLength;
+    }
+
+    public String toString()
+    {
+        return "Encoding type:" + encodingType + " Format:" + format + " Bit rate:" + bitRate + " Sample rate:" + sampleRate + " Channels:" + channels + " VBR:" + isVariableBitRate + " Length:" + trackLength;
+    }
+}
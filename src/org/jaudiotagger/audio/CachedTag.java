@@ -0,0 +1,174 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.audio.generic.AbstractTag;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.KeyNotFoundException;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagTextField;
+import org.jaudiotagger.tag.images.Artwork;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tag of a file as held by {@link AudioFileCache}
+ * <p/>
+ * Only the text values of the generic fields are held, keyed by the name of their {@link FieldKey}, artwork and format
+ * specific fields are not. The tag is read only, its fields cannot be changed and it cannot be written back to the file,
+ * to modify the tag read the file with {@link AudioFileIO}.
+ */
+public class CachedTag extends AbstractTag
+{
+    private static final String ENCODING = "UTF-8";
+
+    private class CachedTagTextField implements TagTextField
+    {
+        private final String id;
+        private final String content;
+
+        CachedTagTextField(String id, String content)
+        {
+            this.id = id;
+            this.content = content;
+        }
+
+        public void copyContent(TagField field)
+        {
+            throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+        }
+
+        public String getContent()
+        {
+            return content;
+        }
+
+        public void setContent(String content)
+        {
+            throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+        }
+
+        public String getEncoding()
+        {
+            return ENCODING;
+        }
+
+        public void setEncoding(String encoding)
+        {
+            /* not supported */
+        }
+
+        public String getId()
+        {
+            return id;
+        }
+
+        public byte[] getRawContent()
+        {
+            return content == null ? new byte[]{} : Utils.getDefaultBytes(content, ENCODING);
+        }
+
+        public boolean isBinary()
+        {
+            return false;
+        }
+
+        public void isBinary(boolean b)
+        {
+            /* not supported */
+        }
+
+        public boolean isCommon()
+        {
+            return true;
+        }
+
+        public boolean isEmpty()
+        {
+            return content.length() == 0;
+        }
+
+        public String toString()
+        {
+            return content;
+        }
+    }
+
+    /**
+     * Add a value read from the cache
+     *
+     * @param id name of the {@link FieldKey}
+     * @param value
+     */
+    void addValue(String id, String value)
+    {
+        super.addField(new CachedTagTextField(id, value));
+    }
+
+    protected boolean isAllowedEncoding(String enc)
+    {
+        return true;
+    }
+
+    public TagField createField(FieldKey genericKey, String value) throws KeyNotFoundException, FieldDataInvalidException
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public void addField(TagField field)
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public void setField(TagField field)
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public boolean setEncoding(String enc)
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public String getFirst(FieldKey genericKey) throws KeyNotFoundException
+    {
+        return getValue(genericKey, 0);
+    }
+
+    public String getValue(FieldKey genericKey, int index) throws KeyNotFoundException
+    {
+        return getItem(genericKey.name(), index);
+    }
+
+    public void deleteField(FieldKey genericKey) throws KeyNotFoundException
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public void deleteField(String key)
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public void deleteArtworkField() throws KeyNotFoundException
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+
+    public TagField getFirstField(FieldKey genericKey) throws KeyNotFoundException
+    {
+        return getFirstField(genericKey.name());
+    }
+
+    public List<Artwork> getArtworkList()
+    {
+        return Collections.emptyList();
+    }
+
+    public TagField createField(Artwork artwork) throws FieldDataInvalidException
+    {
+        throw new UnsupportedOperationException(ErrorMessage.GENERIC_NOT_SUPPORTED.getMsg());
+    }
+}
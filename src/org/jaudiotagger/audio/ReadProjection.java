@@ -0,0 +1,224 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.KeyNotFoundException;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selects the parts of an audio file that are read by {@link AudioFileIO#read(java.io.File, ReadProjection)}, so that a job
+ * only needing the duration does not decode the tag and a job only needing the tag does not scan the audio.
+ * <p/>
+ * Readers skip the parts that are not required where the format allows it, such as the audio header scan of an mp3 or
+ * the picture blocks of a flac file. Whatever a reader cannot skip is read and then removed by {@link #filter(Tag)}, so
+ * the result is the same for every format. An audio file read with anything other than {@link #ALL} is incomplete and
+ * cannot be written back.
+ */
+public final class ReadProjection
+{
+    /**
+     * The audio header and the complete tag
+     */
+    public static final ReadProjection ALL = new ReadProjection(true, true, true, null);
+
+    /**
+     * Only the audio header, the audio file has no tag
+     */
+    public static final ReadProjection HEADER_ONLY = new ReadProjection(true, false, false, null);
+
+    /**
+     * Only the tag, the audio file has no audio header
+     */
+    public static final ReadProjection TAG_ONLY = new ReadProjection(false, true, true, null);
+
+    /**
+     * Only the tag without its artwork, the audio file has no audio header
+     */
+    public static final ReadProjection TAG_WITHOUT_ARTWORK = new ReadProjection(false, true, false, null);
+
+    private final boolean headerRequired;
+    private final boolean tagRequired;
+    private final boolean artworkRequired;
+
+    //Null if all fields are required
+    private final Set<FieldKey> fieldKeys;
+
+    private ReadProjection(boolean headerRequired, boolean tagRequired, boolean artworkRequired, Set<FieldKey> fieldKeys)
+    {
+        this.headerRequired = headerRequired;
+        this.tagRequired = tagRequired;
+        this.artworkRequired = artworkRequired;
+        this.fieldKeys = fieldKeys;
+    }
+
+    /**
+     * Read only the given fields of the tag, the artwork is only read if {@link FieldKey#COVER_ART} is one of them
+     *
+     * @param keys
+     * @return a projection without the audio header
+     */
+    public static ReadProjection fields(FieldKey... keys)
+    {
+        Set<FieldKey> fieldKeys = EnumSet.noneOf(FieldKey.class);
+        Collections.addAll(fieldKeys, keys);
+        return new ReadProjection(false, true, fieldKeys.contains(FieldKey.COVER_ART), Collections.unmodifiableSet(fieldKeys));
+    }
+
+    /**
+     * @return a projection reading the audio header as well as whatever this projection reads
+     */
+    public ReadProjection withHeader()
+    {
+        return new ReadProjection(true, tagRequired, artworkRequired, fieldKeys);
+    }
+
+    public boolean isHeaderRequired()
+    {
+        return headerRequired;
+    }
+
+    public boolean isTagRequired()
+    {
+        return tagRequired;
+    }
+
+    public boolean isArtworkRequired()
+    {
+        return artworkRequired;
+    }
+
+    /**
+     * @param key
+     * @return true if the field is to be read
+     */
+    public boolean isFieldRequired(FieldKey key)
+    {
+        if (!tagRequired)
+        {
+            return false;
+        }
+        if (key == FieldKey.COVER_ART)
+        {
+            return artworkRequired;
+        }
+        return fieldKeys == null || fieldKeys.contains(key);
+    }
+
+    /**
+     * @return the fields to read, or null if all fields are read
+     */
+    public Set<FieldKey> getFieldKeys()
+    {
+        return fieldKeys;
+    }
+
+    /**
+     * @return true if everything is read
+     */
+    public boolean isAll()
+    {
+        return headerRequired && tagRequired && artworkRequired && fieldKeys == null;
+    }
+
+    /**
+     * Remove the artwork and the fields that are not required from a tag that has been read completely.
+     * <p/>
+     * A field is kept if it is stored together with a required field, such as the track total held in the same frame
+     * as the track number. Fields that no {@link FieldKey} maps to, such as user defined fields, are also kept.
+     *
+     * @param tag the tag, may be null
+     * @return the same tag
+     */
+    public Tag filter(Tag tag)
+    {
+        if (tag == null)
+        {
+            return null;
+        }
+
+        if (!artworkRequired)
+        {
+            try
+            {
+                tag.deleteArtworkField();
+            }
+            catch (KeyNotFoundException knfe)
+            {
+                //No artwork in this format
+            }
+            catch (UnsupportedOperationException uoe)
+            {
+                //No artwork in this format
+            }
+        }
+
+        if (fieldKeys != null)
+        {
+            Set<String> requiredIds = new HashSet<String>();
+            for (FieldKey key : fieldKeys)
+            {
+                for (TagField field : getFields(tag, key))
+                {
+                    requiredIds.add(field.getId());
+                }
+            }
+
+            for (FieldKey key : FieldKey.values())
+            {
+                if (key == FieldKey.COVER_ART || fieldKeys.contains(key))
+                {
+                    continue;
+                }
+
+                List<TagField> fields = getFields(tag, key);
+                if (fields.isEmpty())
+                {
+                    continue;
+                }
+                boolean shared = false;
+                for (TagField field : fields)
+                {
+                    shared |= requiredIds.contains(field.getId());
+                }
+                if (!shared)
+                {
+                    tag.deleteField(key);
+                }
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * @param tag
+     * @param key
+     * @return the fields of the key, or an empty list if the format does not support the key
+     */
+    private static List<TagField> getFields(Tag tag, FieldKey key)
+    {
+        try
+        {
+            List<TagField> fields = tag.getFields(key);
+            if (fields != null)
+            {
+                return fields;
+            }
+        }
+        catch (RuntimeException re)
+        {
+            //Formats signal an unsupported key with KeyNotFoundException or UnsupportedOperationException
+        }
+        return Collections.emptyList();
+    }
+
+    public String toString()
+    {
+        return "Header:" + headerRequired + " Tag:" + tagRequired + " Artwork:" + artworkRequired + " Fields:" + (fieldKeys == null ? "all" : fieldKeys.toString());
+    }
+}
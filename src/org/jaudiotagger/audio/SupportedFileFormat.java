@@ -15,7 +15,10 @@ public enum SupportedFileFormat
     WAV("wav"),
     RA("ra"),
     RM("rm"),
-    M4B("m4b");
+    M4B("m4b"),
+    AIF("aif"),
+    AIFF("aiff"),
+    AIFC("aifc");
 
     private String filesuffix;
 
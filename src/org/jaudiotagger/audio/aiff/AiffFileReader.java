@@ -0,0 +1,29 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.aiff.util.AiffInfoReader;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileReader;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.tag.Tag;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reads the audio header and tag of AIFF and AIFF-C files
+ */
+public class AiffFileReader extends AudioFileReader
+{
+    private AiffInfoReader ir = new AiffInfoReader();
+    private AiffTagReader tr = new AiffTagReader();
+
+    protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return ir.read(raf);
+    }
+
+    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return tr.read(raf);
+    }
+}
@@ -0,0 +1,26 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.tag.Tag;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Writes the tag of AIFF and AIFF-C files
+ */
+public class AiffFileWriter extends AudioFileWriter
+{
+    private AiffTagWriter tw = new AiffTagWriter();
+
+    protected void writeTag(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    {
+        tw.write(tag, raf, rafTemp);
+    }
+
+    protected void deleteTag(RandomAccessFile raf, RandomAccessFile tempRaf) throws CannotWriteException, IOException
+    {
+        tw.delete(raf, tempRaf);
+    }
+}
@@ -0,0 +1,43 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.generic.GenericTag;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+
+/**
+ * Tag for an AIFF or AIFF-C file
+ * <p/>
+ * The common fields are held as generic fields. Title, artist and comment are stored in the NAME, AUTH and ANNO text
+ * chunks and all fields are stored in the ID3 chunk. If the file already has an ID3 chunk its ID3v2 tag is available
+ * with {@link #getID3Tag()}, it is written back with the common fields updated to match this tag.
+ */
+public class AiffTag extends GenericTag
+{
+    private AbstractID3v2Tag id3Tag;
+
+    /**
+     * @return the ID3v2 tag held in the ID3 chunk, or null if there is none
+     */
+    public AbstractID3v2Tag getID3Tag()
+    {
+        return id3Tag;
+    }
+
+    /**
+     * @param id3Tag ID3v2 tag to write to the ID3 chunk
+     */
+    public void setID3Tag(AbstractID3v2Tag id3Tag)
+    {
+        this.id3Tag = id3Tag;
+    }
+
+    public boolean isEmpty()
+    {
+        return super.isEmpty() && (id3Tag == null || id3Tag.isEmpty());
+    }
+
+    public String toString()
+    {
+        String output = "AIFF " + super.toString();
+        return output;
+    }
+}
@@ -0,0 +1,189 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.aiff.util.AiffChunkHeader;
+import org.jaudiotagger.audio.aiff.util.AiffChunkReader;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagTextField;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v22Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Read the tag of an AIFF file from its NAME, AUTH, ANNO and ID3 chunks
+ * <p/>
+ * Only the metadata chunks are read, all other chunks including the sound data chunk are skipped over. Fields found in
+ * the ID3v2 tag take precedence over the text chunks, because text chunks are ISO-8859-1 so may only hold an
+ * approximation of the value. Each ANNO chunk is read as a separate comment value, the ID3v2 comment replaces the
+ * first.
+ */
+public class AiffTagReader
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.aiff");
+
+    //Text chunks are ascii
+    public static final String TEXT_ENCODING = "ISO-8859-1";
+
+    //Position of the major version within an ID3v2 header
+    private static final int ID3_MAJOR_VERSION_POS = 3;
+
+    private AiffChunkReader chunkReader = new AiffChunkReader();
+
+    public AiffTag read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        AiffTag tag = new AiffTag();
+        for (AiffChunkHeader chunk : chunkReader.read(raf))
+        {
+            if (AiffChunkReader.isTextChunk(chunk))
+            {
+                ByteBuffer data = AiffChunkReader.readChunkData(raf, chunk);
+                if (data != null)
+                {
+                    readTextChunk(data, AiffTextIdentifier.getByCode(chunk.getId()), tag);
+                }
+            }
+            else if (AiffChunkReader.isId3Chunk(chunk) && tag.getID3Tag() == null)
+            {
+                ByteBuffer data = AiffChunkReader.readChunkData(raf, chunk);
+                if (data != null)
+                {
+                    tag.setID3Tag(readId3Chunk(data, chunk));
+                }
+            }
+        }
+
+        if (tag.getID3Tag() != null)
+        {
+            for (FieldKey next : AiffTagWriter.ID3_FIELDS)
+            {
+                String value = tag.getID3Tag().getFirst(next);
+                if (value.length() == 0 || value.equals(tag.getFirst(next)))
+                {
+                    continue;
+                }
+                if (next == FieldKey.COMMENT)
+                {
+                    replaceFirstComment(tag, value);
+                }
+                else
+                {
+                    setField(tag, next, value);
+                }
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Text chunks are not null terminated but some writers add one
+     */
+    private void readTextChunk(ByteBuffer data, AiffTextIdentifier identifier, AiffTag tag)
+    {
+        int length = data.remaining();
+        while (length > 0 && data.get(length - 1) == 0)
+        {
+            length--;
+        }
+        String value = Utils.getString(data, 0, length, TEXT_ENCODING);
+        if (identifier == AiffTextIdentifier.COMMENT)
+        {
+            try
+            {
+                tag.addField(identifier.getFieldKey(), value);
+            }
+            catch (FieldDataInvalidException fdie)
+            {
+                logger.warning("Unable to add field:" + identifier.getFieldKey() + ":" + fdie.getMessage());
+            }
+        }
+        else if (tag.getFirst(identifier.getFieldKey()).length() == 0)
+        {
+            setField(tag, identifier.getFieldKey(), value);
+        }
+    }
+
+    /**
+     * The ID3v2 tag only holds the first comment, the comments of the other ANNO chunks are kept
+     */
+    private void replaceFirstComment(AiffTag tag, String value)
+    {
+        List<String> comments = new ArrayList<String>();
+        comments.add(value);
+        List<TagField> fields = tag.getFields(FieldKey.COMMENT);
+        for (int i = 1; i < fields.size(); i++)
+        {
+            comments.add(((TagTextField) fields.get(i)).getContent());
+        }
+        tag.deleteField(FieldKey.COMMENT);
+        for (String next : comments)
+        {
+            try
+            {
+                tag.addField(FieldKey.COMMENT, next);
+            }
+            catch (FieldDataInvalidException fdie)
+            {
+                logger.warning("Unable to add field:" + FieldKey.COMMENT + ":" + fdie.getMessage());
+            }
+        }
+    }
+
+    private void setField(AiffTag tag, FieldKey fieldKey, String value)
+    {
+        try
+        {
+            tag.setField(fieldKey, value);
+        }
+        catch (FieldDataInvalidException fdie)
+        {
+            logger.warning("Unable to set field:" + fieldKey + ":" + fdie.getMessage());
+        }
+    }
+
+    /**
+     * @return the ID3v2 tag held in an ID3 chunk, or null if it does not hold a valid tag
+     */
+    private AbstractID3v2Tag readId3Chunk(ByteBuffer data, AiffChunkHeader chunk)
+    {
+        if (data.remaining() <= ID3_MAJOR_VERSION_POS)
+        {
+            return null;
+        }
+        try
+        {
+            switch (data.get(ID3_MAJOR_VERSION_POS))
+            {
+                case ID3v22Tag.MAJOR_VERSION:
+                    return new ID3v22Tag(data, "");
+
+                case ID3v23Tag.MAJOR_VERSION:
+                    return new ID3v23Tag(data, "");
+
+                case ID3v24Tag.MAJOR_VERSION:
+                    return new ID3v24Tag(data, "");
+
+                default:
+                    logger.warning("Unknown ID3v2 version in chunk:" + chunk);
+                    return null;
+            }
+        }
+        catch (TagException te)
+        {
+            logger.warning("Unable to read ID3v2 tag in chunk:" + chunk + ":" + te.getMessage());
+            return null;
+        }
+    }
+}
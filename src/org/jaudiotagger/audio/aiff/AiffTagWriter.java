@@ -0,0 +1,278 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.aiff.util.AiffChunkHeader;
+import org.jaudiotagger.audio.aiff.util.AiffChunkReader;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.IffChunkUtils;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagTextField;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Write the tag of an AIFF file as NAME, AUTH and ANNO text chunks and an ID3 chunk
+ * <p/>
+ * The ID3 chunk is written if the file already had one, or if the tag has a field that cannot be held in a text
+ * chunk. The metadata chunks are always written at the end of the file. If the existing metadata chunks already follow
+ * all other chunks (including the sound data chunk) the file is modified in place, only the metadata chunks are
+ * rewritten and the file is truncated or extended to fit. Otherwise the other chunks are copied to the temporary file
+ * followed by the new metadata chunks, so later writes to the same file can be done in place.
+ */
+public class AiffTagWriter
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.aiff");
+
+    /**
+     * Fields that are copied between the tag and its ID3v2 tag
+     */
+    static final EnumSet<FieldKey> ID3_FIELDS = EnumSet.of(FieldKey.ARTIST, FieldKey.ALBUM, FieldKey.TITLE, FieldKey.TRACK, FieldKey.YEAR, FieldKey.GENRE, FieldKey.COMMENT);
+
+    //Largest file size that can be held in the 32 bit FORM size
+    private static final long MAXIMUM_FORM_FILE_SIZE = 0xffffffffL + AiffChunkHeader.CHUNK_HEADER_SIZE;
+
+    private AiffChunkReader chunkReader = new AiffChunkReader();
+
+    /**
+     * Delete the metadata chunks from the file
+     *
+     * @param raf
+     * @param tempRaf
+     * @throws IOException
+     * @throws CannotWriteException
+     */
+    public void delete(RandomAccessFile raf, RandomAccessFile tempRaf) throws IOException, CannotWriteException
+    {
+        write(new AiffTag(), raf, tempRaf);
+    }
+
+    /**
+     * Write tag to file
+     *
+     * @param tag
+     * @param raf
+     * @param rafTemp only written to if the metadata chunks have to be moved to the end of the file
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public void write(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    {
+        List<AiffChunkHeader> chunks;
+        try
+        {
+            chunks = chunkReader.read(raf);
+        }
+        catch (CannotReadException cre)
+        {
+            throw new CannotWriteException(cre.getMessage());
+        }
+
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        long fileLength = fc.size();
+
+        //The metadata chunks are written after the last of the other chunks
+        long tailStart = AiffChunkReader.FORM_HEADER_SIZE;
+        for (AiffChunkHeader chunk : chunks)
+        {
+            if (!AiffChunkReader.isMetadataChunk(chunk))
+            {
+                if (chunk.getDataStart() + chunk.getSize() > fileLength)
+                {
+                    throw new CannotWriteException("Unable to write tag because the file is truncated, chunk:" + chunk + " extends beyond the end of the file");
+                }
+                tailStart = chunk.getEnd();
+            }
+        }
+        boolean inPlace = true;
+        for (AiffChunkHeader chunk : chunks)
+        {
+            if (AiffChunkReader.isMetadataChunk(chunk) && chunk.getStart() < tailStart)
+            {
+                inPlace = false;
+            }
+        }
+
+        ByteBuffer metadata = ByteBuffer.wrap(createMetadataChunks((AiffTag) tag));
+        if (inPlace)
+        {
+            logger.config("Writing metadata chunks in place at:" + tailStart);
+            checkFormSize(tailStart + metadata.limit());
+            IffChunkUtils.writePadByteIfMissing(fc, tailStart);
+            IffChunkUtils.writeFully(fc, metadata, tailStart);
+            fc.truncate(tailStart + metadata.limit());
+            writeFormSize(fc);
+        }
+        else
+        {
+            logger.config("Metadata chunks precede the sound data, moving them to the end of the file");
+            FileChannel fcTemp = AudioFileOperation.current().wrap(rafTemp.getChannel());
+            IffChunkUtils.transfer(fc, 0, AiffChunkReader.FORM_HEADER_SIZE, fcTemp);
+            for (AiffChunkHeader chunk : chunks)
+            {
+                if (!AiffChunkReader.isMetadataChunk(chunk))
+                {
+                    IffChunkUtils.copyChunk(fc, chunk.getStart(), chunk.getDataStart() + chunk.getSize(), fcTemp);
+                }
+            }
+            checkFormSize(fcTemp.size() + metadata.limit());
+            IffChunkUtils.writeFully(fcTemp, metadata, fcTemp.size());
+            writeFormSize(fcTemp);
+        }
+    }
+
+    /**
+     * Create the text chunks and ID3 chunk for the tag, a text chunk is omitted if its field is empty
+     *
+     * @param tag
+     * @return the chunks
+     * @throws IOException
+     * @throws CannotWriteException if the ID3v2 tag cannot be updated
+     */
+    private byte[] createMetadataChunks(AiffTag tag) throws IOException, CannotWriteException
+    {
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (AiffTextIdentifier next : AiffTextIdentifier.values())
+        {
+            if (next == AiffTextIdentifier.COMMENT)
+            {
+                for (TagField field : tag.getFields(next.getFieldKey()))
+                {
+                    writeTextChunk(chunks, next.getCode(), ((TagTextField) field).getContent());
+                }
+            }
+            else
+            {
+                writeTextChunk(chunks, next.getCode(), tag.getFirst(next.getFieldKey()));
+            }
+        }
+
+        AbstractID3v2Tag id3Tag = tag.getID3Tag();
+        if (id3Tag == null && needsId3Tag(tag))
+        {
+            id3Tag = new ID3v23Tag();
+        }
+        if (id3Tag != null)
+        {
+            updateId3Tag(tag, id3Tag);
+            ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+            id3Tag.write(id3);
+            writeChunk(chunks, AiffChunkReader.ID3_CHUNK, id3.toByteArray());
+        }
+        return chunks.toByteArray();
+    }
+
+    /**
+     * @return true if the tag has a field that cannot be held in a text chunk, or a value with characters that text
+     * chunks cannot hold
+     */
+    private boolean needsId3Tag(AiffTag tag)
+    {
+        for (FieldKey next : ID3_FIELDS)
+        {
+            if (next != FieldKey.TITLE && next != FieldKey.ARTIST && next != FieldKey.COMMENT && tag.getFirst(next).length() > 0)
+            {
+                return true;
+            }
+        }
+        for (AiffTextIdentifier next : AiffTextIdentifier.values())
+        {
+            for (TagField field : tag.getFields(next.getFieldKey()))
+            {
+                if (!IffChunkUtils.isTextChunkEncodable(((TagTextField) field).getContent()))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set the common fields of the ID3v2 tag to match the tag, fields whose value has not changed are left alone so
+     * any extra information they hold (such as a track total) is kept
+     */
+    private void updateId3Tag(AiffTag tag, AbstractID3v2Tag id3Tag) throws CannotWriteException
+    {
+        for (FieldKey next : ID3_FIELDS)
+        {
+            String value = tag.getFirst(next);
+            if (value.equals(id3Tag.getFirst(next)))
+            {
+                continue;
+            }
+            if (value.length() == 0)
+            {
+                id3Tag.deleteField(next);
+            }
+            else
+            {
+                try
+                {
+                    id3Tag.setField(next, value);
+                }
+                catch (FieldDataInvalidException fdie)
+                {
+                    throw new CannotWriteException(fdie.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a text chunk, nothing is written for an empty value
+     */
+    private void writeTextChunk(ByteArrayOutputStream out, String id, String value) throws IOException
+    {
+        if (value == null || value.length() == 0)
+        {
+            return;
+        }
+        writeChunk(out, id, Utils.getDefaultBytes(value, AiffTagReader.TEXT_ENCODING));
+    }
+
+    /**
+     * Write a chunk followed by a pad byte if its size is odd
+     */
+    private void writeChunk(ByteArrayOutputStream out, String id, byte[] data) throws IOException
+    {
+        out.write(Utils.getDefaultBytes(id, AiffTagReader.TEXT_ENCODING));
+        out.write(Utils.getSizeBEInt32(data.length));
+        out.write(data);
+        if (data.length % 2 != 0)
+        {
+            out.write(0);
+        }
+    }
+
+    private void checkFormSize(long fileSize) throws CannotWriteException
+    {
+        if (fileSize > MAXIMUM_FORM_FILE_SIZE)
+        {
+            throw new CannotWriteException("Unable to write tag because the file would be larger than 4GB");
+        }
+    }
+
+    /**
+     * Set the FORM size to match the size of the file
+     */
+    private void writeFormSize(FileChannel fc) throws IOException
+    {
+        ByteBuffer formSize = ByteBuffer.wrap(Utils.getSizeBEInt32((int) (fc.size() - AiffChunkHeader.CHUNK_HEADER_SIZE)));
+        IffChunkUtils.writeFully(fc, formSize, AiffChunkReader.FORM_SIZE_POS);
+    }
+}
@@ -0,0 +1,60 @@
+package org.jaudiotagger.audio.aiff;
+
+import org.jaudiotagger.audio.aiff.util.AiffChunkReader;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AIFF text chunks that map to the fields supported by {@link AiffTag}
+ * <p/>
+ * Other fields can only be held in the ID3 chunk.
+ */
+public enum AiffTextIdentifier
+{
+    TITLE(AiffChunkReader.NAME_CHUNK, FieldKey.TITLE),
+    ARTIST(AiffChunkReader.AUTHOR_CHUNK, FieldKey.ARTIST),
+    COMMENT(AiffChunkReader.ANNOTATION_CHUNK, FieldKey.COMMENT),;
+
+    private static final Map<String, AiffTextIdentifier> CODE_TYPE_MAP = new HashMap<String, AiffTextIdentifier>();
+
+    static
+    {
+        for (AiffTextIdentifier next : values())
+        {
+            CODE_TYPE_MAP.put(next.getCode(), next);
+        }
+    }
+
+    private String code;
+    private FieldKey fieldKey;
+
+    AiffTextIdentifier(String code, FieldKey fieldKey)
+    {
+        this.code = code;
+        this.fieldKey = fieldKey;
+    }
+
+    /**
+     * @return the four character chunk identifier
+     */
+    public String getCode()
+    {
+        return code;
+    }
+
+    public FieldKey getFieldKey()
+    {
+        return fieldKey;
+    }
+
+    /**
+     * @param code
+     * @return the identifier for this chunk code, or null if it is not a text chunk
+     */
+    public static AiffTextIdentifier getByCode(String code)
+    {
+        return CODE_TYPE_MAP.get(code);
+    }
+}
@@ -0,0 +1,66 @@
+package org.jaudiotagger.audio.aiff.util;
+
+/**
+ * The header of a chunk within an AIFF or AIFF-C file, its four character identifier and the size of its data
+ * <p/>
+ * Chunks are word aligned, a chunk with an odd size is followed by a pad byte that is not included in its size.
+ */
+public class AiffChunkHeader
+{
+    /**
+     * Identifier followed by the 32 bit big endian size
+     */
+    public static final int CHUNK_HEADER_SIZE = 8;
+
+    private final String id;
+    private final long start;
+    private final long size;
+
+    /**
+     * @param id    the four character chunk identifier
+     * @param start file offset of the chunk header
+     * @param size  size of the chunk data, excluding the header and pad byte
+     */
+    public AiffChunkHeader(String id, long start, long size)
+    {
+        this.id = id;
+        this.start = start;
+        this.size = size;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public long getStart()
+    {
+        return start;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * @return file offset of the chunk data
+     */
+    public long getDataStart()
+    {
+        return start + CHUNK_HEADER_SIZE;
+    }
+
+    /**
+     * @return file offset of the next chunk, allowing for the pad byte
+     */
+    public long getEnd()
+    {
+        return getDataStart() + size + (size & 1);
+    }
+
+    public String toString()
+    {
+        return id + ":start:" + start + ":size:" + size;
+    }
+}
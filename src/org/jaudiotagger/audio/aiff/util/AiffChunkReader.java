@@ -0,0 +1,188 @@
+package org.jaudiotagger.audio.aiff.util;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.IffChunkUtils;
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Walks the chunks of an AIFF or AIFF-C file
+ * <p/>
+ * Only the chunk headers are read, each chunk is skipped over using its size so the sound data chunk is never read.
+ * The walk stops at the end of the file or at the first position that does not hold a valid chunk header, such as
+ * trailing junk.
+ */
+public class AiffChunkReader
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.aiff");
+
+    public static final int FORM_HEADER_SIZE = 12;
+
+    //Position of the 32 bit size of the FORM chunk
+    public static final int FORM_SIZE_POS = 4;
+
+    //Position of the form type
+    private static final int FORM_TYPE_POS = 8;
+
+    public static final String FORM_CHUNK = "FORM";
+    public static final String AIFF_FORM_TYPE = "AIFF";
+    public static final String AIFC_FORM_TYPE = "AIFC";
+
+    public static final String COMMON_CHUNK = "COMM";
+    public static final String SOUND_DATA_CHUNK = "SSND";
+    public static final String NAME_CHUNK = "NAME";
+    public static final String AUTHOR_CHUNK = "AUTH";
+    public static final String ANNOTATION_CHUNK = "ANNO";
+    public static final String ID3_CHUNK = "ID3 ";
+    public static final String ID3_LOWERCASE_CHUNK = "id3 ";
+
+    //Identifiers and form types are ascii
+    private static final String ID_ENCODING = "ISO-8859-1";
+    private static final int ID_LENGTH = 4;
+
+    /**
+     * @param raf
+     * @return the chunks of the file in file order
+     * @throws CannotReadException if the file does not start with an AIFF or AIFF-C FORM header
+     * @throws IOException
+     */
+    public List<AiffChunkHeader> read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        long fileLength = fc.size();
+
+        ByteBuffer header = ByteBuffer.allocate(FORM_HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        if (fileLength < FORM_HEADER_SIZE || IffChunkUtils.readFully(fc, header, 0) < FORM_HEADER_SIZE)
+        {
+            throw new CannotReadException("This is not an AIFF File (<12 bytes)");
+        }
+        String formType = Utils.getString(header.array(), FORM_TYPE_POS, ID_LENGTH, ID_ENCODING);
+        if (!Utils.getString(header.array(), 0, ID_LENGTH, ID_ENCODING).equals(FORM_CHUNK) || !(formType.equals(AIFF_FORM_TYPE) || formType.equals(AIFC_FORM_TYPE)))
+        {
+            throw new CannotReadException("AIFF FORM Header not valid");
+        }
+
+        List<AiffChunkHeader> chunks = new ArrayList<AiffChunkHeader>();
+        long pos = FORM_HEADER_SIZE;
+        header = ByteBuffer.allocate(AiffChunkHeader.CHUNK_HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        while (pos + AiffChunkHeader.CHUNK_HEADER_SIZE <= fileLength)
+        {
+            header.clear();
+            IffChunkUtils.readFully(fc, header, pos);
+            if (!isValidId(header.array()))
+            {
+                logger.warning("No valid chunk at:" + pos + ", ignoring the remaining " + (fileLength - pos) + " bytes");
+                break;
+            }
+            String id = Utils.getString(header.array(), 0, ID_LENGTH, ID_ENCODING);
+            AiffChunkHeader chunk = new AiffChunkHeader(id, pos, header.getInt(ID_LENGTH) & 0xffffffffL);
+            logger.finest("Found chunk:" + chunk);
+            chunks.add(chunk);
+            pos = chunk.getEnd();
+        }
+        return chunks;
+    }
+
+    /**
+     * @param raf
+     * @return true if the file is AIFF-C, whose common chunk holds the compression type
+     * @throws IOException
+     */
+    public static boolean isAifc(RandomAccessFile raf) throws IOException
+    {
+        ByteBuffer formType = ByteBuffer.allocate(ID_LENGTH);
+        IffChunkUtils.readFully(raf.getChannel(), formType, FORM_TYPE_POS);
+        return Utils.getString(formType.array(), 0, ID_LENGTH, ID_ENCODING).equals(AIFC_FORM_TYPE);
+    }
+
+    /**
+     * @param chunks
+     * @param id
+     * @return the first chunk with the given identifier, or null if there is none
+     */
+    public static AiffChunkHeader findChunk(List<AiffChunkHeader> chunks, String id)
+    {
+        for (AiffChunkHeader chunk : chunks)
+        {
+            if (chunk.getId().equals(id))
+            {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk holds metadata that is written by {@link org.jaudiotagger.audio.aiff.AiffTagWriter}
+     */
+    public static boolean isMetadataChunk(AiffChunkHeader chunk)
+    {
+        return isTextChunk(chunk) || isId3Chunk(chunk);
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk is a NAME, AUTH or ANNO text chunk
+     */
+    public static boolean isTextChunk(AiffChunkHeader chunk)
+    {
+        return chunk.getId().equals(NAME_CHUNK) || chunk.getId().equals(AUTHOR_CHUNK) || chunk.getId().equals(ANNOTATION_CHUNK);
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk holds an ID3v2 tag
+     */
+    public static boolean isId3Chunk(AiffChunkHeader chunk)
+    {
+        return chunk.getId().equals(ID3_CHUNK) || chunk.getId().equals(ID3_LOWERCASE_CHUNK);
+    }
+
+    /**
+     * Read the whole data of a chunk
+     *
+     * @param raf
+     * @param chunk
+     * @return the chunk data, or null if it extends beyond the end of the file
+     * @throws IOException
+     */
+    public static ByteBuffer readChunkData(RandomAccessFile raf, AiffChunkHeader chunk) throws IOException
+    {
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        if (chunk.getDataStart() + chunk.getSize() > fc.size() || chunk.getSize() > Integer.MAX_VALUE)
+        {
+            logger.warning("Chunk extends beyond the end of the file:" + chunk);
+            return null;
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) chunk.getSize()).order(ByteOrder.BIG_ENDIAN);
+        IffChunkUtils.readFully(fc, data, chunk.getDataStart());
+        data.flip();
+        return data;
+    }
+
+    /**
+     * Identifiers are four printable ascii characters
+     */
+    private static boolean isValidId(byte[] b)
+    {
+        for (int i = 0; i < ID_LENGTH; i++)
+        {
+            if (b[i] < 0x20 || b[i] > 0x7e)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package org.jaudiotagger.audio.aiff.util;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Read the audio format and track length from the common (COMM) chunk
+ * <p/>
+ * The common chunk holds the number of sample frames so the sound data chunk is never read, its size is only used to
+ * calculate the bitrate of compressed AIFF-C files.
+ */
+public class AiffInfoReader
+{
+    //channels, sample frames, sample size and the 80 bit sample rate
+    private static final int AIFF_COMMON_SIZE = 18;
+
+    //followed by the compression type in AIFF-C
+    private static final int AIFC_COMMON_SIZE = 22;
+
+    private static final int SAMPLE_RATE_POS = 8;
+    private static final int COMPRESSION_TYPE_POS = 18;
+
+    //AIFF-C compression types of uncompressed audio
+    private static final String[] UNCOMPRESSED_TYPES = {"NONE", "twos", "sowt", "raw ", "in24", "in32", "fl32", "fl64"};
+
+    private static final String ENCODING = "ISO-8859-1";
+
+    private AiffChunkReader chunkReader = new AiffChunkReader();
+
+    public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        GenericAudioHeader info = new GenericAudioHeader();
+
+        List<AiffChunkHeader> chunks = chunkReader.read(raf);
+        boolean aifc = AiffChunkReader.isAifc(raf);
+        AiffChunkHeader commonChunk = AiffChunkReader.findChunk(chunks, AiffChunkReader.COMMON_CHUNK);
+        ByteBuffer common = null;
+        if (commonChunk != null && commonChunk.getSize() >= (aifc ? AIFC_COMMON_SIZE : AIFF_COMMON_SIZE))
+        {
+            common = AiffChunkReader.readChunkData(raf, commonChunk);
+        }
+        if (common == null)
+        {
+            throw new CannotReadException("AIFF Common chunk not valid");
+        }
+
+        int channels = common.getShort();
+        long sampleFrames = common.getInt() & 0xffffffffL;
+        int sampleSize = common.getShort();
+        double sampleRate = readExtended(common, SAMPLE_RATE_POS);
+        if (channels <= 0 || sampleRate <= 0)
+        {
+            throw new CannotReadException("AIFF Common chunk not valid");
+        }
+
+        String compressionType = "NONE";
+        if (aifc)
+        {
+            compressionType = Utils.getString(common.array(), COMPRESSION_TYPE_POS, 4, ENCODING);
+        }
+        boolean uncompressed = isUncompressed(compressionType);
+
+        float length = (float) (sampleFrames / sampleRate);
+        info.setPreciseLength(length);
+        info.setChannelNumber(channels);
+        info.setSamplingRate((int) Math.round(sampleRate));
+        info.setEncodingType((aifc ? "AIFF-C " + compressionType.trim() + " " : "AIFF ") + sampleSize + " bits");
+        info.setExtraEncodingInfos("");
+        if (uncompressed)
+        {
+            info.setBitrate((int) Math.round(sampleRate * channels * sampleSize / 1000));
+        }
+        else
+        {
+            AiffChunkHeader soundChunk = AiffChunkReader.findChunk(chunks, AiffChunkReader.SOUND_DATA_CHUNK);
+            if (soundChunk != null && length > 0)
+            {
+                info.setBitrate((int) (Math.min(soundChunk.getSize(), raf.length() - soundChunk.getDataStart()) * 8 / length / 1000));
+            }
+        }
+        info.setVariableBitRate(false);
+        info.setLossless(uncompressed);
+        return info;
+    }
+
+    private static boolean isUncompressed(String compressionType)
+    {
+        for (String next : UNCOMPRESSED_TYPES)
+        {
+            if (next.equals(compressionType))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read an 80 bit IEEE 754 extended precision number, used for the sample rate
+     *
+     * @param data
+     * @param pos
+     * @return the value
+     */
+    public static double readExtended(ByteBuffer data, int pos)
+    {
+        int signAndExponent = data.getShort(pos) & 0xffff;
+        long mantissa = data.getLong(pos + 2);
+        if (signAndExponent == 0 && mantissa == 0)
+        {
+            return 0;
+        }
+        //mantissa is unsigned with an explicit integer bit
+        double value = (mantissa >>> 1) * 2.0 + (mantissa & 1);
+        value = Math.scalb(value, (signAndExponent & 0x7fff) - 16383 - 63);
+        return (signAndExponent & 0x8000) != 0 ? -value : value;
+    }
+}
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.asf;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.AudioStreamChunk;
+import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.data.MetadataContainer;
 import org.jaudiotagger.audio.asf.data.MetadataDescriptor;
 import org.jaudiotagger.audio.asf.io.*;
@@ -30,10 +31,13 @@ import org.jaudiotagger.audio.asf.util.Utils;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.TagRegion;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -53,6 +57,25 @@ public class AsfFileReader extends AudioFileReader {
     private final static Logger LOGGER = Logger
             .getLogger("org.jaudiotagger.audio.asf");
 
+    /**
+     * Length of a chunk header, its GUID followed by its size.<br>
+     */
+    private final static int CHUNK_HEADER_LENGTH = GUID.GUID_LENGTH + 8;
+
+    /**
+     * Length of the header object up to its first child, the chunk header
+     * followed by the number of objects and two reserved bytes.<br>
+     */
+    private final static int HEADER_FIXED_LENGTH = CHUNK_HEADER_LENGTH + 6;
+
+    /**
+     * Length of the header extension object up to its first child, the chunk
+     * header followed by a reserved GUID, two reserved bytes and the data
+     * size.<br>
+     */
+    private final static int HEADER_EXTENSION_FIXED_LENGTH = CHUNK_HEADER_LENGTH
+            + GUID.GUID_LENGTH + 6;
+
     /**
      * This reader will be configured to read tag and audio header information.<br>
      */
@@ -213,6 +236,76 @@ public class AsfFileReader extends AudioFileReader {
         return tag;
     }
 
+    /**
+     * Sums the size of the padding objects between the given positions, only
+     * the chunk headers are read.<br>
+     * 
+     * @param raf
+     *            file to read.
+     * @param start
+     *            position of the first chunk.
+     * @param end
+     *            position of the end of the last chunk.
+     * @param recurse
+     *            if <code>true</code> the padding within a header extension
+     *            object is included.
+     * @return size of the padding objects.
+     * @throws IOException
+     *             on I/O Errors or if the chunks are not valid.
+     */
+    private long getPaddingSize(final RandomAccessFile raf, final long start,
+            final long end, final boolean recurse) throws IOException {
+        final byte[] chunkHeader = new byte[CHUNK_HEADER_LENGTH];
+        long padding = 0;
+        long pos = start;
+        while (pos + CHUNK_HEADER_LENGTH <= end) {
+            raf.seek(pos);
+            raf.readFully(chunkHeader);
+            final InputStream stream = new ByteArrayInputStream(chunkHeader);
+            final GUID guid = Utils.readGUID(stream);
+            final long size = Utils.readUINT64(stream);
+            if (size < CHUNK_HEADER_LENGTH || pos + size > end) {
+                throw new IOException("Invalid chunk size " + size
+                        + " at position " + pos);
+            }
+            if (GUID.GUID_PADDING.equals(guid)) {
+                padding += size;
+            } else if (recurse && GUID.GUID_HEADER_EXTENSION.equals(guid)) {
+                padding += getPaddingSize(raf, pos
+                        + HEADER_EXTENSION_FIXED_LENGTH, pos + size, false);
+            }
+            pos += size;
+        }
+        return padding;
+    }
+
+    /**
+     * The tag region of an ASF file is the whole header object, which is
+     * immediately followed by the data object.<br>
+     * Only the header object and the headers of its children are read.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    protected TagRegion getTagRegion(final RandomAccessFile raf)
+            throws CannotReadException, IOException {
+        final byte[] chunkHeader = new byte[CHUNK_HEADER_LENGTH];
+        raf.readFully(chunkHeader);
+        final InputStream stream = new ByteArrayInputStream(chunkHeader);
+        if (!GUID.GUID_HEADER.equals(Utils.readGUID(stream))) {
+            throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING
+                    .getMsg(raf));
+        }
+        final long headerSize = Utils.readUINT64(stream);
+        if (headerSize < HEADER_FIXED_LENGTH || headerSize > raf.length()) {
+            throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING
+                    .getMsg(raf));
+        }
+        final long padding = getPaddingSize(raf, HEADER_FIXED_LENGTH,
+                headerSize, true);
+        return new TagRegion("Asf", 0, headerSize, padding, headerSize);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -225,12 +318,14 @@ public class AsfFileReader extends AudioFileReader {
                     ErrorMessage.GENERAL_READ_FAILED_DO_NOT_HAVE_PERMISSION_TO_READ_FILE
                             .getMsg(f.getAbsolutePath()));
         }
-        InputStream stream = null;
+        TagOptions previousOptions = TagOptions.current().use();
+        final AudioFileOperation operation = AudioFileOperation.start(
+                AudioFileOperation.Type.READ, f);
+        RandomAccessFile raf = null;
         try {
-            stream = new FullRequestInputStream(new BufferedInputStream(
-                    new FileInputStream(f)));
-            final AsfHeader header = HEADER_READER.read(Utils.readGUID(stream),
-                    stream, 0);
+            raf = operation.open(f, "r"); //$NON-NLS-1$
+            long start = operation.startTimer();
+            final AsfHeader header = HEADER_READER.read(raf);
             if (header == null) {
                 throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING
                         .getMsg(f.getAbsolutePath()));
@@ -250,20 +345,29 @@ public class AsfFileReader extends AudioFileReader {
                                         .longValue(), f.length()));
             }
 
-            return new AudioFile(f, getAudioHeader(header), getTag(header));
+            final GenericAudioHeader info = getAudioHeader(header);
+            operation.stopTimer(AudioFileOperation.Phase.HEADER, start);
+            start = operation.startTimer();
+            final AsfTag tag = getTag(header);
+            operation.stopTimer(AudioFileOperation.Phase.TAG, start);
+            return new AudioFile(f, info, tag);
 
         } catch (final CannotReadException e) {
+            operation.setFailure(e);
             throw e;
         } catch (final Exception e) {
+            operation.setFailure(e);
             throw new CannotReadException("\"" + f + "\" :" + e, e);
         } finally {
             try {
-                if (stream != null) {
-                    stream.close();
+                if (raf != null) {
+                    raf.close();
                 }
             } catch (final Exception ex) {
                 LOGGER.severe("\"" + f + "\" :" + ex);
             }
+            operation.finish();
+            TagOptions.restore(previousOptions);
         }
     }
 
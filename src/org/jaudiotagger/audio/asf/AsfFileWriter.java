@@ -132,10 +132,16 @@ public class AsfFileWriter extends AudioFileWriter {
         if (!extHeaderModifier.isEmpty()) {
             headerModifier.add(new AsfExtHeaderModifier(extHeaderModifier));
         }
-        new AsfStreamer()
-                .createModifiedCopy(new RandomAccessFileInputstream(raf),
-                        new RandomAccessFileOutputStream(rafTemp),
-                        headerModifier);
+        /*
+         * If the padding in the header can absorb the change in size just the
+         * header object is rewritten, otherwise (and nothing will have been
+         * written to raf) a modified copy is created.
+         */
+        final AsfStreamer streamer = new AsfStreamer();
+        if (!streamer.modifyInPlace(raf, headerModifier)) {
+            raf.seek(0);
+            streamer.createModifiedCopy(raf, rafTemp, headerModifier);
+        }
     }
 
 }
\ No newline at end of file
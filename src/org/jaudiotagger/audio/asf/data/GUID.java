@@ -20,14 +20,15 @@ package org.jaudiotagger.audio.asf.data;
 
 import org.jaudiotagger.audio.asf.util.Utils;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
  * This class is used for representation of GUIDs and as a reference list of all
  * Known GUIDs. <br>
+ * The 16 bytes of a GUID are held as two <code>long</code> values in the order
+ * they appear in an ASF file, so instances can be compared and hashed without
+ * touching an array, and the known GUIDs can be looked up directly from the
+ * values read (see {@link #getGUID(long, long)}).<br>
  * 
  * @author Christian Laireiter
  */
@@ -153,6 +154,14 @@ public final class GUID {
                     "[a-f0-9]{8}\\-[a-f0-9]{4}\\-[a-f0-9]{4}\\-[a-f0-9]{4}\\-[a-f0-9]{12}",
                     Pattern.CASE_INSENSITIVE);
 
+    /**
+     * This constant stores the GUID indicating a padding object, which reserves
+     * space in the header.
+     */
+    public final static GUID GUID_PADDING = new GUID(new int[] { 0x74, 0xD4,
+            0x06, 0x18, 0xDF, 0xCA, 0x09, 0x45, 0xA4, 0xBA, 0x9A, 0xAB, 0xCB,
+            0x96, 0xAA, 0xE8 }, "Padding");
+
     /**
      * This constant stores the GUID indicating a stream object.
      */
@@ -170,12 +179,12 @@ public final class GUID {
             "Stream bitrate properties");
 
     /**
-     * This map is used, to get the description of a GUID instance, which has
-     * been created by reading.<br>
-     * The map comparison is done against the {@link GUID#guidData} field. But
-     * only the {@link #KNOWN_GUIDS} have a description set.
+     * This table is used, to get the configured GUID instance (and with it the
+     * description) of a GUID value, which has been read.<br>
+     * It is an open addressing hash table on {@link #high} and {@link #low},
+     * which only contains the {@link #KNOWN_GUIDS}.
      */
-    private final static Map<GUID, GUID> GUID_TO_CONFIGURED;
+    private final static GUID[] GUID_TO_CONFIGURED;
 
     /**
      * This constant represents a GUID implementation which can be used for
@@ -213,13 +222,22 @@ public final class GUID {
                 GUID_HEADER_EXTENSION, GUID_STREAM_BITRATE_PROPERTIES,
                 SCRIPT_COMMAND_OBJECT, GUID_CONTENT_ENCRYPTION,
                 GUID_CONTENT_BRANDING, GUID_UNSPECIFIED, GUID_METADATA_LIBRARY,
-                GUID_METADATA, GUID_LANGUAGE_LIST };
-        GUID_TO_CONFIGURED = new HashMap<GUID, GUID>(KNOWN_GUIDS.length);
+                GUID_METADATA, GUID_LANGUAGE_LIST, GUID_PADDING };
+        // at most a quarter of the table is used, so probe sequences are short
+        int tableSize = 1;
+        while (tableSize < KNOWN_GUIDS.length * 4) {
+            tableSize <<= 1;
+        }
+        GUID_TO_CONFIGURED = new GUID[tableSize];
         for (final GUID curr : KNOWN_GUIDS) {
-            assert !GUID_TO_CONFIGURED.containsKey(curr) : "Double definition: \""
-                    + GUID_TO_CONFIGURED.get(curr).getDescription()
-                    + "\" <-> \"" + curr.getDescription() + "\"";
-            GUID_TO_CONFIGURED.put(curr, curr);
+            int index = curr.hash & (tableSize - 1);
+            while (GUID_TO_CONFIGURED[index] != null) {
+                assert !GUID_TO_CONFIGURED[index].equals(curr) : "Double definition: \""
+                        + GUID_TO_CONFIGURED[index].getDescription()
+                        + "\" <-> \"" + curr.getDescription() + "\"";
+                index = (index + 1) & (tableSize - 1);
+            }
+            GUID_TO_CONFIGURED[index] = curr;
         }
     }
 
@@ -247,7 +265,114 @@ public final class GUID {
      */
     public static GUID getConfigured(final GUID orig) {
         // safe against null
-        return GUID_TO_CONFIGURED.get(orig);
+        if (orig == null) {
+            return null;
+        }
+        return lookup(orig.high, orig.low, orig.hash);
+    }
+
+    /**
+     * This method returns the GUID represented by the given values.<br>
+     * If the value is one of the {@link #KNOWN_GUIDS} that instance is
+     * returned, so no object is created for the GUIDs of the chunks commonly
+     * found in a file.
+     * 
+     * @param high
+     *            the first 8 bytes of the GUID, in the order they appear in a
+     *            file, the first byte being the most significant.
+     * @param low
+     *            the last 8 bytes of the GUID, in the same manner.
+     * @return the GUID.
+     */
+    public static GUID getGUID(final long high, final long low) {
+        final int hash = hash(high, low);
+        final GUID configured = lookup(high, low, hash);
+        if (configured != null) {
+            return configured;
+        }
+        return new GUID(high, low, hash, "");
+    }
+
+    /**
+     * Calculates the hash code for the given GUID value.
+     * 
+     * @param high
+     *            the first 8 bytes of the GUID.
+     * @param low
+     *            the last 8 bytes of the GUID.
+     * @return the hash code.
+     */
+    private static int hash(final long high, final long low) {
+        final long tmp = high * 31 + low;
+        return (int) (tmp ^ (tmp >>> 32));
+    }
+
+    /**
+     * Searches {@link #GUID_TO_CONFIGURED} for the given value.
+     * 
+     * @param high
+     *            the first 8 bytes of the GUID.
+     * @param low
+     *            the last 8 bytes of the GUID.
+     * @param hash
+     *            the hash code of the value.
+     * @return the configured GUID, <code>null</code> if the value is not
+     *         known.
+     */
+    private static GUID lookup(final long high, final long low, final int hash) {
+        final int mask = GUID_TO_CONFIGURED.length - 1;
+        int index = hash & mask;
+        GUID curr;
+        while ((curr = GUID_TO_CONFIGURED[index]) != null) {
+            if (curr.high == high && curr.low == low) {
+                return curr;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Packs 8 values of a GUID into a <code>long</code>, the first being the
+     * most significant.
+     * 
+     * @param value
+     *            GUID values.
+     * @param offset
+     *            index of the first value to pack.
+     * @return the packed values.
+     */
+    private static long pack(final int[] value, final int offset) {
+        if (!assertGUID(value)) {
+            throw new IllegalArgumentException(
+                    "The given guidData doesn't match the GUID specification.");
+        }
+        long result = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            result = (result << 8) | (value[i] & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #pack(int[], int)} for bytes.
+     * 
+     * @param value
+     *            GUID bytes.
+     * @param offset
+     *            index of the first byte to pack.
+     * @return the packed bytes.
+     */
+    private static long pack(final byte[] value, final int offset) {
+        if (value == null || value.length != GUID_LENGTH) {
+            throw new IllegalArgumentException(
+                    "The given guidData doesn't match the GUID specification.");
+        }
+        long result = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            result = (result << 8) | (value[i] & 0xFF);
+        }
+        return result;
     }
 
     /**
@@ -310,33 +435,32 @@ public final class GUID {
     /**
      * Stores an optionally description of the GUID.
      */
-    private String description = "";
+    private final String description;
 
     /**
-     * An instance of this class stores the value of the wrapped GUID in this
-     * field. <br>
+     * Stores the hash code of the object.<br>
      */
-    private int[] guidData = null;
+    private final int hash;
 
     /**
-     * Stores the hash code of the object.<br>
-     * <code>&quot;-1&quot;</code> if not determined yet.
+     * The first 8 bytes of the GUID, the first byte being the most
+     * significant.<br>
      */
-    private int hash;
+    private final long high;
+
+    /**
+     * The last 8 bytes of the GUID, the 9th byte being the most significant.<br>
+     */
+    private final long low;
 
     /**
      * Creates an instance and assigns given <code>value</code>.<br>
      * 
      * @param value
-     *            GUID, which should be assigned. (will be converted to int[])
+     *            GUID, which should be assigned.
      */
     public GUID(final byte[] value) {
-        assert value != null;
-        final int[] tmp = new int[value.length];
-        for (int i = 0; i < value.length; i++) {
-            tmp[i] = (0xFF & value[i]);
-        }
-        setGUID(tmp);
+        this(pack(value, 0), pack(value, 8), "");
     }
 
     /**
@@ -346,7 +470,7 @@ public final class GUID {
      *            GUID, which should be assigned.
      */
     public GUID(final int[] value) {
-        setGUID(value);
+        this(value, "");
     }
 
     /**
@@ -359,16 +483,12 @@ public final class GUID {
      *            Description for the GUID.
      */
     public GUID(final int[] value, final String desc) {
-        this(value);
-        if (desc == null) {
-            throw new IllegalArgumentException("Argument must not be null.");
-        }
-        this.description = desc;
+        this(pack(value, 0), pack(value, 8), desc);
     }
 
     /**
      * Creates an instance like {@link #GUID(int[])} and sets the optional
-     * description. (the int[] is obtained by {@link GUID#parseGUID(String)}) <br>
+     * description. (the value is obtained by {@link GUID#parseGUID(String)}) <br>
      * 
      * @param guidString
      *            GUID, which should be assigned.
@@ -376,10 +496,43 @@ public final class GUID {
      *            Description for the GUID.
      */
     public GUID(final String guidString, final String desc) {
-        this(parseGUID(guidString).getGUID());
+        this(parseGUID(guidString).getGUID(), desc);
+    }
+
+    /**
+     * Creates an instance from the packed values.
+     * 
+     * @param high
+     *            the first 8 bytes of the GUID.
+     * @param low
+     *            the last 8 bytes of the GUID.
+     * @param desc
+     *            Description for the GUID.
+     */
+    private GUID(final long high, final long low, final String desc) {
+        this(high, low, hash(high, low), desc);
+    }
+
+    /**
+     * Creates an instance from the packed values and their hash code.
+     * 
+     * @param high
+     *            the first 8 bytes of the GUID.
+     * @param low
+     *            the last 8 bytes of the GUID.
+     * @param hash
+     *            the hash code of the value.
+     * @param desc
+     *            Description for the GUID.
+     */
+    private GUID(final long high, final long low, final int hash,
+            final String desc) {
         if (desc == null) {
             throw new IllegalArgumentException("Argument must not be null.");
         }
+        this.high = high;
+        this.low = low;
+        this.hash = hash;
         this.description = desc;
     }
 
@@ -394,7 +547,7 @@ public final class GUID {
         boolean result = false;
         if (obj instanceof GUID) {
             final GUID other = (GUID) obj;
-            result = Arrays.equals(this.getGUID(), other.getGUID());
+            result = this.high == other.high && this.low == other.low;
         }
         return result;
     }
@@ -406,9 +559,10 @@ public final class GUID {
      * @see #getGUID()
      */
     public byte[] getBytes() {
-        final byte[] result = new byte[this.guidData.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = (byte) (this.guidData[i] & 0xFF);
+        final byte[] result = new byte[GUID_LENGTH];
+        for (int i = 0; i < 8; i++) {
+            result[i] = (byte) (this.high >>> (56 - i * 8));
+            result[i + 8] = (byte) (this.low >>> (56 - i * 8));
         }
         return result;
     }
@@ -426,9 +580,12 @@ public final class GUID {
      * @return stored GUID.
      */
     public int[] getGUID() {
-        final int[] copy = new int[this.guidData.length];
-        System.arraycopy(this.guidData, 0, copy, 0, this.guidData.length);
-        return copy;
+        final int[] result = new int[GUID_LENGTH];
+        for (int i = 0; i < 8; i++) {
+            result[i] = (int) (this.high >>> (56 - i * 8)) & 0xFF;
+            result[i + 8] = (int) (this.low >>> (56 - i * 8)) & 0xFF;
+        }
+        return result;
     }
 
     /**
@@ -457,18 +614,11 @@ public final class GUID {
      */
     @Override
     public int hashCode() {
-        if (this.hash == -1) {
-            int tmp = 0;
-            for (final int curr : getGUID()) {
-                tmp = tmp * 31 + curr;
-            }
-            this.hash = tmp;
-        }
         return this.hash;
     }
 
     /**
-     * This method checks if the currently stored GUID ({@link #guidData}) is
+     * This method checks if the currently stored GUID is
      * correctly filled. <br>
      * 
      * @return <code>true</code> if it is.
@@ -496,24 +646,6 @@ public final class GUID {
         return result.toString();
     }
 
-    /**
-     * This method saves a copy of the given <code>value</code> as the
-     * represented value of this object. <br>
-     * The given value is checked with {@link #assertGUID(int[])}.<br>
-     * 
-     * @param value
-     *            GUID to assign.
-     */
-    private void setGUID(final int[] value) {
-        if (assertGUID(value)) {
-            this.guidData = new int[GUID_LENGTH];
-            System.arraycopy(value, 0, this.guidData, 0, GUID_LENGTH);
-        } else {
-            throw new IllegalArgumentException(
-                    "The given guidData doesn't match the GUID specification.");
-        }
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -11,6 +11,9 @@ import java.util.*;
 /**
  * This structure represents the &quot;Metadata Object&quot;,&quot;Metadata
  * Library Object&quot; and &quot;Extended Content Description&quot;.<br>
+ * The descriptors are indexed by name and kept in the order they have been
+ * added, the lists returned are unmodifiable views of this index. Instances are
+ * not synchronized.<br>
  * 
  * @author Christian Laireiter
  */
@@ -121,7 +124,17 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
     /**
      * Stores the descriptors.
      */
-    private final Map<DescriptorPointer, List<MetadataDescriptor>> descriptors = new Hashtable<DescriptorPointer, List<MetadataDescriptor>>();
+    private final Map<DescriptorPointer, List<MetadataDescriptor>> descriptors = new HashMap<DescriptorPointer, List<MetadataDescriptor>>();
+
+    /**
+     * Stores all descriptors in the order they have been added.
+     */
+    private final List<MetadataDescriptor> descriptorList = new ArrayList<MetadataDescriptor>();
+
+    /**
+     * Stores the descriptors by their name, in the order they have been added.
+     */
+    private final Map<String, List<MetadataDescriptor>> descriptorsByName = new HashMap<String, List<MetadataDescriptor>>();
 
     /**
      * for performance reasons this instance is used to look up existing
@@ -195,10 +208,8 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
          * Check for containers types capabilities.
          */
         // Search for descriptor list by name, language and stream.
-        List<MetadataDescriptor> list;
-        synchronized (this.perfPoint) {
-            list = this.descriptors.get(this.perfPoint.setDescriptor(toAdd));
-        }
+        List<MetadataDescriptor> list = this.descriptors.get(this.perfPoint
+                .setDescriptor(toAdd));
         if (list == null) {
             list = new ArrayList<MetadataDescriptor>();
             this.descriptors.put(new DescriptorPointer(toAdd), list);
@@ -209,6 +220,14 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
             }
         }
         list.add(toAdd);
+        this.descriptorList.add(toAdd);
+        List<MetadataDescriptor> byName = this.descriptorsByName.get(toAdd
+                .getName());
+        if (byName == null) {
+            byName = new ArrayList<MetadataDescriptor>();
+            this.descriptorsByName.put(toAdd.getName(), byName);
+        }
+        byName.add(toAdd);
     }
 
     /**
@@ -279,7 +298,7 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
          * 16 bytes GUID, 8 bytes chunk size, 2 bytes descriptor count
          */
         long result = 26;
-        for (final MetadataDescriptor curr : getDescriptors()) {
+        for (final MetadataDescriptor curr : this.descriptorList) {
             result += curr.getCurrentAsfSize(this.containerType);
         }
         return result;
@@ -291,20 +310,16 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
      * @return number of descriptors.
      */
     public final int getDescriptorCount() {
-        return this.getDescriptors().size();
+        return this.descriptorList.size();
     }
 
     /**
-     * Returns all stored descriptors.
+     * Returns all stored descriptors in the order they have been added.
      * 
-     * @return stored descriptors.
+     * @return unmodifiable view of the stored descriptors.
      */
     public final List<MetadataDescriptor> getDescriptors() {
-        final List<MetadataDescriptor> result = new ArrayList<MetadataDescriptor>();
-        for (final List<MetadataDescriptor> curr : this.descriptors.values()) {
-            result.addAll(curr);
-        }
-        return result;
+        return Collections.unmodifiableList(this.descriptorList);
     }
 
     /**
@@ -313,19 +328,17 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
      * 
      * @param name
      *            name of the descriptors to return
-     * @return list of descriptors with given name.
+     * @return unmodifiable view of the descriptors with given name, in the
+     *         order they have been added.
      */
     public final List<MetadataDescriptor> getDescriptorsByName(final String name) {
         assert name != null;
-        final List<MetadataDescriptor> result = new ArrayList<MetadataDescriptor>();
-        final Collection<List<MetadataDescriptor>> values = this.descriptors
-                .values();
-        for (final List<MetadataDescriptor> currList : values) {
-            if (!currList.isEmpty() && currList.get(0).getName().equals(name)) {
-                result.addAll(currList);
-            }
+        final List<MetadataDescriptor> result = this.descriptorsByName
+                .get(name);
+        if (result == null) {
+            return Collections.emptyList();
         }
-        return result;
+        return Collections.unmodifiableList(result);
     }
 
     /**
@@ -358,7 +371,7 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
      * @return <code>true</code> if descriptor has been found.
      */
     public final boolean hasDescriptor(final String name) {
-        return !getDescriptorsByName(name).isEmpty();
+        return this.descriptorsByName.containsKey(name);
     }
 
     /**
@@ -378,12 +391,10 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
                 descriptor.getLanguageIndex()) == null;
         // Now check if there is already a value contained.
         if (result && !getContainerType().isMultiValued()) {
-            synchronized (this.perfPoint) {
-                final List<MetadataDescriptor> list = this.descriptors
-                        .get(this.perfPoint.setDescriptor(descriptor));
-                if (list != null) {
-                    result = list.isEmpty();
-                }
+            final List<MetadataDescriptor> list = this.descriptors
+                    .get(this.perfPoint.setDescriptor(descriptor));
+            if (list != null) {
+                result = list.isEmpty();
             }
         }
         return result;
@@ -394,12 +405,10 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
      */
     public final boolean isEmpty() {
         boolean result = true;
-        if (getDescriptorCount() != 0) {
-            final Iterator<MetadataDescriptor> iterator = getDescriptors()
-                    .iterator();
-            while (result && iterator.hasNext()) {
-                result &= iterator.next().isEmpty();
-            }
+        final Iterator<MetadataDescriptor> iterator = this.descriptorList
+                .iterator();
+        while (result && iterator.hasNext()) {
+            result &= iterator.next().isEmpty();
         }
         return result;
     }
@@ -410,7 +419,7 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
     @Override
     public String prettyPrint(final String prefix) {
         final StringBuilder result = new StringBuilder(super.prettyPrint(prefix));
-        for (final MetadataDescriptor curr : getDescriptors()) {
+        for (final MetadataDescriptor curr : this.descriptorList) {
             result.append(prefix).append("  |-> ");
             result.append(curr);
             result.append(Utils.LINE_SEPARATOR);
@@ -427,12 +436,18 @@ public class MetadataContainer extends Chunk implements WriteableChunk {
      */
     public final void removeDescriptorsByName(final String name) {
         assert name != null;
-        final Iterator<List<MetadataDescriptor>> iterator = this.descriptors
-                .values().iterator();
-        while (iterator.hasNext()) {
-            final List<MetadataDescriptor> curr = iterator.next();
-            if (!curr.isEmpty() && curr.get(0).getName().equals(name)) {
-                iterator.remove();
+        final List<MetadataDescriptor> removed = this.descriptorsByName
+                .remove(name);
+        if (removed != null) {
+            for (final MetadataDescriptor curr : removed) {
+                this.descriptors.remove(this.perfPoint.setDescriptor(curr));
+            }
+            final Iterator<MetadataDescriptor> iterator = this.descriptorList
+                    .iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getName().equals(name)) {
+                    iterator.remove();
+                }
             }
         }
     }
@@ -21,9 +21,13 @@ package org.jaudiotagger.audio.asf.io;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.util.Utils;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,16 +93,74 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
     }
 
     /**
-     * Creates a Stream that will read from the specified
-     * {@link RandomAccessFile};<br>
+     * Length of the GUID and size fields which start every chunk.<br>
+     */
+    private final static int CHUNK_HEADER_LENGTH = GUID.GUID_LENGTH + 8;
+
+    /**
+     * Reads the complete ASF header object, starting at the current position
+     * of the channel, into memory.<br>
+     * The size of the header object is taken from its chunk header, then the
+     * remainder of the object is read with a single channel read, so the
+     * chunk readers can then parse all the chunks (and use mark/reset) without
+     * any further I/O. On return the channel is positioned after the header
+     * object.<br>
+     * If the data does not start with an ASF header object, only the chunk
+     * header is returned so the GUID check of
+     * {@link #read(GUID, InputStream, long)} can reject it.
      * 
-     * @param raf
+     * @param channel
      *            data source to read from.
-     * @return a stream which accesses the source.
+     * @return the header object, starting with its GUID.
+     * @throws IOException
+     *             on I/O Errors, or if the file ends before the header object.
      */
-    private static InputStream createStream(final RandomAccessFile raf) {
-        return new FullRequestInputStream(new BufferedInputStream(
-                new RandomAccessFileInputstream(raf)));
+    static byte[] readHeaderObject(final FileChannel channel)
+            throws IOException {
+        final long start = channel.position();
+        final ByteBuffer chunkHeader = ByteBuffer
+                .allocate(CHUNK_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, chunkHeader, start);
+        long size = CHUNK_HEADER_LENGTH;
+        chunkHeader.flip();
+        if (GUID.GUID_HEADER.equals(Utils.readGUID(chunkHeader))) {
+            size = chunkHeader.getLong(GUID.GUID_LENGTH);
+            if (size < CHUNK_HEADER_LENGTH || size > Integer.MAX_VALUE
+                    || start + size > channel.size()) {
+                throw new IOException("Invalid ASF header object size " + size); //$NON-NLS-1$
+            }
+        }
+        final ByteBuffer headerObject = ByteBuffer.allocate((int) size);
+        chunkHeader.rewind();
+        headerObject.put(chunkHeader);
+        readFully(channel, headerObject, start + CHUNK_HEADER_LENGTH);
+        channel.position(start + size);
+        return headerObject.array();
+    }
+
+    /**
+     * Reads from the channel at the given position until the buffer is full.
+     * <br>
+     * 
+     * @param channel
+     *            data source to read from.
+     * @param buffer
+     *            buffer to fill.
+     * @param position
+     *            position to read the first byte from.
+     * @throws IOException
+     *             on I/O Errors, or if the end of file was reached.
+     */
+    private static void readFully(final FileChannel channel,
+            final ByteBuffer buffer, final long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            current += read;
+        }
     }
 
     /**
@@ -113,11 +175,12 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
      *             on I/O Errors.
      */
     public static AsfHeader readHeader(final File file) throws IOException {
-        final InputStream stream = new FileInputStream(file);
-        final AsfHeader result = FULL_READER.read(Utils.readGUID(stream),
-                stream, 0);
-        stream.close();
-        return result;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r"); //$NON-NLS-1$
+        try {
+            return FULL_READER.read(raf);
+        } finally {
+            raf.close();
+        }
     }
 
     /**
@@ -133,8 +196,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
      */
     public static AsfHeader readHeader(final RandomAccessFile file)
             throws IOException {
-        final InputStream stream = createStream(file);
-        return FULL_READER.read(Utils.readGUID(stream), stream, 0);
+        return FULL_READER.read(file);
     }
 
     /**
@@ -151,8 +213,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
      */
     public static AsfHeader readInfoHeader(final RandomAccessFile file)
             throws IOException {
-        final InputStream stream = createStream(file);
-        return INFO_READER.read(Utils.readGUID(stream), stream, 0);
+        return INFO_READER.read(file);
     }
 
     /**
@@ -169,8 +230,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
      */
     public static AsfHeader readTagHeader(final RandomAccessFile file)
             throws IOException {
-        final InputStream stream = createStream(file);
-        return TAG_READER.read(Utils.readGUID(stream), stream, 0);
+        return TAG_READER.read(file);
     }
 
     /**
@@ -189,6 +249,27 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader> {
         super(toRegister, readChunkOnce);
     }
 
+    /**
+     * Reads the ASF header object which starts at the current position of the
+     * file.<br>
+     * The header object is read into memory with one channel read and then
+     * parsed from there. On return the file pointer is positioned after the
+     * header object.
+     * 
+     * @param raf
+     *            File which contains the ASF header.
+     * @return AsfHeader-Wrapper, or <code>null</code> if no supported ASF
+     *         header was found.
+     * @throws IOException
+     *             Read errors
+     */
+    public AsfHeader read(final RandomAccessFile raf) throws IOException {
+        final long start = raf.getFilePointer();
+        final InputStream stream = new ByteArrayInputStream(
+                readHeaderObject(AudioFileOperation.current().wrap(raf.getChannel())));
+        return read(Utils.readGUID(stream), stream, start);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2,8 +2,12 @@ package org.jaudiotagger.audio.asf.io;
 
 import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.util.Utils;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,6 +18,37 @@ import java.util.List;
  */
 public class AsfStreamer {
 
+    /**
+     * Length of the GUID and size fields which start every chunk.<br>
+     */
+    private final static int CHUNK_HEADER_LENGTH = GUID.GUID_LENGTH + 8;
+
+    /**
+     * Length of the header object up to its first child, the chunk header
+     * followed by the number of objects and two reserved bytes.<br>
+     */
+    private final static int HEADER_FIXED_LENGTH = CHUNK_HEADER_LENGTH + 6;
+
+    /**
+     * Length of the header extension object up to its first child, the chunk
+     * header followed by a reserved GUID, two reserved bytes and the data
+     * size.<br>
+     */
+    private final static int HEADER_EXTENSION_FIXED_LENGTH = CHUNK_HEADER_LENGTH
+            + GUID.GUID_LENGTH + 6;
+
+    /**
+     * Offset of the data size field within the header extension object.<br>
+     */
+    private final static int HEADER_EXTENSION_DATA_SIZE_OFFSET =
+            HEADER_EXTENSION_FIXED_LENGTH - 4;
+
+    /**
+     * Offset of the file size field within the file properties object.<br>
+     */
+    private final static int FILE_SIZE_OFFSET = CHUNK_HEADER_LENGTH
+            + GUID.GUID_LENGTH;
+
     /**
      * Simply copies a chunk from <code>source</code> to
      * <code>destination</code>.<br>
@@ -155,6 +190,233 @@ public class AsfStreamer {
         }
     }
 
+    /**
+     * Reads the header object of the <code>source</code> and applies the
+     * modifications provided by the given <code>modifiers</code>, and puts the
+     * resulting file to <code>dest</code>.<br>
+     * Only the header object is read into memory and modified, the data and
+     * index objects which follow it are transferred from file channel to file
+     * channel without passing through the Java heap.<br>
+     * Each {@linkplain ChunkModifier modifier} is used only once, so if one
+     * should be used multiple times, it should be added multiple times into the
+     * list.<br>
+     * 
+     * @param source
+     *            the source ASF file, positioned at the header object.
+     * @param dest
+     *            the destination to write the modified version to.
+     * @param modifiers
+     *            list of chunk modifiers to apply.
+     * @throws IOException
+     *             on I/O errors.
+     */
+    public void createModifiedCopy(final RandomAccessFile source,
+            final RandomAccessFile dest, final List<ChunkModifier> modifiers)
+            throws IOException {
+        final FileChannel sourceChannel = AudioFileOperation.current().wrap(source.getChannel());
+        dest.write(createModifiedHeader(AsfHeaderReader
+                .readHeaderObject(sourceChannel), modifiers));
+
+        // copy the rest of the file (data and index)
+        final FileChannel destChannel = AudioFileOperation.current().wrap(dest.getChannel());
+        final long start = sourceChannel.position();
+        final long count = sourceChannel.size() - start;
+        long transferred = 0;
+        while (transferred < count) {
+            final long current = sourceChannel.transferTo(start + transferred,
+                    count - transferred, destChannel);
+            if (current <= 0) {
+                throw new IOException("Unable to copy audio data, copied "
+                        + transferred + " of " + count + " bytes");
+            }
+            transferred += current;
+        }
+        sourceChannel.position(start + count);
+    }
+
+    /**
+     * Applies the modifiers to the header object held in memory.<br>
+     * 
+     * @param header
+     *            the header object.
+     * @param modifiers
+     *            list of chunk modifiers to apply.
+     * @return the modified header object.
+     * @throws IOException
+     *             on I/O errors, or if the header is invalid.
+     */
+    private byte[] createModifiedHeader(final byte[] header,
+            final List<ChunkModifier> modifiers) throws IOException {
+        final ByteArrayOutputStream modified = new ByteArrayOutputStream(
+                header.length);
+        createModifiedCopy(new ByteArrayInputStream(header), modified,
+                modifiers);
+        return modified.toByteArray();
+    }
+
+    /**
+     * Applies the modifications provided by the given <code>modifiers</code>
+     * by rewriting the header object of the file in place, if a padding object
+     * in the header (or its header extension object) can absorb the change in
+     * size.<br>
+     * If it cannot, the file is left unchanged and <code>false</code> is
+     * returned, so that a modified copy can be created instead.<br>
+     * 
+     * @param raf
+     *            the ASF file, opened for writing and positioned at the header
+     *            object.
+     * @param modifiers
+     *            list of chunk modifiers to apply.
+     * @return <code>true</code> if the file has been modified.
+     * @throws IOException
+     *             on I/O errors.
+     */
+    public boolean modifyInPlace(final RandomAccessFile raf,
+            final List<ChunkModifier> modifiers) throws IOException {
+        final long start = raf.getFilePointer();
+        final byte[] original = AsfHeaderReader.readHeaderObject(raf
+                .getChannel());
+        byte[] modified = createModifiedHeader(original, modifiers);
+        final long difference = modified.length - original.length;
+        if (difference != 0) {
+            modified = resizePadding(modified, -difference);
+            if (modified == null) {
+                return false;
+            }
+        }
+        assert modified.length == original.length;
+        raf.seek(start);
+        raf.write(modified);
+        return true;
+    }
+
+    /**
+     * Resizes the first padding object, either directly in the header or in
+     * its header extension object, that can change by <code>delta</code> bytes
+     * and updates the sizes of the objects which contain it, and the file
+     * size.<br>
+     * 
+     * @param header
+     *            the header object.
+     * @param delta
+     *            number of bytes to add to (or if negative remove from) the
+     *            padding.
+     * @return the header with its padding resized, or <code>null</code> if
+     *         there is no padding object that can be resized.
+     */
+    private byte[] resizePadding(final byte[] header, final long delta) {
+        final ByteBuffer buffer = ByteBuffer.wrap(header).order(
+                ByteOrder.LITTLE_ENDIAN);
+        long pos = HEADER_FIXED_LENGTH;
+        while (pos + CHUNK_HEADER_LENGTH <= header.length) {
+            final GUID guid = readGUID(header, pos);
+            final long size = buffer.getLong((int) pos + GUID.GUID_LENGTH);
+            if (size < CHUNK_HEADER_LENGTH || pos + size > header.length) {
+                return null;
+            }
+            if (GUID.GUID_PADDING.equals(guid)
+                    && size + delta >= CHUNK_HEADER_LENGTH) {
+                return resizeChunk(header, pos, size, delta, -1);
+            }
+            if (GUID.GUID_HEADER_EXTENSION.equals(guid)) {
+                long subPos = pos + HEADER_EXTENSION_FIXED_LENGTH;
+                while (subPos + CHUNK_HEADER_LENGTH <= pos + size) {
+                    final long subSize = buffer.getLong((int) subPos
+                            + GUID.GUID_LENGTH);
+                    if (subSize < CHUNK_HEADER_LENGTH
+                            || subPos + subSize > pos + size) {
+                        return null;
+                    }
+                    if (GUID.GUID_PADDING.equals(readGUID(header, subPos))
+                            && subSize + delta >= CHUNK_HEADER_LENGTH) {
+                        return resizeChunk(header, subPos, subSize, delta, pos);
+                    }
+                    subPos += subSize;
+                }
+            }
+            pos += size;
+        }
+        return null;
+    }
+
+    /**
+     * Resizes the padding chunk at the given position.<br>
+     * 
+     * @param header
+     *            the header object.
+     * @param chunkPos
+     *            position of the padding chunk.
+     * @param chunkSize
+     *            current size of the padding chunk.
+     * @param delta
+     *            number of bytes to add to the padding chunk.
+     * @param extensionPos
+     *            position of the header extension object containing the
+     *            padding, or <code>-1</code> if in the header object itself.
+     * @return the modified header.
+     */
+    private byte[] resizeChunk(final byte[] header, final long chunkPos,
+            final long chunkSize, final long delta, final long extensionPos) {
+        final byte[] result = new byte[(int) (header.length + delta)];
+        final int chunkEnd = (int) (chunkPos + chunkSize);
+        // Copy up to the padding data, and everything after it, the padding
+        // data itself is left as zeroes.
+        System.arraycopy(header, 0, result, 0, (int) chunkPos
+                + CHUNK_HEADER_LENGTH);
+        System.arraycopy(header, chunkEnd, result, (int) (chunkEnd + delta),
+                header.length - chunkEnd);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(result).order(
+                ByteOrder.LITTLE_ENDIAN);
+        addToLong(buffer, (int) chunkPos + GUID.GUID_LENGTH, delta);
+        addToLong(buffer, GUID.GUID_LENGTH, delta);
+        if (extensionPos >= 0) {
+            addToLong(buffer, (int) extensionPos + GUID.GUID_LENGTH, delta);
+            final int dataSizePos = (int) extensionPos
+                    + HEADER_EXTENSION_DATA_SIZE_OFFSET;
+            buffer.putInt(dataSizePos,
+                    (int) ((buffer.getInt(dataSizePos) & 0xFFFFFFFFL) + delta));
+        }
+        long pos = HEADER_FIXED_LENGTH;
+        while (pos + CHUNK_HEADER_LENGTH <= result.length) {
+            if (GUID.GUID_FILE.equals(readGUID(result, pos))) {
+                addToLong(buffer, (int) pos + FILE_SIZE_OFFSET, delta);
+                break;
+            }
+            pos += buffer.getLong((int) pos + GUID.GUID_LENGTH);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a value to a little endian long in the buffer.<br>
+     * 
+     * @param buffer
+     *            buffer to modify.
+     * @param index
+     *            position of the long.
+     * @param value
+     *            value to add.
+     */
+    private static void addToLong(final ByteBuffer buffer, final int index,
+            final long value) {
+        buffer.putLong(index, buffer.getLong(index) + value);
+    }
+
+    /**
+     * Reads a GUID from the array.<br>
+     * 
+     * @param data
+     *            array to read from.
+     * @param pos
+     *            position of the GUID.
+     * @return the GUID.
+     */
+    private static GUID readGUID(final byte[] data, final long pos) {
+        return Utils.readGUID(ByteBuffer.wrap(data, (int) pos,
+                GUID.GUID_LENGTH));
+    }
+
     /**
      * This is a slight variation of
      * {@link #copyChunk(GUID, InputStream, OutputStream)}, it only handles file
@@ -121,6 +121,23 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer>
         return this.readerMap.get(guid);
     }
 
+    /**
+     * Tests whether the given <code>guid</code> is one of the
+     * {@linkplain #getApplyingIds() GUIDs} this reader applies to.
+     * 
+     * @param guid
+     *            GUID of a container.
+     * @return <code>true</code> if this reader can read the container.
+     */
+    private boolean isApplying(final GUID guid) {
+        for (final GUID curr : getApplyingIds()) {
+            if (curr.equals(guid)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Tests whether {@link #getReader(GUID)} won't return <code>null</code>.<br>
      * 
@@ -155,7 +172,7 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer>
             final long chunkStart) throws IOException, IllegalArgumentException {
         checkStream(stream);
         final CountingInputStream cis = new CountingInputStream(stream);
-        if (!Arrays.asList(getApplyingIds()).contains(guid)) {
+        if (!isApplying(guid)) {
             throw new IllegalArgumentException(
                     "provided GUID is not supported by this reader.");
         }
@@ -175,21 +192,19 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer>
          */
         while (currentPosition < result.getChunkEnd()) {
             final GUID currentGUID = Utils.readGUID(cis);
+            final ChunkReader reader = getReader(currentGUID);
             final boolean skip = this.eachChunkOnce
-                    && (!isReaderAvailable(currentGUID) || !alreadyRead
-                            .add(currentGUID));
+                    && (reader == null || !alreadyRead.add(currentGUID));
             Chunk chunk;
             /*
              * If one reader tells it could fail (new method), then check the
              * input stream for mark/reset. And use it if failed.
              */
-            if (!skip && isReaderAvailable(currentGUID)) {
-                final ChunkReader reader = getReader(currentGUID);
+            if (!skip && reader != null) {
                 if (reader.canFail()) {
                     cis.mark(READ_LIMIT);
                 }
-                chunk = getReader(currentGUID).read(currentGUID, cis,
-                        currentPosition);
+                chunk = reader.read(currentGUID, cis, currentPosition);
             } else {
                 chunk = ChunkHeaderReader.getInstance().read(currentGUID, cis,
                         currentPosition);
@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Calendar;
 import java.util.Date;
@@ -262,17 +263,16 @@ public class Utils {
      * @throws IOException if problem reading bytes
      */
     public static BigInteger readBig64(InputStream stream) throws IOException {
-        byte[] bytes = new byte[8];
-        byte[] oa = new byte[8];
-        int read = stream.read(bytes);
-        if (read != 8) {
-            // 8 bytes mandatory.
-            throw new EOFException();
-        }
-        for (int i = 0; i < bytes.length; i++) {
-            oa[7 - i] = bytes[i];
+        long result = 0;
+        for (int i = 0; i <= 56; i += 8) {
+            final int curr = stream.read();
+            if (curr == -1) {
+                // 8 bytes mandatory.
+                throw new EOFException();
+            }
+            result |= (long) curr << i;
         }
-        return new BigInteger(oa);
+        return BigInteger.valueOf(result);
     }
 
     /**
@@ -380,11 +380,51 @@ public class Utils {
         if (stream == null) {
             throw new IllegalArgumentException("Argument must not be null"); //$NON-NLS-1$
         }
-        int[] binaryGuid = new int[GUID.GUID_LENGTH];
-        for (int i = 0; i < binaryGuid.length; i++) {
-            binaryGuid[i] = stream.read();
+        final long high = readGUIDHalf(stream);
+        return GUID.getGUID(high, readGUIDHalf(stream));
+    }
+
+    /**
+     * Reads a GUID from the current position of the given <code>buffer</code>
+     * and advances the position by {@link GUID#GUID_LENGTH}.<br>
+     * The byte order of the buffer is not relevant.
+     * 
+     * @param buffer
+     *            buffer to read from.
+     * @return A class wrapping the guid.
+     * @throws java.nio.BufferUnderflowException
+     *             if there are less than 16 bytes remaining.
+     */
+    public static GUID readGUID(final ByteBuffer buffer) {
+        long high = buffer.getLong();
+        long low = buffer.getLong();
+        if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+            high = Long.reverseBytes(high);
+            low = Long.reverseBytes(low);
         }
-        return new GUID(binaryGuid);
+        return GUID.getGUID(high, low);
+    }
+
+    /**
+     * Reads 8 bytes of a GUID, the first byte being the most significant.
+     * 
+     * @param stream
+     *            Input source.
+     * @return the bytes read.
+     * @throws IOException
+     *             happens when the file ends before 8 bytes could be read.
+     */
+    private static long readGUIDHalf(final InputStream stream)
+            throws IOException {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            final int curr = stream.read();
+            if (curr == -1) {
+                throw new EOFException();
+            }
+            result = (result << 8) | curr;
+        }
+        return result;
     }
 
     /**
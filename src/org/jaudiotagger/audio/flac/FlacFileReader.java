@@ -18,9 +18,14 @@
  */
 package org.jaudiotagger.audio.flac;
 
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.TagRegion;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -44,4 +49,43 @@ public class FlacFileReader extends AudioFileReader
     {
         return tr.read(raf);
     }
+
+    /**
+     * The picture blocks are skipped when the artwork is not required
+     */
+    protected Tag getTag(RandomAccessFile raf, ReadProjection projection) throws CannotReadException, IOException
+    {
+        return projection.filter(tr.read(raf, projection.isArtworkRequired()));
+    }
+
+    /**
+     * The tag region of a flac file is all the metadata blocks, only the block headers are read
+     */
+    protected TagRegion getTagRegion(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        FlacStreamReader flacStream = new FlacStreamReader(raf);
+        flacStream.findStream();
+
+        long tagStart = flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH;
+        long padding = 0;
+        raf.seek(tagStart);
+        MetadataBlockHeader mbh;
+        do
+        {
+            mbh = MetadataBlockHeader.readHeader(raf);
+            if (mbh.getBlockType() == BlockType.PADDING)
+            {
+                padding += MetadataBlockHeader.HEADER_LENGTH + mbh.getDataLength();
+            }
+            raf.seek(raf.getFilePointer() + mbh.getDataLength());
+            if (raf.getFilePointer() > raf.length())
+            {
+                throw new CannotReadException(ErrorMessage.FLAC_NO_FLAC_HEADER_FOUND.getMsg());
+            }
+        }
+        while (!mbh.isLastBlock());
+
+        long audioStart = raf.getFilePointer();
+        return new TagRegion("Flac", tagStart, audioStart - tagStart, padding, audioStart);
+    }
 }
@@ -45,6 +45,18 @@ public class FlacTagReader
 
 
     public FlacTag read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return read(raf, true);
+    }
+
+    /**
+     * @param raf
+     * @param readPictures false to skip the picture blocks without reading them
+     * @return the tag
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public FlacTag read(RandomAccessFile raf, boolean readPictures) throws CannotReadException, IOException
     {
         FlacStreamReader flacStream = new FlacStreamReader(raf);
         flacStream.findStream();
@@ -81,6 +93,11 @@ public class FlacTagReader
                     break;
 
                 case PICTURE:
+                    if (!readPictures)
+                    {
+                        raf.seek(raf.getFilePointer() + mbh.getDataLength());
+                        break;
+                    }
                     try
                     {
                         MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, raf);
@@ -21,12 +21,14 @@ package org.jaudiotagger.audio.flac;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.flac.metadatablock.*;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.tag.Tag;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.flac.FlacTag;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -196,7 +198,7 @@ public class FlacTagWriter
             }
 
             //Write tag (and padding)
-            raf.getChannel().write(tc.convert(tag, availableRoom - neededRoom));
+            AudioFileOperation.current().wrap(raf.getChannel()).write(tc.convert(tag, availableRoom - neededRoom));
         }
         //Need to move audio
         else
@@ -205,7 +207,7 @@ public class FlacTagWriter
             //Write FlacStreamReader and StreamInfoMetablock to new file
             int dataStartSize = flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH + MetadataBlockHeader.HEADER_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
             raf.seek(0);
-            rafTemp.getChannel().transferFrom(raf.getChannel(), 0, dataStartSize);
+            AudioFileOperation.current().wrap(rafTemp.getChannel()).transferFrom(raf.getChannel(), 0, dataStartSize);
             rafTemp.seek(dataStartSize);
 
             //Write all the metadatablocks
@@ -236,16 +238,17 @@ public class FlacTagWriter
             //Transfer 'size' bytes from raf at its current position to rafTemp at position but do it in batches
             //to prevent OutOfMemory exceptions
             long amountToBeWritten=raf.getChannel().size() - raf.getChannel().position();
+            FileChannel tempChannel = AudioFileOperation.current().wrap(rafTemp.getChannel());
             long written   = 0;
-            long chunksize = TagOptionSingleton.getInstance().getWriteChunkSize();
+            long chunksize = TagOptions.current().getWriteChunkSize();
             long count = amountToBeWritten / chunksize;
             long mod   = amountToBeWritten % chunksize;
             for(int i = 0; i<count; i++)
             {
-                written+=rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getChannel().position(), chunksize);
-                rafTemp.getChannel().position(rafTemp.getChannel().position() + chunksize);
+                written+=tempChannel.transferFrom(raf.getChannel(), tempChannel.position(), chunksize);
+                tempChannel.position(tempChannel.position() + chunksize);
             }
-            written+=rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getChannel().position(), mod);
+            written+=tempChannel.transferFrom(raf.getChannel(), tempChannel.position(), mod);
             if(written!=amountToBeWritten)
             {
                 throw new CannotWriteException("Was meant to write "+amountToBeWritten+" bytes but only written "+written+" bytes");
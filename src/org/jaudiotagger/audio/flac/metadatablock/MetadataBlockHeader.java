@@ -18,6 +18,8 @@
  */
 package org.jaudiotagger.audio.flac.metadatablock;
 
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
@@ -44,7 +46,7 @@ public class MetadataBlockHeader
     public static MetadataBlockHeader readHeader(RandomAccessFile raf) throws IOException
     {
         ByteBuffer rawdata = ByteBuffer.allocate(HEADER_LENGTH);
-        int bytesRead = raf.getChannel().read(rawdata);
+        int bytesRead = AudioFileOperation.current().wrap(raf.getChannel()).read(rawdata);
         if (bytesRead < HEADER_LENGTH)
         {
             throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + HEADER_LENGTH);
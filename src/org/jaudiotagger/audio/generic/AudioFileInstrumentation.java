@@ -0,0 +1,63 @@
+package org.jaudiotagger.audio.generic;
+
+/**
+ * Classes implementing this interface are told about each read, write and delete of an audio file, with the metrics
+ * collected while the operation ran.
+ * <p/>
+ * An instrumentation is installed with {@link AudioFileOperation#setInstrumentation(AudioFileInstrumentation)}, it is
+ * shared by all threads so must be thread safe. When none is installed no metrics are collected at all.
+ * <p/>
+ * The callbacks are made on the thread doing the operation, so they should be quick. Between the start and finish of
+ * an operation there may be callbacks for the steps within it, these are only made for steps taken within an
+ * operation so a file read directly with a format specific class, e.g. <code>new MP3File(file)</code>, is not
+ * reported.
+ *
+ * @see AudioFileInstrumentationAdapter
+ */
+public interface AudioFileInstrumentation
+{
+    /**
+     * Notifies that an operation is about to start, none of the file has been read yet.
+     *
+     * @param operation the operation, its metrics are all zero
+     */
+    public void operationStarted(AudioFileOperation operation);
+
+    /**
+     * Notifies that an operation has finished, successfully or not.
+     *
+     * @param operation the operation, its metrics are final
+     */
+    public void operationFinished(AudioFileOperation operation);
+
+    /**
+     * Notifies that data was copied by a channel transfer, mostly audio moved because the tag no longer fits in front
+     * of it.
+     *
+     * @param operation the operation copying the data
+     * @param bytes     the number of bytes moved
+     * @param duration  time taken in nanoseconds
+     */
+    public void dataCopied(AudioFileOperation operation, long bytes, long duration);
+
+    /**
+     * Notifies that the audio of an mp3 was scanned for the first frame.
+     *
+     * @param operation    the operation reading the audio header
+     * @param startByte    where the scan started, the end of the ID3v2 tag
+     * @param bytesScanned the number of bytes skipped before the first frame, or before giving up
+     * @param syncFound    false if no frame was found
+     * @param duration     time taken in nanoseconds
+     */
+    public void mp3SyncScanned(AudioFileOperation operation, long startByte, long bytesScanned, boolean syncFound, long duration);
+
+    /**
+     * Notifies that the body of an ID3v2 frame was decoded.
+     *
+     * @param operation  the operation reading the tag
+     * @param identifier the frame identifier
+     * @param size       the size of the frame body
+     * @param duration   time taken in nanoseconds
+     */
+    public void id3FrameDecoded(AudioFileOperation operation, String identifier, int size, long duration);
+}
@@ -0,0 +1,60 @@
+package org.jaudiotagger.audio.generic;
+
+/**
+ * Adapter for {@link org.jaudiotagger.audio.generic.AudioFileInstrumentation}, also used as the default which
+ * ignores every operation.
+ */
+public class AudioFileInstrumentationAdapter implements AudioFileInstrumentation
+{
+    /**
+     * (overridden)
+     *
+     * @see org.jaudiotagger.audio.generic.AudioFileInstrumentation#operationStarted(AudioFileOperation)
+     */
+    public void operationStarted(AudioFileOperation operation)
+    {
+        // Nothing to do
+    }
+
+    /**
+     * (overridden)
+     *
+     * @see org.jaudiotagger.audio.generic.AudioFileInstrumentation#operationFinished(AudioFileOperation)
+     */
+    public void operationFinished(AudioFileOperation operation)
+    {
+        // Nothing to do
+    }
+
+    /**
+     * (overridden)
+     *
+     * @see org.jaudiotagger.audio.generic.AudioFileInstrumentation#dataCopied(AudioFileOperation, long, long)
+     */
+    public void dataCopied(AudioFileOperation operation, long bytes, long duration)
+    {
+        // Nothing to do
+    }
+
+    /**
+     * (overridden)
+     *
+     * @see org.jaudiotagger.audio.generic.AudioFileInstrumentation#mp3SyncScanned(AudioFileOperation, long, long,
+     *boolean, long)
+     */
+    public void mp3SyncScanned(AudioFileOperation operation, long startByte, long bytesScanned, boolean syncFound, long duration)
+    {
+        // Nothing to do
+    }
+
+    /**
+     * (overridden)
+     *
+     * @see org.jaudiotagger.audio.generic.AudioFileInstrumentation#id3FrameDecoded(AudioFileOperation, String, int,
+     *long)
+     */
+    public void id3FrameDecoded(AudioFileOperation operation, String identifier, int size, long duration)
+    {
+        // Nothing to do
+    }
+}
@@ -0,0 +1,438 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * The metrics of one read, write or delete of an audio file, reported to the installed
+ * {@link AudioFileInstrumentation}.
+ * <p/>
+ * The operation running on the current thread is returned by {@link #current()}, readers and writers use it to open
+ * files and to time the phases of the operation. When no instrumentation is installed {@link #current()} returns an
+ * inert operation, its files are plain RandomAccessFiles and its timers do nothing, so the readers and writers do not
+ * need to check.
+ * <p/>
+ * Only files opened with {@link #open(File, String)} and channels passed through {@link #wrap(FileChannel)} are
+ * counted, a RandomAccessFile cannot return a counting channel so readers and writers wrap the channels they do bulk
+ * I/O through. Reads and writes are counted per call, so each is roughly one system call. Channel transfers are
+ * counted as copied bytes rather than as bytes read and written because the data is moved by the operating system.
+ * <p/>
+ * If an operation is started while another is running on the same thread, e.g. when a writer has to read the file,
+ * the inner operation is reported separately and the outer one becomes current again once it finishes.
+ */
+public class AudioFileOperation
+{
+    public static enum Type
+    {
+        READ,
+        WRITE,
+        DELETE,
+    }
+
+    /**
+     * The phases an operation spends its time in
+     */
+    public static enum Phase
+    {
+        /**
+         * Reading the audio header, for mp3 this is the scan for the first audio frame
+         */
+        HEADER,
+        /**
+         * Reading and parsing the tag
+         */
+        TAG,
+        /**
+         * Copying audio data, when the tag is rewritten with the audio
+         */
+        COPY,
+    }
+
+    private static final AudioFileInstrumentation NO_INSTRUMENTATION = new AudioFileInstrumentationAdapter();
+
+    private static final AudioFileOperation NONE = new AudioFileOperation(null, null, null);
+
+    private static volatile AudioFileInstrumentation instrumentation = NO_INSTRUMENTATION;
+
+    private static final ThreadLocal<AudioFileOperation> currentOperation = new ThreadLocal<AudioFileOperation>();
+
+    private final Type type;
+    private final File file;
+    private final AudioFileOperation parent;
+    private final long startTime;
+    private long duration;
+
+    private long bytesRead;
+    private long bytesWritten;
+    private long bytesCopied;
+    private int readCalls;
+    private int writeCalls;
+    private int copyCalls;
+    private final long[] phaseTimes = new long[Phase.values().length];
+
+    private boolean tempFileCreated;
+    private long tempFileLength;
+    private boolean rewritten;
+    private Throwable failure;
+    private Object attachment;
+
+    private AudioFileOperation(Type type, File file, AudioFileOperation parent)
+    {
+        this.type = type;
+        this.file = file;
+        this.parent = parent;
+        this.startTime = type == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Install the instrumentation told about every operation
+     *
+     * @param newInstrumentation the instrumentation, or null to stop collecting metrics
+     */
+    public static void setInstrumentation(AudioFileInstrumentation newInstrumentation)
+    {
+        instrumentation = newInstrumentation == null ? NO_INSTRUMENTATION : newInstrumentation;
+    }
+
+    /**
+     * @return the installed instrumentation, an {@link AudioFileInstrumentationAdapter} if none has been installed
+     */
+    public static AudioFileInstrumentation getInstrumentation()
+    {
+        return instrumentation;
+    }
+
+    /**
+     * Start an operation on the current thread, it must be finished with {@link #finish()}
+     *
+     * @param type
+     * @param file
+     * @return the operation, inert if no instrumentation is installed
+     */
+    public static AudioFileOperation start(Type type, File file)
+    {
+        AudioFileInstrumentation listener = instrumentation;
+        if (listener == NO_INSTRUMENTATION)
+        {
+            return NONE;
+        }
+        AudioFileOperation operation = new AudioFileOperation(type, file, currentOperation.get());
+        currentOperation.set(operation);
+        listener.operationStarted(operation);
+        return operation;
+    }
+
+    /**
+     * @return the operation running on the current thread, inert if there is none
+     */
+    public static AudioFileOperation current()
+    {
+        AudioFileOperation operation = currentOperation.get();
+        return operation == null ? NONE : operation;
+    }
+
+    /**
+     * Finish the operation and report it, the operation it was started within becomes current again
+     */
+    public void finish()
+    {
+        if (this == NONE)
+        {
+            return;
+        }
+        duration = System.nanoTime() - startTime;
+        if (parent == null)
+        {
+            currentOperation.remove();
+        }
+        else
+        {
+            currentOperation.set(parent);
+        }
+        instrumentation.operationFinished(this);
+    }
+
+    /**
+     * @return false if this is the inert operation used when nothing is being instrumented
+     */
+    public boolean isInstrumented()
+    {
+        return this != NONE;
+    }
+
+    /**
+     * Open a file counting the reads and writes made through it, but not through its channel
+     *
+     * @param file
+     * @param mode as for {@link RandomAccessFile}
+     * @return the file
+     * @throws FileNotFoundException
+     */
+    public RandomAccessFile open(File file, String mode) throws FileNotFoundException
+    {
+        if (this == NONE)
+        {
+            return new RandomAccessFile(file, mode);
+        }
+        return new InstrumentedRandomAccessFile(this, file, mode);
+    }
+
+    /**
+     * @param channel
+     * @return a channel counting the reads, writes and transfers made through the given channel
+     */
+    public FileChannel wrap(FileChannel channel)
+    {
+        if (this == NONE || channel instanceof InstrumentedFileChannel)
+        {
+            return channel;
+        }
+        return new InstrumentedFileChannel(this, channel);
+    }
+
+    /**
+     * @return the time to pass to {@link #stopTimer(Phase, long)}
+     */
+    public long startTimer()
+    {
+        return this == NONE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Add the time since the timer was started to a phase
+     *
+     * @param phase
+     * @param start as returned by {@link #startTimer()}
+     */
+    public void stopTimer(Phase phase, long start)
+    {
+        if (this != NONE)
+        {
+            phaseTimes[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    void addRead(long count)
+    {
+        readCalls++;
+        if (count > 0)
+        {
+            bytesRead += count;
+        }
+    }
+
+    void addWritten(long count)
+    {
+        writeCalls++;
+        bytesWritten += count;
+    }
+
+    /**
+     * Report data copied to rewrite the file, channel transfers through a wrapped channel are reported automatically
+     * so this is only needed for data copied by reading and writing it
+     *
+     * @param count
+     * @param start as returned by {@link #startTimer()}
+     */
+    public void dataCopied(long count, long start)
+    {
+        if (this == NONE)
+        {
+            return;
+        }
+        long time = System.nanoTime() - start;
+        copyCalls++;
+        bytesCopied += count;
+        phaseTimes[Phase.COPY.ordinal()] += time;
+        instrumentation.dataCopied(this, count, time);
+    }
+
+    /**
+     * Report the scan for the first frame of an mp3
+     *
+     * @param startByte
+     * @param bytesScanned
+     * @param syncFound
+     * @param start        as returned by {@link #startTimer()}
+     */
+    public void mp3SyncScanned(long startByte, long bytesScanned, boolean syncFound, long start)
+    {
+        if (this != NONE)
+        {
+            instrumentation.mp3SyncScanned(this, startByte, bytesScanned, syncFound, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Report the decoding of an ID3v2 frame body
+     *
+     * @param identifier
+     * @param size
+     * @param start      as returned by {@link #startTimer()}
+     */
+    public void id3FrameDecoded(String identifier, int size, long start)
+    {
+        if (this != NONE)
+        {
+            instrumentation.id3FrameDecoded(this, identifier, size, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record that a temporary file was created for the operation
+     */
+    public void setTempFileCreated()
+    {
+        if (this != NONE)
+        {
+            tempFileCreated = true;
+        }
+    }
+
+    /**
+     * Record that the file was rewritten, the tag did not fit in the space available so the audio had to be copied
+     *
+     * @param tempFileLength the length of the temporary file that replaces the original
+     */
+    public void setRewritten(long tempFileLength)
+    {
+        if (this != NONE)
+        {
+            this.rewritten = true;
+            this.tempFileLength = tempFileLength;
+        }
+    }
+
+    /**
+     * Record the exception the operation failed with
+     *
+     * @param failure
+     */
+    public void setFailure(Throwable failure)
+    {
+        if (this != NONE)
+        {
+            this.failure = failure;
+        }
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return elapsed time of the whole operation in nanoseconds, set when the operation is finished
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+     * @return bytes copied when the file is rewritten, this includes the bytes moved by any channel transfer
+     */
+    public long getBytesCopied()
+    {
+        return bytesCopied;
+    }
+
+    public int getReadCalls()
+    {
+        return readCalls;
+    }
+
+    public int getWriteCalls()
+    {
+        return writeCalls;
+    }
+
+    public int getCopyCalls()
+    {
+        return copyCalls;
+    }
+
+    /**
+     * @param phase
+     * @return time spent in the phase in nanoseconds
+     */
+    public long getTime(Phase phase)
+    {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    public boolean isTempFileCreated()
+    {
+        return tempFileCreated;
+    }
+
+    /**
+     * @return the length of the temporary file that replaced the original, zero if none did
+     */
+    public long getTempFileLength()
+    {
+        return tempFileLength;
+    }
+
+    /**
+     * @return true if the file was rewritten with its audio rather than modified in place, always false for reads
+     */
+    public boolean isRewritten()
+    {
+        return rewritten;
+    }
+
+    /**
+     * @return the exception the operation failed with, null if it succeeded
+     */
+    public Throwable getFailure()
+    {
+        return failure;
+    }
+
+    /**
+     * Attach an object to the operation, used by an instrumentation to keep its own state for the operation between
+     * the start and finish callbacks
+     *
+     * @param attachment
+     */
+    public void attach(Object attachment)
+    {
+        this.attachment = attachment;
+    }
+
+    /**
+     * @return the object attached by the instrumentation, null if none
+     */
+    public Object attachment()
+    {
+        return attachment;
+    }
+
+    public String toString()
+    {
+        return type + " " + file + " duration:" + duration
+                + " read:" + bytesRead + "/" + readCalls
+                + " written:" + bytesWritten + "/" + writeCalls
+                + " copied:" + bytesCopied + "/" + copyCalls
+                + " header:" + getTime(Phase.HEADER) + " tag:" + getTime(Phase.TAG) + " copy:" + getTime(Phase.COPY)
+                + " tempFile:" + tempFileCreated + " rewritten:" + rewritten;
+    }
+}
@@ -19,12 +19,14 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -70,6 +72,94 @@ public abstract class AudioFileReader
       */
     protected abstract Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException;
 
+    /**
+     * Returns the part of the tag selected by the projection. The RandomAccessFile is positioned at the first byte of
+     * the file.
+     * <p/>
+     * By default the whole tag is read and then filtered, formats that can skip parts of the tag while reading it
+     * override this.
+     *
+     * @param raf        The RandomAccessFile associated with the current file
+     * @param projection the parts of the tag to read
+     * @return the tag
+     * @throws CannotReadException when an error occured during the parsing of the tag
+     * @throws IOException
+     */
+    protected Tag getTag(RandomAccessFile raf, ReadProjection projection) throws CannotReadException, IOException
+    {
+        return projection.filter(getTag(raf));
+    }
+
+    /**
+     * Returns the encoding info and whole tag of the file. The RandomAccessFile is positioned at the first byte of the
+     * file.
+     * <p/>
+     * By default they are read by {@link #getEncodingInfo(RandomAccessFile)} and {@link #getTag(RandomAccessFile)} in
+     * turn, formats that parse both from the same structures override this to read them in one pass.
+     *
+     * @param f   The file being read
+     * @param raf The RandomAccessFile associated with the current file
+     * @return the audio file
+     * @throws CannotReadException when an error occured during the parsing of the encoding info or tag
+     * @throws IOException
+     */
+    protected AudioFile getAudioFile(File f, RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        AudioFileOperation operation = AudioFileOperation.current();
+        long start = operation.startTimer();
+        GenericAudioHeader info = getEncodingInfo(raf);
+        operation.stopTimer(AudioFileOperation.Phase.HEADER, start);
+        raf.seek(0);
+
+        start = operation.startTimer();
+        Tag tag = getTag(raf);
+        operation.stopTimer(AudioFileOperation.Phase.TAG, start);
+        return new AudioFile(f, info, tag);
+    }
+
+    /**
+     * Probe the structure of the file for the location and size of its tag, without parsing the tag.
+     * <p/>
+     * The RandomAccessFile is positioned at the first byte of the file. Formats that support probing override this,
+     * they must only read structure headers and must not read a number of bytes proportional to the size of the tag.
+     *
+     * @param raf The RandomAccessFile associated with the current file
+     * @return the tag region
+     * @throws CannotReadException if the format cannot be probed or the file is not valid
+     * @throws IOException
+     */
+    protected TagRegion getTagRegion(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        throw new CannotReadException(ErrorMessage.NO_TAG_REGION_PROBE_FOR_THIS_FORMAT.getMsg(getClass().getSimpleName()));
+    }
+
+    /**
+     * Probe the given file for the location and size of its tag, its free padding and the start of the audio
+     * using a small number of header reads.
+     *
+     * @param f The file to probe
+     * @return the tag region
+     * @throws CannotReadException if the format cannot be probed or the file is not valid
+     * @throws IOException
+     */
+    public TagRegion readTagRegion(File f) throws CannotReadException, IOException
+    {
+        if (!f.canRead())
+        {
+            throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(f.getAbsolutePath()));
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(f, "r");
+        try
+        {
+            return getTagRegion(raf);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
     /*
       * Reads the given file, and return an AudioFile object containing the Tag
       * and the encoding infos present in the file. If the file has no tag, an
@@ -79,6 +169,32 @@ public abstract class AudioFileReader
       * @exception CannotReadException If anything went bad during the read of this file
       */
     public AudioFile read(File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(f, ReadProjection.ALL, true);
+    }
+
+    /**
+     * Reads the parts of the given file selected by the projection. The audio header is null if not required, and the
+     * tag is null if not required.
+     * <p/>
+     * Readers that override {@link #read(File)} are used as they are for {@link ReadProjection#ALL}, and must override
+     * this as well to honour other projections.
+     *
+     * @param f          The file to read
+     * @param projection the parts to read
+     * @return the audio file
+     * @throws CannotReadException If anything went bad during the read of this file
+     */
+    public AudioFile read(File f, ReadProjection projection) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if (projection.isAll())
+        {
+            return read(f);
+        }
+        return read(f, projection, false);
+    }
+
+    private AudioFile read(File f, ReadProjection projection, boolean isAll) throws CannotReadException, IOException
     {
         if(logger.isLoggable(Level.CONFIG))
         {
@@ -95,24 +211,44 @@ public abstract class AudioFileReader
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(f.getAbsolutePath()));
         }
 
+        TagOptions previousOptions = TagOptions.current().use();
+        AudioFileOperation operation = AudioFileOperation.start(AudioFileOperation.Type.READ, f);
         RandomAccessFile raf = null;
         try
         {
-            raf = new RandomAccessFile(f, "r");
+            raf = operation.open(f, "r");
             raf.seek(0);
+            if (isAll)
+            {
+                return getAudioFile(f, raf);
+            }
 
-            GenericAudioHeader info = getEncodingInfo(raf);
-            raf.seek(0);
-            Tag tag = getTag(raf);
+            GenericAudioHeader info = null;
+            Tag tag = null;
+            if (projection.isHeaderRequired())
+            {
+                long start = operation.startTimer();
+                info = getEncodingInfo(raf);
+                operation.stopTimer(AudioFileOperation.Phase.HEADER, start);
+                raf.seek(0);
+            }
+            if (projection.isTagRequired())
+            {
+                long start = operation.startTimer();
+                tag = getTag(raf, projection);
+                operation.stopTimer(AudioFileOperation.Phase.TAG, start);
+            }
             return new AudioFile(f, info, tag);
 
         }
         catch (CannotReadException cre)
         {
+            operation.setFailure(cre);
             throw cre;
         }
         catch (Exception e)
         {
+            operation.setFailure(e);
             logger.log(Level.SEVERE, ErrorMessage.GENERAL_READ.getMsg(f.getAbsolutePath()),e);
             throw new CannotReadException(f.getAbsolutePath()+":" + e.getMessage(), e);
         }
@@ -129,6 +265,8 @@ public abstract class AudioFileReader
             {
                 logger.log(Level.WARNING, ErrorMessage.GENERAL_READ_FAILED_UNABLE_TO_CLOSE_RANDOM_ACCESS_FILE.getMsg(f.getAbsolutePath()));
             }
+            operation.finish();
+            TagOptions.restore(previousOptions);
         }
     }
 }
@@ -25,6 +25,7 @@ import org.jaudiotagger.audio.exceptions.ModifyVetoException;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -82,6 +83,8 @@ public abstract class AudioFileWriter
                     .getMsg(af.getFile().getPath()));
         }
 
+        TagOptions previousOptions = TagOptions.current().use();
+        AudioFileOperation operation = AudioFileOperation.start(AudioFileOperation.Type.DELETE, af.getFile());
         RandomAccessFile raf = null;
         RandomAccessFile rafTemp = null;
         File tempF = null;
@@ -96,8 +99,9 @@ public abstract class AudioFileWriter
             tempF = File.createTempFile(af.getFile().getName()
                     .replace('.', '_'), TEMP_FILENAME_SUFFIX, af.getFile()
                     .getParentFile());
-            rafTemp = new RandomAccessFile(tempF, WRITE_MODE);
-            raf = new RandomAccessFile(af.getFile(), WRITE_MODE);
+            operation.setTempFileCreated();
+            rafTemp = operation.open(tempF, WRITE_MODE);
+            raf = operation.open(af.getFile(), WRITE_MODE);
             raf.seek(0);
             rafTemp.seek(0);
 
@@ -122,6 +126,7 @@ public abstract class AudioFileWriter
         catch (Exception e)
         {
             revert = true;
+            operation.setFailure(e);
             throw new CannotWriteException("\"" + af.getFile().getAbsolutePath() + "\" :" + e, e);
         }
         finally
@@ -141,6 +146,7 @@ public abstract class AudioFileWriter
 
                 if (tempF.length() > 0 && !revert)
                 {
+                    operation.setRewritten(tempF.length());
                     boolean deleteResult = af.getFile().delete();
                     if (!deleteResult)
                     {
@@ -193,6 +199,8 @@ public abstract class AudioFileWriter
             {
                 logger.severe("AudioFileWriter exception cleaning up delete:" + af.getFile().getPath() + " or" + tempF.getAbsolutePath() + ":" + ex);
             }
+            operation.finish();
+            TagOptions.restore(previousOptions);
             // Notify listener
             if (this.modificationListener != null)
             {
@@ -298,9 +306,41 @@ public abstract class AudioFileWriter
      * @param af The file we want to process
      * @throws CannotWriteException if anything went wrong
      */
+    public synchronized void write(AudioFile af) throws CannotWriteException
+    {
+        //mp3's report their own write
+        if (af instanceof MP3File)
+        {
+            write(af, AudioFileOperation.current());
+            return;
+        }
+
+        TagOptions previousOptions = TagOptions.current().use();
+        AudioFileOperation operation = AudioFileOperation.start(AudioFileOperation.Type.WRITE, af.getFile());
+        try
+        {
+            write(af, operation);
+        }
+        catch (CannotWriteException cwe)
+        {
+            operation.setFailure(cwe);
+            throw cwe;
+        }
+        catch (RuntimeException re)
+        {
+            operation.setFailure(re);
+            throw re;
+        }
+        finally
+        {
+            operation.finish();
+            TagOptions.restore(previousOptions);
+        }
+    }
+
     // TODO Creates temp file in same folder as the original file, this is safe
     // but would impose a performance overhead if the original file is on a networked drive
-    public synchronized void write(AudioFile af) throws CannotWriteException
+    private void write(AudioFile af, AudioFileOperation operation) throws CannotWriteException
     {
         logger.config("Started writing tag data for file:" + af.getFile().getName());
 
@@ -323,6 +363,7 @@ public abstract class AudioFileWriter
         try
         {
             newFile = File.createTempFile(af.getFile().getName().replace('.', '_'), TEMP_FILENAME_SUFFIX, af.getFile().getParentFile());
+            operation.setTempFileCreated();
         }
         // Unable to create temporary file, can happen in Vista if have Create
         // Files/Write Data set to Deny
@@ -341,8 +382,8 @@ public abstract class AudioFileWriter
         // Open temporary file and actual file for editing
         try
         {
-            rafTemp = new RandomAccessFile(newFile, WRITE_MODE);
-            raf = new RandomAccessFile(af.getFile(), WRITE_MODE);
+            rafTemp = operation.open(newFile, WRITE_MODE);
+            raf = operation.open(af.getFile(), WRITE_MODE);
 
         }
         // Unable to write to writable file, can happen in Vista if have Create
@@ -474,6 +515,7 @@ public abstract class AudioFileWriter
         // If the temporary file was used
         if (newFile.length() > 0)
         {
+            operation.setRewritten(newFile.length());
 
             // Rename Original File
             // Can fail on Vista if have Special Permission 'Delete' set Deny
@@ -0,0 +1,133 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Functions shared by the readers and writers of chunk based formats derived from IFF, such as WAV and AIFF
+ * <p/>
+ * In these formats each chunk is an identifier and size followed by the chunk data, chunks are word aligned so a chunk
+ * with an odd size is followed by a pad byte that is not included in its size.
+ */
+public class IffChunkUtils
+{
+    //Encoding of the text held in text chunks such as the WAV INFO and AIFF NAME chunks
+    private static final Charset TEXT_CHUNK_CHARSET = Charset.forName("ISO-8859-1");
+
+    private IffChunkUtils()
+    {
+    }
+
+    /**
+     * Fill the buffer from the given file position, stopping early only at the end of the file. The buffer is filled
+     * from its start, it is not flipped.
+     *
+     * @param fc
+     * @param buffer
+     * @param pos
+     * @return the number of bytes read
+     * @throws IOException
+     */
+    public static int readFully(FileChannel fc, ByteBuffer buffer, long pos) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (fc.read(buffer, pos + buffer.position()) < 0)
+            {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Append a chunk to the end of the destination followed by a zero pad byte if its size is odd
+     * <p/>
+     * The pad byte of the source is never copied as it is sometimes missing from the last chunk of a file, so whether
+     * a pad byte is needed depends only on the chunk size and not on offsets in the source.
+     *
+     * @param source
+     * @param chunkStart   file offset of the chunk header
+     * @param chunkDataEnd file offset of the end of the chunk data, excluding any pad byte
+     * @param destination
+     * @throws IOException
+     */
+    public static void copyChunk(FileChannel source, long chunkStart, long chunkDataEnd, FileChannel destination) throws IOException
+    {
+        //Chunk headers are an even size, so the data size is odd if the whole chunk is
+        transfer(source, chunkStart, chunkDataEnd - chunkStart, destination);
+        if (((chunkDataEnd - chunkStart) & 1) != 0)
+        {
+            destination.write(ByteBuffer.allocate(1), destination.size());
+        }
+    }
+
+    /**
+     * A chunk with an odd size at the end of a file sometimes lacks its pad byte, add it before writing anything after
+     * the chunk in the same file
+     *
+     * @param fc
+     * @param chunkEnd end of the chunk including the pad byte
+     * @throws IOException
+     */
+    public static void writePadByteIfMissing(FileChannel fc, long chunkEnd) throws IOException
+    {
+        if (fc.size() == chunkEnd - 1)
+        {
+            fc.write(ByteBuffer.allocate(1), chunkEnd - 1);
+        }
+    }
+
+    /**
+     * Write the whole buffer, from its start, at the given file position
+     *
+     * @param fc
+     * @param buffer
+     * @param pos
+     * @throws IOException
+     */
+    public static void writeFully(FileChannel fc, ByteBuffer buffer, long pos) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            fc.write(buffer, pos + buffer.position());
+        }
+    }
+
+    /**
+     * Append length bytes starting at position of the source to the destination
+     *
+     * @param source
+     * @param position
+     * @param length
+     * @param destination
+     * @throws IOException
+     */
+    public static void transfer(FileChannel source, long position, long length, FileChannel destination) throws IOException
+    {
+        destination.position(destination.size());
+        long transferred = 0;
+        while (transferred < length)
+        {
+            long count = source.transferTo(position + transferred, length - transferred, destination);
+            if (count <= 0)
+            {
+                throw new IOException("Unable to copy chunk data at:" + (position + transferred));
+            }
+            transferred += count;
+        }
+    }
+
+    /**
+     * Text chunks are ISO-8859-1, any other character would be replaced when the value is written
+     *
+     * @param value
+     * @return true if the value can be written to a text chunk without loss
+     */
+    public static boolean isTextChunkEncodable(String value)
+    {
+        return TEXT_CHUNK_CHARSET.newEncoder().canEncode(value);
+    }
+}
@@ -0,0 +1,142 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * FileChannel counting its reads, writes and transfers into an {@link AudioFileOperation}.
+ * <p/>
+ * Transfers between two instrumented channels are made between the underlying channels, so the operating system can
+ * still copy the data directly.
+ */
+class InstrumentedFileChannel extends FileChannel
+{
+    private final AudioFileOperation operation;
+    private final FileChannel channel;
+
+    InstrumentedFileChannel(AudioFileOperation operation, FileChannel channel)
+    {
+        this.operation = operation;
+        this.channel = channel;
+    }
+
+    private static ReadableByteChannel unwrap(ReadableByteChannel source)
+    {
+        return source instanceof InstrumentedFileChannel ? ((InstrumentedFileChannel) source).channel : source;
+    }
+
+    private static WritableByteChannel unwrap(WritableByteChannel target)
+    {
+        return target instanceof InstrumentedFileChannel ? ((InstrumentedFileChannel) target).channel : target;
+    }
+
+    public int read(ByteBuffer dst) throws IOException
+    {
+        int result = channel.read(dst);
+        operation.addRead(result);
+        return result;
+    }
+
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException
+    {
+        long result = channel.read(dsts, offset, length);
+        operation.addRead(result);
+        return result;
+    }
+
+    public int read(ByteBuffer dst, long position) throws IOException
+    {
+        int result = channel.read(dst, position);
+        operation.addRead(result);
+        return result;
+    }
+
+    public int write(ByteBuffer src) throws IOException
+    {
+        int result = channel.write(src);
+        operation.addWritten(result);
+        return result;
+    }
+
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException
+    {
+        long result = channel.write(srcs, offset, length);
+        operation.addWritten(result);
+        return result;
+    }
+
+    public int write(ByteBuffer src, long position) throws IOException
+    {
+        int result = channel.write(src, position);
+        operation.addWritten(result);
+        return result;
+    }
+
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException
+    {
+        long start = operation.startTimer();
+        long result = channel.transferTo(position, count, unwrap(target));
+        operation.dataCopied(result, start);
+        return result;
+    }
+
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException
+    {
+        long start = operation.startTimer();
+        long result = channel.transferFrom(unwrap(src), position, count);
+        operation.dataCopied(result, start);
+        return result;
+    }
+
+    public long position() throws IOException
+    {
+        return channel.position();
+    }
+
+    public FileChannel position(long newPosition) throws IOException
+    {
+        channel.position(newPosition);
+        return this;
+    }
+
+    public long size() throws IOException
+    {
+        return channel.size();
+    }
+
+    public FileChannel truncate(long size) throws IOException
+    {
+        channel.truncate(size);
+        return this;
+    }
+
+    public void force(boolean metaData) throws IOException
+    {
+        channel.force(metaData);
+    }
+
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException
+    {
+        return channel.map(mode, position, size);
+    }
+
+    public FileLock lock(long position, long size, boolean shared) throws IOException
+    {
+        return channel.lock(position, size, shared);
+    }
+
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException
+    {
+        return channel.tryLock(position, size, shared);
+    }
+
+    protected void implCloseChannel() throws IOException
+    {
+        channel.close();
+    }
+}
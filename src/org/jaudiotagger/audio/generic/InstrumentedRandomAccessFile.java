@@ -0,0 +1,63 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * RandomAccessFile counting its reads and writes into an {@link AudioFileOperation}.
+ * <p/>
+ * The multi byte reads and writes of RandomAccessFile are made up of calls to the single byte and array methods
+ * overridden here so they are counted as well. The channel of the file cannot be replaced, so I/O made through it
+ * is only counted where the channel is passed through {@link AudioFileOperation#wrap(java.nio.channels.FileChannel)}.
+ */
+class InstrumentedRandomAccessFile extends RandomAccessFile
+{
+    private final AudioFileOperation operation;
+
+    InstrumentedRandomAccessFile(AudioFileOperation operation, File file, String mode) throws FileNotFoundException
+    {
+        super(file, mode);
+        this.operation = operation;
+    }
+
+    public int read() throws IOException
+    {
+        int result = super.read();
+        operation.addRead(result == -1 ? 0 : 1);
+        return result;
+    }
+
+    public int read(byte[] b) throws IOException
+    {
+        int result = super.read(b);
+        operation.addRead(result);
+        return result;
+    }
+
+    public int read(byte[] b, int off, int len) throws IOException
+    {
+        int result = super.read(b, off, len);
+        operation.addRead(result);
+        return result;
+    }
+
+    public void write(int b) throws IOException
+    {
+        super.write(b);
+        operation.addWritten(1);
+    }
+
+    public void write(byte[] b) throws IOException
+    {
+        super.write(b);
+        operation.addWritten(b.length);
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        super.write(b, off, len);
+        operation.addWritten(len);
+    }
+}
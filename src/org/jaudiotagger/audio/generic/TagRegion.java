@@ -0,0 +1,95 @@
+package org.jaudiotagger.audio.generic;
+
+/**
+ * Describes where the metadata of an audio file lives, as found by a probe of the file structure.
+ * <p/>
+ * A probe only reads the headers of the structures holding the metadata, none of the metadata itself is parsed, so it
+ * is cheap enough to run over a whole library to find files whose tag would have to be rewritten with the audio
+ * (because there is no free padding left) before they are modified.
+ * <p/>
+ * What the tag region covers depends on the format
+ * <ul>
+ * <li>Mp3:the ID3v2 tag including its header and padding</li>
+ * <li>Flac:all metadata blocks following the fLaC marker, padding is the sum of the PADDING blocks</li>
+ * <li>Mp4:the ilst atom, padding is the free atoms that can be used to grow it without moving the audio</li>
+ * <li>Ogg Vorbis:the pages spanned by the comment header, Ogg has no padding</li>
+ * <li>Wma:the ASF header object, padding is the sum of the padding objects within it</li>
+ * </ul>
+ */
+public class TagRegion
+{
+    /**
+     * Used for values that could not be determined without reading more of the file than a probe allows
+     */
+    public static final long UNKNOWN = -1;
+
+    private final String format;
+    private final long tagStart;
+    private final long tagSize;
+    private final long paddingSize;
+    private final long audioStart;
+
+    /**
+     * @param format      description of the container, e.g. ID3v2.3
+     * @param tagStart    file offset of the start of the tag region, or {@link #UNKNOWN} if there is no tag
+     * @param tagSize     size of the tag region, zero if there is no tag. This includes the padding except for Mp4
+     *                    where the free atoms are not part of the ilst atom
+     * @param paddingSize bytes of the tag region that are free, or {@link #UNKNOWN}
+     * @param audioStart  file offset of the start of the audio data, or {@link #UNKNOWN}
+     */
+    public TagRegion(String format, long tagStart, long tagSize, long paddingSize, long audioStart)
+    {
+        this.format = format;
+        this.tagStart = tagStart;
+        this.tagSize = tagSize;
+        this.paddingSize = paddingSize;
+        this.audioStart = audioStart;
+    }
+
+    public String getFormat()
+    {
+        return format;
+    }
+
+    public long getTagStart()
+    {
+        return tagStart;
+    }
+
+    public long getTagSize()
+    {
+        return tagSize;
+    }
+
+    public long getPaddingSize()
+    {
+        return paddingSize;
+    }
+
+    public long getAudioStart()
+    {
+        return audioStart;
+    }
+
+    /**
+     * @return true if the file currently has a tag region
+     */
+    public boolean hasTag()
+    {
+        return tagSize > 0;
+    }
+
+    /**
+     * @return true if the padding is known and at least size bytes, so a tag that grows by size bytes can be
+     *         written without moving the audio
+     */
+    public boolean hasPaddingFor(long size)
+    {
+        return paddingSize != UNKNOWN && paddingSize >= size;
+    }
+
+    public String toString()
+    {
+        return format + ":tagStart:" + tagStart + ":tagSize:" + tagSize + ":paddingSize:" + paddingSize + ":audioStart:" + audioStart;
+    }
+}
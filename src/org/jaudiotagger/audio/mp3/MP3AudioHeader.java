@@ -19,8 +19,11 @@
  */
 package org.jaudiotagger.audio.mp3;
 
+import org.jaudiotagger.audio.AudioFormatDetector;
 import org.jaudiotagger.audio.AudioHeader;
+import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.logging.Hex;
 
 import java.io.EOFException;
@@ -65,6 +68,7 @@ public class MP3AudioHeader implements AudioHeader
 
 
     private long fileSize;
+    private long endByte;
     private long startByte;
     private double timePerFrame;
     private double trackLength;
@@ -169,8 +173,10 @@ public class MP3AudioHeader implements AudioHeader
         //This is substantially faster than updating the filechannels position
         long filePointerCount;
 
+        final AudioFileOperation operation = AudioFileOperation.current();
+        final long start = operation.startTimer();
         final FileInputStream fis = new FileInputStream(seekFile);
-        final FileChannel fc = fis.getChannel();
+        final FileChannel fc = operation.wrap(fis.getChannel());
 
         //Read into Byte Buffer in Chunks
         ByteBuffer bb = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
@@ -188,6 +194,20 @@ public class MP3AudioHeader implements AudioHeader
         boolean syncFound = false;
         try
         {
+            //A file without an ID3v2 tag that starts with the signature of another format is not an mp3, even though
+            //a frame sync may be found somewhere within it
+            if (startByte == 0)
+            {
+                byte[] signature = new byte[Math.min(AudioFormatDetector.HEADER_SIZE, bb.limit())];
+                bb.duplicate().get(signature);
+                SupportedFileFormat format = AudioFormatDetector.detect(signature);
+                if (format != null && format != SupportedFileFormat.MP3)
+                {
+                    logger.config(seekFile.getName() + " starts with the signature of " + format.getFilesuffix());
+                    return false;
+                }
+            }
+
             do
             {
                 //TODO remaining() is quite an expensive operation, isn't there a way we can work this out without
@@ -302,6 +322,8 @@ public class MP3AudioHeader implements AudioHeader
         }
         finally
         {
+            operation.mp3SyncScanned(startByte, filePointerCount - startByte, syncFound, start);
+
             if (fc != null)
             {
                 fc.close();
@@ -495,7 +517,7 @@ public class MP3AudioHeader implements AudioHeader
      */
     protected void setNumberOfFrames()
     {
-        numberOfFramesEstimate = (fileSize - startByte) / mp3FrameHeader.getFrameLength();
+        numberOfFramesEstimate = (endByte - startByte) / mp3FrameHeader.getFrameLength();
 
         if (mp3XingFrame != null && mp3XingFrame.isFrameCountEnabled())
         {
@@ -632,7 +654,7 @@ public class MP3AudioHeader implements AudioHeader
             }
             else
             {
-                bitrate = (long) (((fileSize - startByte) * CONVERTS_BYTE_TO_BITS) / (timePerFrame * getNumberOfFrames() * CONVERT_TO_KILOBITS));
+                bitrate = (long) (((endByte - startByte) * CONVERTS_BYTE_TO_BITS) / (timePerFrame * getNumberOfFrames() * CONVERT_TO_KILOBITS));
             }
         }
         else if (mp3VbriFrame != null)
@@ -643,7 +665,7 @@ public class MP3AudioHeader implements AudioHeader
             }
             else
             {
-                bitrate = (long) (((fileSize - startByte) * CONVERTS_BYTE_TO_BITS) / (timePerFrame * getNumberOfFrames() * CONVERT_TO_KILOBITS));
+                bitrate = (long) (((endByte - startByte) * CONVERTS_BYTE_TO_BITS) / (timePerFrame * getNumberOfFrames() * CONVERT_TO_KILOBITS));
             }
         }
         else
@@ -812,6 +834,30 @@ public class MP3AudioHeader implements AudioHeader
     protected void setFileSize(long fileSize)
     {
         this.fileSize = fileSize;
+        this.endByte = fileSize;
+    }
+
+    /**
+     * Set the end of the audio once the tags at the end of the file have been located, the frame count estimate and
+     * bitrate depend on it
+     *
+     * @param endByte offset just after the last byte of audio
+     */
+    protected void setMp3EndByte(long endByte)
+    {
+        this.endByte = endByte;
+        setNumberOfFrames();
+        setTrackLength();
+        setBitRate();
+    }
+
+    /**
+     * @return the offset just after the last byte of audio, the file length if the tags at the end of the file have
+     *         not been located
+     */
+    public long getMp3EndByte()
+    {
+        return endByte;
     }
 
 
@@ -820,7 +866,7 @@ public class MP3AudioHeader implements AudioHeader
      */
     public String toString()
     {
-        String s = "fileSize:" + fileSize + " encoder:" + encoder + " startByte:" + Hex.asHex(startByte) + " numberOfFrames:" + numberOfFrames + " numberOfFramesEst:" + numberOfFramesEstimate + " timePerFrame:" + timePerFrame + " bitrate:" + bitrate + " trackLength:" + getTrackLengthAsString();
+        String s = "fileSize:" + fileSize + " encoder:" + encoder + " startByte:" + Hex.asHex(startByte) + " endByte:" + Hex.asHex(endByte) + " numberOfFrames:" + numberOfFrames + " numberOfFramesEst:" + numberOfFramesEstimate + " timePerFrame:" + timePerFrame + " bitrate:" + bitrate + " trackLength:" + getTrackLengthAsString();
 
         if (this.mp3FrameHeader != null)
         {
@@ -22,14 +22,16 @@
 package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.logging.*;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.TagNotFoundException;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.*;
 import org.jaudiotagger.tag.lyrics3.AbstractLyrics3;
 
@@ -68,6 +70,11 @@ public class MP3File extends AudioFile
      */
     private ID3v1Tag id3v1tag = null;
 
+    /**
+     * The location of the tags that follow the audio
+     */
+    private MP3Trailer trailer = null;
+
     /**
      * Creates a new empty MP3File datatype that is not associated with a
      * specific file.
@@ -104,6 +111,12 @@ public class MP3File extends AudioFile
 
     public static final int LOAD_ALL = LOAD_IDV1TAG | LOAD_IDV2TAG | LOAD_LYRICS3;
 
+    /**
+     * Do not read the audio header, the ID3v2 tag is located from its own header instead of from the start of the
+     * audio so the audio frames are not scanned. The file has no audio header and cannot be saved.
+     */
+    public static final int SKIP_AUDIO_HEADER = 16;
+
     /**
      * Creates a new MP3File datatype and parse the tag from the given file
      * Object, files must be writable to use this constructor.
@@ -133,9 +146,18 @@ public class MP3File extends AudioFile
         if ((loadOptions & LOAD_IDV1TAG) != 0)
         {
             logger.finer("Attempting to read id3v1tags");
+            if (!trailer.hasID3v1Tag())
+            {
+                logger.config("No id3v1 tag found");
+                return;
+            }
+
+            ByteBuffer tagBuffer = trailer.getID3v1TagBuffer();
             try
             {
-                id3v1tag = new ID3v11Tag(newFile, file.getName());
+                ID3v11Tag v11Tag = new ID3v11Tag();
+                v11Tag.read(tagBuffer);
+                id3v1tag = v11Tag;
             }
             catch (TagNotFoundException ex)
             {
@@ -146,7 +168,10 @@ public class MP3File extends AudioFile
             {
                 if (id3v1tag == null)
                 {
-                    id3v1tag = new ID3v1Tag(newFile, file.getName());
+                    tagBuffer.rewind();
+                    ID3v1Tag v1Tag = new ID3v1Tag();
+                    v1Tag.read(tagBuffer);
+                    id3v1tag = v1Tag;
                 }
             }
             catch (TagNotFoundException ex)
@@ -163,14 +188,17 @@ public class MP3File extends AudioFile
      *
      * @param file
      * @param loadOptions
+     * @param tagSize size of the ID3v2 tag from its header
+     * @param projection the parts of the tag to read
      * @throws IOException
      * @throws TagException
      */
-    private void readV2Tag(File file, int loadOptions) throws IOException, TagException
+    private void readV2Tag(File file, int loadOptions, long tagSize, ReadProjection projection) throws IOException, TagException
     {
         //We know where the Actual Audio starts so load all the file from start to that point into
-        //a buffer then we can read the IDv2 information without needing any more file I/O
-        int startByte = (int) ((MP3AudioHeader) audioHeader).getMp3StartByte();
+        //a buffer then we can read the IDv2 information without needing any more file I/O, without an audio
+        //header only the tag itself is loaded
+        int startByte = (int) (audioHeader == null ? tagSize : ((MP3AudioHeader) audioHeader).getMp3StartByte());
         if (startByte >= AbstractID3v2Tag.TAG_HEADER_LENGTH)
         {
             logger.finer("Attempting to read id3v2tags");
@@ -180,7 +208,7 @@ public class MP3File extends AudioFile
             try
             {
                 fis = new FileInputStream(file);
-                fc = fis.getChannel();
+                fc = AudioFileOperation.current().wrap(fis.getChannel());
                 //Read into Byte Buffer
                 bb = ByteBuffer.allocate(startByte);
                 fc.read(bb);
@@ -205,7 +233,7 @@ public class MP3File extends AudioFile
                 logger.config("Attempting to read id3v2tags");
                 try
                 {
-                    this.setID3v2Tag(new ID3v24Tag(bb, file.getName()));
+                    this.setID3v2Tag(new ID3v24Tag(bb, file.getName(), projection));
                 }
                 catch (TagNotFoundException ex)
                 {
@@ -216,7 +244,7 @@ public class MP3File extends AudioFile
                 {
                     if (id3v2tag == null)
                     {
-                        this.setID3v2Tag(new ID3v23Tag(bb, file.getName()));
+                        this.setID3v2Tag(new ID3v23Tag(bb, file.getName(), projection));
                     }
                 }
                 catch (TagNotFoundException ex)
@@ -228,7 +256,7 @@ public class MP3File extends AudioFile
                 {
                     if (id3v2tag == null)
                     {
-                        this.setID3v2Tag(new ID3v22Tag(bb, file.getName()));
+                        this.setID3v2Tag(new ID3v22Tag(bb, file.getName(), projection));
                     }
                 }
                 catch (TagNotFoundException ex)
@@ -363,8 +391,28 @@ public class MP3File extends AudioFile
      * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
      */
     public MP3File(File file, int loadOptions, boolean readOnly) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        this(file, loadOptions, readOnly, ReadProjection.ALL);
+    }
+
+    /**
+     * Creates a new MP3File dataType reading only the ID3v2 frames of the fields required by the projection, the
+     * bodies of the other frames are skipped.
+     *
+     * @param file        MP3 file
+     * @param loadOptions decide what tags to load
+     * @param readOnly    causes the files to be opened readonly
+     * @param projection  the parts of the ID3v2 tag to read
+     * @throws IOException  on any I/O error
+     * @throws TagException on any exception generated by this library.
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public MP3File(File file, int loadOptions, boolean readOnly, ReadProjection projection) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         RandomAccessFile newFile = null;
+        AudioFileOperation operation = AudioFileOperation.current();
+        TagOptions previousOptions = TagOptions.current().use();
         try
         {
             this.file = file;
@@ -375,20 +423,36 @@ public class MP3File extends AudioFile
             //Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
             long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(file);
 
-            //If exception reading Mpeg then we should give up no point continuing
-            audioHeader = new MP3AudioHeader(file, startByte);
+            if ((loadOptions & SKIP_AUDIO_HEADER) == 0)
+            {
+                long start = operation.startTimer();
+
+                //If exception reading Mpeg then we should give up no point continuing
+                audioHeader = new MP3AudioHeader(file, startByte);
 
-            if (startByte != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+                if (startByte != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+                {
+                    logger.config("First header found after tag:" + audioHeader);
+                    audioHeader = checkAudioStart(startByte, (MP3AudioHeader) audioHeader);
+                }
+                operation.stopTimer(AudioFileOperation.Phase.HEADER, start);
+            }
+
+            long start = operation.startTimer();
+
+            //Locate the ID3v1, APEv2 and Lyrics3 tags at the end of the file with one read
+            trailer = MP3Trailer.read(newFile);
+            if (audioHeader != null)
             {
-                logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(startByte, (MP3AudioHeader) audioHeader);
+                ((MP3AudioHeader) audioHeader).setMp3EndByte(trailer.getAudioEnd());
             }
 
             //Read v1 tags (if any)
             readV1Tag(file, newFile, loadOptions);
 
             //Read v2 tags (if any)
-            readV2Tag(file, loadOptions);
+            readV2Tag(file, loadOptions, startByte, projection);
+            operation.stopTimer(AudioFileOperation.Phase.TAG, start);
 
             //If we have a v2 tag use that, if we dont but have v1 tag use that
             //otherwise use nothing
@@ -403,11 +467,12 @@ public class MP3File extends AudioFile
                 tag = id3v1tag;
             }
 
-            //Read Lyrics 3
+            //Read Lyrics 3, located by the trailer but not parsed
             //readLyrics3Tag(File file,RandomAccessFile  newFile,int loadOptions)
         }
         finally
         {
+            TagOptions.restore(previousOptions);
             if (newFile != null)
             {
                 newFile.close();
@@ -502,6 +567,16 @@ public class MP3File extends AudioFile
         return (id3v1tag != null);
     }
 
+    /**
+     * Returns the location of the ID3v1, APEv2 and Lyrics3 tags at the end of the file, as found when the file was read
+     *
+     * @return the trailing tags, or null if this MP3File was not read from a file
+     */
+    public MP3Trailer getTrailer()
+    {
+        return trailer;
+    }
+
     /**
      * Returns true if this datatype contains an <code>Id3v2</code> tag
      *
@@ -780,20 +855,53 @@ public class MP3File extends AudioFile
         //Ensure we are dealing with absolute filepqaths not relative ones
         File file = fileToSave.getAbsoluteFile();
 
+        TagOptions previousOptions = TagOptions.current().use();
+        AudioFileOperation operation = AudioFileOperation.start(AudioFileOperation.Type.WRITE, file);
+        try
+        {
+            writeTags(file, operation);
+        }
+        catch (IOException ioe)
+        {
+            operation.setFailure(ioe);
+            throw ioe;
+        }
+        catch (RuntimeException re)
+        {
+            operation.setFailure(re);
+            throw re;
+        }
+        finally
+        {
+            operation.finish();
+            TagOptions.restore(previousOptions);
+        }
+    }
+
+    private void writeTags(File file, AudioFileOperation operation) throws IOException
+    {
+
         logger.config("Saving  : " + file.getPath());
 
+        if (!getReadProjection().isAll())
+        {
+            logger.severe(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTLY_READ.getMsg(file.getName(), getReadProjection()));
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTLY_READ.getMsg(file.getName(), getReadProjection()));
+        }
+
         //Checks before starting write
         precheck(file);
 
+        TagOptions options = TagOptions.current();
         RandomAccessFile rfile = null;
         try
         {
             //ID3v2 Tag
-            if (TagOptionSingleton.getInstance().isId3v2Save())
+            if (options.isId3v2Save())
             {
                 if (id3v2tag == null)
                 {
-                    rfile = new RandomAccessFile(file, "rws");
+                    rfile = operation.open(file, "rws");
                     (new ID3v24Tag()).delete(rfile);
                     (new ID3v23Tag()).delete(rfile);
                     (new ID3v22Tag()).delete(rfile);
@@ -806,10 +914,16 @@ public class MP3File extends AudioFile
                     id3v2tag.write(file, ((MP3AudioHeader) this.getAudioHeader()).getMp3StartByte());
                 }
             }
-            rfile = new RandomAccessFile(file, "rws");
+            rfile = operation.open(file, "rws");
+
+            //APEv2 and Lyrics3 tags are removed by truncating the file, keeping any ID3v1 tag after them
+            if (options.isStripApev2AndLyrics3Tags())
+            {
+                stripApev2AndLyrics3Tags(rfile);
+            }
 
             //Lyrics 3 Tag
-            if (TagOptionSingleton.getInstance().isLyrics3Save())
+            if (options.isLyrics3Save())
             {
                 if (lyrics3tag != null)
                 {
@@ -817,7 +931,7 @@ public class MP3File extends AudioFile
                 }
             }
             //ID3v1 tag
-            if (TagOptionSingleton.getInstance().isId3v1Save())
+            if (options.isId3v1Save())
             {
                 logger.config("Processing ID3v1");
                 if (id3v1tag == null)
@@ -856,6 +970,32 @@ public class MP3File extends AudioFile
         }
     }
 
+    /**
+     * Remove any APEv2 and Lyrics3 tags at the end of the file, the audio is not moved
+     *
+     * @param rfile
+     * @throws IOException
+     */
+    private void stripApev2AndLyrics3Tags(RandomAccessFile rfile) throws IOException
+    {
+        MP3Trailer currentTrailer = MP3Trailer.read(rfile);
+        if (!currentTrailer.hasApev2Tag() && !currentTrailer.hasLyrics3Tag())
+        {
+            return;
+        }
+        logger.config("Removing APEv2 and Lyrics3 tags:" + currentTrailer);
+        ByteBuffer id3v1Buffer = currentTrailer.getID3v1TagBuffer();
+        FileChannel fc = rfile.getChannel();
+        fc.truncate(currentTrailer.getAudioEnd());
+        if (id3v1Buffer != null)
+        {
+            while (id3v1Buffer.hasRemaining())
+            {
+                fc.write(id3v1Buffer, currentTrailer.getAudioEnd() + id3v1Buffer.position());
+            }
+        }
+    }
+
     /**
      * Displays MP3File Structure
      */
@@ -1,13 +1,18 @@
 package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.TagRegion;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptions;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
 import java.io.File;
 import java.io.IOException;
@@ -29,6 +34,14 @@ public class MP3FileReader extends AudioFileReader
         throw new RuntimeException("MP3FileReader.getEncodingInfo should be called");
     }
 
+    /**
+     * The tag region of an mp3 is the ID3v2 tag at the start of the file
+     */
+    protected TagRegion getTagRegion(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return AbstractID3v2Tag.getV2TagRegion(raf);
+    }
+
     /**
      * @param f
      * @return
@@ -36,10 +49,68 @@ public class MP3FileReader extends AudioFileReader
     //Override because we read mp3s differently to the entagged code
     public AudioFile read(File f) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
-        MP3File mp3File = new MP3File(f, MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG, true);
+        return read(f, MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG, ReadProjection.ALL);
+    }
+
+    /**
+     * Only the ID3 tags are loaded when the tag is required, skipping the ID3v2 frames that are not required, and the
+     * audio frames are only scanned when the audio header is required
+     *
+     * @param f
+     * @param projection
+     * @return
+     */
+    public AudioFile read(File f, ReadProjection projection) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if (projection.isAll())
+        {
+            return read(f);
+        }
+
+        int loadOptions = 0;
+        if (projection.isTagRequired())
+        {
+            loadOptions |= MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG;
+        }
+        if (!projection.isHeaderRequired())
+        {
+            loadOptions |= MP3File.SKIP_AUDIO_HEADER;
+        }
+        MP3File mp3File = read(f, loadOptions, projection);
+        projection.filter(mp3File.getTag());
         return mp3File;
     }
 
+    private MP3File read(File f, int loadOptions, ReadProjection projection) throws IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        TagOptions previousOptions = TagOptions.current().use();
+        AudioFileOperation operation = AudioFileOperation.start(AudioFileOperation.Type.READ, f);
+        try
+        {
+            return new MP3File(f, loadOptions, true, projection);
+        }
+        catch (IOException ioe)
+        {
+            operation.setFailure(ioe);
+            throw ioe;
+        }
+        catch (TagException te)
+        {
+            operation.setFailure(te);
+            throw te;
+        }
+        catch (InvalidAudioFrameException iafe)
+        {
+            operation.setFailure(iafe);
+            throw iafe;
+        }
+        finally
+        {
+            operation.finish();
+            TagOptions.restore(previousOptions);
+        }
+    }
+
     /**
      * Read
      *
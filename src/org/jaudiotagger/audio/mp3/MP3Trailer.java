@@ -0,0 +1,295 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * The tags that can follow the audio at the end of an MP3 file
+ * <p/>
+ * An ID3v1 or ID3v1.1 tag is always last, before it there may be an APEv2 tag and a Lyrics3v1 or Lyrics3v2 tag in
+ * either order. All of them are located with a single read of the end of the file, further reads are only needed for
+ * tags whose start lies before the block that was read. The tags are only located, not parsed, so the end of the audio
+ * is known exactly and the trailing tags can be kept or removed when the file is written.
+ */
+public class MP3Trailer
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp3");
+
+    public static final long UNKNOWN = -1;
+
+    //Large enough for an ID3v1 tag, APEv2 footer and a maximum size Lyrics3v1 tag
+    private static final int TRAILER_READ_SIZE = 16384;
+
+    private static final int ID3V1_TAG_SIZE = 128;
+    private static final String ID3V1_ID = "TAG";
+
+    private static final int APE_FOOTER_SIZE = 32;
+    private static final String APE_PREAMBLE = "APETAGEX";
+    private static final int APE_SIZE_POS = 12;
+    private static final int APE_FLAGS_POS = 20;
+    private static final int APE_HAS_HEADER = 0x80000000;
+
+    private static final String LYRICS3_BEGIN = "LYRICSBEGIN";
+    private static final String LYRICS3V1_END = "LYRICSEND";
+    private static final String LYRICS3V2_END = "LYRICS200";
+    private static final int LYRICS3V2_SIZE_LENGTH = 6;
+    private static final int LYRICS3V1_MAXIMUM_SIZE = 5100;
+
+    private static final String ENCODING = "ISO-8859-1";
+
+    private final FileChannel fc;
+    private final ByteBuffer window;
+    private final long windowStart;
+
+    private long id3v1TagStart = UNKNOWN;
+    private long apev2TagStart = UNKNOWN;
+    private long apev2TagSize;
+    private long lyrics3TagStart = UNKNOWN;
+    private long lyrics3TagSize;
+    private int lyrics3Version;
+    private long audioEnd;
+
+    private MP3Trailer(RandomAccessFile raf) throws IOException
+    {
+        fc = raf.getChannel();
+        long fileLength = fc.size();
+        windowStart = Math.max(0, fileLength - TRAILER_READ_SIZE);
+        window = ByteBuffer.allocate((int) (fileLength - windowStart));
+        readFully(window, windowStart);
+        window.flip();
+        audioEnd = fileLength;
+    }
+
+    /**
+     * @param raf
+     * @return the trailing tags of the file
+     * @throws IOException
+     */
+    public static MP3Trailer read(RandomAccessFile raf) throws IOException
+    {
+        MP3Trailer trailer = new MP3Trailer(raf);
+        trailer.locateTags();
+        return trailer;
+    }
+
+    private void locateTags() throws IOException
+    {
+        if (audioEnd >= ID3V1_TAG_SIZE && getString(audioEnd - ID3V1_TAG_SIZE, ID3V1_ID.length()).equals(ID3V1_ID))
+        {
+            id3v1TagStart = audioEnd - ID3V1_TAG_SIZE;
+            audioEnd = id3v1TagStart;
+        }
+
+        //APEv2 and Lyrics3 tags may come in either order
+        boolean found = true;
+        while (found)
+        {
+            found = false;
+            if (apev2TagStart == UNKNOWN && locateApev2Tag())
+            {
+                found = true;
+            }
+            if (lyrics3TagStart == UNKNOWN && locateLyrics3Tag())
+            {
+                found = true;
+            }
+        }
+        logger.config("Audio ends at:" + audioEnd + " ID3v1 at:" + id3v1TagStart + " APEv2 at:" + apev2TagStart + " Lyrics3 at:" + lyrics3TagStart);
+    }
+
+    /**
+     * The APEv2 footer holds the size of the tag including the footer but excluding the optional header
+     */
+    private boolean locateApev2Tag() throws IOException
+    {
+        if (audioEnd < APE_FOOTER_SIZE || !getString(audioEnd - APE_FOOTER_SIZE, APE_PREAMBLE.length()).equals(APE_PREAMBLE))
+        {
+            return false;
+        }
+        ByteBuffer footer = ByteBuffer.wrap(getBytes(audioEnd - APE_FOOTER_SIZE, APE_FOOTER_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+        long size = footer.getInt(APE_SIZE_POS) & 0xffffffffL;
+        if ((footer.getInt(APE_FLAGS_POS) & APE_HAS_HEADER) != 0)
+        {
+            size += APE_FOOTER_SIZE;
+        }
+        if (size < APE_FOOTER_SIZE || size > audioEnd)
+        {
+            logger.warning("APEv2 footer at:" + (audioEnd - APE_FOOTER_SIZE) + " has an invalid size:" + size);
+            return false;
+        }
+        apev2TagSize = size;
+        apev2TagStart = audioEnd - size;
+        audioEnd = apev2TagStart;
+        return true;
+    }
+
+    /**
+     * Lyrics3v2 ends with the size of the tag, Lyrics3v1 has no size so the start is searched for
+     */
+    private boolean locateLyrics3Tag() throws IOException
+    {
+        if (audioEnd < LYRICS3_BEGIN.length() + LYRICS3V2_END.length())
+        {
+            return false;
+        }
+        String end = getString(audioEnd - LYRICS3V2_END.length(), LYRICS3V2_END.length());
+        long start = UNKNOWN;
+        if (end.equals(LYRICS3V2_END))
+        {
+            long sizePos = audioEnd - LYRICS3V2_END.length() - LYRICS3V2_SIZE_LENGTH;
+            try
+            {
+                start = sizePos - Long.parseLong(getString(sizePos, LYRICS3V2_SIZE_LENGTH));
+            }
+            catch (NumberFormatException nfe)
+            {
+                logger.warning("Lyrics3v2 tag ending at:" + audioEnd + " has an invalid size");
+                return false;
+            }
+            if (start < 0 || !getString(start, LYRICS3_BEGIN.length()).equals(LYRICS3_BEGIN))
+            {
+                logger.warning("Lyrics3v2 tag ending at:" + audioEnd + " does not start with " + LYRICS3_BEGIN);
+                return false;
+            }
+            lyrics3Version = 2;
+        }
+        else if (end.equals(LYRICS3V1_END))
+        {
+            long searchStart = Math.max(0, audioEnd - LYRICS3V1_END.length() - LYRICS3V1_MAXIMUM_SIZE - LYRICS3_BEGIN.length());
+            String search = getString(searchStart, (int) (audioEnd - LYRICS3V1_END.length() - searchStart));
+            int index = search.lastIndexOf(LYRICS3_BEGIN);
+            if (index == -1)
+            {
+                logger.warning("Lyrics3v1 tag ending at:" + audioEnd + " does not start with " + LYRICS3_BEGIN);
+                return false;
+            }
+            start = searchStart + index;
+            lyrics3Version = 1;
+        }
+        else
+        {
+            return false;
+        }
+        lyrics3TagStart = start;
+        lyrics3TagSize = audioEnd - start;
+        audioEnd = start;
+        return true;
+    }
+
+    private String getString(long pos, int length) throws IOException
+    {
+        return Utils.getString(getBytes(pos, length), 0, length, ENCODING);
+    }
+
+    /**
+     * Get bytes from the block read from the end of the file, or read them if they lie before it
+     */
+    private byte[] getBytes(long pos, int length) throws IOException
+    {
+        byte[] b = new byte[length];
+        if (pos >= windowStart)
+        {
+            System.arraycopy(window.array(), (int) (pos - windowStart), b, 0, length);
+        }
+        else
+        {
+            readFully(ByteBuffer.wrap(b), pos);
+        }
+        return b;
+    }
+
+    private void readFully(ByteBuffer buffer, long pos) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (fc.read(buffer, pos + buffer.position()) < 0)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the offset just after the last byte of audio, the start of the first trailing tag or the file length
+     */
+    public long getAudioEnd()
+    {
+        return audioEnd;
+    }
+
+    public boolean hasID3v1Tag()
+    {
+        return id3v1TagStart != UNKNOWN;
+    }
+
+    /**
+     * @return offset of the ID3v1 tag or {@link #UNKNOWN}
+     */
+    public long getID3v1TagStart()
+    {
+        return id3v1TagStart;
+    }
+
+    /**
+     * @return the 128 bytes of the ID3v1 tag, or null if there is none
+     */
+    public ByteBuffer getID3v1TagBuffer() throws IOException
+    {
+        return hasID3v1Tag() ? ByteBuffer.wrap(getBytes(id3v1TagStart, ID3V1_TAG_SIZE)) : null;
+    }
+
+    public boolean hasApev2Tag()
+    {
+        return apev2TagStart != UNKNOWN;
+    }
+
+    /**
+     * @return offset of the APEv2 tag, including its header if it has one, or {@link #UNKNOWN}
+     */
+    public long getApev2TagStart()
+    {
+        return apev2TagStart;
+    }
+
+    public long getApev2TagSize()
+    {
+        return apev2TagSize;
+    }
+
+    public boolean hasLyrics3Tag()
+    {
+        return lyrics3TagStart != UNKNOWN;
+    }
+
+    /**
+     * @return offset of the Lyrics3 tag or {@link #UNKNOWN}
+     */
+    public long getLyrics3TagStart()
+    {
+        return lyrics3TagStart;
+    }
+
+    public long getLyrics3TagSize()
+    {
+        return lyrics3TagSize;
+    }
+
+    /**
+     * @return 1 for Lyrics3v1, 2 for Lyrics3v2 or 0 if there is no Lyrics3 tag
+     */
+    public int getLyrics3Version()
+    {
+        return lyrics3Version;
+    }
+
+    public String toString()
+    {
+        return "audioEnd:" + audioEnd + " id3v1TagStart:" + id3v1TagStart + " apev2TagStart:" + apev2TagStart + " apev2TagSize:" + apev2TagSize + " lyrics3TagStart:" + lyrics3TagStart + " lyrics3TagSize:" + lyrics3TagSize + " lyrics3Version:" + lyrics3Version;
+    }
+}
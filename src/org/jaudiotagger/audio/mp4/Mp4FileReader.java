@@ -18,9 +18,11 @@
  */
 package org.jaudiotagger.audio.mp4;
 
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.TagRegion;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -35,6 +37,7 @@ public class Mp4FileReader extends AudioFileReader
 {
     private Mp4InfoReader ir = new Mp4InfoReader();
     private Mp4TagReader tr = new Mp4TagReader();
+    private Mp4TagRegionReader trr = new Mp4TagRegionReader();
 
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
     {
@@ -45,4 +48,17 @@ public class Mp4FileReader extends AudioFileReader
     {
         return tr.read(raf);
     }
+
+    /**
+     * The cover art atom is skipped when the artwork is not required
+     */
+    protected Tag getTag(RandomAccessFile raf, ReadProjection projection) throws CannotReadException, IOException
+    {
+        return projection.filter(tr.read(raf, projection.isArtworkRequired()));
+    }
+
+    protected TagRegion getTagRegion(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return trr.read(raf);
+    }
 }
@@ -20,6 +20,7 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotReadVideoException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.mp4.atom.*;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -95,7 +96,7 @@ public class Mp4InfoReader
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
         ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        raf.getChannel().read(ftypBuffer);
+        AudioFileOperation.current().wrap(raf.getChannel()).read(ftypBuffer);
         ftypBuffer.rewind();
         Mp4FtypBox ftyp = new Mp4FtypBox(ftypHeader, ftypBuffer);
         ftyp.processData();
@@ -109,7 +110,7 @@ public class Mp4InfoReader
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
         ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        raf.getChannel().read(moovBuffer);
+        AudioFileOperation.current().wrap(raf.getChannel()).read(moovBuffer);
         moovBuffer.rewind();
 
         //Level 2-Searching for "mvhd" somewhere within "moov", we make a slice after finding header
@@ -19,6 +19,7 @@
 package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
@@ -82,6 +83,18 @@ public class Mp4TagReader
 
      */
     public Mp4Tag read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return read(raf, true);
+    }
+
+    /**
+     * @param raf
+     * @param readArtwork false to skip the cover art atom without creating fields for its images
+     * @return the tag
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(RandomAccessFile raf, boolean readArtwork) throws CannotReadException, IOException
     {
         Mp4Tag tag = new Mp4Tag();
 
@@ -93,7 +106,7 @@ public class Mp4TagReader
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
         ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        raf.getChannel().read(moovBuffer);
+        AudioFileOperation.current().wrap(raf.getChannel()).read(moovBuffer);
         moovBuffer.rewind();
 
         //Level 2-Searching for "udta" within "moov"
@@ -158,7 +171,10 @@ public class Mp4TagReader
             //Create the corresponding datafield from the id, and slice the buffer so position of main buffer
             //wont get affected
             logger.config("Next position is at:" + metadataBuffer.position());
-            createMp4Field(tag, boxHeader, metadataBuffer.slice());
+            if (readArtwork || !boxHeader.getId().equals(Mp4FieldKey.ARTWORK.getFieldName()))
+            {
+                createMp4Field(tag, boxHeader, metadataBuffer.slice());
+            }
 
             //Move position in buffer to the start of the next parentHeader
             metadataBuffer.position(metadataBuffer.position() + boxHeader.getDataLength());
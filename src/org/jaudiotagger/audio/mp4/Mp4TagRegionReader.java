@@ -0,0 +1,205 @@
+package org.jaudiotagger.audio.mp4;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.TagRegion;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
+import org.jaudiotagger.logging.ErrorMessage;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Finds the ilst atom and the free atoms that can be used as padding, and the start of the audio data, by walking
+ * the atom headers of moov/udta/meta
+ * <p/>
+ * Only the atom headers on the path to ilst are read, the contents of other atoms (such as the trak atoms) are skipped
+ * over. Unlike {@link Mp4AtomTree} this does not require atoms to fit in 32 bits.
+ */
+public class Mp4TagRegionReader
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp4");
+
+    //An atom with a size field of 1 has a 64 bit size following the identifier
+    private static final int LARGE_SIZE_LENGTH = 8;
+
+    /**
+     * Position and size of an atom within the file
+     */
+    private static class AtomPosition
+    {
+        private String id;
+        private long start;
+        private long dataStart;
+        private long end;
+    }
+
+    public TagRegion read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        FileChannel fc = raf.getChannel();
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH + LARGE_SIZE_LENGTH);
+        long fileLength = fc.size();
+
+        //Top level, find moov, any free atoms immediately following it and mdat
+        AtomPosition moov = null;
+        AtomPosition mdat = null;
+        long padding = 0;
+        boolean followsMoov = false;
+        long pos = 0;
+        while (pos < fileLength)
+        {
+            AtomPosition atom = readAtom(fc, headerBuffer, pos, fileLength);
+            if (atom == null)
+            {
+                break;
+            }
+            if (atom.id.equals(Mp4AtomIdentifier.MOOV.getFieldName()))
+            {
+                moov = atom;
+                followsMoov = true;
+            }
+            else if (followsMoov && atom.id.equals(Mp4AtomIdentifier.FREE.getFieldName()))
+            {
+                padding += atom.end - atom.start;
+            }
+            else
+            {
+                followsMoov = false;
+                if (mdat == null && atom.id.equals(Mp4AtomIdentifier.MDAT.getFieldName()))
+                {
+                    mdat = atom;
+                }
+                if (moov != null && mdat != null)
+                {
+                    break;
+                }
+            }
+            pos = atom.end;
+        }
+
+        if (moov == null)
+        {
+            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+        }
+        long audioStart = mdat != null ? mdat.dataStart : TagRegion.UNKNOWN;
+
+        AtomPosition udta = findChild(fc, headerBuffer, moov.dataStart, moov.end, Mp4AtomIdentifier.UDTA.getFieldName());
+        AtomPosition meta = null;
+        if (udta != null)
+        {
+            meta = findChild(fc, headerBuffer, udta.dataStart, udta.end, Mp4AtomIdentifier.META.getFieldName());
+        }
+        if (meta == null)
+        {
+            return new TagRegion("Mp4", TagRegion.UNKNOWN, 0, padding, audioStart);
+        }
+
+        //Within meta, find ilst and any free atoms
+        AtomPosition ilst = null;
+        pos = meta.dataStart + Mp4MetaBox.FLAGS_LENGTH;
+        while (pos < meta.end)
+        {
+            AtomPosition atom = readAtom(fc, headerBuffer, pos, meta.end);
+            if (atom == null)
+            {
+                break;
+            }
+            if (atom.id.equals(Mp4AtomIdentifier.ILST.getFieldName()))
+            {
+                ilst = atom;
+            }
+            else if (atom.id.equals(Mp4AtomIdentifier.FREE.getFieldName()))
+            {
+                padding += atom.end - atom.start;
+            }
+            pos = atom.end;
+        }
+
+        if (ilst == null)
+        {
+            return new TagRegion("Mp4", TagRegion.UNKNOWN, 0, padding, audioStart);
+        }
+        logger.config("Found ilst at:" + ilst.start + ":size:" + (ilst.end - ilst.start) + ":padding:" + padding);
+        return new TagRegion("Mp4", ilst.start, ilst.end - ilst.start, padding, audioStart);
+    }
+
+    /**
+     * @return the first child of the given id between start and end, or null if there is none
+     */
+    private AtomPosition findChild(FileChannel fc, ByteBuffer headerBuffer, long start, long end, String id) throws IOException
+    {
+        long pos = start;
+        while (pos < end)
+        {
+            AtomPosition atom = readAtom(fc, headerBuffer, pos, end);
+            if (atom == null)
+            {
+                return null;
+            }
+            if (atom.id.equals(id))
+            {
+                return atom;
+            }
+            pos = atom.end;
+        }
+        return null;
+    }
+
+    /**
+     * Read the atom header at pos
+     *
+     * @return the atom, or null if there is no valid atom header at this position within the parent
+     */
+    private AtomPosition readAtom(FileChannel fc, ByteBuffer headerBuffer, long pos, long parentEnd) throws IOException
+    {
+        if (pos + Mp4BoxHeader.HEADER_LENGTH > parentEnd)
+        {
+            return null;
+        }
+        headerBuffer.clear();
+        while (headerBuffer.hasRemaining())
+        {
+            if (fc.read(headerBuffer, pos + headerBuffer.position()) < 0)
+            {
+                break;
+            }
+        }
+        if (headerBuffer.position() < Mp4BoxHeader.HEADER_LENGTH)
+        {
+            return null;
+        }
+
+        AtomPosition atom = new AtomPosition();
+        atom.start = pos;
+        atom.id = Utils.getString(headerBuffer.array(), Mp4BoxHeader.IDENTIFIER_POS, Mp4BoxHeader.IDENTIFIER_LENGTH, "ISO-8859-1");
+        long length = headerBuffer.getInt(Mp4BoxHeader.OFFSET_POS) & 0xffffffffL;
+        atom.dataStart = pos + Mp4BoxHeader.HEADER_LENGTH;
+        if (length == 1)
+        {
+            if (headerBuffer.position() < Mp4BoxHeader.HEADER_LENGTH + LARGE_SIZE_LENGTH)
+            {
+                return null;
+            }
+            length = headerBuffer.getLong(Mp4BoxHeader.HEADER_LENGTH);
+            atom.dataStart += LARGE_SIZE_LENGTH;
+        }
+        else if (length == 0)
+        {
+            //Atom extends to the end of its parent
+            length = parentEnd - pos;
+        }
+
+        if (length < atom.dataStart - pos || pos + length > parentEnd)
+        {
+            logger.warning(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_LENGTH_IS_INVALID.getMsg(atom.id, length));
+            return null;
+        }
+        atom.end = pos + length;
+        return atom;
+    }
+}
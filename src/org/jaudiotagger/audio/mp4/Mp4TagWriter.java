@@ -20,10 +20,11 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.mp4.atom.*;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
 import org.jaudiotagger.tag.mp4.Mp4TagCreator;
 import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
@@ -212,10 +213,10 @@ public class Mp4TagWriter
            logger.config("Started writing tag data");
 
            //Read Channel for reading from old file
-           FileChannel fileReadChannel = raf.getChannel();
+           FileChannel fileReadChannel = AudioFileOperation.current().wrap(raf.getChannel());
 
            //Write channel for writing to new file
-           FileChannel fileWriteChannel = rafTemp.getChannel();
+           FileChannel fileWriteChannel = AudioFileOperation.current().wrap(rafTemp.getChannel());
 
            //TODO we shouldn't need all these variables, and some are very badly named - used by new and old methods
            int oldIlstSize = 0;
@@ -706,7 +707,7 @@ public class Mp4TagWriter
     {
         long amountToBeWritten=fileReadChannel.size() - fileReadChannel.position();
         long written   = 0;
-        long chunksize = TagOptionSingleton.getInstance().getWriteChunkSize();
+        long chunksize = TagOptions.current().getWriteChunkSize();
         long count = amountToBeWritten / chunksize;
 
         long mod   = amountToBeWritten % chunksize;
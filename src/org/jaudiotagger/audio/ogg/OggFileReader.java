@@ -21,8 +21,10 @@ package org.jaudiotagger.audio.ogg;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.TagRegion;
 import org.jaudiotagger.audio.ogg.util.OggInfoReader;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.VorbisHeader;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.File;
@@ -59,6 +61,48 @@ public class OggFileReader extends AudioFileReader
         return vtr.read(raf);
     }
 
+    /**
+     * The tag region of an ogg vorbis file is the pages that hold the comment header, starting with the second page
+     * <p/>
+     * Only the page headers are read, the audio starts on the page following the end of the setup header
+     */
+    protected TagRegion getTagRegion(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        //1st page = codec infos
+        OggPageHeader pageHeader = OggPageHeader.read(raf);
+        raf.seek(raf.getFilePointer() + pageHeader.getPageLength());
+
+        //2nd page = comment, may extend to additional pages or not, may also have setup header
+        long tagStart = raf.getFilePointer();
+        pageHeader = OggPageHeader.read(raf);
+        byte[] b = new byte[VorbisHeader.FIELD_PACKET_TYPE_LENGTH + VorbisHeader.FIELD_CAPTURE_PATTERN_LENGTH];
+        raf.read(b);
+        if (!vtr.isVorbisCommentHeader(b))
+        {
+            throw new CannotReadException("Cannot find comment block (no vorbiscomment header)");
+        }
+        raf.seek(raf.getFilePointer() - b.length);
+
+        //Count the packets completed on each page, the comment header is the first and the setup header the second
+        long tagEnd = TagRegion.UNKNOWN;
+        int packetsCompleted = 0;
+        while (true)
+        {
+            packetsCompleted += pageHeader.getPacketList().size() - (pageHeader.isLastPacketIncomplete() ? 1 : 0);
+            raf.seek(raf.getFilePointer() + pageHeader.getPageLength());
+            if (tagEnd == TagRegion.UNKNOWN && packetsCompleted >= 1)
+            {
+                tagEnd = raf.getFilePointer();
+            }
+            if (packetsCompleted >= 2)
+            {
+                break;
+            }
+            pageHeader = OggPageHeader.read(raf);
+        }
+        return new TagRegion("Ogg Vorbis", tagStart, tagEnd - tagStart, 0, raf.getFilePointer());
+    }
+
     /**
      * Return count Ogg Page header, count starts from zero
      * <p/>
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.ogg;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
 import org.jaudiotagger.tag.Tag;
@@ -76,7 +77,7 @@ public class OggVorbisTagWriter
         raf.seek(pageHeader.getStartByte());
 
         //Write 1st page (unchanged) and place writer pointer at end of data
-        rafTemp.getChannel().transferFrom(raf.getChannel(), 0, pageHeader.getPageLength() + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageHeader.getSegmentTable().length);
+        AudioFileOperation.current().wrap(rafTemp.getChannel()).transferFrom(raf.getChannel(), 0, pageHeader.getPageLength() + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageHeader.getSegmentTable().length);
         rafTemp.skipBytes(pageHeader.getPageLength() + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageHeader.getSegmentTable().length);
         logger.fine("Written identificationHeader:");
 
@@ -241,7 +242,7 @@ public class OggVorbisTagWriter
         raf.getChannel().read(secondPageBuffer);
         calculateChecksumOverPage(secondPageBuffer);
         rafTemp.getChannel().write(secondPageBuffer);
-        rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getFilePointer(), raf.length() - raf.getFilePointer());
+        AudioFileOperation.current().wrap(rafTemp.getChannel()).transferFrom(raf.getChannel(), rafTemp.getFilePointer(), raf.length() - raf.getFilePointer());
     }
 
     /**
@@ -445,13 +446,15 @@ public class OggVorbisTagWriter
     {
         long startAudio = raf.getFilePointer();
         long startAudioWritten = rafTemp.getFilePointer();
+        AudioFileOperation operation = AudioFileOperation.current();
+        long start = operation.startTimer();
 
         //TODO there is a risk we wont have enough memory to create these buffers
         ByteBuffer bb       = ByteBuffer.allocate((int)(raf.length() - raf.getFilePointer()));
         ByteBuffer bbTemp   = ByteBuffer.allocate((int)(raf.length() - raf.getFilePointer()));
 
         //Read in the rest of the data into bytebuffer and rewind it to start
-        raf.getChannel().read(bb);
+        operation.wrap(raf.getChannel()).read(bb);
         bb.rewind();
         while(bb.hasRemaining())
         {
@@ -474,7 +477,8 @@ public class OggVorbisTagWriter
         }
         //Now just write as a single IO operation
         bbTemp.rewind();
-        rafTemp.getChannel().write(bbTemp);
+        operation.wrap(rafTemp.getChannel()).write(bbTemp);
+        operation.dataCopied(bbTemp.limit(), start);
         //Check we have written all the data
         //TODO could we do any other checks to check data written correctly ?
         if ((raf.length() - startAudio) != (rafTemp.length() - startAudioWritten))
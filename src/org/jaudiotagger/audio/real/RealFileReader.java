@@ -1,6 +1,8 @@
 package org.jaudiotagger.audio.real;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.Utils;
@@ -9,20 +11,33 @@ import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 
 /**
  * Real Media File Format: Major Chunks: .RMF PROP MDPR CONT DATA INDX
+ * <p/>
+ * The encoding info and tag are both parsed from the PROP and CONT chunks of the header region, which is read once
+ * by {@link RealHeader}.
  */
 public class RealFileReader extends AudioFileReader
 {
 
     @Override
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return getEncodingInfo(RealHeader.read(raf));
+    }
+
+    private GenericAudioHeader getEncodingInfo(RealHeader header) throws CannotReadException, IOException
     {
         final GenericAudioHeader rv = new GenericAudioHeader();
-        final RealChunk prop = findPropChunk(raf);
+        final RealChunk prop = header.getProp();
+        if (prop == null)
+        {
+            throw new CannotReadException("RealMedia file has no " + RealChunk.PROP + " chunk");
+        }
         final DataInputStream dis = prop.getDataInputStream();
         final int objVersion = Utils.readUint16(dis);
         if (objVersion == 0)
@@ -45,32 +60,25 @@ public class RealFileReader extends AudioFileReader
         return rv;
     }
 
-    private RealChunk findPropChunk(RandomAccessFile raf) throws IOException, CannotReadException
+    @Override
+    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
     {
-        final RealChunk rmf = RealChunk.readChunk(raf);
-        final RealChunk prop = RealChunk.readChunk(raf);
-        return prop;
+        return getTag(RealHeader.read(raf));
     }
 
-    private RealChunk findContChunk(RandomAccessFile raf) throws IOException, CannotReadException
+    private Tag getTag(RealHeader header) throws CannotReadException, IOException
     {
-        final RealChunk rmf = RealChunk.readChunk(raf);
-        final RealChunk prop = RealChunk.readChunk(raf);
-        RealChunk rv = RealChunk.readChunk(raf);
-        while (!rv.isCONT()) rv = RealChunk.readChunk(raf);
-        return rv;
-    }
-
-    @Override
-    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
-    {
-        final RealChunk cont = findContChunk(raf);
+        final RealTag rv = new RealTag();
+        final RealChunk cont = header.getCont();
+        if (cont == null)
+        {
+            return rv;
+        }
         final DataInputStream dis = cont.getDataInputStream();
         final String title = Utils.readString(dis, Utils.readUint16(dis));
         final String author = Utils.readString(dis, Utils.readUint16(dis));
         final String copyright = Utils.readString(dis, Utils.readUint16(dis));
         final String comment = Utils.readString(dis, Utils.readUint16(dis));
-        final RealTag rv = new RealTag();
         // NOTE: frequently these fields are off-by-one, thus the crazy
         // logic below...
         try
@@ -86,5 +94,22 @@ public class RealFileReader extends AudioFileReader
         return rv;
     }
 
-}
+    /**
+     * Read the header region once and parse both the encoding info and tag from it
+     */
+    @Override
+    protected AudioFile getAudioFile(File f, RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        AudioFileOperation operation = AudioFileOperation.current();
+        long start = operation.startTimer();
+        final RealHeader header = RealHeader.read(raf);
+        GenericAudioHeader info = getEncodingInfo(header);
+        operation.stopTimer(AudioFileOperation.Phase.HEADER, start);
 
+        start = operation.startTimer();
+        Tag tag = getTag(header);
+        operation.stopTimer(AudioFileOperation.Phase.TAG, start);
+        return new AudioFile(f, info, tag);
+    }
+
+}
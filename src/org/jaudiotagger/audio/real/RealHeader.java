@@ -0,0 +1,133 @@
+package org.jaudiotagger.audio.real;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The PROP and CONT chunks from the header region of a RealMedia file
+ * <p/>
+ * The header chunks (.RMF, PROP, MDPR and CONT) are small and come before the DATA chunk, so they are normally all
+ * read with a single read into a buffer. MDPR chunks are skipped by size and the walk stops at the DATA or INDX chunk,
+ * or as soon as both the PROP and CONT chunks have been found.
+ */
+public class RealHeader
+{
+    //Large enough for the header region of typical files
+    private static final int HEADER_READ_SIZE = 4096;
+
+    private static final int CHUNK_HEADER_SIZE = 8;
+
+    private final FileChannel fc;
+    private final long fileLength;
+    private ByteBuffer buffer;
+    private long bufferStart;
+
+    private RealChunk prop;
+    private RealChunk cont;
+
+    private RealHeader(RandomAccessFile raf) throws IOException
+    {
+        fc = AudioFileOperation.current().wrap(raf.getChannel());
+        fileLength = fc.size();
+    }
+
+    /**
+     * @param raf
+     * @return the header chunks of the file
+     * @throws CannotReadException if the file is not a RealMedia file or a chunk extends beyond the end of the file
+     * @throws IOException
+     */
+    public static RealHeader read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        RealHeader header = new RealHeader(raf);
+        header.walk();
+        return header;
+    }
+
+    private void walk() throws CannotReadException, IOException
+    {
+        long pos = 0;
+        while (pos + CHUNK_HEADER_SIZE <= fileLength && (prop == null || cont == null))
+        {
+            fill(pos, CHUNK_HEADER_SIZE);
+            int offset = (int) (pos - bufferStart);
+            final String id = Utils.getString(buffer.array(), offset, 4, "ISO-8859-1");
+            final long size = buffer.getInt(offset + 4) & 0xffffffffL;
+            if (pos == 0 && !RealChunk.RMF.equals(id))
+            {
+                throw new CannotReadException("Not a RealMedia file, it does not start with a " + RealChunk.RMF + " chunk");
+            }
+            if (size < CHUNK_HEADER_SIZE)
+            {
+                throw new CannotReadException("Corrupt file: RealAudio chunk length at position " + (pos + 4) + " cannot be less than 8");
+            }
+            if (pos + size > fileLength)
+            {
+                throw new CannotReadException("Corrupt file: RealAudio chunk length of " + size + " at position " + (pos + 4) + " extends beyond the end of the file");
+            }
+            if (RealChunk.DATA.equals(id) || RealChunk.INDX.equals(id))
+            {
+                break;
+            }
+            if (RealChunk.PROP.equals(id) || RealChunk.CONT.equals(id))
+            {
+                fill(pos, (int) size);
+                final byte[] bytes = new byte[(int) size - CHUNK_HEADER_SIZE];
+                System.arraycopy(buffer.array(), (int) (pos - bufferStart) + CHUNK_HEADER_SIZE, bytes, 0, bytes.length);
+                final RealChunk chunk = new RealChunk(id, (int) size, bytes);
+                if (chunk.isPROP() && prop == null)
+                {
+                    prop = chunk;
+                }
+                else if (chunk.isCONT() && cont == null)
+                {
+                    cont = chunk;
+                }
+            }
+            pos += size;
+        }
+    }
+
+    /**
+     * Make sure the buffer holds length bytes from pos, reading a new block from pos if it does not
+     */
+    private void fill(long pos, int length) throws IOException
+    {
+        if (buffer != null && pos >= bufferStart && pos + length <= bufferStart + buffer.limit())
+        {
+            return;
+        }
+        buffer = ByteBuffer.allocate((int) Math.min(Math.max(length, HEADER_READ_SIZE), fileLength - pos));
+        bufferStart = pos;
+        while (buffer.hasRemaining())
+        {
+            if (fc.read(buffer, pos + buffer.position()) < 0)
+            {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return the file properties chunk, or null if the file has none
+     */
+    public RealChunk getProp()
+    {
+        return prop;
+    }
+
+    /**
+     * @return the content description chunk, or null if the file has none
+     */
+    public RealChunk getCont()
+    {
+        return cont;
+    }
+}
@@ -0,0 +1,67 @@
+package org.jaudiotagger.audio.scan;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The audio files added, changed and removed since the previous snapshot, and the snapshot of the new scan which is
+ * compared with the next scan
+ */
+public class LibraryChanges
+{
+    private final List<File> added;
+    private final List<File> changed;
+    private final List<File> removed;
+    private final LibrarySnapshot snapshot;
+
+    LibraryChanges(List<File> added, List<File> changed, List<File> removed, LibrarySnapshot snapshot)
+    {
+        this.added = Collections.unmodifiableList(added);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removed = Collections.unmodifiableList(removed);
+        this.snapshot = snapshot;
+    }
+
+    public List<File> getAdded()
+    {
+        return added;
+    }
+
+    public List<File> getChanged()
+    {
+        return changed;
+    }
+
+    public List<File> getRemoved()
+    {
+        return removed;
+    }
+
+    /**
+     * @return the added and changed files, the files that have to be read
+     */
+    public List<File> getAddedAndChanged()
+    {
+        List<File> files = new ArrayList<File>(added.size() + changed.size());
+        files.addAll(added);
+        files.addAll(changed);
+        return files;
+    }
+
+    public boolean isEmpty()
+    {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    public LibrarySnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    public String toString()
+    {
+        return "Added:" + added.size() + " Changed:" + changed.size() + " Removed:" + removed.size();
+    }
+}
@@ -0,0 +1,277 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileFilter;
+import org.jaudiotagger.audio.AudioFileIO;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scans a directory tree for audio files using a pool of threads, and reports the files added, changed or removed
+ * since a previous scan so only those files have to be read.
+ * <p/>
+ * Each directory is listed by a separate task so the tree is walked by all the threads at once. Files are selected by
+ * their extension before anything else is done with them, names starting with a dot are skipped. For an audio file
+ * only its length and last modified time are looked up, any other entry is only checked to see if it is a directory,
+ * so an entry with an audio file extension is always taken to be a file.
+ * <p/>
+ * Directories are identified by their canonical path and each is only listed once, so a symbolic link to a directory
+ * already in the tree, such as a link to a parent directory, does not cause files to be reported more than once.
+ */
+public class LibraryScanner
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.scan");
+
+    private final int threadCount;
+
+    /**
+     * A directory listed by a {@link DirectoryTask}
+     */
+    private static class DirectoryListing
+    {
+        private final List<File> directories = new ArrayList<File>();
+        private final List<String> canonicalDirectories = new ArrayList<String>();
+        private final List<File> files = new ArrayList<File>();
+        private final List<long[]> states = new ArrayList<long[]>();
+    }
+
+    private static class DirectoryTask implements Callable<DirectoryListing>
+    {
+        private final File directory;
+
+        private DirectoryTask(File directory)
+        {
+            this.directory = directory;
+        }
+
+        public DirectoryListing call()
+        {
+            DirectoryListing listing = new DirectoryListing();
+            File[] children = directory.listFiles();
+            if (children == null)
+            {
+                logger.warning("Unable to list directory:" + directory);
+                return listing;
+            }
+            for (File child : children)
+            {
+                String name = child.getName();
+                if (name.startsWith("."))
+                {
+                    continue;
+                }
+                int index = name.lastIndexOf('.');
+                if (index != -1 && AudioFileFilter.isSupportedExtension(name.substring(index + 1).toLowerCase()))
+                {
+                    long lastModified = child.lastModified();
+                    //Zero if the file has been deleted since the directory was listed
+                    if (lastModified != 0)
+                    {
+                        listing.files.add(child);
+                        listing.states.add(new long[]{child.length(), lastModified});
+                    }
+                }
+                else if (child.isDirectory())
+                {
+                    try
+                    {
+                        listing.canonicalDirectories.add(child.getCanonicalPath());
+                        listing.directories.add(child);
+                    }
+                    catch (IOException ioe)
+                    {
+                        logger.warning("Unable to resolve directory:" + child + ":" + ioe.getMessage());
+                    }
+                }
+            }
+            return listing;
+        }
+    }
+
+    /**
+     * @param threadCount number of threads used to list directories and read files
+     */
+    public LibraryScanner(int threadCount)
+    {
+        if (threadCount <= 0)
+        {
+            throw new IllegalArgumentException("Thread count must be positive:" + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Create a scanner using a thread for each processor
+     */
+    public LibraryScanner()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Scan the directory tree
+     *
+     * @param root     directory to scan
+     * @param previous snapshot of the previous scan of the same tree, or {@link LibrarySnapshot#EMPTY}
+     * @return the files added, changed and removed since the previous snapshot, each sorted by path
+     * @throws IOException if the scan is interrupted or a directory task fails
+     */
+    public LibraryChanges scan(File root, LibrarySnapshot previous) throws IOException
+    {
+        Map<String, long[]> files = new HashMap<String, long[]>(Math.max(16, previous.size() * 2));
+        List<File> added = new ArrayList<File>();
+        List<File> changed = new ArrayList<File>();
+
+        Set<String> visited = new HashSet<String>();
+        visited.add(root.getCanonicalPath());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            CompletionService<DirectoryListing> completionService = new ExecutorCompletionService<DirectoryListing>(executor);
+            completionService.submit(new DirectoryTask(root.getAbsoluteFile()));
+            int pending = 1;
+            while (pending > 0)
+            {
+                DirectoryListing listing = getResult(completionService.take());
+                pending--;
+                for (int i = 0; i < listing.directories.size(); i++)
+                {
+                    if (visited.add(listing.canonicalDirectories.get(i)))
+                    {
+                        completionService.submit(new DirectoryTask(listing.directories.get(i)));
+                        pending++;
+                    }
+                    else
+                    {
+                        logger.config("Skipping directory already scanned:" + listing.directories.get(i));
+                    }
+                }
+                for (int i = 0; i < listing.files.size(); i++)
+                {
+                    File file = listing.files.get(i);
+                    long[] state = listing.states.get(i);
+                    String path = file.getPath();
+                    files.put(path, state);
+                    if (!previous.contains(path))
+                    {
+                        added.add(file);
+                    }
+                    else if (previous.isChanged(path, state[0], state[1]))
+                    {
+                        changed.add(file);
+                    }
+                }
+            }
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Scan of " + root + " was interrupted");
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        List<File> removed = new ArrayList<File>();
+        for (String path : previous.getPaths())
+        {
+            if (!files.containsKey(path))
+            {
+                removed.add(new File(path));
+            }
+        }
+        Collections.sort(added);
+        Collections.sort(changed);
+        Collections.sort(removed);
+        LibraryChanges changes = new LibraryChanges(added, changed, removed, new LibrarySnapshot(files));
+        logger.config("Scanned " + root + ", " + files.size() + " files " + changes);
+        return changes;
+    }
+
+    /**
+     * Read the files with {@link AudioFileIO} using the pool of threads, typically the added and changed files of a
+     * scan. Files that cannot be read are logged and left out of the result.
+     *
+     * @param files
+     * @return the files that were read, in the same order as given
+     * @throws IOException if interrupted
+     */
+    public Map<File, AudioFile> read(Collection<File> files) throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try
+        {
+            Map<File, Future<AudioFile>> futures = new LinkedHashMap<File, Future<AudioFile>>();
+            for (final File file : files)
+            {
+                futures.put(file, executor.submit(new Callable<AudioFile>()
+                {
+                    public AudioFile call() throws Exception
+                    {
+                        return AudioFileIO.read(file);
+                    }
+                }));
+            }
+            Map<File, AudioFile> audioFiles = new LinkedHashMap<File, AudioFile>();
+            for (Map.Entry<File, Future<AudioFile>> next : futures.entrySet())
+            {
+                try
+                {
+                    audioFiles.put(next.getKey(), next.getValue().get());
+                }
+                catch (ExecutionException ee)
+                {
+                    logger.log(Level.WARNING, "Unable to read:" + next.getKey(), ee.getCause());
+                }
+            }
+            return audioFiles;
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reading files was interrupted");
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DirectoryListing getResult(Future<DirectoryListing> future) throws IOException, InterruptedException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (ExecutionException ee)
+        {
+            if (ee.getCause() instanceof IOException)
+            {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException("Scan failed:" + ee.getCause(), ee.getCause());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.jaudiotagger.audio.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The audio files found by a scan of a directory tree with the length and last modified time of each, compared with
+ * the next scan to find which files have changed
+ */
+public class LibrarySnapshot
+{
+    private static final int SNAPSHOT_FILE_ID = 0x4a41534e;
+    private static final int SNAPSHOT_FILE_VERSION = 1;
+
+    /**
+     * A snapshot holding no files, so every file is added when compared with it
+     */
+    public static final LibrarySnapshot EMPTY = new LibrarySnapshot(new HashMap<String, long[]>());
+
+    //Length and last modified time keyed by absolute path
+    private final Map<String, long[]> files;
+
+    LibrarySnapshot(Map<String, long[]> files)
+    {
+        this.files = files;
+    }
+
+    /**
+     * @return the absolute paths of the files
+     */
+    public Set<String> getPaths()
+    {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    public int size()
+    {
+        return files.size();
+    }
+
+    public boolean contains(String path)
+    {
+        return files.containsKey(path);
+    }
+
+    /**
+     * @param path
+     * @param length
+     * @param lastModified
+     * @return true if the snapshot holds the file with a different length or last modified time
+     */
+    boolean isChanged(String path, long length, long lastModified)
+    {
+        long[] state = files.get(path);
+        return state != null && (state[0] != length || state[1] != lastModified);
+    }
+
+    /**
+     * @param snapshotFile
+     * @throws IOException
+     */
+    public void save(File snapshotFile) throws IOException
+    {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(snapshotFile)));
+        try
+        {
+            out.writeInt(SNAPSHOT_FILE_ID);
+            out.writeInt(SNAPSHOT_FILE_VERSION);
+            out.writeInt(files.size());
+            for (Map.Entry<String, long[]> next : files.entrySet())
+            {
+                out.writeUTF(next.getKey());
+                out.writeLong(next.getValue()[0]);
+                out.writeLong(next.getValue()[1]);
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * @param snapshotFile
+     * @return the saved snapshot, or {@link #EMPTY} if the file does not exist
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static LibrarySnapshot load(File snapshotFile) throws IOException
+    {
+        if (!snapshotFile.exists())
+        {
+            return EMPTY;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+        try
+        {
+            if (in.readInt() != SNAPSHOT_FILE_ID || in.readInt() != SNAPSHOT_FILE_VERSION)
+            {
+                throw new IOException("Not a library snapshot:" + snapshotFile);
+            }
+            int count = in.readInt();
+            Map<String, long[]> files = new HashMap<String, long[]>(count * 2);
+            for (int i = 0; i < count; i++)
+            {
+                files.put(in.readUTF(), new long[]{in.readLong(), in.readLong()});
+            }
+            return new LibrarySnapshot(files);
+        }
+        catch (EOFException eofe)
+        {
+            throw new IOException("Library snapshot is truncated:" + snapshotFile);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+}
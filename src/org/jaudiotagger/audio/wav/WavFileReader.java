@@ -21,7 +21,6 @@ package org.jaudiotagger.audio.wav;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
-import org.jaudiotagger.audio.generic.GenericTag;
 import org.jaudiotagger.audio.wav.util.WavInfoReader;
 import org.jaudiotagger.tag.Tag;
 
@@ -32,14 +31,15 @@ public class WavFileReader extends AudioFileReader
 {
 
     private WavInfoReader ir = new WavInfoReader();
+    private WavTagReader tr = new WavTagReader();
 
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
     {
         return ir.read(raf);
     }
 
-    protected Tag getTag(RandomAccessFile raf) throws CannotReadException
-    {           
-        return new WavTag();
+    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return tr.read(raf);
     }
 }
\ No newline at end of file
@@ -25,15 +25,20 @@ import org.jaudiotagger.tag.Tag;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 
+/**
+ * Write/delete the LIST INFO and id3 chunks of a wav file
+ */
 public class WavFileWriter extends AudioFileWriter
 {
+    private WavTagWriter tw = new WavTagWriter();
+
     protected void writeTag(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
     {
-        //Nothing to do for wav file, no tag are supported
+        tw.write(tag, raf, rafTemp);
     }
 
     protected void deleteTag(RandomAccessFile raf, RandomAccessFile tempRaf) throws CannotWriteException, IOException
     {
-        //Nothing to do for wav file, no tag are supported
+        tw.delete(raf, tempRaf);
     }
 }
\ No newline at end of file
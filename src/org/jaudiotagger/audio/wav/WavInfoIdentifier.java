@@ -0,0 +1,75 @@
+package org.jaudiotagger.audio.wav;
+
+import org.jaudiotagger.tag.FieldKey;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The subchunks of a LIST INFO chunk that map to the fields supported by {@link WavTag}
+ * <p/>
+ * Other subchunks are kept by the tag as they were read so they are not lost when the file is written.
+ */
+public enum WavInfoIdentifier
+{
+    ARTIST("IART", FieldKey.ARTIST),
+    ALBUM("IPRD", FieldKey.ALBUM),
+    TITLE("INAM", FieldKey.TITLE),
+    TRACK("ITRK", FieldKey.TRACK),
+    YEAR("ICRD", FieldKey.YEAR),
+    GENRE("IGNR", FieldKey.GENRE),
+    COMMENT("ICMT", FieldKey.COMMENT),;
+
+    private static final Map<String, WavInfoIdentifier> CODE_TYPE_MAP = new HashMap<String, WavInfoIdentifier>();
+    private static final Map<FieldKey, WavInfoIdentifier> FIELDKEY_TYPE_MAP = new EnumMap<FieldKey, WavInfoIdentifier>(FieldKey.class);
+
+    static
+    {
+        for (WavInfoIdentifier next : values())
+        {
+            CODE_TYPE_MAP.put(next.getCode(), next);
+            FIELDKEY_TYPE_MAP.put(next.getFieldKey(), next);
+        }
+    }
+
+    private String code;
+    private FieldKey fieldKey;
+
+    WavInfoIdentifier(String code, FieldKey fieldKey)
+    {
+        this.code = code;
+        this.fieldKey = fieldKey;
+    }
+
+    /**
+     * @return the four character subchunk identifier
+     */
+    public String getCode()
+    {
+        return code;
+    }
+
+    public FieldKey getFieldKey()
+    {
+        return fieldKey;
+    }
+
+    /**
+     * @param code
+     * @return the identifier for this subchunk code, or null if it is not mapped to a field
+     */
+    public static WavInfoIdentifier getByCode(String code)
+    {
+        return CODE_TYPE_MAP.get(code);
+    }
+
+    /**
+     * @param fieldKey
+     * @return the identifier for this field, or null if it cannot be stored in an INFO chunk
+     */
+    public static WavInfoIdentifier getByFieldKey(FieldKey fieldKey)
+    {
+        return FIELDKEY_TYPE_MAP.get(fieldKey);
+    }
+}
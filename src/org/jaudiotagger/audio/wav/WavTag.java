@@ -19,12 +19,86 @@
 package org.jaudiotagger.audio.wav;
 
 import org.jaudiotagger.audio.generic.GenericTag;
+import org.jaudiotagger.audio.wav.util.WavBextChunk;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tag for a Wav file
+ * <p/>
+ * The common fields are held as generic fields, they are stored in the LIST INFO chunk of the file. If the file also
+ * has an id3 chunk its ID3v2 tag is available with {@link #getID3Tag()}, it is written back with the common fields
+ * updated to match this tag. The bext chunk of a Broadcast Wave file is available with {@link #getBextChunk()}, it is
+ * read only and is left unchanged when the file is written.
+ */
 public class WavTag extends GenericTag
 {
+    private AbstractID3v2Tag id3Tag;
+
+    private WavBextChunk bextChunk;
+
+    //INFO subchunks that do not map to a generic field, keyed by their identifier
+    private final Map<String, String> otherInfoFields = new LinkedHashMap<String, String>();
+
+    /**
+     * @return the ID3v2 tag held in the id3 chunk, or null if there is none
+     */
+    public AbstractID3v2Tag getID3Tag()
+    {
+        return id3Tag;
+    }
+
+    /**
+     * @param id3Tag ID3v2 tag to write to an id3 chunk, null to remove the id3 chunk
+     */
+    public void setID3Tag(AbstractID3v2Tag id3Tag)
+    {
+        this.id3Tag = id3Tag;
+    }
+
+    /**
+     * @return the Broadcast Wave bext chunk, or null if there is none
+     */
+    public WavBextChunk getBextChunk()
+    {
+        return bextChunk;
+    }
+
+    public void setBextChunk(WavBextChunk bextChunk)
+    {
+        this.bextChunk = bextChunk;
+    }
+
+    /**
+     * @return INFO subchunks that are not mapped to a generic field, keyed by their identifier
+     */
+    public Map<String, String> getOtherInfoFields()
+    {
+        return Collections.unmodifiableMap(otherInfoFields);
+    }
+
+    /**
+     * Keep an INFO subchunk that is not mapped to a generic field
+     *
+     * @param id    four character subchunk identifier
+     * @param value
+     */
+    public void setOtherInfoField(String id, String value)
+    {
+        otherInfoFields.put(id, value);
+    }
+
+    public boolean isEmpty()
+    {
+        return super.isEmpty() && otherInfoFields.isEmpty() && (id3Tag == null || id3Tag.isEmpty());
+    }
+
     public String toString()
     {
         String output = "WAV " + super.toString();
         return output;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package org.jaudiotagger.audio.wav;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.wav.util.WavBextChunk;
+import org.jaudiotagger.audio.wav.util.WavChunkHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkReader;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v22Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.logging.Logger;
+
+/**
+ * Read the tag of a Wav file from its LIST INFO and id3 chunks
+ * <p/>
+ * Only the metadata chunks are read, all other chunks including the data chunk are skipped over. Common fields found
+ * in the ID3v2 tag take precedence over the INFO chunk, because INFO text is ISO-8859-1 so may only hold an
+ * approximation of the value. The bext chunk of a Broadcast Wave file is also read.
+ */
+public class WavTagReader
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+    //INFO text is null terminated ascii
+    public static final String INFO_ENCODING = "ISO-8859-1";
+
+    private static final int ID_LENGTH = 4;
+
+    //Position of the major version within an ID3v2 header
+    private static final int ID3_MAJOR_VERSION_POS = 3;
+
+    private WavChunkReader chunkReader = new WavChunkReader();
+
+    public WavTag read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        WavTag tag = new WavTag();
+        for (WavChunkHeader chunk : chunkReader.read(raf))
+        {
+            if (WavChunkReader.isInfoChunk(chunk))
+            {
+                ByteBuffer data = WavChunkReader.readChunkData(raf, chunk);
+                if (data != null)
+                {
+                    readInfoChunk(data, tag);
+                }
+            }
+            else if (WavChunkReader.isId3Chunk(chunk) && tag.getID3Tag() == null)
+            {
+                ByteBuffer data = WavChunkReader.readChunkData(raf, chunk);
+                if (data != null)
+                {
+                    tag.setID3Tag(readId3Chunk(data, chunk));
+                }
+            }
+            else if (chunk.getId().equals(WavChunkReader.BEXT_CHUNK) && tag.getBextChunk() == null)
+            {
+                ByteBuffer data = WavChunkReader.readChunkData(raf, chunk);
+                if (data != null && data.remaining() >= WavBextChunk.FIXED_SIZE)
+                {
+                    tag.setBextChunk(new WavBextChunk(data));
+                }
+                else
+                {
+                    logger.warning("bext chunk not valid:" + chunk);
+                }
+            }
+        }
+
+        if (tag.getID3Tag() != null)
+        {
+            for (WavInfoIdentifier next : WavInfoIdentifier.values())
+            {
+                String value = tag.getID3Tag().getFirst(next.getFieldKey());
+                if (value.length() > 0 && !value.equals(tag.getFirst(next.getFieldKey())))
+                {
+                    setField(tag, next.getFieldKey(), value);
+                }
+            }
+        }
+        return tag;
+    }
+
+    /**
+     * Read the subchunks of a LIST INFO chunk, the data starts with the INFO list type
+     */
+    private void readInfoChunk(ByteBuffer data, WavTag tag)
+    {
+        data.position(ID_LENGTH);
+        while (data.remaining() >= WavChunkHeader.CHUNK_HEADER_SIZE)
+        {
+            String id = Utils.getString(data, 0, ID_LENGTH, INFO_ENCODING);
+            long size = data.getInt() & 0xffffffffL;
+            if (size > data.remaining())
+            {
+                logger.warning("INFO subchunk:" + id + " size:" + size + " is larger than the remaining INFO chunk");
+                break;
+            }
+
+            //Remove the null terminator, some writers include more than one
+            int length = (int) size;
+            while (length > 0 && data.get(data.position() + length - 1) == 0)
+            {
+                length--;
+            }
+            String value = Utils.getString(data, 0, length, INFO_ENCODING);
+            data.position(data.position() + (int) size - length);
+            if (size % 2 != 0 && data.hasRemaining())
+            {
+                data.get();
+            }
+
+            WavInfoIdentifier identifier = WavInfoIdentifier.getByCode(id);
+            if (identifier != null)
+            {
+                if (tag.getFirst(identifier.getFieldKey()).length() == 0)
+                {
+                    setField(tag, identifier.getFieldKey(), value);
+                }
+            }
+            else
+            {
+                tag.setOtherInfoField(id, value);
+            }
+        }
+    }
+
+    private void setField(WavTag tag, FieldKey fieldKey, String value)
+    {
+        try
+        {
+            tag.setField(fieldKey, value);
+        }
+        catch (FieldDataInvalidException fdie)
+        {
+            logger.warning("Unable to set field:" + fieldKey + ":" + fdie.getMessage());
+        }
+    }
+
+    /**
+     * @return the ID3v2 tag held in an id3 chunk, or null if it does not hold a valid tag
+     */
+    private AbstractID3v2Tag readId3Chunk(ByteBuffer data, WavChunkHeader chunk)
+    {
+        if (data.remaining() <= ID3_MAJOR_VERSION_POS)
+        {
+            return null;
+        }
+        //ID3v2 is big endian
+        data.order(ByteOrder.BIG_ENDIAN);
+        try
+        {
+            switch (data.get(ID3_MAJOR_VERSION_POS))
+            {
+                case ID3v22Tag.MAJOR_VERSION:
+                    return new ID3v22Tag(data, "");
+
+                case ID3v23Tag.MAJOR_VERSION:
+                    return new ID3v23Tag(data, "");
+
+                case ID3v24Tag.MAJOR_VERSION:
+                    return new ID3v24Tag(data, "");
+
+                default:
+                    logger.warning("Unknown ID3v2 version in chunk:" + chunk);
+                    return null;
+            }
+        }
+        catch (TagException te)
+        {
+            logger.warning("Unable to read ID3v2 tag in chunk:" + chunk + ":" + te.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package org.jaudiotagger.audio.wav;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.IffChunkUtils;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.wav.util.WavChunkHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkReader;
+import org.jaudiotagger.tag.FieldDataInvalidException;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Write the tag of a Wav file as a LIST INFO chunk and, if the tag has an ID3v2 tag, an id3 chunk
+ * <p/>
+ * INFO text is ISO-8859-1, if a common field holds other characters an id3 chunk is added so the value is not lost.
+ * <p/>
+ * The metadata chunks are always written at the end of the file. If the existing metadata chunks already follow all
+ * other chunks (including the data chunk) the file is modified in place, only the metadata chunks are rewritten and
+ * the file is truncated or extended to fit. Otherwise the other chunks are copied to the temporary file followed by the
+ * new metadata chunks, so later writes to the same file can be done in place.
+ */
+public class WavTagWriter
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+    //Largest file size that can be held in the 32 bit RIFF size
+    private static final long MAXIMUM_RIFF_FILE_SIZE = 0xffffffffL + WavChunkHeader.CHUNK_HEADER_SIZE;
+
+    private WavChunkReader chunkReader = new WavChunkReader();
+
+    /**
+     * Delete the metadata chunks from the file
+     *
+     * @param raf
+     * @param tempRaf
+     * @throws IOException
+     * @throws CannotWriteException
+     */
+    public void delete(RandomAccessFile raf, RandomAccessFile tempRaf) throws IOException, CannotWriteException
+    {
+        write(new WavTag(), raf, tempRaf);
+    }
+
+    /**
+     * Write tag to file
+     *
+     * @param tag
+     * @param raf
+     * @param rafTemp only written to if the metadata chunks have to be moved to the end of the file
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public void write(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    {
+        List<WavChunkHeader> chunks;
+        try
+        {
+            chunks = chunkReader.read(raf);
+        }
+        catch (CannotReadException cre)
+        {
+            throw new CannotWriteException(cre.getMessage());
+        }
+
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        long fileLength = fc.size();
+
+        //The metadata chunks are written after the last of the other chunks
+        long tailStart = WavChunkReader.RIFF_HEADER_SIZE;
+        for (WavChunkHeader chunk : chunks)
+        {
+            if (!WavChunkReader.isMetadataChunk(chunk))
+            {
+                if (chunk.getDataStart() + chunk.getSize() > fileLength)
+                {
+                    throw new CannotWriteException("Unable to write tag because the file is truncated, chunk:" + chunk + " extends beyond the end of the file");
+                }
+                tailStart = chunk.getEnd();
+            }
+        }
+        boolean inPlace = true;
+        for (WavChunkHeader chunk : chunks)
+        {
+            if (WavChunkReader.isMetadataChunk(chunk) && chunk.getStart() < tailStart)
+            {
+                inPlace = false;
+            }
+        }
+
+        ByteBuffer metadata = ByteBuffer.wrap(createMetadataChunks((WavTag) tag));
+        if (inPlace)
+        {
+            logger.config("Writing metadata chunks in place at:" + tailStart);
+            checkRiffSize(chunks, tailStart + metadata.limit());
+            IffChunkUtils.writePadByteIfMissing(fc, tailStart);
+            IffChunkUtils.writeFully(fc, metadata, tailStart);
+            fc.truncate(tailStart + metadata.limit());
+            writeRiffSize(chunks, fc);
+        }
+        else
+        {
+            logger.config("Metadata chunks precede the audio, moving them to the end of the file");
+            FileChannel fcTemp = AudioFileOperation.current().wrap(rafTemp.getChannel());
+            IffChunkUtils.transfer(fc, 0, WavChunkReader.RIFF_HEADER_SIZE, fcTemp);
+            for (WavChunkHeader chunk : chunks)
+            {
+                if (!WavChunkReader.isMetadataChunk(chunk))
+                {
+                    IffChunkUtils.copyChunk(fc, chunk.getStart(), chunk.getDataStart() + chunk.getSize(), fcTemp);
+                }
+            }
+            checkRiffSize(chunks, fcTemp.size() + metadata.limit());
+            IffChunkUtils.writeFully(fcTemp, metadata, fcTemp.size());
+            writeRiffSize(chunks, fcTemp);
+        }
+    }
+
+    /**
+     * Create the LIST INFO chunk and id3 chunk for the tag, the INFO chunk is omitted if it would be empty and the id3
+     * chunk if the tag has no ID3v2 tag and does not need one
+     *
+     * @param tag
+     * @return the chunks
+     * @throws IOException
+     * @throws CannotWriteException if the ID3v2 tag cannot be updated
+     */
+    private byte[] createMetadataChunks(WavTag tag) throws IOException, CannotWriteException
+    {
+        ByteArrayOutputStream info = new ByteArrayOutputStream();
+        for (WavInfoIdentifier next : WavInfoIdentifier.values())
+        {
+            writeInfoSubChunk(info, next.getCode(), tag.getFirst(next.getFieldKey()));
+        }
+        for (Map.Entry<String, String> next : tag.getOtherInfoFields().entrySet())
+        {
+            writeInfoSubChunk(info, next.getKey(), next.getValue());
+        }
+
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        if (info.size() > 0)
+        {
+            writeChunkHeader(chunks, WavChunkReader.LIST_CHUNK, info.size() + WavChunkReader.INFO_LIST_TYPE.length());
+            chunks.write(Utils.getDefaultBytes(WavChunkReader.INFO_LIST_TYPE, WavTagReader.INFO_ENCODING));
+            info.writeTo(chunks);
+        }
+
+        AbstractID3v2Tag id3Tag = tag.getID3Tag();
+        if (id3Tag == null && needsId3Tag(tag))
+        {
+            id3Tag = new ID3v23Tag();
+        }
+        if (id3Tag != null)
+        {
+            updateId3Tag(tag, id3Tag);
+            ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+            id3Tag.write(id3);
+            writeChunkHeader(chunks, WavChunkReader.ID3_CHUNK, id3.size());
+            id3.writeTo(chunks);
+            if (id3.size() % 2 != 0)
+            {
+                chunks.write(0);
+            }
+        }
+        return chunks.toByteArray();
+    }
+
+    /**
+     * @return true if a common field holds characters that cannot be written to the INFO chunk
+     */
+    private boolean needsId3Tag(WavTag tag)
+    {
+        for (WavInfoIdentifier next : WavInfoIdentifier.values())
+        {
+            if (!IffChunkUtils.isTextChunkEncodable(tag.getFirst(next.getFieldKey())))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set the common fields of the ID3v2 tag to match the tag, fields whose value has not changed are left alone so
+     * any extra information they hold (such as a track total) is kept
+     */
+    private void updateId3Tag(WavTag tag, AbstractID3v2Tag id3Tag) throws CannotWriteException
+    {
+        for (WavInfoIdentifier next : WavInfoIdentifier.values())
+        {
+            String value = tag.getFirst(next.getFieldKey());
+            if (value.equals(id3Tag.getFirst(next.getFieldKey())))
+            {
+                continue;
+            }
+            if (value.length() == 0)
+            {
+                id3Tag.deleteField(next.getFieldKey());
+            }
+            else
+            {
+                try
+                {
+                    id3Tag.setField(next.getFieldKey(), value);
+                }
+                catch (FieldDataInvalidException fdie)
+                {
+                    throw new CannotWriteException(fdie.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a null terminated INFO subchunk, nothing is written for an empty value
+     */
+    private void writeInfoSubChunk(ByteArrayOutputStream out, String id, String value) throws IOException
+    {
+        if (value == null || value.length() == 0)
+        {
+            return;
+        }
+        byte[] data = Utils.getDefaultBytes(value, WavTagReader.INFO_ENCODING);
+        int size = data.length + 1;
+        writeChunkHeader(out, id, size);
+        out.write(data);
+        out.write(0);
+        if (size % 2 != 0)
+        {
+            out.write(0);
+        }
+    }
+
+    private void writeChunkHeader(ByteArrayOutputStream out, String id, int size) throws IOException
+    {
+        out.write(Utils.getDefaultBytes(id, WavTagReader.INFO_ENCODING));
+        out.write(Utils.getSizeLEInt32(size));
+    }
+
+    /**
+     * Only an RF64 file can be larger than 4GB
+     */
+    private void checkRiffSize(List<WavChunkHeader> chunks, long fileSize) throws CannotWriteException
+    {
+        if (fileSize > MAXIMUM_RIFF_FILE_SIZE && !WavChunkReader.isRf64(chunks))
+        {
+            throw new CannotWriteException("Unable to write tag because the file would be larger than 4GB");
+        }
+    }
+
+    /**
+     * Set the RIFF size to match the size of the file, for an RF64 file the 64 bit size held in the ds64 chunk is set
+     * and the RIFF size is left as 0xFFFFFFFF
+     */
+    private void writeRiffSize(List<WavChunkHeader> chunks, FileChannel fc) throws IOException
+    {
+        ByteBuffer riffSize = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        long position;
+        if (WavChunkReader.isRf64(chunks))
+        {
+            riffSize.putLong(fc.size() - WavChunkHeader.CHUNK_HEADER_SIZE);
+            position = chunks.get(0).getDataStart();
+        }
+        else
+        {
+            riffSize.putInt((int) (fc.size() - WavChunkHeader.CHUNK_HEADER_SIZE));
+            position = WavChunkReader.RIFF_SIZE_POS;
+        }
+        riffSize.flip();
+        IffChunkUtils.writeFully(fc, riffSize, position);
+    }
+}
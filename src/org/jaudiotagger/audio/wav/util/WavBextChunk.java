@@ -0,0 +1,187 @@
+package org.jaudiotagger.audio.wav.util;
+
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The Broadcast Audio Extension (bext) chunk of a Broadcast Wave (BWF) file
+ * <p/>
+ * The chunk has a fixed part of 602 bytes followed by the coding history, text fields are ascii padded with nulls.
+ * The loudness fields were added in version 2 of the chunk and are zero in earlier versions.
+ */
+public class WavBextChunk
+{
+    private static final String ENCODING = "ISO-8859-1";
+
+    private static final int DESCRIPTION_SIZE = 256;
+    private static final int ORIGINATOR_SIZE = 32;
+    private static final int ORIGINATOR_REFERENCE_SIZE = 32;
+    private static final int ORIGINATION_DATE_SIZE = 10;
+    private static final int ORIGINATION_TIME_SIZE = 8;
+    private static final int UMID_SIZE = 64;
+    private static final int RESERVED_SIZE = 180;
+
+    public static final int FIXED_SIZE = 602;
+
+    private String description;
+    private String originator;
+    private String originatorReference;
+    private String originationDate;
+    private String originationTime;
+    private long timeReference;
+    private int version;
+    private byte[] umid = new byte[UMID_SIZE];
+    private short loudnessValue;
+    private short loudnessRange;
+    private short maxTruePeakLevel;
+    private short maxMomentaryLoudness;
+    private short maxShortTermLoudness;
+    private String codingHistory;
+
+    /**
+     * @param data the chunk data, excluding the chunk header
+     * @throws IllegalArgumentException if the data is smaller than the fixed part of the chunk
+     */
+    public WavBextChunk(ByteBuffer data)
+    {
+        if (data.remaining() < FIXED_SIZE)
+        {
+            throw new IllegalArgumentException("bext chunk is too small:" + data.remaining());
+        }
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        description = getText(data, DESCRIPTION_SIZE);
+        originator = getText(data, ORIGINATOR_SIZE);
+        originatorReference = getText(data, ORIGINATOR_REFERENCE_SIZE);
+        originationDate = getText(data, ORIGINATION_DATE_SIZE);
+        originationTime = getText(data, ORIGINATION_TIME_SIZE);
+        timeReference = data.getLong();
+        version = data.getShort() & 0xffff;
+        data.get(umid);
+        loudnessValue = data.getShort();
+        loudnessRange = data.getShort();
+        maxTruePeakLevel = data.getShort();
+        maxMomentaryLoudness = data.getShort();
+        maxShortTermLoudness = data.getShort();
+        data.position(data.position() + RESERVED_SIZE);
+        codingHistory = getText(data, data.remaining());
+    }
+
+    /**
+     * Read a null padded text field
+     */
+    private static String getText(ByteBuffer data, int size)
+    {
+        int length = 0;
+        while (length < size && data.get(data.position() + length) != 0)
+        {
+            length++;
+        }
+        String text = Utils.getString(data, 0, length, ENCODING);
+        data.position(data.position() + size - length);
+        return text;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public String getOriginator()
+    {
+        return originator;
+    }
+
+    public String getOriginatorReference()
+    {
+        return originatorReference;
+    }
+
+    /**
+     * @return the date the audio was created as yyyy:mm:dd
+     */
+    public String getOriginationDate()
+    {
+        return originationDate;
+    }
+
+    /**
+     * @return the time the audio was created as hh:mm:ss
+     */
+    public String getOriginationTime()
+    {
+        return originationTime;
+    }
+
+    /**
+     * @return the number of samples since midnight of the first sample
+     */
+    public long getTimeReference()
+    {
+        return timeReference;
+    }
+
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * @return the SMPTE UMID, all zeros if not set
+     */
+    public byte[] getUmid()
+    {
+        return umid.clone();
+    }
+
+    /**
+     * @return integrated loudness in hundredths of LUFS
+     */
+    public short getLoudnessValue()
+    {
+        return loudnessValue;
+    }
+
+    /**
+     * @return loudness range in hundredths of LU
+     */
+    public short getLoudnessRange()
+    {
+        return loudnessRange;
+    }
+
+    /**
+     * @return maximum true peak level in hundredths of dBTP
+     */
+    public short getMaxTruePeakLevel()
+    {
+        return maxTruePeakLevel;
+    }
+
+    /**
+     * @return maximum momentary loudness in hundredths of LUFS
+     */
+    public short getMaxMomentaryLoudness()
+    {
+        return maxMomentaryLoudness;
+    }
+
+    /**
+     * @return maximum short term loudness in hundredths of LUFS
+     */
+    public short getMaxShortTermLoudness()
+    {
+        return maxShortTermLoudness;
+    }
+
+    public String getCodingHistory()
+    {
+        return codingHistory;
+    }
+
+    public String toString()
+    {
+        return "Description:" + description + "\n" + "Originator:" + originator + "\n" + "Originator Reference:" + originatorReference + "\n" + "Origination:" + originationDate + " " + originationTime + "\n" + "Time Reference:" + timeReference + "\n" + "Version:" + version + "\n" + "Coding History:" + codingHistory + "\n";
+    }
+}
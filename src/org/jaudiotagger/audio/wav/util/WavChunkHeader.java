@@ -0,0 +1,74 @@
+package org.jaudiotagger.audio.wav.util;
+
+/**
+ * The header of a chunk within a RIFF WAVE file, its four character identifier and the size of its data
+ * <p/>
+ * Chunks are word aligned, a chunk with an odd size is followed by a pad byte that is not included in its size.
+ */
+public class WavChunkHeader
+{
+    /**
+     * Identifier followed by the 32 bit little endian size
+     */
+    public static final int CHUNK_HEADER_SIZE = 8;
+
+    private final String id;
+    private final long start;
+    private final long size;
+    private final String listType;
+
+    /**
+     * @param id       the four character chunk identifier
+     * @param start    file offset of the chunk header
+     * @param size     size of the chunk data, excluding the header and pad byte
+     * @param listType for a LIST chunk the four character list type, otherwise null
+     */
+    public WavChunkHeader(String id, long start, long size, String listType)
+    {
+        this.id = id;
+        this.start = start;
+        this.size = size;
+        this.listType = listType;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public long getStart()
+    {
+        return start;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    public String getListType()
+    {
+        return listType;
+    }
+
+    /**
+     * @return file offset of the chunk data
+     */
+    public long getDataStart()
+    {
+        return start + CHUNK_HEADER_SIZE;
+    }
+
+    /**
+     * @return file offset of the next chunk, allowing for the pad byte
+     */
+    public long getEnd()
+    {
+        return getDataStart() + size + (size & 1);
+    }
+
+    public String toString()
+    {
+        return id + (listType != null ? ":" + listType : "") + ":start:" + start + ":size:" + size;
+    }
+}
@@ -0,0 +1,241 @@
+package org.jaudiotagger.audio.wav.util;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.IffChunkUtils;
+import org.jaudiotagger.audio.generic.Utils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Walks the chunks of a RIFF WAVE file
+ * <p/>
+ * Only the chunk headers are read, each chunk is skipped over using its size so the number of reads depends on the
+ * number of chunks rather than the size of the file, even for multi gigabyte data chunks. The walk stops at the end of
+ * the file or at the first position that does not hold a valid chunk header, such as trailing junk.
+ * <p/>
+ * For RF64 files chunks whose 32 bit size is 0xFFFFFFFF take their size from the ds64 chunk that follows the header,
+ * so data chunks larger than 4GB are sized correctly.
+ */
+public class WavChunkReader
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.wav");
+
+    public static final int RIFF_HEADER_SIZE = 12;
+
+    //Position of the 32 bit size of the RIFF chunk
+    public static final int RIFF_SIZE_POS = 4;
+
+    public static final String DS64_CHUNK = "ds64";
+    public static final String BEXT_CHUNK = "bext";
+    public static final String FORMAT_CHUNK = "fmt ";
+    public static final String DATA_CHUNK = "data";
+    public static final String LIST_CHUNK = "LIST";
+    public static final String INFO_LIST_TYPE = "INFO";
+    public static final String ID3_CHUNK = "id3 ";
+    public static final String ID3_UPPERCASE_CHUNK = "ID3 ";
+
+    //Identifiers and list types are ascii
+    private static final String ID_ENCODING = "ISO-8859-1";
+    private static final int ID_LENGTH = 4;
+
+    //32 bit size of a chunk whose real size is held in the ds64 chunk
+    private static final long RF64_SIZE_IN_DS64 = 0xffffffffL;
+
+    //riff size, data size and sample count followed by the number of table entries
+    private static final int DS64_FIXED_SIZE = 28;
+    private static final int DS64_DATA_SIZE_POS = 8;
+    private static final int DS64_TABLE_ENTRY_SIZE = 12;
+
+    /**
+     * @param raf
+     * @return the chunks of the file in file order
+     * @throws CannotReadException if the file does not start with a RIFF WAVE header
+     * @throws IOException
+     */
+    public List<WavChunkHeader> read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        long fileLength = fc.size();
+
+        //Large enough for the RIFF header, or a chunk header plus a list type
+        ByteBuffer header = ByteBuffer.allocate(RIFF_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (fileLength < RIFF_HEADER_SIZE || IffChunkUtils.readFully(fc, header, 0) < RIFF_HEADER_SIZE)
+        {
+            throw new CannotReadException("This is not a WAV File (<12 bytes)");
+        }
+        WavRIFFHeader riffHeader = new WavRIFFHeader(header.array());
+        if (!riffHeader.isValid())
+        {
+            throw new CannotReadException("Wav RIFF Header not valid");
+        }
+
+        //64 bit sizes from the ds64 chunk of an RF64 file, keyed by chunk id
+        Map<String, Long> ds64Sizes = null;
+        List<WavChunkHeader> chunks = new ArrayList<WavChunkHeader>();
+        long pos = RIFF_HEADER_SIZE;
+        while (pos + WavChunkHeader.CHUNK_HEADER_SIZE <= fileLength)
+        {
+            header.clear();
+            int read = IffChunkUtils.readFully(fc, header, pos);
+            String id = Utils.getString(header.array(), 0, ID_LENGTH, ID_ENCODING);
+            if (!isValidId(header.array()))
+            {
+                logger.warning("No valid chunk at:" + pos + ", ignoring the remaining " + (fileLength - pos) + " bytes");
+                break;
+            }
+            long size = header.getInt(ID_LENGTH) & 0xffffffffL;
+            if (riffHeader.isRf64())
+            {
+                if (ds64Sizes == null)
+                {
+                    if (!id.equals(DS64_CHUNK))
+                    {
+                        throw new CannotReadException("RF64 file does not start with a ds64 chunk");
+                    }
+                    ds64Sizes = readDs64(raf, new WavChunkHeader(id, pos, size, null));
+                }
+                else if (size == RF64_SIZE_IN_DS64 && ds64Sizes.containsKey(id))
+                {
+                    size = ds64Sizes.get(id);
+                }
+            }
+            String listType = null;
+            if (id.equals(LIST_CHUNK) && size >= ID_LENGTH && read == RIFF_HEADER_SIZE)
+            {
+                listType = Utils.getString(header.array(), WavChunkHeader.CHUNK_HEADER_SIZE, ID_LENGTH, ID_ENCODING);
+            }
+            WavChunkHeader chunk = new WavChunkHeader(id, pos, size, listType);
+            logger.finest("Found chunk:" + chunk);
+            chunks.add(chunk);
+            pos = chunk.getEnd();
+        }
+        return chunks;
+    }
+
+    /**
+     * Read the 64 bit sizes held by the ds64 chunk, the data chunk size and the table of other chunk sizes. The RIFF
+     * size is not needed as the walk ends at the end of the file.
+     *
+     * @return the sizes keyed by chunk id
+     */
+    private Map<String, Long> readDs64(RandomAccessFile raf, WavChunkHeader chunk) throws CannotReadException, IOException
+    {
+        ByteBuffer data = chunk.getSize() >= DS64_FIXED_SIZE ? readChunkData(raf, chunk) : null;
+        if (data == null)
+        {
+            throw new CannotReadException("RF64 ds64 chunk not valid:" + chunk);
+        }
+        Map<String, Long> sizes = new HashMap<String, Long>();
+        sizes.put(DATA_CHUNK, data.getLong(DS64_DATA_SIZE_POS));
+        long tableLength = data.getInt(DS64_FIXED_SIZE - 4) & 0xffffffffL;
+        data.position(DS64_FIXED_SIZE);
+        for (long i = 0; i < tableLength && data.remaining() >= DS64_TABLE_ENTRY_SIZE; i++)
+        {
+            String id = Utils.getString(data, 0, ID_LENGTH, ID_ENCODING);
+            sizes.put(id, data.getLong());
+        }
+        logger.config("Read ds64 sizes:" + sizes);
+        return sizes;
+    }
+
+    /**
+     * @param chunks
+     * @param id
+     * @return the first chunk with the given identifier, or null if there is none
+     */
+    public static WavChunkHeader findChunk(List<WavChunkHeader> chunks, String id)
+    {
+        for (WavChunkHeader chunk : chunks)
+        {
+            if (chunk.getId().equals(id))
+            {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param chunks
+     * @return true if the chunks were read from an RF64 file, which always starts with a ds64 chunk
+     */
+    public static boolean isRf64(List<WavChunkHeader> chunks)
+    {
+        return !chunks.isEmpty() && chunks.get(0).getId().equals(DS64_CHUNK);
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk holds metadata that is written by {@link org.jaudiotagger.audio.wav.WavTagWriter}
+     */
+    public static boolean isMetadataChunk(WavChunkHeader chunk)
+    {
+        return isInfoChunk(chunk) || isId3Chunk(chunk);
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk is a LIST chunk of type INFO
+     */
+    public static boolean isInfoChunk(WavChunkHeader chunk)
+    {
+        return chunk.getId().equals(LIST_CHUNK) && INFO_LIST_TYPE.equals(chunk.getListType());
+    }
+
+    /**
+     * @param chunk
+     * @return true if the chunk holds an ID3v2 tag
+     */
+    public static boolean isId3Chunk(WavChunkHeader chunk)
+    {
+        return chunk.getId().equals(ID3_CHUNK) || chunk.getId().equals(ID3_UPPERCASE_CHUNK);
+    }
+
+    /**
+     * Read the whole data of a chunk
+     *
+     * @param raf
+     * @param chunk
+     * @return the chunk data, or null if it extends beyond the end of the file
+     * @throws IOException
+     */
+    public static ByteBuffer readChunkData(RandomAccessFile raf, WavChunkHeader chunk) throws IOException
+    {
+        FileChannel fc = AudioFileOperation.current().wrap(raf.getChannel());
+        if (chunk.getDataStart() + chunk.getSize() > fc.size() || chunk.getSize() > Integer.MAX_VALUE)
+        {
+            logger.warning("Chunk extends beyond the end of the file:" + chunk);
+            return null;
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) chunk.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+        IffChunkUtils.readFully(fc, data, chunk.getDataStart());
+        data.flip();
+        return data;
+    }
+
+    /**
+     * Identifiers are four printable ascii characters
+     */
+    private static boolean isValidId(byte[] b)
+    {
+        for (int i = 0; i < ID_LENGTH; i++)
+        {
+            if (b[i] < 0x20 || b[i] > 0x7e)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
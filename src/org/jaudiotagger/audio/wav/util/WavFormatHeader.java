@@ -20,6 +20,9 @@ package org.jaudiotagger.audio.wav.util;
 
 public class WavFormatHeader
 {
+    //Format tags (little endian at offset 8) of the formats that can be read
+    private static final int WAVE_FORMAT_PCM = 0x0001;
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
 
     private boolean isValid = false;
 
@@ -29,7 +32,8 @@ public class WavFormatHeader
     {
         String fmt = new String(b, 0, 3);
         //System.err.println(fmt);
-        if (fmt.equals("fmt") && b[8] == 1)
+        int formatTag = u(b[9]) * 256 + u(b[8]);
+        if (fmt.equals("fmt") && (formatTag == WAVE_FORMAT_PCM || formatTag == WAVE_FORMAT_EXTENSIBLE))
         {
             channels = b[10];
             //System.err.println(channels);
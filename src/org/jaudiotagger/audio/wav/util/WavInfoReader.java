@@ -20,53 +20,71 @@ package org.jaudiotagger.audio.wav.util;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.IffChunkUtils;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.List;
 
+/**
+ * Read the audio format from the fmt chunk and the track length from the size of the data chunk
+ * <p/>
+ * The chunks may appear in any order and other chunks may come between them, the data chunk itself is never read. For
+ * RF64 files the data chunk size comes from the ds64 chunk so lengths of files over 4GB are correct.
+ */
 public class WavInfoReader
 {
+    //The format header needs the chunk header plus the first 16 bytes of the fmt chunk
+    private static final int MINIMUM_FORMAT_HEADER_SIZE = 24;
+
+    private WavChunkReader chunkReader = new WavChunkReader();
+
     public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
     {
         // Reads wav header----------------------------------------
         GenericAudioHeader info = new GenericAudioHeader();
 
-        if (raf.length() < 12)
+        List<WavChunkHeader> chunks = chunkReader.read(raf);
+        WavChunkHeader formatChunk = WavChunkReader.findChunk(chunks, WavChunkReader.FORMAT_CHUNK);
+        if (formatChunk == null || formatChunk.getSize() + WavChunkHeader.CHUNK_HEADER_SIZE < MINIMUM_FORMAT_HEADER_SIZE)
         {
-            throw new CannotReadException("This is not a WAV File (<12 bytes)");
+            throw new CannotReadException("Wav Format Header not valid");
         }
-        byte[] b = new byte[12];
-        raf.read(b);
+        byte[] b = new byte[MINIMUM_FORMAT_HEADER_SIZE];
+        IffChunkUtils.readFully(raf.getChannel(), ByteBuffer.wrap(b), formatChunk.getStart());
 
-        WavRIFFHeader wh = new WavRIFFHeader(b);
-        if (wh.isValid())
+        WavFormatHeader wfh = new WavFormatHeader(b);
+        if (wfh.isValid())
         {
-            b = new byte[24];
-            raf.read(b);
-
-            WavFormatHeader wfh = new WavFormatHeader(b);
-            if (wfh.isValid())
-            {
-                // Populates
-                // encodingInfo----------------------------------------------------
-                info.setPreciseLength(((float) raf.length() - (float) 36) / wfh.getBytesPerSecond());
-                info.setChannelNumber(wfh.getChannelNumber());
-                info.setSamplingRate(wfh.getSamplingRate());
-                info.setEncodingType("WAV-RIFF " + wfh.getBitrate() + " bits");
-                info.setExtraEncodingInfos("");
-                info.setBitrate(wfh.getBytesPerSecond() * 8 / 1000);
-                info.setVariableBitRate(false);
-            }
-            else
-            {
-                throw new CannotReadException("Wav Format Header not valid");
-            }
+            // Populates
+            // encodingInfo----------------------------------------------------
+            info.setPreciseLength((float) getAudioDataSize(raf, chunks) / wfh.getBytesPerSecond());
+            info.setChannelNumber(wfh.getChannelNumber());
+            info.setSamplingRate(wfh.getSamplingRate());
+            info.setEncodingType((WavChunkReader.isRf64(chunks) ? "WAV-RF64 " : "WAV-RIFF ") + wfh.getBitrate() + " bits");
+            info.setExtraEncodingInfos("");
+            info.setBitrate(wfh.getBytesPerSecond() * 8 / 1000);
+            info.setVariableBitRate(false);
         }
         else
         {
-            throw new CannotReadException("Wav RIFF Header not valid");
+            throw new CannotReadException("Wav Format Header not valid");
         }
 
         return info;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return size of the data chunk, limited to the bytes actually present if the file has been truncated
+     */
+    private long getAudioDataSize(RandomAccessFile raf, List<WavChunkHeader> chunks) throws CannotReadException, IOException
+    {
+        WavChunkHeader dataChunk = WavChunkReader.findChunk(chunks, WavChunkReader.DATA_CHUNK);
+        if (dataChunk == null)
+        {
+            throw new CannotReadException("Wav data chunk not found");
+        }
+        return Math.min(dataChunk.getSize(), raf.length() - dataChunk.getDataStart());
+    }
+}
@@ -18,10 +18,21 @@
  */
 package org.jaudiotagger.audio.wav.util;
 
+/**
+ * The header of a RIFF WAVE file, a RIFF chunk of form type WAVE.
+ * <p/>
+ * RF64 (and the identical BW64) files replace the RIFF identifier so that chunk sizes beyond 32 bits can be held in
+ * the ds64 chunk that must follow the header.
+ */
 public class WavRIFFHeader
 {
+    public static final String RIFF_ID = "RIFF";
+    public static final String RF64_ID = "RF64";
+    public static final String BW64_ID = "BW64";
+    public static final String WAVE_ID = "WAVE";
 
     private boolean isValid = false;
+    private boolean isRf64 = false;
 
     public WavRIFFHeader(byte[] b)
     {
@@ -30,9 +41,17 @@ public class WavRIFFHeader
         //System.err.println(RIFF);
         String WAVE = new String(b, 8, 4);
         //System.err.println(WAVE);
-        if (RIFF.equals("RIFF") && WAVE.equals("WAVE"))
+        if (WAVE.equals(WAVE_ID))
         {
-            isValid = true;
+            if (RIFF.equals(RIFF_ID))
+            {
+                isValid = true;
+            }
+            else if (RIFF.equals(RF64_ID) || RIFF.equals(BW64_ID))
+            {
+                isValid = true;
+                isRf64 = true;
+            }
         }
 
     }
@@ -42,10 +61,19 @@ public class WavRIFFHeader
         return isValid;
     }
 
+    /**
+     * @return true if the sizes are held in a ds64 chunk
+     */
+    public boolean isRf64()
+    {
+        return isRf64;
+    }
+
     public String toString()
     {
         String out = "RIFF-WAVE Header:\n";
         out += "Is valid?: " + isValid;
+        out += "\nIs RF64?: " + isRf64;
         return out;
     }
 }
\ No newline at end of file
@@ -34,6 +34,8 @@ public enum ErrorMessage
     GENERAL_WRITE_FAILED_NEW_FILE_DOESNT_EXIST("New file {0} does not appear to exist"),
     GENERAL_WRITE_FAILED_BECAUSE("Cannot make changes to file {0} because {1}"),
     GENERAL_WRITE_FAILED_BECAUSE_FILE_NOT_FOUND("Cannot make changes to file {0} because the file cannot be found"),
+    GENERAL_WRITE_FAILED_FILE_PARTLY_READ("Cannot make changes to file {0} because only part of it was read:{1}"),
+    GENERAL_WRITE_FAILED_CACHED_VIEW("Cannot make changes to file {0} because it was read from a cache, read it with AudioFileIO to modify it"),
     GENERAL_WRITE_WARNING_UNABLE_TO_DELETE_BACKUP_FILE("Unable to delete the backup file {0}"),        
     GENERAL_WRITE_PROBLEM_CLOSING_FILE_HANDLE("Problem closing file handles for file {0} because {1}"),
     GENERAL_DELETE_FAILED("Cannot delete file {0}"),
@@ -105,11 +107,14 @@ public enum ErrorMessage
     NO_WRITER_FOR_THIS_FORMAT("No Writer associated with this extension:{0}"),
     NO_READER_FOR_THIS_FORMAT("No Reader associated with this extension:{0}"),
     NO_DELETER_FOR_THIS_FORMAT("No Deleter associated with this extension:{0}"),
+    NO_TAG_REGION_PROBE_FOR_THIS_FORMAT("Unable to probe the tag region of this format:{0}"),
     UNABLE_TO_FIND_FILE("Unable to find:{0}"),
     NO_PERMISSIONS_TO_WRITE_TO_FILE("Unable to write to:{0}"),
     DO_NOT_KNOW_HOW_TO_CREATE_THIS_ATOM_TYPE("DO not know how to create this atom type {0}"),
     OGG_CONTAINS_ID3TAG("Ogg File contains invalid ID3 Tag, skipping ID3 Tag of length:{0}"),
     FLAC_CONTAINS_ID3TAG("Flac File contains invalid ID3 Tag, skipping ID3 Tag of length:{0}"),
+    FILE_CONTENT_DOES_NOT_MATCH_EXTENSION("File {0} has extension {1} but its content is {2}, reading as {2}"),
+    OGG_CODEC_NOT_SUPPORTED("Ogg File {0} contains a {1} stream, only vorbis is supported"),
     ;
 
 
@@ -36,13 +36,14 @@ import org.jaudiotagger.tag.reference.Languages;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TagOptionSingleton
 {
     /**
      *
      */
-    private static HashMap<String, TagOptionSingleton> tagOptionTable = new HashMap<String, TagOptionSingleton>();
+    private static ConcurrentHashMap<String, TagOptionSingleton> tagOptionTable = new ConcurrentHashMap<String, TagOptionSingleton>();
 
     /**
      *
@@ -52,7 +53,12 @@ public class TagOptionSingleton
     /**
      *
      */
-    private static String defaultOptions = DEFAULT;
+    private static volatile String defaultOptions = DEFAULT;
+
+    /**
+     * Snapshot of the current options, null after any option has been changed until the next snapshot is requested
+     */
+    private volatile TagOptions options;
 
     /**
      *
@@ -173,6 +179,11 @@ public class TagOptionSingleton
      */
     private boolean lyrics3SaveEmptyField = false;
 
+    /**
+     * if we should remove APEv2 and Lyrics3 tags at the end of mp3 files when saving. Defaults to false.
+     */
+    private boolean stripApev2AndLyrics3Tags = false;
+
     /**
      *
      */
@@ -197,6 +208,17 @@ public class TagOptionSingleton
      */
     private boolean unsyncTags = false;
 
+    /**
+     * Compress large text frames such as lyrics (zlib) when writing ID3v23 and ID3v24 tags, this makes
+     * tags smaller but some players do not support compressed frames
+     */
+    private boolean id3v2CompressFrames = false;
+
+    /**
+     * Frames smaller than this (in bytes) are never compressed, even if id3v2CompressFrames is enabled
+     */
+    private int id3v2CompressFramesMinimumSize = 4096;
+
     /**
      * iTunes needlessly writes null terminators at the end for TextEncodedStringSizeTerminated values,
      * if this option is enabled these characters are removed
@@ -292,18 +314,97 @@ public class TagOptionSingleton
         if (tagOptions == null)
         {
             tagOptions = new TagOptionSingleton();
-            tagOptionTable.put(instanceKey, tagOptions);
+            TagOptionSingleton existing = tagOptionTable.putIfAbsent(instanceKey, tagOptions);
+            if (existing != null)
+            {
+                tagOptions = existing;
+            }
         }
 
         return tagOptions;
     }
 
+    /**
+     * Get an immutable snapshot of the current options, to be taken once at the start of a read or write so that
+     * each option check is a field access rather than a lookup of the singleton.
+     *
+     * The snapshot is only created again after an option has been changed.
+     *
+     * @return the current options
+     */
+    public TagOptions getOptions()
+    {
+        TagOptions snapshot = options;
+        if (snapshot == null)
+        {
+            synchronized (this)
+            {
+                snapshot = options;
+                if (snapshot == null)
+                {
+                    snapshot = createOptions();
+                    options = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private TagOptions createOptions()
+    {
+        return new TagOptions.Builder()
+                .setFilenameTagSave(isFilenameTagSave())
+                .setId3v1Save(isId3v1Save())
+                .setId3v1SaveAlbum(isId3v1SaveAlbum())
+                .setId3v1SaveArtist(isId3v1SaveArtist())
+                .setId3v1SaveComment(isId3v1SaveComment())
+                .setId3v1SaveGenre(isId3v1SaveGenre())
+                .setId3v1SaveTitle(isId3v1SaveTitle())
+                .setId3v1SaveTrack(isId3v1SaveTrack())
+                .setId3v1SaveYear(isId3v1SaveYear())
+                .setId3v2PaddingCopyTag(isId3v2PaddingCopyTag())
+                .setId3v2PaddingWillShorten(isId3v2PaddingWillShorten())
+                .setId3v2Save(isId3v2Save())
+                .setLanguage(getLanguage())
+                .setLyrics3KeepEmptyFieldIfRead(isLyrics3KeepEmptyFieldIfRead())
+                .setLyrics3Save(isLyrics3Save())
+                .setLyrics3SaveEmptyField(isLyrics3SaveEmptyField())
+                .setStripApev2AndLyrics3Tags(isStripApev2AndLyrics3Tags())
+                .setOriginalSavedAfterAdjustingID3v2Padding(isOriginalSavedAfterAdjustingID3v2Padding())
+                .setTimeStampFormat(getTimeStampFormat())
+                .setNumberMP3SyncFrame(getNumberMP3SyncFrame())
+                .setUnsyncTags(isUnsyncTags())
+                .setId3v2CompressFrames(isId3v2CompressFrames())
+                .setId3v2CompressFramesMinimumSize(getId3v2CompressFramesMinimumSize())
+                .setRemoveTrailingTerminatorOnWrite(isRemoveTrailingTerminatorOnWrite())
+                .setId3v23DefaultTextEncoding(getId3v23DefaultTextEncoding())
+                .setId3v24DefaultTextEncoding(getId3v24DefaultTextEncoding())
+                .setId3v24UnicodeTextEncoding(getId3v24UnicodeTextEncoding())
+                .setResetTextEncodingForExistingFrames(isResetTextEncodingForExistingFrames())
+                .setTruncateTextWithoutErrors(isTruncateTextWithoutErrors())
+                .setPadNumbers(isPadNumbers())
+                .setAndroid(isAndroid())
+                .setEncodeUTF16BomAsLittleEndian(isEncodeUTF16BomAsLittleEndian())
+                .setPlayerCompatability(getPlayerCompatability())
+                .setWriteChunkSize(getWriteChunkSize())
+                .build();
+    }
+
+    /**
+     * Called after an option has been changed, waits for any snapshot being created to be stored before discarding it
+     */
+    private synchronized void invalidateOptions()
+    {
+        options = null;
+    }
+
     /**
      * @param filenameTagSave
      */
     public void setFilenameTagSave(boolean filenameTagSave)
     {
         this.filenameTagSave = filenameTagSave;
+        invalidateOptions();
     }
 
     /**
@@ -338,6 +439,7 @@ public class TagOptionSingleton
     public void setId3v1Save(boolean id3v1Save)
     {
         this.id3v1Save = id3v1Save;
+        invalidateOptions();
     }
 
     /**
@@ -354,6 +456,7 @@ public class TagOptionSingleton
     public void setId3v1SaveAlbum(boolean id3v1SaveAlbum)
     {
         this.id3v1SaveAlbum = id3v1SaveAlbum;
+        invalidateOptions();
     }
 
     /**
@@ -370,6 +473,7 @@ public class TagOptionSingleton
     public void setId3v1SaveArtist(boolean id3v1SaveArtist)
     {
         this.id3v1SaveArtist = id3v1SaveArtist;
+        invalidateOptions();
     }
 
     /**
@@ -386,6 +490,7 @@ public class TagOptionSingleton
     public void setId3v1SaveComment(boolean id3v1SaveComment)
     {
         this.id3v1SaveComment = id3v1SaveComment;
+        invalidateOptions();
     }
 
     /**
@@ -402,6 +507,7 @@ public class TagOptionSingleton
     public void setId3v1SaveGenre(boolean id3v1SaveGenre)
     {
         this.id3v1SaveGenre = id3v1SaveGenre;
+        invalidateOptions();
     }
 
     /**
@@ -418,6 +524,7 @@ public class TagOptionSingleton
     public void setId3v1SaveTitle(boolean id3v1SaveTitle)
     {
         this.id3v1SaveTitle = id3v1SaveTitle;
+        invalidateOptions();
     }
 
     /**
@@ -434,6 +541,7 @@ public class TagOptionSingleton
     public void setId3v1SaveTrack(boolean id3v1SaveTrack)
     {
         this.id3v1SaveTrack = id3v1SaveTrack;
+        invalidateOptions();
     }
 
     /**
@@ -450,6 +558,7 @@ public class TagOptionSingleton
     public void setId3v1SaveYear(boolean id3v1SaveYear)
     {
         this.id3v1SaveYear = id3v1SaveYear;
+        invalidateOptions();
     }
 
     /**
@@ -467,6 +576,7 @@ public class TagOptionSingleton
     public void setId3v2PaddingCopyTag(boolean id3v2PaddingCopyTag)
     {
         this.id3v2PaddingCopyTag = id3v2PaddingCopyTag;
+        invalidateOptions();
     }
 
     /**
@@ -484,6 +594,7 @@ public class TagOptionSingleton
     public void setId3v2PaddingWillShorten(boolean id3v2PaddingWillShorten)
     {
         this.id3v2PaddingWillShorten = id3v2PaddingWillShorten;
+        invalidateOptions();
     }
 
     /**
@@ -500,6 +611,7 @@ public class TagOptionSingleton
     public void setId3v2Save(boolean id3v2Save)
     {
         this.id3v2Save = id3v2Save;
+        invalidateOptions();
     }
 
     /**
@@ -541,6 +653,7 @@ public class TagOptionSingleton
         {
             language = lang;
         }
+        invalidateOptions();
     }
 
     /**
@@ -559,6 +672,7 @@ public class TagOptionSingleton
     public void setLyrics3KeepEmptyFieldIfRead(boolean lyrics3KeepEmptyFieldIfRead)
     {
         this.lyrics3KeepEmptyFieldIfRead = lyrics3KeepEmptyFieldIfRead;
+        invalidateOptions();
     }
 
     /**
@@ -575,6 +689,7 @@ public class TagOptionSingleton
     public void setLyrics3Save(boolean lyrics3Save)
     {
         this.lyrics3Save = lyrics3Save;
+        invalidateOptions();
     }
 
     /**
@@ -585,12 +700,31 @@ public class TagOptionSingleton
         return lyrics3Save;
     }
 
+    /**
+     * @param stripApev2AndLyrics3Tags if APEv2 and Lyrics3 tags at the end of mp3 files should be removed when saving,
+     *                                 the file is truncated so the audio is not rewritten
+     */
+    public void setStripApev2AndLyrics3Tags(boolean stripApev2AndLyrics3Tags)
+    {
+        this.stripApev2AndLyrics3Tags = stripApev2AndLyrics3Tags;
+        invalidateOptions();
+    }
+
+    /**
+     * @return true if APEv2 and Lyrics3 tags at the end of mp3 files are removed when saving
+     */
+    public boolean isStripApev2AndLyrics3Tags()
+    {
+        return stripApev2AndLyrics3Tags;
+    }
+
     /**
      * @param lyrics3SaveEmptyField
      */
     public void setLyrics3SaveEmptyField(boolean lyrics3SaveEmptyField)
     {
         this.lyrics3SaveEmptyField = lyrics3SaveEmptyField;
+        invalidateOptions();
     }
 
     /**
@@ -652,6 +786,7 @@ public class TagOptionSingleton
     public void setNumberMP3SyncFrame(int numberMP3SyncFrame)
     {
         this.numberMP3SyncFrame = numberMP3SyncFrame;
+        invalidateOptions();
     }
 
     /**
@@ -699,6 +834,7 @@ public class TagOptionSingleton
     public void setOriginalSavedAfterAdjustingID3v2Padding(boolean originalSavedAfterAdjustingID3v2Padding)
     {
         this.originalSavedAfterAdjustingID3v2Padding = originalSavedAfterAdjustingID3v2Padding;
+        invalidateOptions();
     }
 
     /**
@@ -728,6 +864,7 @@ public class TagOptionSingleton
         {
             timeStampFormat = tsf;
         }
+        invalidateOptions();
     }
 
     /**
@@ -767,12 +904,15 @@ public class TagOptionSingleton
         lyrics3KeepEmptyFieldIfRead = false;
         lyrics3Save = true;
         lyrics3SaveEmptyField = false;
+        stripApev2AndLyrics3Tags = false;
         lyrics3SaveFieldMap = new HashMap<String, Boolean>();
         numberMP3SyncFrame = 3;
         parenthesisMap = new HashMap<String, String>();
         replaceWordMap = new HashMap<String, String>();
         timeStampFormat = 2;
         unsyncTags = false;
+        id3v2CompressFrames = false;
+        id3v2CompressFramesMinimumSize = 4096;
         removeTrailingTerminatorOnWrite = true;
         id3v23DefaultTextEncoding = TextEncoding.ISO_8859_1;
         id3v24DefaultTextEncoding = TextEncoding.ISO_8859_1;
@@ -868,6 +1008,7 @@ public class TagOptionSingleton
         addParenthesis("[", "]");
         addParenthesis("{", "}");
         addParenthesis("<", ">");
+        invalidateOptions();
     }
 
 
@@ -936,6 +1077,44 @@ public class TagOptionSingleton
     public void setUnsyncTags(boolean unsyncTags)
     {
         this.unsyncTags = unsyncTags;
+        invalidateOptions();
+    }
+
+    /**
+     * @return are large text frames compressed when written to ID3v23 and ID3v24 tags
+     */
+    public boolean isId3v2CompressFrames()
+    {
+        return id3v2CompressFrames;
+    }
+
+    /**
+     * Compress large text frames (lyrics, user defined text, comments and encapsulated objects) when writing
+     * ID3v23 and ID3v24 tags, frames are only compressed if that actually makes them smaller
+     *
+     * @param id3v2CompressFrames
+     */
+    public void setId3v2CompressFrames(boolean id3v2CompressFrames)
+    {
+        this.id3v2CompressFrames = id3v2CompressFrames;
+        invalidateOptions();
+    }
+
+    /**
+     * @return size in bytes a frame must be before it is considered for compression
+     */
+    public int getId3v2CompressFramesMinimumSize()
+    {
+        return id3v2CompressFramesMinimumSize;
+    }
+
+    /**
+     * @param id3v2CompressFramesMinimumSize size in bytes a frame must be before it is considered for compression
+     */
+    public void setId3v2CompressFramesMinimumSize(int id3v2CompressFramesMinimumSize)
+    {
+        this.id3v2CompressFramesMinimumSize = id3v2CompressFramesMinimumSize;
+        invalidateOptions();
     }
 
     /**
@@ -957,6 +1136,7 @@ public class TagOptionSingleton
     public void setRemoveTrailingTerminatorOnWrite(boolean removeTrailingTerminatorOnWrite)
     {
         this.removeTrailingTerminatorOnWrite = removeTrailingTerminatorOnWrite;
+        invalidateOptions();
     }
 
     /**
@@ -982,6 +1162,7 @@ public class TagOptionSingleton
         {
             this.id3v23DefaultTextEncoding = id3v23DefaultTextEncoding;
         }
+        invalidateOptions();
     }
 
     /**
@@ -1008,6 +1189,7 @@ public class TagOptionSingleton
             this.id3v24DefaultTextEncoding = id3v24DefaultTextEncoding;
         }
 
+        invalidateOptions();
     }
 
     /**
@@ -1033,6 +1215,7 @@ public class TagOptionSingleton
         {
             this.id3v24UnicodeTextEncoding = id3v24UnicodeTextEncoding;
         }
+        invalidateOptions();
     }
 
     /**
@@ -1058,6 +1241,7 @@ public class TagOptionSingleton
     public void setResetTextEncodingForExistingFrames(boolean resetTextEncodingForExistingFrames)
     {
         this.resetTextEncodingForExistingFrames = resetTextEncodingForExistingFrames;
+        invalidateOptions();
     }
 
     /**
@@ -1077,6 +1261,7 @@ public class TagOptionSingleton
     public void setTruncateTextWithoutErrors(boolean truncateTextWithoutErrors)
     {
         this.truncateTextWithoutErrors = truncateTextWithoutErrors;
+        invalidateOptions();
     }
 
     public boolean isPadNumbers()
@@ -1087,6 +1272,7 @@ public class TagOptionSingleton
     public void setPadNumbers(boolean padNumbers)
     {
         this.padNumbers = padNumbers;
+        invalidateOptions();
     }
 
     public boolean isAndroid()
@@ -1097,6 +1283,7 @@ public class TagOptionSingleton
     public void setAndroid(boolean android)
     {
         isAndroid = android;
+        invalidateOptions();
     }
 
     /**
@@ -1112,6 +1299,7 @@ public class TagOptionSingleton
     public void setPlayerCompatability(int playerCompatability)
     {
         this.playerCompatability = playerCompatability;
+        invalidateOptions();
     }
 
     /**
@@ -1126,6 +1314,7 @@ public class TagOptionSingleton
     public void setEncodeUTF16BomAsLittleEndian(boolean encodeUTF16BomAsLittleEndian)
     {
         isEncodeUTF16BomAsLittleEndian = encodeUTF16BomAsLittleEndian;
+        invalidateOptions();
     }
 
     /**
@@ -1141,5 +1330,6 @@ public class TagOptionSingleton
     public void setWriteChunkSize(long writeChunkSize)
     {
         this.writeChunkSize = writeChunkSize;
+        invalidateOptions();
     }
 }
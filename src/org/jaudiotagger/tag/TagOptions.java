@@ -0,0 +1,621 @@
+package org.jaudiotagger.tag;
+
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+
+/**
+ * An immutable snapshot of the options held by {@link TagOptionSingleton}
+ * <p/>
+ * The snapshot is taken once at the start of a read or write and used for the whole of it, so the options cannot
+ * change part way through and can be shared between threads without synchronization. Snapshots are usually obtained
+ * from {@link TagOptionSingleton#getOptions()}, or can be built directly with a {@link Builder} which starts from the
+ * default options.
+ * <p/>
+ * The readers and writers take the snapshot when they start and put it in use on their thread with {@link #use()}
+ * until they finish. The tag, frame and datatype code reached from them is mostly created by reflection and by
+ * constructors that take no context, so rather than having the snapshot passed to it, it gets the snapshot in use
+ * from {@link #current()}. A snapshot can also be supplied for a single read or write, see
+ * {@link org.jaudiotagger.audio.AudioFileIO#read(java.io.File, TagOptions)}. The keyword, parenthesis and replace word tables are not part of the snapshot, they are only used
+ * when converting Lyrics3 tags and are still read from the singleton.
+ */
+public final class TagOptions
+{
+    private final boolean filenameTagSave;
+    private final boolean id3v1Save;
+    private final boolean id3v1SaveAlbum;
+    private final boolean id3v1SaveArtist;
+    private final boolean id3v1SaveComment;
+    private final boolean id3v1SaveGenre;
+    private final boolean id3v1SaveTitle;
+    private final boolean id3v1SaveTrack;
+    private final boolean id3v1SaveYear;
+    private final boolean id3v2PaddingCopyTag;
+    private final boolean id3v2PaddingWillShorten;
+    private final boolean id3v2Save;
+    private final String language;
+    private final boolean lyrics3KeepEmptyFieldIfRead;
+    private final boolean lyrics3Save;
+    private final boolean lyrics3SaveEmptyField;
+    private final boolean stripApev2AndLyrics3Tags;
+    private final boolean originalSavedAfterAdjustingID3v2Padding;
+    private final byte timeStampFormat;
+    private final int numberMP3SyncFrame;
+    private final boolean unsyncTags;
+    private final boolean id3v2CompressFrames;
+    private final int id3v2CompressFramesMinimumSize;
+    private final boolean removeTrailingTerminatorOnWrite;
+    private final byte id3v23DefaultTextEncoding;
+    private final byte id3v24DefaultTextEncoding;
+    private final byte id3v24UnicodeTextEncoding;
+    private final boolean resetTextEncodingForExistingFrames;
+    private final boolean truncateTextWithoutErrors;
+    private final boolean padNumbers;
+    private final boolean android;
+    private final boolean encodeUTF16BomAsLittleEndian;
+    private final int playerCompatability;
+    private final long writeChunkSize;
+
+    //Snapshot in use by the read or write in progress on each thread
+    private static final ThreadLocal<TagOptions> inUse = new ThreadLocal<TagOptions>();
+
+    private TagOptions(Builder builder)
+    {
+        filenameTagSave = builder.filenameTagSave;
+        id3v1Save = builder.id3v1Save;
+        id3v1SaveAlbum = builder.id3v1SaveAlbum;
+        id3v1SaveArtist = builder.id3v1SaveArtist;
+        id3v1SaveComment = builder.id3v1SaveComment;
+        id3v1SaveGenre = builder.id3v1SaveGenre;
+        id3v1SaveTitle = builder.id3v1SaveTitle;
+        id3v1SaveTrack = builder.id3v1SaveTrack;
+        id3v1SaveYear = builder.id3v1SaveYear;
+        id3v2PaddingCopyTag = builder.id3v2PaddingCopyTag;
+        id3v2PaddingWillShorten = builder.id3v2PaddingWillShorten;
+        id3v2Save = builder.id3v2Save;
+        language = builder.language;
+        lyrics3KeepEmptyFieldIfRead = builder.lyrics3KeepEmptyFieldIfRead;
+        lyrics3Save = builder.lyrics3Save;
+        lyrics3SaveEmptyField = builder.lyrics3SaveEmptyField;
+        stripApev2AndLyrics3Tags = builder.stripApev2AndLyrics3Tags;
+        originalSavedAfterAdjustingID3v2Padding = builder.originalSavedAfterAdjustingID3v2Padding;
+        timeStampFormat = builder.timeStampFormat;
+        numberMP3SyncFrame = builder.numberMP3SyncFrame;
+        unsyncTags = builder.unsyncTags;
+        id3v2CompressFrames = builder.id3v2CompressFrames;
+        id3v2CompressFramesMinimumSize = builder.id3v2CompressFramesMinimumSize;
+        removeTrailingTerminatorOnWrite = builder.removeTrailingTerminatorOnWrite;
+        id3v23DefaultTextEncoding = builder.id3v23DefaultTextEncoding;
+        id3v24DefaultTextEncoding = builder.id3v24DefaultTextEncoding;
+        id3v24UnicodeTextEncoding = builder.id3v24UnicodeTextEncoding;
+        resetTextEncodingForExistingFrames = builder.resetTextEncodingForExistingFrames;
+        truncateTextWithoutErrors = builder.truncateTextWithoutErrors;
+        padNumbers = builder.padNumbers;
+        android = builder.android;
+        encodeUTF16BomAsLittleEndian = builder.encodeUTF16BomAsLittleEndian;
+        playerCompatability = builder.playerCompatability;
+        writeChunkSize = builder.writeChunkSize;
+    }
+
+    /**
+     * Get the options of the read or write in progress on this thread, as taken when it started. Outside of a read or
+     * write this is the current snapshot of {@link TagOptionSingleton}.
+     *
+     * @return the options in use
+     */
+    public static TagOptions current()
+    {
+        TagOptions options = inUse.get();
+        if (options == null)
+        {
+            return TagOptionSingleton.getInstance().getOptions();
+        }
+        return options;
+    }
+
+    /**
+     * Use these options for the read or write starting on this thread, until {@link #restore(TagOptions)} is called
+     * when it finishes.
+     *
+     * @return the options that were in use before, or null if none were
+     */
+    public TagOptions use()
+    {
+        TagOptions previous = inUse.get();
+        inUse.set(this);
+        return previous;
+    }
+
+    /**
+     * Restore the options in use before a read or write started
+     *
+     * @param previous the value returned by {@link #use()}
+     */
+    public static void restore(TagOptions previous)
+    {
+        if (previous == null)
+        {
+            inUse.remove();
+        }
+        else
+        {
+            inUse.set(previous);
+        }
+    }
+
+    public boolean isFilenameTagSave()
+    {
+        return filenameTagSave;
+    }
+
+    public boolean isId3v1Save()
+    {
+        return id3v1Save;
+    }
+
+    public boolean isId3v1SaveAlbum()
+    {
+        return id3v1SaveAlbum;
+    }
+
+    public boolean isId3v1SaveArtist()
+    {
+        return id3v1SaveArtist;
+    }
+
+    public boolean isId3v1SaveComment()
+    {
+        return id3v1SaveComment;
+    }
+
+    public boolean isId3v1SaveGenre()
+    {
+        return id3v1SaveGenre;
+    }
+
+    public boolean isId3v1SaveTitle()
+    {
+        return id3v1SaveTitle;
+    }
+
+    public boolean isId3v1SaveTrack()
+    {
+        return id3v1SaveTrack;
+    }
+
+    public boolean isId3v1SaveYear()
+    {
+        return id3v1SaveYear;
+    }
+
+    public boolean isId3v2PaddingCopyTag()
+    {
+        return id3v2PaddingCopyTag;
+    }
+
+    public boolean isId3v2PaddingWillShorten()
+    {
+        return id3v2PaddingWillShorten;
+    }
+
+    public boolean isId3v2Save()
+    {
+        return id3v2Save;
+    }
+
+    public String getLanguage()
+    {
+        return language;
+    }
+
+    public boolean isLyrics3KeepEmptyFieldIfRead()
+    {
+        return lyrics3KeepEmptyFieldIfRead;
+    }
+
+    public boolean isLyrics3Save()
+    {
+        return lyrics3Save;
+    }
+
+    public boolean isLyrics3SaveEmptyField()
+    {
+        return lyrics3SaveEmptyField;
+    }
+
+    public boolean isStripApev2AndLyrics3Tags()
+    {
+        return stripApev2AndLyrics3Tags;
+    }
+
+    public boolean isOriginalSavedAfterAdjustingID3v2Padding()
+    {
+        return originalSavedAfterAdjustingID3v2Padding;
+    }
+
+    public byte getTimeStampFormat()
+    {
+        return timeStampFormat;
+    }
+
+    public int getNumberMP3SyncFrame()
+    {
+        return numberMP3SyncFrame;
+    }
+
+    public boolean isUnsyncTags()
+    {
+        return unsyncTags;
+    }
+
+    public boolean isId3v2CompressFrames()
+    {
+        return id3v2CompressFrames;
+    }
+
+    public int getId3v2CompressFramesMinimumSize()
+    {
+        return id3v2CompressFramesMinimumSize;
+    }
+
+    public boolean isRemoveTrailingTerminatorOnWrite()
+    {
+        return removeTrailingTerminatorOnWrite;
+    }
+
+    public byte getId3v23DefaultTextEncoding()
+    {
+        return id3v23DefaultTextEncoding;
+    }
+
+    public byte getId3v24DefaultTextEncoding()
+    {
+        return id3v24DefaultTextEncoding;
+    }
+
+    public byte getId3v24UnicodeTextEncoding()
+    {
+        return id3v24UnicodeTextEncoding;
+    }
+
+    public boolean isResetTextEncodingForExistingFrames()
+    {
+        return resetTextEncodingForExistingFrames;
+    }
+
+    public boolean isTruncateTextWithoutErrors()
+    {
+        return truncateTextWithoutErrors;
+    }
+
+    public boolean isPadNumbers()
+    {
+        return padNumbers;
+    }
+
+    public boolean isAndroid()
+    {
+        return android;
+    }
+
+    public boolean isEncodeUTF16BomAsLittleEndian()
+    {
+        return encodeUTF16BomAsLittleEndian;
+    }
+
+    public int getPlayerCompatability()
+    {
+        return playerCompatability;
+    }
+
+    public long getWriteChunkSize()
+    {
+        return writeChunkSize;
+    }
+
+    /**
+     * @return a builder initialised with these options
+     */
+    public Builder toBuilder()
+    {
+        return new Builder(this);
+    }
+
+    /**
+     * Builds {@link TagOptions}, unlike the setters of {@link TagOptionSingleton} values are not checked
+     */
+    public static final class Builder
+    {
+        private boolean filenameTagSave = false;
+        private boolean id3v1Save = true;
+        private boolean id3v1SaveAlbum = true;
+        private boolean id3v1SaveArtist = true;
+        private boolean id3v1SaveComment = true;
+        private boolean id3v1SaveGenre = true;
+        private boolean id3v1SaveTitle = true;
+        private boolean id3v1SaveTrack = true;
+        private boolean id3v1SaveYear = true;
+        private boolean id3v2PaddingCopyTag = true;
+        private boolean id3v2PaddingWillShorten = false;
+        private boolean id3v2Save = true;
+        private String language = "eng";
+        private boolean lyrics3KeepEmptyFieldIfRead = false;
+        private boolean lyrics3Save = true;
+        private boolean lyrics3SaveEmptyField = false;
+        private boolean stripApev2AndLyrics3Tags = false;
+        private boolean originalSavedAfterAdjustingID3v2Padding = true;
+        private byte timeStampFormat = 2;
+        private int numberMP3SyncFrame = 3;
+        private boolean unsyncTags = false;
+        private boolean id3v2CompressFrames = false;
+        private int id3v2CompressFramesMinimumSize = 4096;
+        private boolean removeTrailingTerminatorOnWrite = true;
+        private byte id3v23DefaultTextEncoding = TextEncoding.ISO_8859_1;
+        private byte id3v24DefaultTextEncoding = TextEncoding.ISO_8859_1;
+        private byte id3v24UnicodeTextEncoding = TextEncoding.UTF_16;
+        private boolean resetTextEncodingForExistingFrames = false;
+        private boolean truncateTextWithoutErrors = false;
+        private boolean padNumbers = false;
+        private boolean android = false;
+        private boolean encodeUTF16BomAsLittleEndian = true;
+        private int playerCompatability = -1;
+        private long writeChunkSize = 5000000;
+
+        /**
+         * Create a builder initialised with the default options
+         */
+        public Builder()
+        {
+        }
+
+        /**
+         * Create a builder initialised with the given options
+         *
+         * @param options
+         */
+        public Builder(TagOptions options)
+        {
+            filenameTagSave = options.filenameTagSave;
+            id3v1Save = options.id3v1Save;
+            id3v1SaveAlbum = options.id3v1SaveAlbum;
+            id3v1SaveArtist = options.id3v1SaveArtist;
+            id3v1SaveComment = options.id3v1SaveComment;
+            id3v1SaveGenre = options.id3v1SaveGenre;
+            id3v1SaveTitle = options.id3v1SaveTitle;
+            id3v1SaveTrack = options.id3v1SaveTrack;
+            id3v1SaveYear = options.id3v1SaveYear;
+            id3v2PaddingCopyTag = options.id3v2PaddingCopyTag;
+            id3v2PaddingWillShorten = options.id3v2PaddingWillShorten;
+            id3v2Save = options.id3v2Save;
+            language = options.language;
+            lyrics3KeepEmptyFieldIfRead = options.lyrics3KeepEmptyFieldIfRead;
+            lyrics3Save = options.lyrics3Save;
+            lyrics3SaveEmptyField = options.lyrics3SaveEmptyField;
+            stripApev2AndLyrics3Tags = options.stripApev2AndLyrics3Tags;
+            originalSavedAfterAdjustingID3v2Padding = options.originalSavedAfterAdjustingID3v2Padding;
+            timeStampFormat = options.timeStampFormat;
+            numberMP3SyncFrame = options.numberMP3SyncFrame;
+            unsyncTags = options.unsyncTags;
+            id3v2CompressFrames = options.id3v2CompressFrames;
+            id3v2CompressFramesMinimumSize = options.id3v2CompressFramesMinimumSize;
+            removeTrailingTerminatorOnWrite = options.removeTrailingTerminatorOnWrite;
+            id3v23DefaultTextEncoding = options.id3v23DefaultTextEncoding;
+            id3v24DefaultTextEncoding = options.id3v24DefaultTextEncoding;
+            id3v24UnicodeTextEncoding = options.id3v24UnicodeTextEncoding;
+            resetTextEncodingForExistingFrames = options.resetTextEncodingForExistingFrames;
+            truncateTextWithoutErrors = options.truncateTextWithoutErrors;
+            padNumbers = options.padNumbers;
+            android = options.android;
+            encodeUTF16BomAsLittleEndian = options.encodeUTF16BomAsLittleEndian;
+            playerCompatability = options.playerCompatability;
+            writeChunkSize = options.writeChunkSize;
+        }
+
+        public Builder setFilenameTagSave(boolean filenameTagSave)
+        {
+            this.filenameTagSave = filenameTagSave;
+            return this;
+        }
+
+        public Builder setId3v1Save(boolean id3v1Save)
+        {
+            this.id3v1Save = id3v1Save;
+            return this;
+        }
+
+        public Builder setId3v1SaveAlbum(boolean id3v1SaveAlbum)
+        {
+            this.id3v1SaveAlbum = id3v1SaveAlbum;
+            return this;
+        }
+
+        public Builder setId3v1SaveArtist(boolean id3v1SaveArtist)
+        {
+            this.id3v1SaveArtist = id3v1SaveArtist;
+            return this;
+        }
+
+        public Builder setId3v1SaveComment(boolean id3v1SaveComment)
+        {
+            this.id3v1SaveComment = id3v1SaveComment;
+            return this;
+        }
+
+        public Builder setId3v1SaveGenre(boolean id3v1SaveGenre)
+        {
+            this.id3v1SaveGenre = id3v1SaveGenre;
+            return this;
+        }
+
+        public Builder setId3v1SaveTitle(boolean id3v1SaveTitle)
+        {
+            this.id3v1SaveTitle = id3v1SaveTitle;
+            return this;
+        }
+
+        public Builder setId3v1SaveTrack(boolean id3v1SaveTrack)
+        {
+            this.id3v1SaveTrack = id3v1SaveTrack;
+            return this;
+        }
+
+        public Builder setId3v1SaveYear(boolean id3v1SaveYear)
+        {
+            this.id3v1SaveYear = id3v1SaveYear;
+            return this;
+        }
+
+        public Builder setId3v2PaddingCopyTag(boolean id3v2PaddingCopyTag)
+        {
+            this.id3v2PaddingCopyTag = id3v2PaddingCopyTag;
+            return this;
+        }
+
+        public Builder setId3v2PaddingWillShorten(boolean id3v2PaddingWillShorten)
+        {
+            this.id3v2PaddingWillShorten = id3v2PaddingWillShorten;
+            return this;
+        }
+
+        public Builder setId3v2Save(boolean id3v2Save)
+        {
+            this.id3v2Save = id3v2Save;
+            return this;
+        }
+
+        public Builder setLanguage(String language)
+        {
+            this.language = language;
+            return this;
+        }
+
+        public Builder setLyrics3KeepEmptyFieldIfRead(boolean lyrics3KeepEmptyFieldIfRead)
+        {
+            this.lyrics3KeepEmptyFieldIfRead = lyrics3KeepEmptyFieldIfRead;
+            return this;
+        }
+
+        public Builder setLyrics3Save(boolean lyrics3Save)
+        {
+            this.lyrics3Save = lyrics3Save;
+            return this;
+        }
+
+        public Builder setLyrics3SaveEmptyField(boolean lyrics3SaveEmptyField)
+        {
+            this.lyrics3SaveEmptyField = lyrics3SaveEmptyField;
+            return this;
+        }
+
+        public Builder setStripApev2AndLyrics3Tags(boolean stripApev2AndLyrics3Tags)
+        {
+            this.stripApev2AndLyrics3Tags = stripApev2AndLyrics3Tags;
+            return this;
+        }
+
+        public Builder setOriginalSavedAfterAdjustingID3v2Padding(boolean originalSavedAfterAdjustingID3v2Padding)
+        {
+            this.originalSavedAfterAdjustingID3v2Padding = originalSavedAfterAdjustingID3v2Padding;
+            return this;
+        }
+
+        public Builder setTimeStampFormat(byte timeStampFormat)
+        {
+            this.timeStampFormat = timeStampFormat;
+            return this;
+        }
+
+        public Builder setNumberMP3SyncFrame(int numberMP3SyncFrame)
+        {
+            this.numberMP3SyncFrame = numberMP3SyncFrame;
+            return this;
+        }
+
+        public Builder setUnsyncTags(boolean unsyncTags)
+        {
+            this.unsyncTags = unsyncTags;
+            return this;
+        }
+
+        public Builder setId3v2CompressFrames(boolean id3v2CompressFrames)
+        {
+            this.id3v2CompressFrames = id3v2CompressFrames;
+            return this;
+        }
+
+        public Builder setId3v2CompressFramesMinimumSize(int id3v2CompressFramesMinimumSize)
+        {
+            this.id3v2CompressFramesMinimumSize = id3v2CompressFramesMinimumSize;
+            return this;
+        }
+
+        public Builder setRemoveTrailingTerminatorOnWrite(boolean removeTrailingTerminatorOnWrite)
+        {
+            this.removeTrailingTerminatorOnWrite = removeTrailingTerminatorOnWrite;
+            return this;
+        }
+
+        public Builder setId3v23DefaultTextEncoding(byte id3v23DefaultTextEncoding)
+        {
+            this.id3v23DefaultTextEncoding = id3v23DefaultTextEncoding;
+            return this;
+        }
+
+        public Builder setId3v24DefaultTextEncoding(byte id3v24DefaultTextEncoding)
+        {
+            this.id3v24DefaultTextEncoding = id3v24DefaultTextEncoding;
+            return this;
+        }
+
+        public Builder setId3v24UnicodeTextEncoding(byte id3v24UnicodeTextEncoding)
+        {
+            this.id3v24UnicodeTextEncoding = id3v24UnicodeTextEncoding;
+            return this;
+        }
+
+        public Builder setResetTextEncodingForExistingFrames(boolean resetTextEncodingForExistingFrames)
+        {
+            this.resetTextEncodingForExistingFrames = resetTextEncodingForExistingFrames;
+            return this;
+        }
+
+        public Builder setTruncateTextWithoutErrors(boolean truncateTextWithoutErrors)
+        {
+            this.truncateTextWithoutErrors = truncateTextWithoutErrors;
+            return this;
+        }
+
+        public Builder setPadNumbers(boolean padNumbers)
+        {
+            this.padNumbers = padNumbers;
+            return this;
+        }
+
+        public Builder setAndroid(boolean android)
+        {
+            this.android = android;
+            return this;
+        }
+
+        public Builder setEncodeUTF16BomAsLittleEndian(boolean encodeUTF16BomAsLittleEndian)
+        {
+            this.encodeUTF16BomAsLittleEndian = encodeUTF16BomAsLittleEndian;
+            return this;
+        }
+
+        public Builder setPlayerCompatability(int playerCompatability)
+        {
+            this.playerCompatability = playerCompatability;
+            return this;
+        }
+
+        public Builder setWriteChunkSize(long writeChunkSize)
+        {
+            this.writeChunkSize = writeChunkSize;
+            return this;
+        }
+
+        public TagOptions build()
+        {
+            return new TagOptions(this);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package org.jaudiotagger.tag.datatype;
 
 import org.jaudiotagger.tag.InvalidDataTypeException;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
@@ -116,7 +116,7 @@ public class PartOfSet extends AbstractString
         //Try and write to buffer using the CharSet defined by getTextEncodingCharSet()
         try
         {
-            if (TagOptionSingleton.getInstance().isRemoveTrailingTerminatorOnWrite())
+            if (TagOptions.current().isRemoveTrailingTerminatorOnWrite())
             {
                 if (value.length() > 0)
                 {
@@ -290,7 +290,7 @@ public class PartOfSet extends AbstractString
         {
             //Don't Pad
             StringBuffer sb = new StringBuffer();
-            if(!TagOptionSingleton.getInstance().isPadNumbers())
+            if(!TagOptions.current().isPadNumbers())
             {
                 if(count!=null)
                 {
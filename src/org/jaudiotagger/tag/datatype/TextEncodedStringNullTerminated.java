@@ -1,7 +1,7 @@
 package org.jaudiotagger.tag.datatype;
 
 import org.jaudiotagger.tag.InvalidDataTypeException;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 
@@ -208,7 +208,7 @@ public class TextEncodedStringNullTerminated extends AbstractString
             String charSetName = getTextEncodingCharSet();
             if (charSetName.equals(TextEncoding.CHARSET_UTF_16))
             {
-                if(TagOptionSingleton.getInstance().isEncodeUTF16BomAsLittleEndian())
+                if(TagOptions.current().isEncodeUTF16BomAsLittleEndian())
                 {
                     charSetName = TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT;
                     CharsetEncoder encoder = Charset.forName(charSetName).newEncoder();
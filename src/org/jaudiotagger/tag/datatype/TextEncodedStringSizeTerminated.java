@@ -1,7 +1,7 @@
 package org.jaudiotagger.tag.datatype;
 
 import org.jaudiotagger.tag.InvalidDataTypeException;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 
@@ -86,7 +86,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
 
         //Decode sliced inBuffer
         ByteBuffer inBuffer;
-        if(TagOptionSingleton.getInstance().isAndroid())
+        if(TagOptions.current().isAndroid())
         {
            //#302 [dallen] truncating array manually since the decoder.decode() does not honor the offset in the in buffer
            byte[] truncArr = new byte[arr.length - offset];
@@ -219,7 +219,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
      */
     private void stripTrailingNull()
     {
-        if (TagOptionSingleton.getInstance().isRemoveTrailingTerminatorOnWrite())
+        if (TagOptions.current().isRemoveTrailingTerminatorOnWrite())
         {
             String stringValue = (String) value;
             if (stringValue.length() > 0)
@@ -241,7 +241,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
      */
     private void checkTrailingNull( List<String> values, String stringValue)
     {
-        if(!TagOptionSingleton.getInstance().isRemoveTrailingTerminatorOnWrite())
+        if(!TagOptions.current().isRemoveTrailingTerminatorOnWrite())
         {
             if (stringValue.length() > 0 && stringValue.charAt(stringValue.length() - 1) == '\0')
             {
@@ -275,7 +275,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
             String actualCharSet = null;
             if (charSetName.equals(TextEncoding.CHARSET_UTF_16))
             {
-                if(TagOptionSingleton.getInstance().isEncodeUTF16BomAsLittleEndian())
+                if(TagOptions.current().isEncodeUTF16BomAsLittleEndian())
                 {
                     actualCharSet = TextEncoding.CHARSET_UTF_16_LE_ENCODING_FORMAT;
                 }
@@ -15,6 +15,7 @@
  */
 package org.jaudiotagger.tag.id3;
 
+import org.jaudiotagger.audio.generic.AudioFileOperation;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.tag.*;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
@@ -54,6 +55,9 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
     //when processing many files
     private String loggingFilename = "";
 
+    //Frames that are read, the body of any other frame is skipped and left null
+    protected ID3FrameSelection frameSelection = ID3FrameSelection.ALL;
+
     /**
      *
      * @return size in bytes of the frameid field
@@ -108,6 +112,14 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         this.frameBody.setHeader(this);
     }
 
+    /**
+     * @return false if the body was skipped when reading the frame because the frame was not selected
+     */
+    public boolean isBodyRead()
+    {
+        return frameBody != null;
+    }
+
     /**
      * Create a new frame with empty body based on identifier
      * @param identifier
@@ -145,11 +157,11 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         frameBody.setHeader(this);
         if (this instanceof ID3v24Frame)
         {
-            frameBody.setTextEncoding(TagOptionSingleton.getInstance().getId3v24DefaultTextEncoding());
+            frameBody.setTextEncoding(TagOptions.current().getId3v24DefaultTextEncoding());
         }
         else if (this instanceof ID3v23Frame)
         {
-            frameBody.setTextEncoding(TagOptionSingleton.getInstance().getId3v23DefaultTextEncoding());
+            frameBody.setTextEncoding(TagOptions.current().getId3v23DefaultTextEncoding());
         }
 
         logger.config("Created empty frame of type" + identifier);
@@ -261,6 +273,8 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         //Use reflection to map id to frame body, which makes things much easier
         //to keep things up to date,although slight performance hit.
         logger.finest("Creating framebody:start");
+        AudioFileOperation operation = AudioFileOperation.current();
+        long start = operation.startTimer();
 
         AbstractID3v2FrameBody frameBody;
         try
@@ -336,6 +350,7 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         }
         logger.finest(getLoggingFilename() + ":" + "Created framebody:end" + frameBody.getIdentifier());
         frameBody.setHeader(this);
+        operation.id3FrameDecoded(identifier, frameSize, start);
         return frameBody;
     }
 
@@ -19,6 +19,8 @@ import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.UnableToCreateFileException;
 import org.jaudiotagger.audio.exceptions.UnableToModifyFileException;
 import org.jaudiotagger.audio.exceptions.UnableToRenameFileException;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.audio.generic.TagRegion;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -36,6 +38,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.logging.Level;
@@ -71,6 +74,9 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
 
     protected static final int TAG_SIZE_INCREMENT = 100;
 
+    //Amount of the tag read at once when walking the frame headers to find the padding
+    private static final int TAG_REGION_WINDOW_SIZE = 65536;
+
     //The max size we try to write in one go to avoid out of memory errors (10mb)
     private static final long MAXIMUM_WRITABLE_CHUNK_SIZE = 10000000;
 
@@ -122,6 +128,11 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     protected static final String TYPE_INVALIDFRAMES = "invalidFrames";
     protected int invalidFrames = 0;
 
+    /**
+     * Frames whose body is read, the other frames are skipped so a tag read with a selection must not be written
+     */
+    protected ID3FrameSelection frameSelection = ID3FrameSelection.ALL;
+
     /**
      * True if files has a ID3v2 header
      *
@@ -1099,6 +1110,178 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         
     }
 
+    /**
+     * Probe for an ID3v2 tag starting at the current position of the file, and return the region it occupies
+     * <p/>
+     * Only the tag header, any extended header and the frame headers are read, the frame bodies are skipped over to
+     * find where the padding starts. Padding cannot be found this way if the whole tag has been unsynchronized or
+     * compressed and is then reported as {@link TagRegion#UNKNOWN}.
+     * <p/>
+     * The file pointer is not moved.
+     *
+     * @param raf
+     * @return the tag region, with a tag size of zero if there is no ID3v2 tag at this position
+     * @throws IOException
+     */
+    public static TagRegion getV2TagRegion(RandomAccessFile raf) throws IOException
+    {
+        FileChannel fc = raf.getChannel();
+        long tagStart = raf.getFilePointer();
+        ByteBuffer header = ByteBuffer.allocate(TAG_HEADER_LENGTH);
+        if (readFully(fc, header, tagStart) < TAG_HEADER_LENGTH)
+        {
+            return new TagRegion("ID3v2", TagRegion.UNKNOWN, 0, 0, tagStart);
+        }
+
+        byte[] tagIdentifier = new byte[FIELD_TAGID_LENGTH];
+        header.get(tagIdentifier);
+        byte majorVersion = header.get(FIELD_TAG_MAJOR_VERSION_POS);
+        if (!Arrays.equals(tagIdentifier, TAG_ID) || ((majorVersion != ID3v22Tag.MAJOR_VERSION) && (majorVersion != ID3v23Tag.MAJOR_VERSION) && (majorVersion != ID3v24Tag.MAJOR_VERSION)))
+        {
+            return new TagRegion("ID3v2", TagRegion.UNKNOWN, 0, 0, tagStart);
+        }
+        byte flags = header.get(FIELD_TAG_FLAG_POS);
+        header.position(FIELD_TAG_SIZE_POS);
+        long tagEnd = tagStart + TAG_HEADER_LENGTH + ID3SyncSafeInteger.bufferToValue(header);
+
+        //Footer is a copy of the header following the padding (which is not allowed with a footer anyway)
+        long audioStart = tagEnd;
+        if (majorVersion == ID3v24Tag.MAJOR_VERSION && (flags & ID3v24Tag.MASK_V24_FOOTER_PRESENT) != 0)
+        {
+            audioStart += TAG_HEADER_LENGTH;
+        }
+        long padding = getV2PaddingSize(fc, majorVersion, flags, tagStart + TAG_HEADER_LENGTH, tagEnd);
+        return new TagRegion("ID3v2." + majorVersion, tagStart, audioStart - tagStart, padding, audioStart);
+    }
+
+    /**
+     * Walk the frame headers from bodyStart to find the start of the padding
+     * <p/>
+     * The tag is read in windows of {@link #TAG_REGION_WINDOW_SIZE} and the frame headers walked in memory, a new
+     * window is only read when a frame header lies beyond the current one. So the number of reads depends on the size
+     * of the tag rather than on the number of frames, a tag without large frames is walked with a single read.
+     *
+     * @return the size of the padding or {@link TagRegion#UNKNOWN}
+     */
+    private static long getV2PaddingSize(FileChannel fc, byte majorVersion, byte flags, long bodyStart, long tagEnd) throws IOException
+    {
+        int frameHeaderSize;
+        switch (majorVersion)
+        {
+            case ID3v22Tag.MAJOR_VERSION:
+                if ((flags & (ID3v22Tag.MASK_V22_UNSYNCHRONIZATION | ID3v22Tag.MASK_V22_COMPRESSION)) != 0)
+                {
+                    return TagRegion.UNKNOWN;
+                }
+                frameHeaderSize = ID3v22Frame.FRAME_HEADER_SIZE;
+                break;
+
+            case ID3v23Tag.MAJOR_VERSION:
+                if ((flags & ID3v23Tag.MASK_V23_UNSYNCHRONIZATION) != 0)
+                {
+                    return TagRegion.UNKNOWN;
+                }
+                frameHeaderSize = ID3v23Frame.FRAME_HEADER_SIZE;
+                break;
+
+            default:
+                frameHeaderSize = ID3v24Frame.FRAME_HEADER_SIZE;
+        }
+
+        ByteBuffer window = ByteBuffer.allocate((int) Math.min(TAG_REGION_WINDOW_SIZE, Math.max(tagEnd - bodyStart, 0)));
+        long windowStart = bodyStart;
+        readFully(fc, window, windowStart);
+        long pos = bodyStart;
+
+        //Skip extended header, in v23 its size excludes the size field, in v24 it is syncsafe and includes it
+        boolean v23ExtendedHeader = majorVersion == ID3v23Tag.MAJOR_VERSION && (flags & ID3v23Tag.MASK_V23_EXTENDED_HEADER) != 0;
+        boolean v24ExtendedHeader = majorVersion == ID3v24Tag.MAJOR_VERSION && (flags & ID3v24Tag.MASK_V24_EXTENDED_HEADER) != 0;
+        if (v23ExtendedHeader || v24ExtendedHeader)
+        {
+            if (window.limit() < FIELD_TAG_SIZE_LENGTH)
+            {
+                return TagRegion.UNKNOWN;
+            }
+            if (v23ExtendedHeader)
+            {
+                pos += FIELD_TAG_SIZE_LENGTH + (window.getInt(0) & 0xffffffffL);
+            }
+            else
+            {
+                window.position(0);
+                pos += ID3SyncSafeInteger.bufferToValue(window);
+            }
+        }
+
+        while (pos + frameHeaderSize <= tagEnd)
+        {
+            //Move the window on if the next frame header is not all within it
+            if (pos + frameHeaderSize > windowStart + window.limit())
+            {
+                windowStart = pos;
+                window.clear();
+                if (tagEnd - pos < window.capacity())
+                {
+                    window.limit((int) (tagEnd - pos));
+                }
+                if (readFully(fc, window, windowStart) < frameHeaderSize)
+                {
+                    return TagRegion.UNKNOWN;
+                }
+            }
+            int offset = (int) (pos - windowStart);
+
+            //Padding is all zeroes so cannot start with a valid frame identifier
+            if (window.get(offset) == 0)
+            {
+                break;
+            }
+
+            long frameSize;
+            switch (majorVersion)
+            {
+                case ID3v22Tag.MAJOR_VERSION:
+                    frameSize = ((window.get(offset + 3) & 0xff) << 16) | ((window.get(offset + 4) & 0xff) << 8) | (window.get(offset + 5) & 0xff);
+                    break;
+
+                case ID3v23Tag.MAJOR_VERSION:
+                    frameSize = window.getInt(offset + ID3v23Frame.FRAME_ID_SIZE) & 0xffffffffL;
+                    break;
+
+                default:
+                    window.position(offset + ID3v24Frame.FRAME_ID_SIZE);
+                    frameSize = ID3SyncSafeInteger.bufferToValue(window);
+            }
+            pos += frameHeaderSize + frameSize;
+            if (pos > tagEnd)
+            {
+                return TagRegion.UNKNOWN;
+            }
+        }
+        return Math.max(tagEnd - pos, 0);
+    }
+
+    /**
+     * Read from position until the buffer is full or end of file is reached, on return the buffer is flipped
+     *
+     * @return number of bytes read
+     */
+    private static int readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        int total = 0;
+        while (buffer.hasRemaining())
+        {
+            int read = fc.read(buffer, position + total);
+            if (read < 0)
+            {
+                break;
+            }
+            total += read;
+        }
+        buffer.flip();
+        return total;
+    }
+
     /**
      * Does a tag of the correct version exist in this file.
      *
@@ -1179,6 +1362,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         {
             paddedFile = File.createTempFile(Utils.getBaseFilenameForTempFile(file), ".new", file.getParentFile());
             logger.finest("Created temp file:" + paddedFile.getName() + " for " + file.getName());
+            AudioFileOperation.current().setTempFileCreated();
         }
         //Vista:Can occur if have Write permission on folder this file would be created in Denied
         catch (IOException ioe)
@@ -1198,7 +1382,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
 
         try
         {
-            fcOut = new FileOutputStream(paddedFile).getChannel();
+            fcOut = AudioFileOperation.current().wrap(new FileOutputStream(paddedFile).getChannel());
         }
         //Vista:Can occur if have special permission Create Folder/Append Data denied
         catch (FileNotFoundException ioe)
@@ -1212,7 +1396,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         {
             //Create read channel from original file
             //TODO lock so cant be modified by anything else whilst reading from it ?
-            fcIn = new FileInputStream(file).getChannel();
+            fcIn = AudioFileOperation.current().wrap(new FileInputStream(file).getChannel());
 
             //Write padding to new file (this is where the tag will be written to later)
             long written = fcOut.write(paddingBuffer);
@@ -1271,6 +1455,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
             }
 
             //Replace file with paddedFile
+            AudioFileOperation.current().setRewritten(paddedFile.length());
             replaceFile(file, paddedFile);
 
             //Update modification time
@@ -1322,6 +1507,26 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * @throws IOException
      */
     protected void writeBufferToFile(File file, ByteBuffer headerBuffer, byte[] bodyByteBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
+    {
+        writeBufferToFile(file, headerBuffer, ByteBuffer.wrap(bodyByteBuffer), false, padding, sizeIncPadding, audioStartLocation);
+    }
+
+    /**
+     * Write the header, body and padding to the file
+     * <p/>
+     * If the body is to be unsynchronized it is unsynchronized as it is written, otherwise the header, body and
+     * padding are passed to the file in a single gathering write.
+     *
+     * @param file
+     * @param headerBuffer
+     * @param bodyBuffer         the frames as serialized, before any unsynchronization
+     * @param unsynchronize      unsynchronize the body as it is written
+     * @param padding
+     * @param sizeIncPadding
+     * @param audioStartLocation
+     * @throws IOException
+     */
+    protected void writeBufferToFile(File file, ByteBuffer headerBuffer, ByteBuffer bodyBuffer, boolean unsynchronize, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
     {
         FileChannel fc = null;
         FileLock fileLock = null;
@@ -1335,11 +1540,9 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
 
         try
         {
-            fc = new RandomAccessFile(file, "rws").getChannel();
+            fc = AudioFileOperation.current().wrap(new RandomAccessFile(file, "rws").getChannel());
             fileLock = getFileLockForWriting(fc, file.getPath());
-            fc.write(headerBuffer);
-            fc.write(ByteBuffer.wrap(bodyByteBuffer));
-            fc.write(ByteBuffer.wrap(new byte[padding]));
+            writeBuffersToChannel(fc, headerBuffer, bodyBuffer, unsynchronize, ByteBuffer.allocate(padding));
         }
         catch (FileNotFoundException fe)
         {
@@ -1382,6 +1585,63 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         }
     }
 
+    /**
+     * Write the header, body and padding to the channel
+     *
+     * @param channel
+     * @param headerBuffer
+     * @param bodyBuffer    the frames as serialized, before any unsynchronization
+     * @param unsynchronize unsynchronize the body as it is written
+     * @param paddingBuffer
+     * @throws IOException
+     */
+    protected static void writeBuffersToChannel(WritableByteChannel channel, ByteBuffer headerBuffer, ByteBuffer bodyBuffer, boolean unsynchronize, ByteBuffer paddingBuffer) throws IOException
+    {
+        if (unsynchronize)
+        {
+            writeFully(channel, new ByteBuffer[]{headerBuffer});
+            ID3Unsynchronization.unsynchronize(bodyBuffer, channel);
+            writeFully(channel, new ByteBuffer[]{paddingBuffer});
+        }
+        else
+        {
+            writeFully(channel, new ByteBuffer[]{headerBuffer, bodyBuffer, paddingBuffer});
+        }
+    }
+
+    /**
+     * Write all the buffers to the channel, using a gathering write if the channel supports it
+     *
+     * @param channel
+     * @param buffers
+     * @throws IOException
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer[] buffers) throws IOException
+    {
+        if (channel instanceof GatheringByteChannel)
+        {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers)
+            {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0)
+            {
+                remaining -= ((GatheringByteChannel) channel).write(buffers);
+            }
+        }
+        else
+        {
+            for (ByteBuffer buffer : buffers)
+            {
+                while (buffer.hasRemaining())
+                {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
     /**
      * Replace originalFile with the contents of newFile
      * <p/>
@@ -1594,12 +1854,13 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * <p>Currently Write all frames, defaults to the order in which they were loaded, newly
      * created frames will be at end of tag.
      *
-     * @return ByteBuffer Contains all the frames written within the tag ready for writing to file
+     * @return Contains all the frames written within the tag ready for writing to file
      * @throws IOException
      */
-    protected ByteArrayOutputStream writeFramesToBuffer() throws IOException
+    protected ID3BodyOutputStream writeFramesToBuffer() throws IOException
     {
-        ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream();
+        //Size of frames when last read or written is a good guess at how big the buffer will need to be
+        ID3BodyOutputStream bodyBuffer = new ID3BodyOutputStream(getSize());
         writeFramesToBufferStream(frameMap, bodyBuffer);
         writeFramesToBufferStream(encryptedFrameMap, bodyBuffer);
         return bodyBuffer;
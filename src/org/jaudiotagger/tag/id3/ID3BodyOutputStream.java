@@ -0,0 +1,35 @@
+package org.jaudiotagger.tag.id3;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Holds the frames of a tag (or the body of a single frame) as they are serialized.
+ * <p/>
+ * Unlike a plain {@link ByteArrayOutputStream} the bytes written can be viewed as a {@link ByteBuffer} without
+ * taking a copy, so a large frame such as an APIC is not duplicated again when it is unsynchronized and written
+ * to file.
+ */
+public class ID3BodyOutputStream extends ByteArrayOutputStream
+{
+    public ID3BodyOutputStream()
+    {
+        super();
+    }
+
+    /**
+     * @param sizeHint expected number of bytes, if the hint is too small the buffer is grown as required
+     */
+    public ID3BodyOutputStream(int sizeHint)
+    {
+        super(Math.max(sizeHint, 32));
+    }
+
+    /**
+     * @return a view of the bytes written so far, the view is only valid until the stream is next written to
+     */
+    public ByteBuffer asByteBuffer()
+    {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
@@ -2,31 +2,64 @@ package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.InvalidFrameException;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
 /**
- * compresses frame data
+ * compresses and decompresses frame data
  * <p/>
  * Is currently required for V23Frames and V24Frames
  * <p/>
+ * Inflaters and Deflaters hold native memory that is only released by end() or by the garbage collector, so a
+ * small number are pooled and reused and any that cannot be pooled are ended as soon as they have been used.
+ * <p/>
+ * Frames are only compressed on write if enabled with {@link TagOptionSingleton#setId3v2CompressFrames(boolean)},
+ * and then only frames that normally hold a lot of compressible text and are at least
+ * {@link TagOptionSingleton#getId3v2CompressFramesMinimumSize()} bytes long.
  */
-//TODO also need to support compress framedata
 public class ID3Compression
 {
     //Logger
     public static Logger logger = Logger.getLogger("org.jaudiotagger.tag.id3");
 
+    /**
+     * Frames considered for compression on write, they have the same identifier in v23 and v24
+     */
+    public static final Set<String> COMPRESSIBLE_FRAME_IDS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+            ID3v24Frames.FRAME_ID_UNSYNC_LYRICS,
+            ID3v24Frames.FRAME_ID_USER_DEFINED_INFO,
+            ID3v24Frames.FRAME_ID_GENERAL_ENCAPS_OBJECT,
+            ID3v24Frames.FRAME_ID_COMMENT)));
+
+    //Maximum number of each type kept for reuse
+    private static final int MAX_POOL_SIZE = 4;
+
+    private static final Queue<Inflater> inflaterPool = new ConcurrentLinkedQueue<Inflater>();
+    private static final Queue<Deflater> deflaterPool = new ConcurrentLinkedQueue<Deflater>();
+
     /**
      * Decompress realFrameSize bytes to decompressedFrameSize bytes and return as ByteBuffer
+     * <p/>
+     * The position of the byteBuffer is not changed.
      *
-     * @param byteBuffer
+     * @param identifier
+     * @param filename
+     * @param byteBuffer            positioned at the start of the compressed data
      * @param decompressedFrameSize
-     * @param realFrameSize
+     * @param realFrameSize         size of the compressed data
      * @return
      * @throws org.jaudiotagger.tag.InvalidFrameException
      *
@@ -36,31 +69,122 @@ public class ID3Compression
         logger.config(filename + ":About to decompress " + realFrameSize + " bytes, expect result to be:" + decompressedFrameSize + " bytes");
         // Decompress the bytes into this buffer, size initialized from header field
         byte[] result = new byte[decompressedFrameSize];
-        byte[] input = new byte[realFrameSize];
 
-        //Store position ( just after frame header and any extra bits)
-        //Read frame data into array, and then put buffer back to where it was
-        int position = byteBuffer.position();
-        byteBuffer.get(input, 0, realFrameSize);
-        byteBuffer.position(position);
-
-        Inflater decompresser = new Inflater();
-        decompresser.setInput(input);
+        Inflater decompresser = acquireInflater();
         try
         {
+            //Inflate directly from the backing array if there is one, otherwise take a copy
+            if (byteBuffer.hasArray())
+            {
+                decompresser.setInput(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), realFrameSize);
+            }
+            else
+            {
+                byte[] input = new byte[realFrameSize];
+                byteBuffer.duplicate().get(input, 0, realFrameSize);
+                decompresser.setInput(input);
+            }
             int inflatedTo = decompresser.inflate(result);
             logger.config(filename + ":Decompressed to " + inflatedTo + " bytes");
         }
         catch (DataFormatException dfe)
         {
             logger.log(Level.CONFIG,"Unable to decompress this frame:"+identifier,dfe);
-
-            //Update position of main buffer, so no attempt is made to reread these bytes
-            byteBuffer.position(byteBuffer.position() + realFrameSize);
             throw new InvalidFrameException(ErrorMessage.ID3_UNABLE_TO_DECOMPRESS_FRAME.getMsg(identifier,filename,dfe.getMessage()));
         }
-        decompresser.end();
+        finally
+        {
+            releaseInflater(decompresser);
+        }
         return ByteBuffer.wrap(result);
     }
 
-}
\ No newline at end of file
+    /**
+     * Should this frame be compressed when written
+     *
+     * @param identifier frame identifier
+     * @param size       uncompressed size of the frame body
+     * @return true if compression is enabled and this is a frame of a suitable type and size
+     */
+    protected static boolean isCompressionRequired(String identifier, int size)
+    {
+        TagOptions options = TagOptions.current();
+        return options.isId3v2CompressFrames() && size >= options.getId3v2CompressFramesMinimumSize() && COMPRESSIBLE_FRAME_IDS.contains(identifier);
+    }
+
+    /**
+     * Compress the remaining bytes of the buffer, the position of the buffer is not changed.
+     *
+     * @param identifier
+     * @param byteBuffer data to be compressed
+     * @return the compressed data, or null if compressing would not make the data any smaller
+     */
+    protected static ByteBuffer compress(String identifier, ByteBuffer byteBuffer)
+    {
+        int size = byteBuffer.remaining();
+        //Compressed data must be smaller to be worth writing, so stop as soon as it isn't
+        byte[] result = new byte[size];
+        int compressedSize = 0;
+
+        Deflater compresser = acquireDeflater();
+        try
+        {
+            if (byteBuffer.hasArray())
+            {
+                compresser.setInput(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), size);
+            }
+            else
+            {
+                byte[] input = new byte[size];
+                byteBuffer.duplicate().get(input);
+                compresser.setInput(input);
+            }
+            compresser.finish();
+            while (!compresser.finished() && compressedSize < result.length)
+            {
+                compressedSize += compresser.deflate(result, compressedSize, result.length - compressedSize);
+            }
+            if (!compresser.finished() || compressedSize >= size)
+            {
+                logger.config(identifier + ":Not compressed because compressed data is no smaller than " + size + " bytes");
+                return null;
+            }
+        }
+        finally
+        {
+            releaseDeflater(compresser);
+        }
+        logger.config(identifier + ":Compressed " + size + " bytes to " + compressedSize + " bytes");
+        return ByteBuffer.wrap(result, 0, compressedSize);
+    }
+
+    private static Inflater acquireInflater()
+    {
+        Inflater inflater = inflaterPool.poll();
+        return inflater != null ? inflater : new Inflater();
+    }
+
+    private static void releaseInflater(Inflater inflater)
+    {
+        inflater.reset();
+        if (inflaterPool.size() >= MAX_POOL_SIZE || !inflaterPool.offer(inflater))
+        {
+            inflater.end();
+        }
+    }
+
+    private static Deflater acquireDeflater()
+    {
+        Deflater deflater = deflaterPool.poll();
+        return deflater != null ? deflater : new Deflater();
+    }
+
+    private static void releaseDeflater(Deflater deflater)
+    {
+        deflater.reset();
+        if (deflaterPool.size() >= MAX_POOL_SIZE || !deflaterPool.offer(deflater))
+        {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.audio.ReadProjection;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.KeyNotFoundException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Selects the frames of an ID3v2 tag whose body is read, the other frames are skipped by their size without creating
+ * a frame body.
+ * <p/>
+ * The selection is made from a {@link ReadProjection} using the frame ids that the version of the tag being read maps
+ * each {@link FieldKey} to, so the ids are those found in the file such as TT2 for a v2.2 title. All frames with the
+ * id of a required field are read, for example every TXXX frame when one user defined field is required.
+ */
+public class ID3FrameSelection
+{
+    /**
+     * Read every frame
+     */
+    public static final ID3FrameSelection ALL = new ID3FrameSelection(null, null);
+
+    //Null if frames are not limited to a set of ids
+    private final Set<String> frameIdsToRead;
+
+    //Null if no frame is skipped because of its id
+    private final String frameIdToSkip;
+
+    private ID3FrameSelection(Set<String> frameIdsToRead, String frameIdToSkip)
+    {
+        this.frameIdsToRead = frameIdsToRead;
+        this.frameIdToSkip = frameIdToSkip;
+    }
+
+    /**
+     * @param tag        the tag being read, used to map the fields to frame ids
+     * @param projection the parts of the tag to read
+     * @return the selection
+     */
+    static ID3FrameSelection create(AbstractID3v2Tag tag, ReadProjection projection)
+    {
+        if (projection.getFieldKeys() == null)
+        {
+            if (projection.isArtworkRequired())
+            {
+                return ALL;
+            }
+            return new ID3FrameSelection(null, tag.getFrameAndSubIdFromGenericKey(FieldKey.COVER_ART).getFrameId());
+        }
+
+        Set<String> frameIds = new HashSet<String>();
+        for (FieldKey key : projection.getFieldKeys())
+        {
+            try
+            {
+                frameIds.add(tag.getFrameAndSubIdFromGenericKey(key).getFrameId());
+            }
+            catch (KeyNotFoundException knfe)
+            {
+                //Field not supported by this version of ID3
+            }
+        }
+        return new ID3FrameSelection(frameIds, null);
+    }
+
+    /**
+     * @param frameId identifier of the frame as found in the file
+     * @return true if the body of the frame is to be read
+     */
+    public boolean isSelected(String frameId)
+    {
+        if (frameIdsToRead != null)
+        {
+            return frameIdsToRead.contains(frameId);
+        }
+        return !frameId.equals(frameIdToSkip);
+    }
+
+    public String toString()
+    {
+        if (frameIdsToRead != null)
+        {
+            return "Frames:" + frameIdsToRead;
+        }
+        return frameIdToSkip == null ? "All frames" : "All frames except:" + frameIdToSkip;
+    }
+}
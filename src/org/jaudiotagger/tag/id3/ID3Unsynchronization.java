@@ -2,22 +2,54 @@ package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.audio.mp3.MPEGFrameHeader;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.util.logging.Logger;
+import java.nio.channels.WritableByteChannel;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Performs unsynchronization and synchronization tasks on a buffer.
  * <p/>
  * Is currently required for V23Tags and V24Frames
+ * <p/>
+ * Only a $FF byte can start a sequence that needs escaping, so both directions scan for $FF and then use a lookup
+ * table to classify the byte that follows it, the bytes in between are moved in bulk. All methods work on the
+ * remaining bytes of a buffer so slices of a larger tag buffer can be processed without being copied first.
  */
 public class ID3Unsynchronization
 {
     //Logger
     public static Logger logger = Logger.getLogger("org.jaudiotagger.tag.id3");
 
+    /**
+     * Returned by {@link #getUnsynchronizedSizeIfRequired(ByteBuffer)} if the data contains no false sync
+     */
+    public static final int NOT_REQUIRED = -1;
+
+    //Size of the buffer used to stage unsynchronized data on its way to the channel
+    private static final int UNSYNC_WRITE_CHUNK_SIZE = 8192;
+
+    private static final byte SYNC = (byte) MPEGFrameHeader.SYNC_BYTE1;
+
+    //What to do when a byte follows a $FF
+    private static final byte FOLLOWS_OK = 0;
+    private static final byte FOLLOWS_ESCAPE = 1;
+    private static final byte FOLLOWS_FALSE_SYNC = 2;
+
+    private static final byte[] FOLLOWING_SYNC = new byte[256];
+
+    static
+    {
+        //$FF $00 has to become $FF $00 $00 so the zero survives synchronization
+        FOLLOWING_SYNC[0] = FOLLOWS_ESCAPE;
+        //$FF followed by %111xxxxx looks like an mpeg frame sync
+        for (int i = MPEGFrameHeader.SYNC_BYTE2; i <= 0xFF; i++)
+        {
+            FOLLOWING_SYNC[i] = FOLLOWS_FALSE_SYNC;
+        }
+    }
 
     /**
      * Check if a byte array will require unsynchronization before being written as a tag.
@@ -28,212 +60,339 @@ public class ID3Unsynchronization
      */
     public static boolean requiresUnsynchronization(byte[] abySource)
     {
-        for (int i = 0; i < abySource.length - 1; i++)
-        {
-            if (((abySource[i] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && ((abySource[i + 1] & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2))
-            {
-                if (logger.isLoggable(Level.FINEST))
-                {
-                    logger.finest("Unsynchronisation required found bit at:" + i);
-                }
-                return true;
-            }
-        }
+        return requiresUnsynchronization(ByteBuffer.wrap(abySource));
+    }
 
-        return false;
+    /**
+     * Check if the remaining bytes of the buffer will require unsynchronization before being written as a tag,
+     * the position of the buffer is not changed.
+     *
+     * @param source the buffer to be examined
+     * @return true if unsynchronization is required, false otherwise
+     */
+    public static boolean requiresUnsynchronization(ByteBuffer source)
+    {
+        return scan(source, true) >= 0;
     }
 
     /**
-     * Unsynchronize an array of bytes, this should only be called if the decision has already been made to
-     * unsynchronize the byte array
-     * <p/>
-     * In order to prevent a media player from incorrectly interpreting the contents of a tag, all $FF bytes
-     * followed by a byte with value >=224 must be followed by a $00 byte (thus, $FF $F0 sequences become $FF $00 $F0).
-     * Additionally because unsynchronisation is being applied any existing $FF $00 have to be converted to
-     * $FF $00 $00
+     * Calculate the size the remaining bytes of the buffer will be once unsynchronized, without creating
+     * the unsynchronized data. The position of the buffer is not changed.
      *
-     * @param abySource a byte array to be unsynchronized
-     * @return a unsynchronized representation of the source
+     * @param source the buffer to be examined
+     * @return the number of bytes {@link #unsynchronize(ByteBuffer, WritableByteChannel)} will write
      */
-    public static byte[] unsynchronize(byte[] abySource)
+    public static int getUnsynchronizedSize(ByteBuffer source)
+    {
+        int result = scan(source, false);
+        return result >= 0 ? result : -result - 1;
+    }
+
+    /**
+     * Decide whether unsynchronization is required and how large the result will be in a single scan of the
+     * remaining bytes of the buffer. The position of the buffer is not changed.
+     *
+     * @param source the buffer to be examined
+     * @return the size of the data once unsynchronized or {@link #NOT_REQUIRED} if the data contains no false
+     *         sync and so can be written as is
+     */
+    public static int getUnsynchronizedSizeIfRequired(ByteBuffer source)
     {
-        ByteArrayInputStream input = new ByteArrayInputStream(abySource);
-        ByteArrayOutputStream output = new ByteArrayOutputStream(abySource.length);
+        int result = scan(source, false);
+        return result >= 0 ? result : NOT_REQUIRED;
+    }
 
-        int count = 0;
-        while (input.available() > 0)
+    /**
+     * Single scan used to detect false syncs and size the unsynchronized data
+     *
+     * @param source
+     * @param stopAtFalseSync return as soon as a false sync is found rather than sizing the whole buffer
+     * @return the unsynchronized size if a false sync was found, otherwise -(unsynchronized size) - 1
+     */
+    private static int scan(ByteBuffer source, boolean stopAtFalseSync)
+    {
+        int start = source.position();
+        int end = source.limit();
+        int size = end - start;
+        boolean falseSyncFound = false;
+        if (source.hasArray())
         {
-            int firstByte = input.read();
-            count++;
-            output.write(firstByte);
-            if ((firstByte & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            byte[] array = source.array();
+            int offset = source.arrayOffset();
+            int last = offset + end - 1;
+            for (int i = offset + start; i <= last; i++)
             {
-                // if byte is $FF, we must check the following byte if there is one
-                if (input.available() > 0)
+                if (array[i] == SYNC)
                 {
-                    input.mark(1);  // remember where we were, if we don't need to unsynchronize
-                    int secondByte = input.read();
-                    if ((secondByte & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2)
+                    //A trailing $FF also gets a zero byte appended
+                    byte following = i == last ? FOLLOWS_ESCAPE : FOLLOWING_SYNC[array[i + 1] & 0xFF];
+                    if (following != FOLLOWS_OK)
                     {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
+                        size++;
+                        if (following == FOLLOWS_FALSE_SYNC)
                         {
-                            logger.finest("Writing unsynchronisation bit at:" + count);
+                            logFalseSync(i - offset);
+                            falseSyncFound = true;
+                            if (stopAtFalseSync)
+                            {
+                                return size;
+                            }
                         }
-                        output.write(0);
-
                     }
-                    else if (secondByte == 0)
+                }
+            }
+        }
+        else
+        {
+            int last = end - 1;
+            for (int i = start; i <= last; i++)
+            {
+                if (source.get(i) == SYNC)
+                {
+                    byte following = i == last ? FOLLOWS_ESCAPE : FOLLOWING_SYNC[source.get(i + 1) & 0xFF];
+                    if (following != FOLLOWS_OK)
                     {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
+                        size++;
+                        if (following == FOLLOWS_FALSE_SYNC)
                         {
-                            logger.finest("Inserting zero unsynchronisation bit at:" + count);
+                            logFalseSync(i);
+                            falseSyncFound = true;
+                            if (stopAtFalseSync)
+                            {
+                                return size;
+                            }
                         }
-                        output.write(0);
                     }
-                    input.reset();
                 }
             }
         }
-        // if we needed to unsynchronize anything, and this tag ends with 0xff, we have to append a zero byte,
-        // which will be removed on de-unsynchronization later
-        if ((abySource[abySource.length - 1] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+        return falseSyncFound ? size : -size - 1;
+    }
+
+    private static void logFalseSync(int position)
+    {
+        if (logger.isLoggable(Level.FINEST))
         {
-            logger.finest("Adding unsynchronisation bit at end of stream");
-            output.write(0);
+            logger.finest("Unsynchronisation required found bit at:" + position);
         }
-        return output.toByteArray();
     }
 
+    /**
+     * Unsynchronize an array of bytes, this should only be called if the decision has already been made to
+     * unsynchronize the byte array
+     * <p/>
+     * In order to prevent a media player from incorrectly interpreting the contents of a tag, all $FF bytes
+     * followed by a byte with value >=224 must be followed by a $00 byte (thus, $FF $F0 sequences become $FF $00 $F0).
+     * Additionally because unsynchronisation is being applied any existing $FF $00 have to be converted to
+     * $FF $00 $00
+     *
+     * @param abySource a byte array to be unsynchronized
+     * @return a unsynchronized representation of the source
+     */
+    public static byte[] unsynchronize(byte[] abySource)
+    {
+        ByteBuffer source = ByteBuffer.wrap(abySource);
+        ByteBuffer dest = ByteBuffer.allocate(getUnsynchronizedSize(source));
+        unsynchronize(source, dest);
+        return dest.array();
+    }
 
     /**
-     * Synchronize an array of bytes, this should only be called if it has been determined the tag is unsynchronised
+     * Unsynchronize the remaining bytes of the source into the destination, the destination must have at least
+     * {@link #getUnsynchronizedSize(ByteBuffer)} bytes remaining.
      * <p/>
-     * Any patterns of the form $FF $00 should be replaced by $FF
+     * The positions of both buffers are advanced past the bytes read and written.
      *
-     * @param source a ByteBuffer to be unsynchronized
-     * @return a synchronized representation of the source
+     * @param source the bytes to be unsynchronized
+     * @param dest   where to put the unsynchronized bytes
      */
-    /*
-    public static ByteBuffer synchronize(ByteBuffer source)
+    public static void unsynchronize(ByteBuffer source, ByteBuffer dest)
     {
-        long start = System.nanoTime();
+        int end = source.limit();
+        int next = unsynchronize(source, source.position(), end, dest);
+        source.position(next);
+        if (next != end)
+        {
+            throw new BufferOverflowException();
+        }
+    }
 
-        int bufferSize = source.limit();
-        ByteArrayOutputStream oBAOS = new ByteArrayOutputStream(bufferSize);
-        int position = 0;
-        while (position < bufferSize)
+    /**
+     * Unsynchronize the remaining bytes of the buffer writing the result directly to the channel, so that the
+     * unsynchronized representation of the source is never held in memory in its entirety.
+     * <p/>
+     * Produces the same output as {@link #unsynchronize(byte[])}, the position of the buffer is not changed.
+     *
+     * @param source  the bytes to be unsynchronized
+     * @param channel where to write the unsynchronized bytes
+     * @return the number of bytes written
+     * @throws IOException
+     */
+    public static int unsynchronize(ByteBuffer source, WritableByteChannel channel) throws IOException
+    {
+        ByteBuffer chunk = ByteBuffer.allocate(Math.min(UNSYNC_WRITE_CHUNK_SIZE, source.remaining() + 1));
+        int written = 0;
+        int next = source.position();
+        int end = source.limit();
+        do
         {
-            int byteValue = source.get();
-            position ++;
-            oBAOS.write(byteValue);
-            if ((byteValue & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            next = unsynchronize(source, next, end, chunk);
+            chunk.flip();
+            written += chunk.remaining();
+            while (chunk.hasRemaining())
             {
-                // we are skipping if $00 byte but check not an end of stream
-                if (position < bufferSize)
-                {
-                    int unsyncByteValue = source.get();
-                    position++;
-                    //If its the null byte we just ignore it
-                    if (unsyncByteValue != 0)
-                    {
-                        oBAOS.write(unsyncByteValue);
-                    }
-                }
+                channel.write(chunk);
             }
+            chunk.clear();
         }
-        long time = System.nanoTime() - start;
-        ByteBuffer bb = ByteBuffer.wrap(oBAOS.toByteArray());
-        System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), bb.limit());
-        return bb;
+        while (next < end);
+        return written;
     }
-    */
 
     /**
-     * Synchronize an array of bytes, this should only be called if it has been determined the tag is unsynchronised
-     * <p/>
-     * Any patterns of the form $FF $00 should be replaced by $FF
+     * Unsynchronize source bytes from start up to end, stopping early if the destination fills up
      *
-     * @param source a ByteBuffer to be unsynchronized
-     * @return a synchronized representation of the source
+     * @param source
+     * @param start  absolute position within source to start from
+     * @param end    absolute position within source to stop at
+     * @param dest
+     * @return absolute position within source of the first byte not yet unsynchronized
      */
-    /*
-    public static ByteBuffer synchronize(ByteBuffer source)
+    private static int unsynchronize(ByteBuffer source, int start, int end, ByteBuffer dest)
     {
-        long start = System.nanoTime();
-
-        int bufferSize = source.limit();
-        ByteBuffer output = ByteBuffer.allocate(bufferSize);
-        int position = 0;
-        int offset = 0;
-        int length = 0;
-        while (position < bufferSize)
+        int i = start;
+        if (source.hasArray() && dest.hasArray())
         {
-            int byteValue = source.get();
-            position++;
-            length++;
-            if ((byteValue & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            byte[] in = source.array();
+            int inOffset = source.arrayOffset();
+            byte[] out = dest.array();
+            int outOffset = dest.arrayOffset();
+            int outPos = outOffset + dest.position();
+            int outLimit = outOffset + dest.limit();
+            while (i < end && outPos < outLimit)
             {
-                // we are skipping if $00 byte but check not an end of stream
-                if (position < bufferSize)
+                //Copy everything up to the next $FF in bulk
+                int runLimit = Math.min(end, i + outLimit - outPos);
+                int runEnd = i;
+                while (runEnd < runLimit && in[inOffset + runEnd] != SYNC)
                 {
-                    int unsyncByteValue = source.get();
-                    position++;
-                    //If this is null byte, then write upto this point
-                    if (unsyncByteValue == 0)
+                    runEnd++;
+                }
+                System.arraycopy(in, inOffset + i, out, outPos, runEnd - i);
+                outPos += runEnd - i;
+                i = runEnd;
+
+                if (i < runLimit)
+                {
+                    boolean escape = i + 1 == end || FOLLOWING_SYNC[in[inOffset + i + 1] & 0xFF] != FOLLOWS_OK;
+                    if (escape && outLimit - outPos < 2)
                     {
-                        output.put(source.array(), source.arrayOffset() + offset, length);
-                        offset = position;
-                        length = 0;
+                        break;
                     }
-                    else
+                    out[outPos++] = SYNC;
+                    i++;
+                    if (escape)
                     {
-                        length++;
+                        out[outPos++] = 0;
                     }
                 }
             }
+            dest.position(outPos - outOffset);
         }
-        if (length > 0)
+        else
         {
-            output.put(source.array(), source.arrayOffset() + offset, length);
+            while (i < end && dest.hasRemaining())
+            {
+                byte nextByte = source.get(i);
+                boolean escape = nextByte == SYNC && (i + 1 == end || FOLLOWING_SYNC[source.get(i + 1) & 0xFF] != FOLLOWS_OK);
+                if (escape && dest.remaining() < 2)
+                {
+                    break;
+                }
+                dest.put(nextByte);
+                i++;
+                if (escape)
+                {
+                    dest.put((byte) 0);
+                }
+            }
         }
-        output.flip();
-        long time = System.nanoTime() - start;
-        System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), output.limit());
-        return output;
+        return i;
     }
-    */
 
     /**
      * Synchronize an array of bytes, this should only be called if it has been determined the tag is unsynchronised
      * <p/>
      * Any patterns of the form $FF $00 should be replaced by $FF
+     * <p/>
+     * The source is left unchanged (except that it is fully read), see {@link #synchronizeInPlace(ByteBuffer)} to
+     * avoid the copy when the caller owns the buffer.
      *
-     * @param source a ByteBuffer to be unsynchronized
+     * @param source a ByteBuffer to be synchronized
      * @return a synchronized representation of the source
      */
-
     public static ByteBuffer synchronize(ByteBuffer source)
     {
-        //long start = System.nanoTime();
-        
-        int len = source.remaining();
-        byte[] bytes = new byte[len + 1]; // an extra byte saves a check later.
-        source.get(bytes, 0, len);
-        int from = 0, to = 0;
-        boolean copy = true; // whether to copy the byte, if false, check the byte != 0.
-        while (from < len)
+        ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+        copy.put(source);
+        copy.flip();
+        return synchronizeInPlace(copy);
+    }
+
+    /**
+     * Synchronize the remaining bytes of the buffer by overwriting them, synchronized data is never longer than
+     * the unsynchronized data so no new storage is needed. Works on slices of a larger buffer without copying them.
+     * <p/>
+     * Any patterns of the form $FF $00 should be replaced by $FF
+     * <p/>
+     * On return the source has been fully read, the bytes between its old position and limit are no longer valid
+     * unsynchronized data. If the buffer is read only the data is copied instead.
+     *
+     * @param source a ByteBuffer to be synchronized
+     * @return a buffer sharing the storage of the source, positioned at zero and limited to the synchronized data
+     */
+    public static ByteBuffer synchronizeInPlace(ByteBuffer source)
+    {
+        if (source.isReadOnly() || !source.hasArray())
         {
-            byte byteValue = bytes[from++];
-            if (copy || byteValue != 0) bytes[to++] = byteValue;
-            copy = ((byteValue & MPEGFrameHeader.SYNC_BYTE1) != MPEGFrameHeader.SYNC_BYTE1);
+            return synchronize(source);
         }
 
-        ByteBuffer bb2 = ByteBuffer.wrap(bytes, 0, to);
-        //long time = System.nanoTime() - start;
-        //System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), bb2.limit());
-        return bb2;
-    }
+        byte[] bytes = source.array();
+        int start = source.arrayOffset() + source.position();
+        int end = source.arrayOffset() + source.limit();
+        int from = start;
+        int to = start;
+        while (from < end)
+        {
+            //Move everything up to and including the next $FF
+            int runEnd = from;
+            while (runEnd < end && bytes[runEnd] != SYNC)
+            {
+                runEnd++;
+            }
+            boolean sync = runEnd < end;
+            if (sync)
+            {
+                runEnd++;
+            }
+            if (to != from)
+            {
+                System.arraycopy(bytes, from, bytes, to, runEnd - from);
+            }
+            to += runEnd - from;
+            from = runEnd;
 
+            //Drop the zero added by unsynchronization
+            if (sync && from < end && bytes[from] == 0)
+            {
+                from++;
+            }
+        }
+
+        ByteBuffer synced = source.slice();
+        synced.limit(to - start);
+        source.position(source.limit());
+        return synced;
+    }
 }
@@ -952,36 +952,37 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag
 
     public byte[] generateTagBytes()
     {
+        TagOptions options = TagOptions.current();
         byte[] buffer = new byte[TAG_LENGTH];
         
         System.arraycopy(TAG_ID, 0, buffer, FIELD_TAGID_POS, TAG_ID.length);
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveTitle())
+        if (options.isId3v1SaveTitle())
         {
             writeStringToBufferAsLatin1(buffer, FIELD_TITLE_POS, FIELD_TITLE_LENGTH, title);
         }
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveArtist())
+        if (options.isId3v1SaveArtist())
         {
             writeStringToBufferAsLatin1(buffer, FIELD_ARTIST_POS, FIELD_ARTIST_LENGTH, artist);
         }
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveAlbum())
+        if (options.isId3v1SaveAlbum())
         {
             writeStringToBufferAsLatin1(buffer, FIELD_ALBUM_POS, FIELD_ALBUM_LENGTH, album);
         }
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveYear())
+        if (options.isId3v1SaveYear())
         {
             writeStringToBufferAsLatin1(buffer, FIELD_YEAR_POS, FIELD_YEAR_LENGTH, year);
         }
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveComment())
+        if (options.isId3v1SaveComment())
         {
             writeStringToBufferAsLatin1(buffer, FIELD_COMMENT_POS, FIELD_COMMENT_LENGTH, comment);
         }
 
-        if (TagOptionSingleton.getInstance().isId3v1SaveGenre())
+        if (options.isId3v1SaveGenre())
         {
             buffer[FIELD_GENRE_POS] = genre;
         }
@@ -281,6 +281,22 @@ public class ID3v22Frame extends AbstractID3v2Frame
         read(byteBuffer);
     }
 
+    /**
+     * Creates a new ID3v22Frame by reading from byteBuffer, the body is only read if the frame is selected.
+     *
+     * @param byteBuffer      to read from
+     * @param loggingFilename
+     * @param frameSelection  frames whose body is read
+     * @throws InvalidFrameException
+     * @throws InvalidDataTypeException
+     */
+    public ID3v22Frame(ByteBuffer byteBuffer, String loggingFilename, ID3FrameSelection frameSelection) throws InvalidFrameException, InvalidDataTypeException
+    {
+        setLoggingFilename(loggingFilename);
+        this.frameSelection = frameSelection;
+        read(byteBuffer);
+    }
+
     /**
      * Creates a new ID3v23Frame datatype by reading from byteBuffer.
      *
@@ -357,6 +373,15 @@ public class ID3v22Frame extends AbstractID3v2Frame
         else
         {
             logger.fine("Frame Size Is:" + frameSize);
+
+            //Skip the body of a frame that has not been selected, without creating it
+            if (!frameSelection.isSelected(identifier))
+            {
+                logger.finest(getLoggingFilename() + ":Skipping frame:" + identifier);
+                byteBuffer.position(byteBuffer.position() + frameSize);
+                return;
+            }
+
             //Convert v2.2 to v2.4 id just for reading the data
             String id = ID3Tags.convertFrameID22To24(identifier);
             if (id == null)
@@ -426,7 +451,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
         ByteBuffer headerBuffer = ByteBuffer.allocate(getFrameHeaderSize());
 
         //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+        ID3BodyOutputStream bodyOutputStream = new ID3BodyOutputStream(frameBody.getSize());
         ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
 
         //Write Frame Header
@@ -440,7 +465,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
             tagBuffer.write(headerBuffer.array());
 
             //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
+            bodyOutputStream.writeTo(tagBuffer);
         }
         catch (IOException ioe)
         {
@@ -16,6 +16,7 @@
 package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.FileConstants;
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.*;
@@ -192,6 +193,9 @@ public class ID3v22Tag extends AbstractID3v2Tag
 
     /**
      * Creates a new ID3v2_2 datatype.
+     * <p/>
+     * Unsynchronized data is synchronized in place, overwriting the bytes of the buffer after the tag header, pass a
+     * read only buffer to read the tag from a copy and leave the buffer unchanged.
      *
      * @param buffer
      * @param loggingFilename
@@ -203,6 +207,23 @@ public class ID3v22Tag extends AbstractID3v2Tag
         this.read(buffer);
     }
 
+    /**
+     * Creates a new ID3v2_2 datatype reading only the frames of the fields required by the projection, the bodies of
+     * the other frames are skipped. The tag is incomplete unless the projection reads the whole tag, so it must not be
+     * written back. The buffer is changed as described by {@link #ID3v22Tag(ByteBuffer,String)}.
+     *
+     * @param buffer
+     * @param loggingFilename
+     * @param projection the parts of the tag to read
+     * @throws TagException
+     */
+    public ID3v22Tag(ByteBuffer buffer, String loggingFilename, ReadProjection projection) throws TagException
+    {
+        setLoggingFilename(loggingFilename);
+        frameSelection = ID3FrameSelection.create(this, projection);
+        this.read(buffer);
+    }
+
 
     /**
      * Creates a new ID3v2_2 datatype.
@@ -358,7 +379,7 @@ public class ID3v22Tag extends AbstractID3v2Tag
         //We need to synchronize the buffer
         if (unsynchronization)
         {
-            bufferWithoutHeader = ID3Unsynchronization.synchronize(bufferWithoutHeader);
+            bufferWithoutHeader = ID3Unsynchronization.synchronizeInPlace(bufferWithoutHeader);
         }
         readFrames(bufferWithoutHeader, size);
         logger.config(getLoggingFilename() + ":" + "Loaded Frames,there are:" + frameMap.keySet().size());
@@ -390,7 +411,11 @@ public class ID3v22Tag extends AbstractID3v2Tag
             {
                 //Read Frame
                 logger.finest(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
-                next = new ID3v22Frame(byteBuffer, getLoggingFilename());
+                next = new ID3v22Frame(byteBuffer, getLoggingFilename(), frameSelection);
+                if (!next.isBodyRead())
+                {
+                    continue;
+                }
                 String id = next.getIdentifier();
                 loadFrameIntoMap(id, next);
             }
@@ -510,25 +535,28 @@ public class ID3v22Tag extends AbstractID3v2Tag
         setLoggingFilename(file.getName());
         logger.config("Writing tag to file:"+getLoggingFilename());
 
-        // Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        //Write Body Buffer
+        ByteBuffer bodyBuffer = writeFramesToBuffer().asByteBuffer();
+        int bodySize = bodyBuffer.remaining();
+        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodySize);
 
-        // Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
+        //Unsynchronize if option enabled and unsync required, the body is unsynchronized as it is written
+        int unsyncSize = TagOptions.current().isUnsyncTags() ? ID3Unsynchronization.getUnsynchronizedSizeIfRequired(bodyBuffer) : ID3Unsynchronization.NOT_REQUIRED;
+        unsynchronization = unsyncSize != ID3Unsynchronization.NOT_REQUIRED;
         if (isUnsynchronization())
         {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
+            bodySize = unsyncSize;
+            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodySize);
         }
 
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int sizeIncPadding = calculateTagSize(bodySize + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        int padding = sizeIncPadding - (bodySize + TAG_HEADER_LENGTH);
         logger.config(getLoggingFilename() + ":Current audiostart:" + audioStartLocation);
         logger.config(getLoggingFilename() + ":Size including padding:" + sizeIncPadding);
         logger.config(getLoggingFilename() + ":Padding:" + padding);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
-        writeBufferToFile(file,headerBuffer, bodyByteBuffer,padding,sizeIncPadding,audioStartLocation);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodySize);
+        writeBufferToFile(file, headerBuffer, bodyBuffer, isUnsynchronization(), padding, sizeIncPadding, audioStartLocation);
     }
 
 
@@ -540,20 +568,20 @@ public class ID3v22Tag extends AbstractID3v2Tag
     {
         logger.config(getLoggingFilename() + ":Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.length);
+        ByteBuffer bodyBuffer = writeFramesToBuffer().asByteBuffer();
+        int bodySize = bodyBuffer.remaining();
+        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodySize);
 
-        //Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
+        //Unsynchronize if option enabled and unsync required, the body is unsynchronized as it is written
+        int unsyncSize = TagOptions.current().isUnsyncTags() ? ID3Unsynchronization.getUnsynchronizedSizeIfRequired(bodyBuffer) : ID3Unsynchronization.NOT_REQUIRED;
+        unsynchronization = unsyncSize != ID3Unsynchronization.NOT_REQUIRED;
         if (isUnsynchronization())
         {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
+            bodySize = unsyncSize;
+            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodySize);
         }
-        ByteBuffer headerBuffer = writeHeaderToBuffer(0, bodyByteBuffer.length);
-
-        channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
+        ByteBuffer headerBuffer = writeHeaderToBuffer(0, bodySize);
+        writeBuffersToChannel(channel, headerBuffer, bodyBuffer, isUnsynchronization(), ByteBuffer.allocate(0));
     }
 
     public void createStructure()
@@ -280,6 +280,22 @@ public class ID3v23Frame extends AbstractID3v2Frame
         read(byteBuffer);
     }
 
+    /**
+     * Creates a new ID3v23Frame by reading from byteBuffer, the body is only read if the frame is selected.
+     *
+     * @param byteBuffer      to read from
+     * @param loggingFilename
+     * @param frameSelection  frames whose body is read
+     * @throws InvalidFrameException
+     * @throws InvalidDataTypeException
+     */
+    public ID3v23Frame(ByteBuffer byteBuffer, String loggingFilename, ID3FrameSelection frameSelection) throws InvalidFrameException, InvalidDataTypeException
+    {
+        setLoggingFilename(loggingFilename);
+        this.frameSelection = frameSelection;
+        read(byteBuffer);
+    }
+
     /**
      * Creates a new ID3v23Frame dataType by reading from byteBuffer.
      *
@@ -371,6 +387,14 @@ public class ID3v23Frame extends AbstractID3v2Frame
         //Read the flag bytes
         statusFlags = new StatusFlags(byteBuffer.get());
         encodingFlags = new EncodingFlags(byteBuffer.get());
+
+        //Skip the body of a frame that has not been selected, without creating it
+        if (!frameSelection.isSelected(identifier))
+        {
+            logger.finest(getLoggingFilename() + ":Skipping frame:" + identifier);
+            byteBuffer.position(byteBuffer.position() + frameSize);
+            return;
+        }
         String id;
 
         //If this identifier is a valid v24 identifier or easily converted to v24
@@ -429,7 +453,9 @@ public class ID3v23Frame extends AbstractID3v2Frame
         {
             if (((EncodingFlags) encodingFlags).isCompression())
             {
-                frameBodyBuffer = ID3Compression.uncompress(identifier,getLoggingFilename(),byteBuffer, decompressedFrameSize, realFrameSize);
+                frameBodyBuffer = byteBuffer.slice();
+                frameBodyBuffer.limit(realFrameSize);
+                frameBodyBuffer = ID3Compression.uncompress(identifier,getLoggingFilename(),frameBodyBuffer, decompressedFrameSize, realFrameSize);
                 frameBody = readBody(id, frameBodyBuffer, decompressedFrameSize);
             }
             else if (((EncodingFlags) encodingFlags).isEncryption())
@@ -474,18 +500,27 @@ public class ID3v23Frame extends AbstractID3v2Frame
         ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
         //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+        ID3BodyOutputStream bodyOutputStream = new ID3BodyOutputStream(frameBody.getSize());
         ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+
+        //Compress if option enabled and it makes the frame smaller
+        ByteBuffer compressedBody = null;
+        int uncompressedSize = bodyOutputStream.size();
+        if (ID3Compression.isCompressionRequired(getIdentifier(), uncompressedSize))
+        {
+            compressedBody = ID3Compression.compress(getIdentifier(), bodyOutputStream.asByteBuffer());
+        }
+
         //Write Frame Header write Frame ID
         if (getIdentifier().length() == 3)
         {
             identifier = identifier + ' ';
         }
         headerBuffer.put(Utils.getDefaultBytes(getIdentifier(), "ISO-8859-1"), 0, FRAME_ID_SIZE);
-        //Write Frame Size
-        int size = frameBody.getSize();
+        //Write Frame Size, when compressed this includes the decompressed size field
+        int size = compressedBody != null ? compressedBody.remaining() + FRAME_COMPRESSION_UNCOMPRESSED_SIZE : frameBody.getSize();
         logger.fine("Frame Size Is:" + size);
-        headerBuffer.putInt(frameBody.getSize());
+        headerBuffer.putInt(size);
 
         //Write the Flags
         //Status Flags:leave as they were when we read
@@ -494,8 +529,15 @@ public class ID3v23Frame extends AbstractID3v2Frame
         //Remove any non standard flags
         ((EncodingFlags) encodingFlags).unsetNonStandardFlags();
 
-        //Unset Compression flag if previously set because we uncompress previously compressed frames on write.
-        ((EncodingFlags)encodingFlags).unsetCompression();
+        //Previously compressed frames are only compressed again if this frame qualifies for compression
+        if (compressedBody != null)
+        {
+            ((EncodingFlags) encodingFlags).setCompression();
+        }
+        else
+        {
+            ((EncodingFlags) encodingFlags).unsetCompression();
+        }
         headerBuffer.put(encodingFlags.getFlags());
 
         try
@@ -503,6 +545,13 @@ public class ID3v23Frame extends AbstractID3v2Frame
             //Add header to the Byte Array Output Stream
             tagBuffer.write(headerBuffer.array());
 
+            if (compressedBody != null)
+            {
+                ByteBuffer decompressedSizeBuffer = ByteBuffer.allocate(FRAME_COMPRESSION_UNCOMPRESSED_SIZE);
+                decompressedSizeBuffer.putInt(uncompressedSize);
+                tagBuffer.write(decompressedSizeBuffer.array());
+            }
+
             if (((EncodingFlags) encodingFlags).isEncryption())
             {
                tagBuffer.write(encryptionMethod);
@@ -514,7 +563,14 @@ public class ID3v23Frame extends AbstractID3v2Frame
             }
 
             //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
+            if (compressedBody != null)
+            {
+                tagBuffer.write(compressedBody.array(), compressedBody.arrayOffset() + compressedBody.position(), compressedBody.remaining());
+            }
+            else
+            {
+                bodyOutputStream.writeTo(tagBuffer);
+            }
         }
         catch (IOException ioe)
         {
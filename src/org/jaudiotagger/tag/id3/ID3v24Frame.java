@@ -30,6 +30,7 @@ import org.jaudiotagger.utils.EqualsUtil;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Iterator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -315,6 +316,9 @@ public class ID3v24Frame extends AbstractID3v2Frame
 
     /**
      * Creates a new ID3v24Frame datatype by reading from byteBuffer.
+     * <p/>
+     * An unsynchronized frame body is synchronized in place within the buffer, pass a read only buffer to read the
+     * body from a copy instead.
      *
      * @param byteBuffer      to read from
      * @param loggingFilename
@@ -327,6 +331,23 @@ public class ID3v24Frame extends AbstractID3v2Frame
         read(byteBuffer);
     }
 
+    /**
+     * Creates a new ID3v24Frame by reading from byteBuffer, the body is only read if the frame is selected.
+     * The buffer is changed as described by {@link #ID3v24Frame(ByteBuffer,String)}.
+     *
+     * @param byteBuffer      to read from
+     * @param loggingFilename
+     * @param frameSelection  frames whose body is read
+     * @throws InvalidFrameException
+     * @throws InvalidDataTypeException
+     */
+    public ID3v24Frame(ByteBuffer byteBuffer, String loggingFilename, ID3FrameSelection frameSelection) throws InvalidFrameException, InvalidDataTypeException
+    {
+        setLoggingFilename(loggingFilename);
+        this.frameSelection = frameSelection;
+        read(byteBuffer);
+    }
+
     /**
      * Creates a new ID3v24Frame datatype by reading from byteBuffer.
      *
@@ -578,6 +599,14 @@ public class ID3v24Frame extends AbstractID3v2Frame
         statusFlags = new StatusFlags(byteBuffer.get());
         encodingFlags = new EncodingFlags(byteBuffer.get());
 
+        //Skip the body of a frame that has not been selected, without creating it
+        if (!frameSelection.isSelected(identifier))
+        {
+            logger.finest(getLoggingFilename() + ":Skipping frame:" + identifier);
+            byteBuffer.position(byteBuffer.position() + frameSize);
+            return;
+        }
+
         //Read extra bits appended to frame header for various encodings
         //These are not included in header size but are included in frame size but wont be read when we actually
         //try to read the frame body data
@@ -616,11 +645,11 @@ public class ID3v24Frame extends AbstractID3v2Frame
         if (((EncodingFlags) encodingFlags).isUnsynchronised())
         {
             //We only want to synchronize the buffer up to the end of this frame (remember this
-            //buffer contains the remainder of this tag not just this frame), and we cannot just
-            //create a new buffer because when this method returns the position of the buffer is used
-            //to look for the next frame, so we need to modify the buffer. The action of synchronizing causes
-            //bytes to be dropped so the existing buffer is large enough to hold the modifications
-            frameBodyBuffer = ID3Unsynchronization.synchronize(frameBodyBuffer);
+            //buffer contains the remainder of this tag not just this frame), so the slice limited to this
+            //frame is synchronized in place. The action of synchronizing causes bytes to be dropped so the
+            //existing buffer is large enough to hold the modifications, and the position of the main buffer
+            //is still moved on by the unsynchronized size when looking for the next frame
+            frameBodyBuffer = ID3Unsynchronization.synchronizeInPlace(frameBodyBuffer);
             syncSize = frameBodyBuffer.limit();
             logger.config(getLoggingFilename() + ":" + "Frame Size After Syncing is:" + syncSize);
         }
@@ -630,7 +659,8 @@ public class ID3v24Frame extends AbstractID3v2Frame
         {
             if (((EncodingFlags) encodingFlags).isCompression())
             {
-                frameBodyBuffer = ID3Compression.uncompress(identifier, getLoggingFilename(), byteBuffer, dataLengthSize, realFrameSize);
+                //Decompress the (synchronized) body of this frame only
+                frameBodyBuffer = ID3Compression.uncompress(identifier, getLoggingFilename(), frameBodyBuffer, dataLengthSize, syncSize);
                 frameBody = readBody(identifier, frameBodyBuffer, dataLengthSize);
             }
             else if (((EncodingFlags) encodingFlags).isEncryption())
@@ -673,16 +703,32 @@ public class ID3v24Frame extends AbstractID3v2Frame
         ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
         //Write Frame Body Data to a new stream
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+        ID3BodyOutputStream bodyOutputStream = new ID3BodyOutputStream(frameBody.getSize());
         ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
 
-        //Does it need unsynchronizing, and are we allowing unsychronizing
-        byte[] bodyBuffer = bodyOutputStream.toByteArray();
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer);
+        //Compress if option enabled and it makes the frame smaller, compression is applied before unsynchronization
+        ByteBuffer bodyBuffer = bodyOutputStream.asByteBuffer();
+        int uncompressedSize = bodyBuffer.remaining();
+        boolean compression = false;
+        if (ID3Compression.isCompressionRequired(getIdentifier(), uncompressedSize))
+        {
+            ByteBuffer compressedBody = ID3Compression.compress(getIdentifier(), bodyBuffer);
+            if (compressedBody != null)
+            {
+                bodyBuffer = compressedBody;
+                compression = true;
+            }
+        }
+
+        //Does it need unsynchronizing, and are we allowing unsychronizing, if so the body is unsynchronized
+        //as it is added to the tag buffer
+        int size = bodyBuffer.remaining();
+        int unsyncSize = TagOptions.current().isUnsyncTags() ? ID3Unsynchronization.getUnsynchronizedSizeIfRequired(bodyBuffer) : ID3Unsynchronization.NOT_REQUIRED;
+        unsynchronization = unsyncSize != ID3Unsynchronization.NOT_REQUIRED;
         if (unsynchronization)
         {
-            bodyBuffer = ID3Unsynchronization.unsynchronize(bodyBuffer);
-            logger.config("bodybytebuffer:sizeafterunsynchronisation:" + bodyBuffer.length);
+            size = unsyncSize;
+            logger.config("bodybytebuffer:sizeafterunsynchronisation:" + size);
         }
 
         //Write Frame Header
@@ -695,8 +741,11 @@ public class ID3v24Frame extends AbstractID3v2Frame
         headerBuffer.put(Utils.getDefaultBytes(getIdentifier(), "ISO-8859-1"), 0, FRAME_ID_SIZE);
 
         //Write Frame Size based on size of body buffer (if it has been unsynced then it size
-        //will have increased accordingly
-        int size = bodyBuffer.length;
+        //will have increased accordingly, if compressed it includes the data length indicator
+        if (compression)
+        {
+            size += FRAME_DATA_LENGTH_SIZE;
+        }
         logger.fine("Frame Size Is:" + size);
         headerBuffer.put(ID3SyncSafeInteger.valueToBuffer(size));
 
@@ -716,9 +765,17 @@ public class ID3v24Frame extends AbstractID3v2Frame
         {
             ((ID3v24Frame.EncodingFlags) encodingFlags).unsetUnsynchronised();
         }
-        //These are not currently supported on write
-        ((ID3v24Frame.EncodingFlags) encodingFlags).unsetCompression();
-        ((ID3v24Frame.EncodingFlags) encodingFlags).unsetDataLengthIndicator();
+        //Compressed frames must also have a data length indicator, it is not written otherwise
+        if (compression)
+        {
+            ((ID3v24Frame.EncodingFlags) encodingFlags).setCompression();
+            ((ID3v24Frame.EncodingFlags) encodingFlags).setDataLengthIndicator();
+        }
+        else
+        {
+            ((ID3v24Frame.EncodingFlags) encodingFlags).unsetCompression();
+            ((ID3v24Frame.EncodingFlags) encodingFlags).unsetDataLengthIndicator();
+        }
         headerBuffer.put(encodingFlags.getFlags());
 
         try
@@ -736,8 +793,20 @@ public class ID3v24Frame extends AbstractID3v2Frame
                 tagBuffer.write(groupIdentifier);
             }
 
+            if (compression)
+            {
+                tagBuffer.write(ID3SyncSafeInteger.valueToBuffer(uncompressedSize));
+            }
+
             //Add bodybuffer to the Byte Array Output Stream
-            tagBuffer.write(bodyBuffer);
+            if (unsynchronization)
+            {
+                ID3Unsynchronization.unsynchronize(bodyBuffer, Channels.newChannel(tagBuffer));
+            }
+            else
+            {
+                tagBuffer.write(bodyBuffer.array(), bodyBuffer.arrayOffset() + bodyBuffer.position(), bodyBuffer.remaining());
+            }
         }
         catch (IOException ioe)
         {
@@ -16,6 +16,7 @@
 package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.FileConstants;
+import org.jaudiotagger.audio.ReadProjection;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.*;
@@ -592,6 +593,9 @@ public class ID3v24Tag extends AbstractID3v2Tag
 
     /**
      * Creates a new ID3v2_4 datatype.
+     * <p/>
+     * Unsynchronized data is synchronized in place, overwriting the bytes of the buffer after the tag header, pass a
+     * read only buffer to read the tag from a copy and leave the buffer unchanged.
      *
      * @param buffer
      * @param loggingFilename
@@ -599,10 +603,26 @@ public class ID3v24Tag extends AbstractID3v2Tag
      */
     public ID3v24Tag(ByteBuffer buffer, String loggingFilename) throws TagException
     {
-        frameMap = new LinkedHashMap();
-        encryptedFrameMap = new LinkedHashMap();
+        this(buffer, loggingFilename, ReadProjection.ALL);
+    }
+
+    /**
+     * Creates a new ID3v2_4 datatype reading only the frames of the fields required by the projection, the bodies of
+     * the other frames are skipped. The tag is incomplete unless the projection reads the whole tag, so it must not be
+     * written back. The buffer is changed as described by {@link #ID3v24Tag(ByteBuffer,String)}.
+     *
+     * @param buffer
+     * @param loggingFilename
+     * @param projection the parts of the tag to read
+     * @throws TagException
+     */
+    public ID3v24Tag(ByteBuffer buffer, String loggingFilename, ReadProjection projection) throws TagException
+    {
+        frameMap = new LinkedHashMap<String, Object>();
+        encryptedFrameMap = new LinkedHashMap<String, Object>();
 
         setLoggingFilename(loggingFilename);
+        frameSelection = ID3FrameSelection.create(this, projection);
         this.read(buffer);
     }
 
@@ -879,7 +899,11 @@ public class ID3v24Tag extends AbstractID3v2Tag
             {
                 //Read Frame
                 logger.finest(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
-                next = new ID3v24Frame(byteBuffer, getLoggingFilename());
+                next = new ID3v24Frame(byteBuffer, getLoggingFilename(), frameSelection);
+                if (!next.isBodyRead())
+                {
+                    continue;
+                }
                 id = next.getIdentifier();
                 loadFrameIntoMap(id, next);
             }
@@ -1076,17 +1100,18 @@ public class ID3v24Tag extends AbstractID3v2Tag
         setLoggingFilename(file.getName());
         logger.config("Writing tag to file:"+getLoggingFilename());
 
-        //Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        //Write Body Buffer, v24 unsynchronizes at the frame level so the body is written as is
+        ByteBuffer bodyBuffer = writeFramesToBuffer().asByteBuffer();
+        int bodySize = bodyBuffer.remaining();
 
         //Calculate Tag Size including Padding
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        int sizeIncPadding = calculateTagSize(bodySize + TAG_HEADER_LENGTH, (int) audioStartLocation);
 
         //Calculate padding bytes required
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int padding = sizeIncPadding - (bodySize + TAG_HEADER_LENGTH);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
-        writeBufferToFile(file, headerBuffer, bodyByteBuffer, padding, sizeIncPadding, audioStartLocation);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodySize);
+        writeBufferToFile(file, headerBuffer, bodyBuffer, false, padding, sizeIncPadding, audioStartLocation);
     }
 
     /**
@@ -1097,11 +1122,9 @@ public class ID3v24Tag extends AbstractID3v2Tag
     {
         logger.config("Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        ByteBuffer headerBuffer = writeHeaderToBuffer(0, bodyByteBuffer.length);
-
-        channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
+        ByteBuffer bodyBuffer = writeFramesToBuffer().asByteBuffer();
+        ByteBuffer headerBuffer = writeHeaderToBuffer(0, bodyBuffer.remaining());
+        writeBuffersToChannel(channel, headerBuffer, bodyBuffer, false, ByteBuffer.allocate(0));
     }
 
     /**
@@ -74,7 +74,18 @@ public class AndroidArtwork implements Artwork
      */
     public boolean setImageFromData()
     {
-        throw new UnsupportedOperationException();
+        ImageInfo info = ImageInfo.read(getBinaryData());
+        if(info==null)
+        {
+            return false;
+        }
+        setWidth(info.getWidth());
+        setHeight(info.getHeight());
+        if(mimeType==null || mimeType.length()==0)
+        {
+            setMimeType(info.getMimeType());
+        }
+        return true;
     }
 
     public Object getImage() throws IOException
@@ -3,6 +3,7 @@ package org.jaudiotagger.tag.images;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
 
 /**
  Image Handling to to use when running on Android
@@ -48,6 +49,19 @@ public class AndroidImageHandler implements ImageHandler
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Create a square thumbnail of the artwork for each size
+     *
+     * @param artwork
+     * @param sizes
+     * @return
+     * @throws IOException
+     */
+    public List<Artwork> makeThumbnails(Artwork artwork, int... sizes) throws IOException
+    {
+        throw new UnsupportedOperationException();
+    }
+
     public boolean isMimeTypeWritable(String mimeType)
     {
         throw new UnsupportedOperationException();
@@ -1,7 +1,7 @@
 package org.jaudiotagger.tag.images;
 
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -17,7 +17,7 @@ public class ArtworkFactory
     public static Artwork getNew()
     {
         //Normal
-        if(!TagOptionSingleton.getInstance().isAndroid())
+        if(!TagOptions.current().isAndroid())
         {
             return new StandardArtwork();
         }
@@ -37,7 +37,7 @@ public class ArtworkFactory
     public static Artwork createArtworkFromMetadataBlockDataPicture(MetadataBlockDataPicture coverArt)
     {
         //Normal
-        if(!TagOptionSingleton.getInstance().isAndroid())
+        if(!TagOptions.current().isAndroid())
         {
             return StandardArtwork.createArtworkFromMetadataBlockDataPicture(coverArt);
         }
@@ -58,7 +58,7 @@ public class ArtworkFactory
     public static Artwork createArtworkFromFile(File file) throws IOException
     {
         //Normal
-        if(!TagOptionSingleton.getInstance().isAndroid())
+        if(!TagOptions.current().isAndroid())
         {
             return StandardArtwork.createArtworkFromFile(file);
         }
@@ -79,7 +79,7 @@ public class ArtworkFactory
     public static Artwork createLinkedArtworkFromURL(String link) throws IOException
     {
         //Normal
-        if(!TagOptionSingleton.getInstance().isAndroid())
+        if(!TagOptions.current().isAndroid())
         {
             return StandardArtwork.createLinkedArtworkFromURL(link);
         }
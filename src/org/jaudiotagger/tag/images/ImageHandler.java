@@ -3,6 +3,7 @@ package org.jaudiotagger.tag.images;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Image Handler
@@ -11,6 +12,7 @@ public interface ImageHandler
 {
     public void reduceQuality(Artwork artwork, int maxSize) throws IOException;
     public void makeSmaller(Artwork artwork,int size) throws IOException;
+    public List<Artwork> makeThumbnails(Artwork artwork, int... sizes) throws IOException;
     public boolean isMimeTypeWritable(String mimeType);
     public byte[] writeImage(BufferedImage bi,String mimeType) throws IOException;
     public byte[] writeImageAsPng(BufferedImage bi) throws IOException;
@@ -1,6 +1,6 @@
 package org.jaudiotagger.tag.images;
 
-import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 
 /**
  * Provides a class for all Image handling, this is required because the image classes
@@ -14,7 +14,7 @@ public class ImageHandlingFactory
     public static ImageHandler getInstance()
     {
         //Normal
-        if(!TagOptionSingleton.getInstance().isAndroid())
+        if(!TagOptions.current().isAndroid())
         {
             if(standardImageHandler==null)
             {
@@ -0,0 +1,205 @@
+package org.jaudiotagger.tag.images;
+
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+
+/**
+ * The dimensions and mime type of an image read from its header, without decoding the image
+ * <p/>
+ * Only the header of the image is read: the IHDR chunk of a PNG, the logical screen descriptor of a GIF, the bitmap
+ * header of a BMP and the first SOF segment of a JPEG (reached by skipping over the preceding segments). Unlike
+ * decoding the image this does not depend on javax.imageio so can also be used on Android.
+ */
+public class ImageInfo
+{
+    private static final int PNG_WIDTH_POS = 16;
+    private static final int PNG_HEIGHT_POS = 20;
+
+    private static final int GIF_WIDTH_POS = 6;
+    private static final int GIF_HEIGHT_POS = 8;
+
+    private static final int BMP_HEADER_SIZE_POS = 14;
+    private static final int BMP_WIDTH_POS = 18;
+    private static final int BMP_CORE_HEADER_SIZE = 12;
+
+    private static final int JPEG_SOI_SIZE = 2;
+    private static final int JPEG_SOF_HEIGHT_OFFSET = 5;
+    private static final int JPEG_SOF_WIDTH_OFFSET = 7;
+
+    private final String mimeType;
+    private final int width;
+    private final int height;
+
+    private ImageInfo(String mimeType, int width, int height)
+    {
+        this.mimeType = mimeType;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param data image data
+     * @return the image info, or null if the data is not a PNG, GIF, BMP or JPEG image or its header is truncated
+     */
+    public static ImageInfo read(byte[] data)
+    {
+        if (data == null || data.length < JPEG_SOI_SIZE + 2)
+        {
+            return null;
+        }
+        if (ImageFormats.binaryDataIsPngFormat(data))
+        {
+            if (data.length < PNG_HEIGHT_POS + 4)
+            {
+                return null;
+            }
+            return create(ImageFormats.MIME_TYPE_PNG, getIntBE(data, PNG_WIDTH_POS), getIntBE(data, PNG_HEIGHT_POS));
+        }
+        if (ImageFormats.binaryDataIsGifFormat(data))
+        {
+            if (data.length < GIF_HEIGHT_POS + 2)
+            {
+                return null;
+            }
+            return create(ImageFormats.MIME_TYPE_GIF, getShortLE(data, GIF_WIDTH_POS), getShortLE(data, GIF_HEIGHT_POS));
+        }
+        if (ImageFormats.binaryDataIsBmpFormat(data))
+        {
+            return readBmp(data);
+        }
+        if ((data[0] & 0xff) == 0xff && (data[1] & 0xff) == 0xd8)
+        {
+            return readJpeg(data);
+        }
+        return null;
+    }
+
+    /**
+     * The bitmap header follows the 14 byte file header, the old OS/2 core header has 16 bit dimensions, later headers
+     * have 32 bit dimensions and a negative height for images stored top down
+     */
+    private static ImageInfo readBmp(byte[] data)
+    {
+        if (data.length < BMP_HEADER_SIZE_POS + 4)
+        {
+            return null;
+        }
+        if (getIntLE(data, BMP_HEADER_SIZE_POS) == BMP_CORE_HEADER_SIZE)
+        {
+            if (data.length < BMP_WIDTH_POS + 4)
+            {
+                return null;
+            }
+            return create(ImageFormats.MIME_TYPE_BMP, getShortLE(data, BMP_WIDTH_POS), getShortLE(data, BMP_WIDTH_POS + 2));
+        }
+        if (data.length < BMP_WIDTH_POS + 8)
+        {
+            return null;
+        }
+        return create(ImageFormats.MIME_TYPE_BMP, getIntLE(data, BMP_WIDTH_POS), Math.abs(getIntLE(data, BMP_WIDTH_POS + 4)));
+    }
+
+    /**
+     * Walk the segments after the start of image marker until a start of frame segment, each segment other than the
+     * standalone markers has a two byte length so only the segment headers are looked at
+     */
+    private static ImageInfo readJpeg(byte[] data)
+    {
+        int pos = JPEG_SOI_SIZE;
+        while (pos + 1 < data.length)
+        {
+            if ((data[pos] & 0xff) != 0xff)
+            {
+                return null;
+            }
+            int marker = data[pos + 1] & 0xff;
+            if (marker == 0xff)
+            {
+                //Fill byte
+                pos++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xd0 && marker <= 0xd8))
+            {
+                //Standalone marker without a length
+                pos += 2;
+                continue;
+            }
+            if (marker == 0xd9 || marker == 0xda)
+            {
+                //End of image or start of scan before any frame header
+                return null;
+            }
+            if (pos + 3 >= data.length)
+            {
+                return null;
+            }
+            if (isStartOfFrame(marker))
+            {
+                if (pos + JPEG_SOF_WIDTH_OFFSET + 2 > data.length)
+                {
+                    return null;
+                }
+                return create(ImageFormats.MIME_TYPE_JPEG, getShortBE(data, pos + JPEG_SOF_WIDTH_OFFSET), getShortBE(data, pos + JPEG_SOF_HEIGHT_OFFSET));
+            }
+            pos += 2 + getShortBE(data, pos + 2);
+        }
+        return null;
+    }
+
+    /**
+     * SOF0 to SOF15 except DHT (C4), JPG (C8) and DAC (CC) which share the range
+     */
+    private static boolean isStartOfFrame(int marker)
+    {
+        return marker >= 0xc0 && marker <= 0xcf && marker != 0xc4 && marker != 0xc8 && marker != 0xcc;
+    }
+
+    private static ImageInfo create(String mimeType, int width, int height)
+    {
+        if (width <= 0 || height <= 0)
+        {
+            return null;
+        }
+        return new ImageInfo(mimeType, width, height);
+    }
+
+    private static int getIntBE(byte[] data, int pos)
+    {
+        return ((data[pos] & 0xff) << 24) | ((data[pos + 1] & 0xff) << 16) | ((data[pos + 2] & 0xff) << 8) | (data[pos + 3] & 0xff);
+    }
+
+    private static int getIntLE(byte[] data, int pos)
+    {
+        return ((data[pos + 3] & 0xff) << 24) | ((data[pos + 2] & 0xff) << 16) | ((data[pos + 1] & 0xff) << 8) | (data[pos] & 0xff);
+    }
+
+    private static int getShortBE(byte[] data, int pos)
+    {
+        return ((data[pos] & 0xff) << 8) | (data[pos + 1] & 0xff);
+    }
+
+    private static int getShortLE(byte[] data, int pos)
+    {
+        return ((data[pos + 1] & 0xff) << 8) | (data[pos] & 0xff);
+    }
+
+    public String getMimeType()
+    {
+        return mimeType;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    public String toString()
+    {
+        return mimeType + " " + width + "x" + height;
+    }
+}
@@ -74,13 +74,32 @@ public class StandardArtwork implements Artwork
     /**
      * Should be called when you wish to prime the artwork for saving
      *
+     * The width and height are read from the image header, the image is only decoded if the header is not understood
+     * (and the mime type is also set if not already known)
+     *
      * @return
      */
     public boolean setImageFromData()
     {
+        ImageInfo info = ImageInfo.read(getBinaryData());
+        if(info!=null)
+        {
+            setWidth(info.getWidth());
+            setHeight(info.getHeight());
+            if(mimeType==null || mimeType.length()==0)
+            {
+                setMimeType(info.getMimeType());
+            }
+            return true;
+        }
+
         try
         {
             BufferedImage image = (BufferedImage)getImage();
+            if(image==null)
+            {
+                return false;
+            }
             setWidth(image.getWidth());
             setHeight(image.getHeight());
         }
@@ -91,6 +110,12 @@ public class StandardArtwork implements Artwork
         return true;
     }
 
+    /**
+     * Decode the image, this is only done when called as decoding large images is expensive
+     *
+     * @return
+     * @throws IOException
+     */
     public Object getImage() throws IOException
     {
         ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(getBinaryData()));
@@ -145,6 +170,12 @@ public class StandardArtwork implements Artwork
         setMimeType(ImageFormats.getMimeTypeForBinarySignature(imagedata));
         setDescription("");
         setPictureType(PictureTypes.DEFAULT_ID);
+        ImageInfo info = ImageInfo.read(imagedata);
+        if(info!=null)
+        {
+            setWidth(info.getWidth());
+            setHeight(info.getHeight());
+        }
     }
 
     /**
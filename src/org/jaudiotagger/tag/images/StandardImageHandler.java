@@ -3,15 +3,22 @@ package org.jaudiotagger.tag.images;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 /**
  Image Handling used when running on standard JVM
@@ -20,6 +27,14 @@ public class StandardImageHandler implements ImageHandler
 {
     private static StandardImageHandler instance;
 
+    //When decoding for thumbnails the image is subsampled to no less than this multiple of the largest thumbnail size
+    //so that it is still smoothly scaled down
+    private static final int SUBSAMPLING_MARGIN = 2;
+
+    //Writer for each mime type, or null if the mime type cannot be written. The writers are reused so each write is
+    //synchronized on its writer
+    private final Map<String, ImageWriter> writers = new HashMap<String, ImageWriter>();
+
     public static StandardImageHandler getInstanceOf()
     {
         if(instance==null)
@@ -36,20 +51,29 @@ public class StandardImageHandler implements ImageHandler
 
     /**
      * Resize the image until the total size require to store the image is less than maxsize
+     *
+     * The image is only decoded once, each smaller size is created from the original image rather than from the
+     * previous smaller size
+     *
      * @param artwork
      * @param maxSize
      * @throws IOException
      */
     public void reduceQuality(Artwork artwork, int maxSize) throws IOException
     {
-        while(artwork.getBinaryData().length > maxSize)
+        if(artwork.getBinaryData().length <= maxSize)
         {
-            Image srcImage = (Image)artwork.getImage();
-            int w = srcImage.getWidth(null);
-            int newSize = w /2;
-            makeSmaller(artwork,newSize);
+            return;
+        }
+        Image srcImage = (Image)artwork.getImage();
+        int newSize = srcImage.getWidth(null);
+        while(artwork.getBinaryData().length > maxSize && newSize > 1)
+        {
+            newSize = newSize / 2;
+            artwork.setBinaryData(writeImageOrPng(resize(srcImage, newSize), artwork.getMimeType()));
         }
     }
+
      /**
      * Resize image using Java 2D
       * @param artwork
@@ -59,7 +83,91 @@ public class StandardImageHandler implements ImageHandler
     public void makeSmaller(Artwork artwork,int size) throws IOException
     {
         Image srcImage = (Image)artwork.getImage();
+        artwork.setBinaryData(writeImageOrPng(resize(srcImage, size), artwork.getMimeType()));
+    }
+
+    /**
+     * Create a square thumbnail of the artwork for each size
+     *
+     * The image is decoded once, subsampled while decoding if it is much larger than the largest thumbnail, and each
+     * thumbnail is scaled from the decoded image. Thumbnails are written in the mime type of the artwork if it is
+     * writable, otherwise as png.
+     *
+     * @param artwork
+     * @param sizes
+     * @return the thumbnails in the same order as the sizes
+     * @throws IOException
+     */
+    public List<Artwork> makeThumbnails(Artwork artwork, int... sizes) throws IOException
+    {
+        int largestSize = 0;
+        for(int size:sizes)
+        {
+            largestSize = Math.max(largestSize, size);
+        }
+        Image srcImage = decode(artwork.getBinaryData(), largestSize * SUBSAMPLING_MARGIN);
+
+        String mimeType = isMimeTypeWritable(artwork.getMimeType()) ? artwork.getMimeType() : ImageFormats.MIME_TYPE_PNG;
+        List<Artwork> thumbnails = new ArrayList<Artwork>(sizes.length);
+        for(int size:sizes)
+        {
+            Artwork thumbnail = ArtworkFactory.getNew();
+            thumbnail.setBinaryData(writeImage(resize(srcImage, size), mimeType));
+            thumbnail.setMimeType(mimeType);
+            thumbnail.setDescription(artwork.getDescription());
+            thumbnail.setPictureType(artwork.getPictureType());
+            thumbnail.setWidth(size);
+            thumbnail.setHeight(size);
+            thumbnails.add(thumbnail);
+        }
+        return thumbnails;
+    }
+
+    /**
+     * Decode the image, reading only every nth pixel in each direction if the image is at least n times the minimum
+     * size, which for a large jpeg is much quicker than decoding every pixel
+     *
+     * @param data
+     * @param minimumSize
+     * @return
+     * @throws IOException
+     */
+    private BufferedImage decode(byte[] data, int minimumSize) throws IOException
+    {
+        ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data));
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+        if(!readers.hasNext())
+        {
+            throw new IOException("Cannot read this image format");
+        }
+        ImageReader reader = readers.next();
+        try
+        {
+            reader.setInput(iis, true, true);
+            ImageReadParam param = reader.getDefaultReadParam();
+            int subsampling = Math.min(reader.getWidth(0), reader.getHeight(0)) / Math.max(minimumSize, 1);
+            if(subsampling > 1)
+            {
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            }
+            return reader.read(0, param);
+        }
+        finally
+        {
+            reader.dispose();
+            iis.close();
+        }
+    }
 
+    /**
+     * Scale the image into a square opaque image
+     *
+     * @param srcImage
+     * @param size
+     * @return
+     */
+    private BufferedImage resize(Image srcImage, int size)
+    {
         int w = srcImage.getWidth(null);
         int h = srcImage.getHeight(null);
 
@@ -77,25 +185,40 @@ public class StandardImageHandler implements ImageHandler
 
         // Paint image.
         Graphics2D g2d = bi.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2d.drawImage(srcImage, tx, null);
         g2d.dispose();
+        return bi;
+    }
 
+    public boolean isMimeTypeWritable(String mimeType)
+    {
+        return getWriter(mimeType) != null;
+    }
 
-        if(artwork.getMimeType()!=null && isMimeTypeWritable(artwork.getMimeType()))
+    /**
+     * Get the writer for the mime type, looking it up the first time the mime type is used
+     *
+     * @param mimeType
+     * @return the writer or null if the mime type cannot be written
+     */
+    private ImageWriter getWriter(String mimeType)
+    {
+        if(mimeType==null)
         {
-            artwork.setBinaryData(writeImage(bi,artwork.getMimeType()));
+            return null;
         }
-        else
+        synchronized(writers)
         {
-            artwork.setBinaryData(writeImageAsPng(bi));
+            if(!writers.containsKey(mimeType))
+            {
+                Iterator<ImageWriter> iterator =  ImageIO.getImageWritersByMIMEType(mimeType);
+                writers.put(mimeType, iterator.hasNext() ? iterator.next() : null);
+            }
+            return writers.get(mimeType);
         }
     }
 
-    public boolean isMimeTypeWritable(String mimeType)
-    {
-        Iterator<ImageWriter> writers =  ImageIO.getImageWritersByMIMEType(mimeType);
-        return writers.hasNext();
-    }
     /**
      *  Write buffered image as required format
      *
@@ -106,16 +229,27 @@ public class StandardImageHandler implements ImageHandler
      */
     public byte[] writeImage(BufferedImage bi,String mimeType) throws IOException
     {
-        Iterator<ImageWriter> writers =  ImageIO.getImageWritersByMIMEType(mimeType);
-        if(writers.hasNext())
+        ImageWriter writer = getWriter(mimeType);
+        if(writer==null)
         {
-            ImageWriter writer = writers.next();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            writer.setOutput(ImageIO.createImageOutputStream(baos));
-            writer.write(bi);
-            return baos.toByteArray();
+            throw new IOException("Cannot write to this mimetype");
         }
-        throw new IOException("Cannot write to this mimetype");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        synchronized(writer)
+        {
+            ImageOutputStream ios = ImageIO.createImageOutputStream(baos);
+            try
+            {
+                writer.setOutput(ios);
+                writer.write(bi);
+            }
+            finally
+            {
+                writer.reset();
+                ios.close();
+            }
+        }
+        return baos.toByteArray();
     }
 
     /**
@@ -126,9 +260,24 @@ public class StandardImageHandler implements ImageHandler
      */
     public byte[] writeImageAsPng(BufferedImage bi) throws IOException
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(bi, ImageFormats.MIME_TYPE_PNG,baos);
-        return baos.toByteArray();
+        return writeImage(bi, ImageFormats.MIME_TYPE_PNG);
+    }
+
+    /**
+     * Write buffered image as the required format if it can be written, otherwise as png
+     *
+     * @param bi
+     * @param mimeType
+     * @return
+     * @throws IOException
+     */
+    private byte[] writeImageOrPng(BufferedImage bi, String mimeType) throws IOException
+    {
+        if(isMimeTypeWritable(mimeType))
+        {
+            return writeImage(bi, mimeType);
+        }
+        return writeImageAsPng(bi);
     }
 
     /**
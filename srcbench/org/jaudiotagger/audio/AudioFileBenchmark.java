@@ -0,0 +1,125 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read and write throughput of each format, the files are created by {@link SyntheticAudioFileGenerator} when the
+ * trial starts. The audio of the larger files is a hole in a sparse file, so they take little disk space.
+ * <p/>
+ * The full parameter space takes a long time to run, a single format can be run with
+ * -Djmh.args="-prof gc -p format=FLAC AudioFileBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioFileBenchmark
+{
+    @Param({"MP3_CBR", "MP3_XING", "MP3_VBRI", "FLAC", "M4A", "OGG", "WMA"})
+    public SyntheticAudioFileGenerator.Format format;
+
+    @Param({"4194304", "268435456"})
+    public long size;
+
+    @Param({"1024", "65536"})
+    public int tagSize;
+
+    @Param({"0", "1048576"})
+    public int artworkSize;
+
+    @Param({"0", "16384"})
+    public int padding;
+
+    private File dir;
+    private File file;
+    private AudioFile audioFile;
+    private int writeCount;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        //The writers log every file they modify
+        Logger.getLogger("org.jaudiotagger").setLevel(Level.OFF);
+
+        dir = File.createTempFile("jaudiotagger", "bench");
+        if (!dir.delete() || !dir.mkdir())
+        {
+            throw new IOException("Unable to create:" + dir);
+        }
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        generator.setTextSize(tagSize);
+        generator.setArtworkSize(artworkSize);
+        generator.setPadding(padding);
+        file = generator.create(format, new File(dir, "bench." + format.getExtension()), size);
+        audioFile = AudioFileIO.read(file);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        File[] files = dir.listFiles();
+        if (files != null)
+        {
+            for (File next : files)
+            {
+                next.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    public AudioFile read() throws Exception
+    {
+        return AudioFileIO.read(file);
+    }
+
+    /**
+     * Duration and bitrate only, for mp3 this is the audio header scan
+     */
+    @Benchmark
+    public AudioFile readHeaderOnly() throws Exception
+    {
+        return AudioFileIO.read(file, ReadProjection.HEADER_ONLY);
+    }
+
+    @Benchmark
+    public AudioFile readTagWithoutArtwork() throws Exception
+    {
+        return AudioFileIO.read(file, ReadProjection.TAG_WITHOUT_ARTWORK);
+    }
+
+    /**
+     * Change the title and write the tag, the title keeps the same length after the first write so with padding each
+     * write can be done in place
+     */
+    @Benchmark
+    public int write() throws Exception
+    {
+        Tag tag = audioFile.getTag();
+        tag.setField(FieldKey.TITLE, "Synthetic Title " + (writeCount++ & 1));
+        audioFile.commit();
+        return writeCount;
+    }
+}
@@ -0,0 +1,140 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unsynchronization of artwork heavy tags, the artwork is synthetic data with the byte distribution of compressed
+ * image data so roughly one byte in 256 is a $FF.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ID3UnsynchronizationBenchmark
+{
+    @Param({"65536", "1048576", "4194304"})
+    public int artworkSize;
+
+    private byte[] artwork;
+    private byte[] unsynchronized;
+    private ByteBuffer unsynchronizedSource;
+    private ByteBuffer unsynchronizedDest;
+    private ByteBuffer syncWorkBuffer;
+    private ID3v23Tag tag;
+
+    @Setup
+    public void setup() throws Exception
+    {
+        artwork = new byte[artworkSize];
+        new Random(artworkSize).nextBytes(artwork);
+        //JPEG start of image marker
+        artwork[0] = (byte) 0xFF;
+        artwork[1] = (byte) 0xD8;
+
+        unsynchronized = ID3Unsynchronization.unsynchronize(artwork);
+        unsynchronizedSource = ByteBuffer.wrap(unsynchronized);
+        unsynchronizedDest = ByteBuffer.allocate(unsynchronized.length);
+        syncWorkBuffer = ByteBuffer.allocate(unsynchronized.length);
+
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        tag = new ID3v23Tag();
+        Artwork cover = ArtworkFactory.getNew();
+        cover.setBinaryData(artwork);
+        cover.setMimeType("image/jpeg");
+        tag.setField(cover);
+    }
+
+    /**
+     * Decide if unsynchronization is required and size the result in one scan
+     */
+    @Benchmark
+    public int scan()
+    {
+        return ID3Unsynchronization.getUnsynchronizedSizeIfRequired(ByteBuffer.wrap(artwork));
+    }
+
+    @Benchmark
+    public ByteBuffer unsynchronizeToBuffer()
+    {
+        unsynchronizedDest.clear();
+        ID3Unsynchronization.unsynchronize(ByteBuffer.wrap(artwork), unsynchronizedDest);
+        return unsynchronizedDest;
+    }
+
+    /**
+     * The unsynchronized data has to be restored before each decode so this includes a bulk copy
+     */
+    @Benchmark
+    public ByteBuffer synchronizeInPlace()
+    {
+        unsynchronizedSource.clear();
+        syncWorkBuffer.clear();
+        syncWorkBuffer.put(unsynchronizedSource);
+        syncWorkBuffer.flip();
+        return ID3Unsynchronization.synchronizeInPlace(syncWorkBuffer);
+    }
+
+    @Benchmark
+    public ByteBuffer synchronizeCopy()
+    {
+        unsynchronizedSource.clear();
+        return ID3Unsynchronization.synchronize(unsynchronizedSource);
+    }
+
+    /**
+     * Serialize a whole tag with unsynchronization enabled
+     */
+    @Benchmark
+    public long writeTag() throws IOException
+    {
+        CountingChannel channel = new CountingChannel();
+        tag.write(channel);
+        return channel.count;
+    }
+
+    /**
+     * Discards everything written to it
+     */
+    private static class CountingChannel implements WritableByteChannel
+    {
+        private long count;
+
+        public int write(ByteBuffer src)
+        {
+            int size = src.remaining();
+            src.position(src.limit());
+            count += size;
+            return size;
+        }
+
+        public boolean isOpen()
+        {
+            return true;
+        }
+
+        public void close()
+        {
+        }
+    }
+}
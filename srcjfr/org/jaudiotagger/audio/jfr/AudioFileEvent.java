@@ -0,0 +1,18 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Fields common to the events of a whole operation on an audio file
+ */
+abstract class AudioFileEvent extends Event
+{
+    @Label("Path")
+    public String path;
+
+    @Label("Failure")
+    @Description("The exception the operation failed with, null if it succeeded")
+    public String failure;
+}
@@ -0,0 +1,35 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Reading the audio header and tag of a file
+ */
+@Name("org.jaudiotagger.AudioFileRead")
+@Label("Audio File Read")
+@Category("jaudiotagger")
+@Description("Reading the audio header and tag of a file")
+public class AudioFileReadEvent extends AudioFileEvent
+{
+    @Label("Header Time")
+    @Description("Time spent reading the audio header, for mp3 this includes the scan for the first audio frame")
+    @Timespan
+    public long headerTime;
+
+    @Label("Tag Time")
+    @Description("Time spent reading and parsing the tag")
+    @Timespan
+    public long tagTime;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Read Calls")
+    public int readCalls;
+}
@@ -0,0 +1,57 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Writing or deleting the tag of a file
+ */
+@Name("org.jaudiotagger.AudioFileWrite")
+@Label("Audio File Write")
+@Category("jaudiotagger")
+@Description("Writing or deleting the tag of a file")
+public class AudioFileWriteEvent extends AudioFileEvent
+{
+    @Label("Delete")
+    @Description("True if the tag was deleted rather than written")
+    public boolean delete;
+
+    @Label("Rewritten")
+    @Description("True if the file was rewritten with its audio, false if the tag was written in place")
+    public boolean rewritten;
+
+    @Label("Temporary File Created")
+    public boolean tempFileCreated;
+
+    @Label("Temporary File Length")
+    @Description("Length of the temporary file that replaced the original")
+    @DataAmount
+    public long tempFileLength;
+
+    @Label("Copy Time")
+    @Description("Time spent copying audio data")
+    @Timespan
+    public long copyTime;
+
+    @Label("Bytes Copied")
+    @DataAmount
+    public long bytesCopied;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+
+    @Label("Read Calls")
+    public int readCalls;
+
+    @Label("Write Calls")
+    public int writeCalls;
+}
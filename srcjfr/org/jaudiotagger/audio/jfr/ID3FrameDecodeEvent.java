@@ -0,0 +1,36 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The decoding of the body of one ID3v2 frame, there is one of these for every frame read so it is disabled unless
+ * enabled in the recording settings
+ */
+@Name("org.jaudiotagger.ID3FrameDecode")
+@Label("ID3 Frame Decode")
+@Category("jaudiotagger")
+@Description("The decoding of the body of one ID3v2 frame")
+@Enabled(false)
+public class ID3FrameDecodeEvent extends Event
+{
+    @Label("Path")
+    public String path;
+
+    @Label("Frame Id")
+    public String frameId;
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+
+    @Label("Decode Time")
+    @Timespan
+    public long decodeTime;
+}
@@ -0,0 +1,111 @@
+package org.jaudiotagger.audio.jfr;
+
+import org.jaudiotagger.audio.generic.AudioFileInstrumentation;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+
+/**
+ * Reports each operation as a Java Flight Recorder event, install with
+ * <code>AudioFileOperation.setInstrumentation(new JfrAudioFileInstrumentation())</code>.
+ * <p/>
+ * Reads are reported as {@link AudioFileReadEvent} and writes and deletes as {@link AudioFileWriteEvent}. Within them
+ * copies made to rewrite a file are reported as {@link TagRewriteCopyEvent}, the scan for the first frame of an mp3 as
+ * {@link Mp3SyncScanEvent} and the decoding of each ID3v2 frame as {@link ID3FrameDecodeEvent}.
+ * <p/>
+ * The events are only committed when enabled in the recording so the cost when not recording is creating the event.
+ * The steps within an operation have already finished when they are reported so their events carry their duration as
+ * a field rather than as the duration of the event.
+ */
+public class JfrAudioFileInstrumentation implements AudioFileInstrumentation
+{
+    public void operationStarted(AudioFileOperation operation)
+    {
+        AudioFileEvent event = operation.getType() == AudioFileOperation.Type.READ ? new AudioFileReadEvent() : new AudioFileWriteEvent();
+        if (event.isEnabled())
+        {
+            event.begin();
+            operation.attach(event);
+        }
+    }
+
+    public void operationFinished(AudioFileOperation operation)
+    {
+        AudioFileEvent event = (AudioFileEvent) operation.attachment();
+        if (event == null)
+        {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit())
+        {
+            return;
+        }
+
+        event.path = operation.getFile().getPath();
+        if (operation.getFailure() != null)
+        {
+            event.failure = operation.getFailure().toString();
+        }
+        if (event instanceof AudioFileReadEvent)
+        {
+            AudioFileReadEvent readEvent = (AudioFileReadEvent) event;
+            readEvent.headerTime = operation.getTime(AudioFileOperation.Phase.HEADER);
+            readEvent.tagTime = operation.getTime(AudioFileOperation.Phase.TAG);
+            readEvent.bytesRead = operation.getBytesRead();
+            readEvent.readCalls = operation.getReadCalls();
+        }
+        else
+        {
+            AudioFileWriteEvent writeEvent = (AudioFileWriteEvent) event;
+            writeEvent.delete = operation.getType() == AudioFileOperation.Type.DELETE;
+            writeEvent.rewritten = operation.isRewritten();
+            writeEvent.tempFileCreated = operation.isTempFileCreated();
+            writeEvent.tempFileLength = operation.getTempFileLength();
+            writeEvent.copyTime = operation.getTime(AudioFileOperation.Phase.COPY);
+            writeEvent.bytesCopied = operation.getBytesCopied();
+            writeEvent.bytesRead = operation.getBytesRead();
+            writeEvent.bytesWritten = operation.getBytesWritten();
+            writeEvent.readCalls = operation.getReadCalls();
+            writeEvent.writeCalls = operation.getWriteCalls();
+        }
+        event.commit();
+    }
+
+    public void dataCopied(AudioFileOperation operation, long bytes, long duration)
+    {
+        TagRewriteCopyEvent event = new TagRewriteCopyEvent();
+        if (event.shouldCommit())
+        {
+            event.path = operation.getFile().getPath();
+            event.bytesMoved = bytes;
+            event.copyTime = duration;
+            event.commit();
+        }
+    }
+
+    public void mp3SyncScanned(AudioFileOperation operation, long startByte, long bytesScanned, boolean syncFound, long duration)
+    {
+        Mp3SyncScanEvent event = new Mp3SyncScanEvent();
+        if (event.shouldCommit())
+        {
+            event.path = operation.getFile().getPath();
+            event.startByte = startByte;
+            event.bytesScanned = bytesScanned;
+            event.syncFound = syncFound;
+            event.scanTime = duration;
+            event.commit();
+        }
+    }
+
+    public void id3FrameDecoded(AudioFileOperation operation, String identifier, int size, long duration)
+    {
+        ID3FrameDecodeEvent event = new ID3FrameDecodeEvent();
+        if (event.shouldCommit())
+        {
+            event.path = operation.getFile().getPath();
+            event.frameId = identifier;
+            event.size = size;
+            event.decodeTime = duration;
+            event.commit();
+        }
+    }
+}
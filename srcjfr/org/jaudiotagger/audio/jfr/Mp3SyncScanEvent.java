@@ -0,0 +1,39 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The scan of an mp3 for its first audio frame, a large number of bytes scanned means there is junk between the tag
+ * and the audio
+ */
+@Name("org.jaudiotagger.Mp3SyncScan")
+@Label("Mp3 Sync Scan")
+@Category("jaudiotagger")
+@Description("The scan of an mp3 for its first audio frame")
+public class Mp3SyncScanEvent extends Event
+{
+    @Label("Path")
+    public String path;
+
+    @Label("Start Byte")
+    @Description("Where the scan started, the end of the ID3v2 tag")
+    public long startByte;
+
+    @Label("Bytes Scanned")
+    @Description("Bytes skipped before the first frame was found")
+    @DataAmount
+    public long bytesScanned;
+
+    @Label("Sync Found")
+    public boolean syncFound;
+
+    @Label("Scan Time")
+    @Timespan
+    public long scanTime;
+}
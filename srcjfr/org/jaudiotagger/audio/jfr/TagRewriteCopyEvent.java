@@ -0,0 +1,30 @@
+package org.jaudiotagger.audio.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Data copied while writing a file, mostly audio moved because the tag no longer fits in front of it
+ */
+@Name("org.jaudiotagger.TagRewriteCopy")
+@Label("Tag Rewrite Copy")
+@Category("jaudiotagger")
+@Description("Data copied while writing a file, mostly audio moved because the tag no longer fits in front of it")
+public class TagRewriteCopyEvent extends Event
+{
+    @Label("Path")
+    public String path;
+
+    @Label("Bytes Moved")
+    @DataAmount
+    public long bytesMoved;
+
+    @Label("Copy Time")
+    @Timespan
+    public long copyTime;
+}
@@ -0,0 +1,148 @@
+package org.jaudiotagger.audio;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+
+/**
+ * Reading files through the metadata cache
+ */
+public class AudioFileCacheTest extends TestCase
+{
+    private static void checkSame(AudioFile expected, AudioFile actual)
+    {
+        AudioHeader expectedHeader = expected.getAudioHeader();
+        AudioHeader actualHeader = actual.getAudioHeader();
+        assertEquals(expectedHeader.getEncodingType(), actualHeader.getEncodingType());
+        assertEquals(expectedHeader.getFormat(), actualHeader.getFormat());
+        assertEquals(expectedHeader.getBitRate(), actualHeader.getBitRate());
+        assertEquals(expectedHeader.getBitRateAsNumber(), actualHeader.getBitRateAsNumber());
+        assertEquals(expectedHeader.getSampleRate(), actualHeader.getSampleRate());
+        assertEquals(expectedHeader.getSampleRateAsNumber(), actualHeader.getSampleRateAsNumber());
+        assertEquals(expectedHeader.getChannels(), actualHeader.getChannels());
+        assertEquals(expectedHeader.isVariableBitRate(), actualHeader.isVariableBitRate());
+        assertEquals(expectedHeader.getTrackLength(), actualHeader.getTrackLength());
+
+        for (FieldKey key : new FieldKey[]{FieldKey.ARTIST, FieldKey.ALBUM, FieldKey.TITLE, FieldKey.TRACK, FieldKey.GENRE, FieldKey.YEAR})
+        {
+            assertEquals(key.name(), expected.getTag().getFirst(key), actual.getTag().getFirst(key));
+        }
+    }
+
+    public void testReadUnchangedFileFromCache() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testCache.m4a"));
+        AudioFileCache cache = new AudioFileCache(10);
+        AudioFile original = cache.read(testFile);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        AudioFile cached = cache.read(testFile);
+        assertEquals(1, cache.getHitCount());
+        assertTrue(cached.getAudioHeader() instanceof CachedAudioHeader);
+        assertTrue(cached.getTag() instanceof CachedTag);
+        assertEquals(testFile.getAbsoluteFile(), cached.getFile());
+        checkSame(original, cached);
+        assertFalse(cached.getTag().getFirst(FieldKey.ARTIST).length() == 0);
+    }
+
+    /**
+     * A cached view cannot be modified or written
+     */
+    public void testCachedViewIsReadOnly() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.flac", new File("testCacheReadOnly.flac"));
+        AudioFileCache cache = new AudioFileCache(10);
+        cache.read(testFile);
+        AudioFile cached = cache.read(testFile);
+        String title = cached.getTag().getFirst(FieldKey.TITLE);
+        try
+        {
+            cached.getTag().setField(FieldKey.TITLE, "changed");
+            fail("Cached tag should not be modified");
+        }
+        catch (UnsupportedOperationException uoe)
+        {
+            //Expected
+        }
+        try
+        {
+            cached.getTag().deleteField(FieldKey.TITLE);
+            fail("Cached tag should not be modified");
+        }
+        catch (UnsupportedOperationException uoe)
+        {
+            //Expected
+        }
+        assertEquals(title, cached.getTag().getFirst(FieldKey.TITLE));
+
+        try
+        {
+            cached.commit();
+            fail("Cached view should not be written");
+        }
+        catch (CannotWriteException cwe)
+        {
+            assertTrue(cwe.getMessage().indexOf("cache") != -1);
+        }
+    }
+
+    public void testChangedFileIsReadAgain() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.flac", new File("testCacheChanged.flac"));
+        AudioFileCache cache = new AudioFileCache(10);
+        cache.read(testFile);
+
+        AudioFile audioFile = AudioFileIO.read(testFile);
+        audioFile.getTag().setField(FieldKey.TITLE, "changed");
+        audioFile.commit();
+        testFile.setLastModified(testFile.lastModified() + 2000);
+
+        AudioFile reread = cache.read(testFile);
+        assertEquals(2, cache.getMissCount());
+        assertEquals("changed", reread.getTag().getFirst(FieldKey.TITLE));
+        assertEquals("changed", cache.read(testFile).getTag().getFirst(FieldKey.TITLE));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    public void testLeastRecentlyUsedIsDiscarded() throws Exception
+    {
+        File first = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testCacheFirst.m4a"));
+        File second = AbstractTestCase.copyAudioToTmp("test.flac", new File("testCacheSecond.flac"));
+        File third = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testCacheThird.ogg"));
+        AudioFileCache cache = new AudioFileCache(2);
+        cache.read(first);
+        cache.read(second);
+        cache.read(first);
+        cache.read(third);
+        assertEquals(2, cache.size());
+
+        cache.read(first);
+        assertEquals(2, cache.getHitCount());
+        cache.read(second);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    public void testSaveAndLoad() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testCacheSaved.m4a"));
+        File cacheFile = new File("testdatatmp", "testCacheSaved.cache");
+        AudioFileCache cache = new AudioFileCache(10);
+        AudioFile original = cache.read(testFile);
+        cache.save(cacheFile);
+
+        AudioFileCache loaded = new AudioFileCache(10);
+        loaded.load(cacheFile);
+        assertEquals(1, loaded.size());
+        AudioFile cached = loaded.read(testFile);
+        assertEquals(1, loaded.getHitCount());
+        checkSame(original, cached);
+
+        AudioFileCache missing = new AudioFileCache(10);
+        missing.load(new File("testdatatmp", "testCacheMissing.cache"));
+        assertEquals(0, missing.size());
+    }
+}
@@ -0,0 +1,188 @@
+package org.jaudiotagger.audio;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.flac.FlacFileReader;
+import org.jaudiotagger.audio.generic.AudioFileInstrumentationAdapter;
+import org.jaudiotagger.audio.generic.AudioFileOperation;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Metrics reported for each operation on a file
+ */
+public class AudioFileInstrumentationTest extends TestCase
+{
+    private final List<AudioFileOperation> started = new ArrayList<AudioFileOperation>();
+    private final List<AudioFileOperation> finished = new ArrayList<AudioFileOperation>();
+    private final List<String> steps = new ArrayList<String>();
+
+    protected void setUp()
+    {
+        AudioFileOperation.setInstrumentation(new AudioFileInstrumentationAdapter()
+        {
+            public void operationStarted(AudioFileOperation operation)
+            {
+                started.add(operation);
+            }
+
+            public void operationFinished(AudioFileOperation operation)
+            {
+                finished.add(operation);
+            }
+
+            public void dataCopied(AudioFileOperation operation, long bytes, long duration)
+            {
+                assertTrue(bytes > 0);
+                steps.add("copy " + operation.getType());
+            }
+
+            public void mp3SyncScanned(AudioFileOperation operation, long startByte, long bytesScanned, boolean syncFound, long duration)
+            {
+                assertTrue(bytesScanned >= 0);
+                steps.add("sync " + syncFound);
+            }
+
+            public void id3FrameDecoded(AudioFileOperation operation, String identifier, int size, long duration)
+            {
+                steps.add(identifier);
+            }
+        });
+    }
+
+    protected void tearDown()
+    {
+        AudioFileOperation.setInstrumentation(null);
+    }
+
+    private AudioFileOperation lastOperation(AudioFileOperation.Type type)
+    {
+        assertEquals(started.size(), finished.size());
+        AudioFileOperation operation = finished.get(finished.size() - 1);
+        assertEquals(type, operation.getType());
+        assertNull(operation.getFailure());
+        assertTrue(operation.getDuration() > 0);
+        return operation;
+    }
+
+    private static String text(int length)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++)
+        {
+            sb.append('x');
+        }
+        return sb.toString();
+    }
+
+    private void checkRead(File file)
+    {
+        AudioFileOperation operation = lastOperation(AudioFileOperation.Type.READ);
+        assertEquals(file, operation.getFile());
+        assertTrue(operation.getBytesRead() > 0);
+        assertTrue(operation.getReadCalls() > 0);
+        assertTrue(operation.getTime(AudioFileOperation.Phase.HEADER) > 0);
+        assertTrue(operation.getTime(AudioFileOperation.Phase.TAG) > 0);
+        assertEquals(0, operation.getBytesWritten());
+        assertFalse(operation.isRewritten());
+    }
+
+    public void testReadAndWriteFlac() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test.flac", new File("testInstrumentation.flac"));
+        AudioFile audioFile = AudioFileIO.read(file);
+        assertEquals(1, finished.size());
+        checkRead(file);
+
+        //Fits in the padding
+        audioFile.getTag().setField(FieldKey.TITLE, "title");
+        audioFile.commit();
+        AudioFileOperation operation = lastOperation(AudioFileOperation.Type.WRITE);
+        assertFalse(operation.isRewritten());
+        assertTrue(operation.isTempFileCreated());
+        assertEquals(0, operation.getTempFileLength());
+        assertEquals(0, operation.getBytesCopied());
+        assertTrue(operation.getBytesWritten() > 0);
+
+        //Too large for the padding
+        audioFile.getTag().setField(FieldKey.COMMENT, text(20000));
+        audioFile.commit();
+        operation = lastOperation(AudioFileOperation.Type.WRITE);
+        assertTrue(operation.isRewritten());
+        assertEquals(file.length(), operation.getTempFileLength());
+        assertTrue(operation.getBytesCopied() > 0);
+        assertTrue(operation.getCopyCalls() > 0);
+        assertTrue(operation.getTime(AudioFileOperation.Phase.COPY) > 0);
+    }
+
+    public void testReadAndWriteMp3() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testInstrumentation.mp3"));
+        AudioFile audioFile = AudioFileIO.read(file);
+        checkRead(file);
+
+        audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.COMMENT, text(20000));
+        AudioFileIO.write(audioFile);
+        assertEquals(2, finished.size());
+        AudioFileOperation operation = lastOperation(AudioFileOperation.Type.WRITE);
+        assertEquals(file.getAbsoluteFile(), operation.getFile());
+        assertTrue(operation.isRewritten());
+        assertTrue(operation.isTempFileCreated());
+        assertTrue(operation.getBytesCopied() > 0);
+        assertTrue(operation.getBytesWritten() > 20000);
+    }
+
+    public void testSteps() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testInstrumentationSteps.mp3"));
+        AudioFile audioFile = AudioFileIO.read(file);
+        assertTrue(steps.contains("sync true"));
+        assertFalse(steps.contains("copy WRITE"));
+
+        audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "title");
+        audioFile.getTag().setField(FieldKey.COMMENT, text(20000));
+        audioFile.commit();
+        assertTrue(steps.contains("copy WRITE"));
+
+        steps.clear();
+        AudioFileIO.read(file);
+        assertTrue(steps.contains("sync true"));
+        assertTrue(steps.contains("TIT2"));
+        assertTrue(steps.contains("COMM"));
+    }
+
+    public void testReadFailure() throws Exception
+    {
+        File file = new File("testdatatmp", "testInstrumentationInvalid.flac");
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[1000]);
+        out.close();
+        try
+        {
+            new FlacFileReader().read(file);
+            fail();
+        }
+        catch (CannotReadException cre)
+        {
+            assertEquals(1, finished.size());
+            assertEquals(cre, finished.get(0).getFailure());
+        }
+    }
+
+    public void testNotInstrumented() throws Exception
+    {
+        AudioFileOperation.setInstrumentation(null);
+        File file = AbstractTestCase.copyAudioToTmp("test.flac", new File("testInstrumentationNone.flac"));
+        AudioFile audioFile = AudioFileIO.read(file);
+        audioFile.getTag().setField(FieldKey.TITLE, "title");
+        audioFile.commit();
+        assertEquals(0, started.size());
+        assertFalse(AudioFileOperation.current().isInstrumented());
+    }
+}
@@ -0,0 +1,106 @@
+package org.jaudiotagger.audio;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+/**
+ * Choosing the reader from the content of the file rather than its extension
+ */
+public class AudioFormatDetectorTest extends TestCase
+{
+    public void testDetectTestData() throws Exception
+    {
+        assertEquals(SupportedFileFormat.FLAC, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test.flac"))));
+        assertEquals(SupportedFileFormat.OGG, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test.ogg"))));
+        assertEquals(SupportedFileFormat.M4A, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test.m4a"))));
+        assertEquals(SupportedFileFormat.WAV, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test.wav"))));
+        assertEquals(SupportedFileFormat.WMA, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test1.wma"))));
+        assertEquals(SupportedFileFormat.RM, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test05.rm"))));
+        assertEquals(SupportedFileFormat.MP3, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "testV1.mp3"))));
+        assertEquals(SupportedFileFormat.MP3, AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "test47.mp3"))));
+        assertNull(AudioFormatDetector.detect(AudioFormatDetector.readHeader(new File("testdata", "coverart.png"))));
+        assertEquals("vorbis", AudioFormatDetector.getOggCodec(AudioFormatDetector.readHeader(new File("testdata", "test.ogg"))));
+    }
+
+    public void testDetectRf64()
+    {
+        assertEquals(SupportedFileFormat.WAV, AudioFormatDetector.detect(riffHeader("RF64", "WAVE")));
+        assertEquals(SupportedFileFormat.WAV, AudioFormatDetector.detect(riffHeader("BW64", "WAVE")));
+        assertNull(AudioFormatDetector.detect(riffHeader("RF64", "AVI ")));
+    }
+
+    private static byte[] riffHeader(String id, String formType)
+    {
+        byte[] header = new byte[12];
+        for (int i = 0; i < 4; i++)
+        {
+            header[i] = (byte) id.charAt(i);
+            header[i + 8] = (byte) formType.charAt(i);
+        }
+        return header;
+    }
+
+    public void testReadMislabelledFiles() throws Exception
+    {
+        File m4aAsMp3 = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testDetectM4a.mp3"));
+        assertEquals("AAC", AudioFileIO.read(m4aAsMp3).getAudioHeader().getEncodingType());
+
+        File flacAsOgg = AbstractTestCase.copyAudioToTmp("test.flac", new File("testDetectFlac.ogg"));
+        assertEquals("FLAC 16 bits", AudioFileIO.read(flacAsOgg).getAudioHeader().getEncodingType());
+
+        File flacUnknownExtension = AbstractTestCase.copyAudioToTmp("test.flac", new File("testDetectFlac.dat"));
+        assertEquals("FLAC 16 bits", AudioFileIO.read(flacUnknownExtension).getAudioHeader().getEncodingType());
+    }
+
+    /**
+     * A mislabelled file is written by the writer for the format it was read as, not the writer for its extension
+     */
+    public void testWriteMislabelledFiles() throws Exception
+    {
+        String[][] files = {{"test.m4a", "testWriteM4a.mp3"}, {"test.ogg", "testWriteOgg.flac"}, {"test.flac", "testWriteFlac.ogg"}};
+        for (String[] names : files)
+        {
+            File file = AbstractTestCase.copyAudioToTmp(names[0], new File(names[1]));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.ARTIST, "mislabelled");
+            audioFile.commit();
+            assertEquals(names[1], "mislabelled", AudioFileIO.read(file).getTag().getFirst(FieldKey.ARTIST));
+        }
+    }
+
+    /**
+     * An ogg file holding a flac stream is rejected without being parsed
+     */
+    public void testReadOggFlac() throws Exception
+    {
+        byte[] data = new byte[200];
+        byte[] page = "OggS".getBytes("ISO-8859-1");
+        System.arraycopy(page, 0, data, 0, page.length);
+        data[26] = 1;
+        data[27] = 51;
+        data[28] = 0x7f;
+        byte[] flac = "FLAC".getBytes("ISO-8859-1");
+        System.arraycopy(flac, 0, data, 29, flac.length);
+        assertEquals("FLAC", AudioFormatDetector.getOggCodec(data));
+
+        File file = new File("testdatatmp", "testDetectOggFlac.ogg");
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+        try
+        {
+            AudioFileIO.read(file);
+            fail("Ogg flac should not be read");
+        }
+        catch (CannotReadException cre)
+        {
+            assertTrue(cre.getMessage().indexOf("FLAC") != -1);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.jaudiotagger.audio;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+
+/**
+ * Reading only part of an audio file
+ */
+public class ReadProjectionTest extends TestCase
+{
+    public void testHeaderOnly() throws Exception
+    {
+        for (String name : new String[]{"testV1Cbr128ID3v2.mp3", "test.m4a", "test.flac", "test.ogg", "test1.wma"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name);
+            AudioFile full = AudioFileIO.read(testFile);
+            AudioFile headerOnly = AudioFileIO.read(testFile, ReadProjection.HEADER_ONLY);
+            assertNull(name, headerOnly.getTag());
+            assertEquals(name, full.getAudioHeader().getTrackLength(), headerOnly.getAudioHeader().getTrackLength());
+            assertEquals(name, full.getAudioHeader().getEncodingType(), headerOnly.getAudioHeader().getEncodingType());
+        }
+    }
+
+    public void testTagOnly() throws Exception
+    {
+        for (String name : new String[]{"testV1Cbr128ID3v2.mp3", "test.m4a", "test.flac", "test.ogg", "test1.wma"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name);
+            AudioFile full = AudioFileIO.read(testFile);
+            AudioFile tagOnly = AudioFileIO.read(testFile, ReadProjection.TAG_ONLY);
+            assertNull(name, tagOnly.getAudioHeader());
+            assertEquals(name, full.getTag().getFieldCount(), tagOnly.getTag().getFieldCount());
+            assertEquals(name, full.getTag().getFirst(FieldKey.ARTIST), tagOnly.getTag().getFirst(FieldKey.ARTIST));
+            assertEquals(name, full.getTag().getFirst(FieldKey.TITLE), tagOnly.getTag().getFirst(FieldKey.TITLE));
+        }
+    }
+
+    public void testTagOnlyMp3IsNotScanned() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v2.mp3");
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile, ReadProjection.TAG_ONLY);
+        assertNull(mp3File.getAudioHeader());
+        assertNotNull(mp3File.getID3v2Tag());
+    }
+
+    public void testTagWithoutArtwork() throws Exception
+    {
+        for (String name : new String[]{"test.m4a", "test.flac"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name, new File("testProjectionArtwork." + name.substring(5)));
+            AudioFile audioFile = AudioFileIO.read(testFile);
+            audioFile.getTag().setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png")));
+            audioFile.commit();
+            assertFalse(name, AudioFileIO.read(testFile).getTag().getArtworkList().isEmpty());
+
+            Tag tag = AudioFileIO.read(testFile, ReadProjection.TAG_WITHOUT_ARTWORK).getTag();
+            assertTrue(name, tag.getArtworkList().isEmpty());
+            assertEquals(name, AudioFileIO.read(testFile).getTag().getFirst(FieldKey.ARTIST), tag.getFirst(FieldKey.ARTIST));
+        }
+    }
+
+    public void testFields() throws Exception
+    {
+        for (String name : new String[]{"testV1Cbr128ID3v2.mp3", "test.m4a", "test.flac", "test.ogg", "test1.wma"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name, new File("testProjectionFields." + name.substring(name.indexOf('.') + 1)));
+            AudioFile full = AudioFileIO.read(testFile);
+            full.getTag().setField(FieldKey.ARTIST, "artist");
+            full.getTag().setField(FieldKey.TITLE, "title");
+            full.getTag().setField(FieldKey.ALBUM, "album");
+            full.getTag().setField(FieldKey.TRACK, "3");
+            full.commit();
+
+            AudioFile audioFile = AudioFileIO.read(testFile, ReadProjection.fields(FieldKey.ARTIST, FieldKey.TRACK).withHeader());
+            assertNotNull(name, audioFile.getAudioHeader());
+            Tag tag = audioFile.getTag();
+            assertEquals(name, "artist", tag.getFirst(FieldKey.ARTIST));
+            assertEquals(name, "3", tag.getFirst(FieldKey.TRACK));
+            assertEquals(name, "", tag.getFirst(FieldKey.TITLE));
+            assertEquals(name, "", tag.getFirst(FieldKey.ALBUM));
+        }
+    }
+
+    public void testPartlyReadFileCannotBeWritten() throws Exception
+    {
+        for (String name : new String[]{"testV1Cbr128ID3v2.mp3", "test.flac"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name, new File("testProjectionWrite." + name.substring(name.indexOf('.') + 1)));
+            AudioFile audioFile = AudioFileIO.read(testFile, ReadProjection.TAG_WITHOUT_ARTWORK);
+            assertFalse(audioFile.getReadProjection().isAll());
+            try
+            {
+                audioFile.commit();
+                fail(name + " should not be written");
+            }
+            catch (CannotWriteException cwe)
+            {
+                //Expected
+            }
+        }
+    }
+}
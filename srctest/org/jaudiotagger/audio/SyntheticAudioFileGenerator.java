@@ -0,0 +1,811 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.data.MetadataContainer;
+import org.jaudiotagger.audio.asf.data.ContainerType;
+import org.jaudiotagger.audio.asf.util.TagConverter;
+import org.jaudiotagger.audio.flac.FlacTagCreator;
+import org.jaudiotagger.audio.flac.metadatablock.BlockType;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4HdlrBox;
+import org.jaudiotagger.audio.ogg.OggVorbisCommentTagCreator;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.asf.AsfTag;
+import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.mp4.Mp4Tag;
+import org.jaudiotagger.tag.mp4.Mp4TagCreator;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates audio files of any size for scale and soak tests, so that large files do not have to be checked in to
+ * testdata.
+ * <p/>
+ * Only the parts of the file that are read are real: the container headers, the tag and the first few audio frames.
+ * The rest of the audio is left as a hole in a sparse file, so on file systems supporting sparse files a 2GB file
+ * takes almost no disk space and is created immediately. The audio cannot be played. Ogg has no length prefixed
+ * audio section so the header of every audio page is written, leaving a hole within each page.
+ * <p/>
+ * The tag holds the fields set with {@link #setField(FieldKey, String)} and optionally artwork and padding, it is
+ * serialized by the same classes that write tags to real files. The duration is worked out from the size of the
+ * audio and the nominal bitrate of the format, see {@link Format#getBitrate()}.
+ */
+public class SyntheticAudioFileGenerator
+{
+    public static enum Format
+    {
+        MP3_CBR("mp3", 128000),
+        MP3_XING("mp3", 128000),
+        MP3_VBRI("mp3", 128000),
+        FLAC("flac", 800000),
+        OGG("ogg", 128000),
+        M4A("m4a", 128000),
+        WMA("wma", 128000);
+
+        private String extension;
+        private int bitrate;
+
+        Format(String extension, int bitrate)
+        {
+            this.extension = extension;
+            this.bitrate = bitrate;
+        }
+
+        public String getExtension()
+        {
+            return extension;
+        }
+
+        /**
+         * @return the nominal bitrate in bits per second, used to work out the duration from the size of the audio
+         */
+        public int getBitrate()
+        {
+            return bitrate;
+        }
+    }
+
+    private static final int SAMPLE_RATE = 44100;
+    private static final int CHANNELS = 2;
+
+    //MPEG-1 Layer III 128kbps 44.1kHz joint stereo without padding or crc
+    private static final byte[] MP3_FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x40};
+    private static final int MP3_FRAME_LENGTH = 417;
+    private static final int MP3_SIDE_INFO_END = 36;
+    private static final int MP3_FRAMES_WRITTEN = 8;
+
+    //Audio pages hold one packet of 254 full segments and a final segment of 254 bytes
+    private static final int OGG_MAX_SEGMENTS = 255;
+    private static final int OGG_FULL_PAGE_DATA_LENGTH = 254 * 255 + 254;
+    private static final int OGG_FULL_PAGE_LENGTH = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + OGG_MAX_SEGMENTS + OGG_FULL_PAGE_DATA_LENGTH;
+    private static final int OGG_MIN_PAGE_LENGTH = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + 1;
+    private static final int OGG_SERIAL_NUMBER = 1;
+    private static final int OGG_HEADER_TYPE_CONTINUED = 0x01;
+    private static final int OGG_HEADER_TYPE_START = 0x02;
+    private static final int OGG_HEADER_TYPE_END = 0x04;
+
+    private static final int MP4_SAMPLES_PER_FRAME = 1024;
+
+    private static final GUID ASF_DATA = GUID.parseGUID("75B22636-668E-11CF-A6D9-00AA0062CE6C");
+    private static final GUID ASF_HEADER_EXTENSION_RESERVED = GUID.parseGUID("ABD3D211-A9BA-11CF-8EE6-00C00C205365");
+    private static final GUID ASF_FILE_ID = GUID.parseGUID("6A6F7572-6E65-7969-6E73-796E74686574");
+    private static final int ASF_PACKET_SIZE = 3200;
+    private static final int ASF_CODEC_WMA2 = 0x161;
+    private static final long ASF_TIME_UNITS_PER_SECOND = 10000000L;
+
+    /**
+     * Fields holding the bulk of the text set by {@link #setTextSize(int)}
+     */
+    private static final FieldKey[] TEXT_FIELDS =
+            {
+                    FieldKey.COMMENT, FieldKey.COMPOSER, FieldKey.CONDUCTOR, FieldKey.LYRICIST,
+                    FieldKey.ORIGINAL_ARTIST, FieldKey.RECORD_LABEL, FieldKey.MOOD, FieldKey.ENGINEER,
+            };
+
+    //Characters, kept under the 64k byte limit of a UTF-16 wma field
+    private static final int MAX_TEXT_FIELD_LENGTH = 8192;
+
+    private final Map<FieldKey, String> fields = new EnumMap<FieldKey, String>(FieldKey.class);
+    private int artworkSize;
+    private int padding;
+
+    /**
+     * A generator writing artist, album, title and track fields without artwork or padding
+     */
+    public SyntheticAudioFileGenerator()
+    {
+        fields.put(FieldKey.ARTIST, "Synthetic Artist");
+        fields.put(FieldKey.ALBUM, "Synthetic Album");
+        fields.put(FieldKey.TITLE, "Synthetic Title");
+        fields.put(FieldKey.TRACK, "1");
+    }
+
+    /**
+     * @param key
+     * @param value the value, or null to leave the field out of the tag
+     */
+    public void setField(FieldKey key, String value)
+    {
+        if (value == null)
+        {
+            fields.remove(key);
+        }
+        else
+        {
+            fields.put(key, value);
+        }
+    }
+
+    public String getField(FieldKey key)
+    {
+        return fields.get(key);
+    }
+
+    /**
+     * Set text fields holding the given number of characters in total, so tags of a given size can be created
+     *
+     * @param textSize characters, at most 65536
+     */
+    public void setTextSize(int textSize)
+    {
+        if (textSize > TEXT_FIELDS.length * MAX_TEXT_FIELD_LENGTH)
+        {
+            throw new IllegalArgumentException("Text size is larger than " + TEXT_FIELDS.length * MAX_TEXT_FIELD_LENGTH + ":" + textSize);
+        }
+        int remaining = textSize;
+        for (FieldKey key : TEXT_FIELDS)
+        {
+            int length = Math.min(remaining, MAX_TEXT_FIELD_LENGTH);
+            if (length > 0)
+            {
+                char[] text = new char[length];
+                Arrays.fill(text, 'x');
+                fields.put(key, new String(text));
+            }
+            else
+            {
+                fields.remove(key);
+            }
+            remaining -= length;
+        }
+    }
+
+    /**
+     * @param artworkSize size of the front cover, no artwork if zero. The artwork is testdata/coverart.png followed by
+     *                    random data up to this size
+     */
+    public void setArtworkSize(int artworkSize)
+    {
+        this.artworkSize = artworkSize;
+    }
+
+    /**
+     * @param padding bytes of padding after the tag, ignored for ogg which has no padding
+     */
+    public void setPadding(int padding)
+    {
+        this.padding = padding;
+    }
+
+    /**
+     * Create a file
+     *
+     * @param format
+     * @param file   the file to create, replaced if it exists
+     * @param size   size of the file, ogg files can be one byte shorter
+     * @return the file
+     * @throws Exception
+     */
+    public File create(Format format, File file, long size) throws Exception
+    {
+        switch (format)
+        {
+            case MP3_CBR:
+            case MP3_XING:
+            case MP3_VBRI:
+                createMp3(format, file, size);
+                break;
+
+            case FLAC:
+                createFlac(file, size);
+                break;
+
+            case OGG:
+                createOgg(file, size);
+                break;
+
+            case M4A:
+                createM4a(file, size);
+                break;
+
+            case WMA:
+                createWma(file, size);
+                break;
+        }
+        return file;
+    }
+
+    /**
+     * Create the tracks of an album, each with its own title and track number
+     *
+     * @param format
+     * @param dir        the directory to create the files in
+     * @param trackCount
+     * @param trackSize  size of each file
+     * @return the files in track order
+     * @throws Exception
+     */
+    public List<File> createAlbum(Format format, File dir, int trackCount, long trackSize) throws Exception
+    {
+        if (!dir.isDirectory() && !dir.mkdirs())
+        {
+            throw new IOException("Unable to create:" + dir);
+        }
+
+        String title = fields.get(FieldKey.TITLE);
+        String track = fields.get(FieldKey.TRACK);
+        List<File> files = new ArrayList<File>(trackCount);
+        try
+        {
+            for (int i = 1; i <= trackCount; i++)
+            {
+                fields.put(FieldKey.TITLE, "Track " + i);
+                fields.put(FieldKey.TRACK, String.valueOf(i));
+                files.add(create(format, new File(dir, String.format("%05d.%s", i, format.getExtension())), trackSize));
+            }
+        }
+        finally
+        {
+            setField(FieldKey.TITLE, title);
+            setField(FieldKey.TRACK, track);
+        }
+        return files;
+    }
+
+    private void addFields(Tag tag) throws Exception
+    {
+        for (Map.Entry<FieldKey, String> field : fields.entrySet())
+        {
+            tag.setField(field.getKey(), field.getValue());
+        }
+
+        if (artworkSize > 0)
+        {
+            Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png"));
+            byte[] image = artwork.getBinaryData();
+            if (artworkSize > image.length)
+            {
+                byte[] data = new byte[artworkSize];
+                new Random(artworkSize).nextBytes(data);
+                System.arraycopy(image, 0, data, 0, image.length);
+                artwork.setBinaryData(data);
+            }
+            tag.setField(artwork);
+        }
+    }
+
+    /**
+     * @param file
+     * @param size
+     * @return the file opened for writing at the given length, all of it a hole
+     * @throws IOException
+     */
+    private static RandomAccessFile createSparseFile(File file, long size) throws IOException
+    {
+        if (file.exists() && !file.delete())
+        {
+            throw new IOException("Unable to replace:" + file);
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(size);
+        return raf;
+    }
+
+    private static void checkAudioSize(Format format, long audioSize, long minimum, long maximum)
+    {
+        if (audioSize < minimum || audioSize > maximum)
+        {
+            throw new IllegalArgumentException(format + " audio of " + audioSize + " bytes is not between " + minimum + " and " + maximum);
+        }
+    }
+
+    /**
+     * An ID3v24 tag followed by a constant bitrate stream, optionally starting with a Xing or VBRI header frame holding
+     * the frame count and audio size
+     */
+    private void createMp3(Format format, File file, long size) throws Exception
+    {
+        ID3v24Tag tag = new ID3v24Tag();
+        addFields(tag);
+        ByteArrayOutputStream tagBytes = new ByteArrayOutputStream();
+        tag.write(tagBytes);
+
+        long audioStart = tagBytes.size() + padding;
+        long audioSize = size - audioStart;
+        checkAudioSize(format, audioSize, MP3_FRAME_LENGTH * MP3_FRAMES_WRITTEN, format == Format.MP3_CBR ? Long.MAX_VALUE : Integer.MAX_VALUE);
+
+        ByteBuffer frame = ByteBuffer.allocate(MP3_FRAME_LENGTH);
+        frame.put(MP3_FRAME_HEADER);
+        RandomAccessFile raf = createSparseFile(file, size);
+        try
+        {
+            raf.seek(audioStart);
+            for (int i = 0; i < MP3_FRAMES_WRITTEN; i++)
+            {
+                raf.write(frame.array());
+            }
+
+            //Vbr header frame replacing the first frame, it is not counted in the frame count
+            int frameCount = (int) (audioSize / MP3_FRAME_LENGTH) - 1;
+            frame.position(MP3_SIDE_INFO_END);
+            if (format == Format.MP3_XING)
+            {
+                frame.put(new byte[]{'X', 'i', 'n', 'g'});
+                frame.putInt(0x03);
+                frame.putInt(frameCount);
+                frame.putInt((int) audioSize);
+            }
+            else if (format == Format.MP3_VBRI)
+            {
+                frame.put(new byte[]{'V', 'B', 'R', 'I'});
+                frame.putShort((short) 1);
+                frame.putShort((short) 0);
+                frame.putShort((short) 75);
+                frame.putInt((int) audioSize);
+                frame.putInt(frameCount);
+            }
+            raf.seek(audioStart);
+            raf.write(frame.array());
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        //Written in place, filling the space before the audio with padding
+        tag.write(file, audioStart);
+    }
+
+    /**
+     * Stream info followed by the vorbis comment, picture and padding blocks
+     */
+    private void createFlac(File file, long size) throws Exception
+    {
+        FlacTag tag = new FlacTag(VorbisCommentTag.createNewTag(), new ArrayList<MetadataBlockDataPicture>());
+        addFields(tag);
+        ByteBuffer metadata = new FlacTagCreator().convert(tag, padding > 0 ? padding + MetadataBlockHeader.HEADER_LENGTH : 0);
+
+        byte[] streamInfoHeader = new MetadataBlockHeader(false, BlockType.STREAMINFO, MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH).getBytes();
+        long audioStart = 4 + streamInfoHeader.length + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH + metadata.limit();
+        long audioSize = size - audioStart;
+        long samples = audioSize * 8 * SAMPLE_RATE / Format.FLAC.getBitrate();
+        checkAudioSize(Format.FLAC, audioSize, 1, (long) Integer.MAX_VALUE * Format.FLAC.getBitrate() / SAMPLE_RATE / 8);
+
+        ByteBuffer streamInfo = ByteBuffer.allocate(MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH);
+        streamInfo.putShort((short) 4096);
+        streamInfo.putShort((short) 4096);
+        streamInfo.position(10);
+        //Sample rate:20 channels-1:3 bits per sample-1:5 total samples:36
+        streamInfo.putLong(((long) SAMPLE_RATE << 44) | ((long) (CHANNELS - 1) << 41) | ((long) 15 << 36) | samples);
+
+        RandomAccessFile raf = createSparseFile(file, size);
+        try
+        {
+            raf.write(new byte[]{'f', 'L', 'a', 'C'});
+            raf.write(streamInfoHeader);
+            raf.write(streamInfo.array());
+            raf.write(metadata.array(), 0, metadata.limit());
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * Identification, comment and setup headers followed by audio pages of silence that is all zeroes
+     */
+    private void createOgg(File file, long size) throws Exception
+    {
+        VorbisCommentTag tag = VorbisCommentTag.createNewTag();
+        addFields(tag);
+        ByteBuffer comment = new OggVorbisCommentTagCreator().convert(tag);
+
+        ByteBuffer identification = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        identification.put((byte) 0x01).put(new byte[]{'v', 'o', 'r', 'b', 'i', 's'});
+        identification.putInt(0);
+        identification.put((byte) CHANNELS);
+        identification.putInt(SAMPLE_RATE);
+        identification.putInt(0);
+        identification.putInt(Format.OGG.getBitrate());
+        identification.putInt(0);
+        identification.put((byte) 0xB8);
+        identification.put((byte) 0x01);
+
+        byte[] setup = new byte[64];
+        System.arraycopy(new byte[]{0x05, 'v', 'o', 'r', 'b', 'i', 's'}, 0, setup, 0, 7);
+        setup[setup.length - 1] = 0x01;
+
+        RandomAccessFile raf = createSparseFile(file, size);
+        try
+        {
+            int sequence = 0;
+            raf.write(createOggPage(OGG_HEADER_TYPE_START, 0, sequence++, lacing(identification.capacity()), identification.array()));
+
+            //The comment and setup header share pages, a page holds at most 255 lacing values
+            ByteArrayOutputStream packets = new ByteArrayOutputStream();
+            packets.write(comment.array(), 0, comment.limit());
+            packets.write(setup);
+            List<Integer> segments = new ArrayList<Integer>();
+            segments.addAll(lacing(comment.limit()));
+            segments.addAll(lacing(setup.length));
+            byte[] data = packets.toByteArray();
+            int dataPos = 0;
+            boolean continued = false;
+            for (int start = 0; start < segments.size(); start += OGG_MAX_SEGMENTS)
+            {
+                List<Integer> pageSegments = segments.subList(start, Math.min(segments.size(), start + OGG_MAX_SEGMENTS));
+                int pageDataLength = 0;
+                for (int segment : pageSegments)
+                {
+                    pageDataLength += segment;
+                }
+                byte[] pageData = new byte[pageDataLength];
+                System.arraycopy(data, dataPos, pageData, 0, pageDataLength);
+                dataPos += pageDataLength;
+                raf.write(createOggPage(continued ? OGG_HEADER_TYPE_CONTINUED : 0, 0, sequence++, pageSegments, pageData));
+                continued = pageSegments.get(pageSegments.size() - 1) == 255;
+            }
+
+            long audioStart = raf.getFilePointer();
+            long audioSize = size - audioStart;
+            long samples = audioSize * 8 * SAMPLE_RATE / Format.OGG.getBitrate();
+            checkAudioSize(Format.OGG, audioSize, OGG_MIN_PAGE_LENGTH * 2, Long.MAX_VALUE);
+
+            //Only the page header is written, the packet data is left as a hole
+            List<Integer> fullPageSegments = lacing(OGG_FULL_PAGE_DATA_LENGTH);
+            byte[] fullPageData = new byte[OGG_FULL_PAGE_DATA_LENGTH];
+            while (size - raf.getFilePointer() > OGG_FULL_PAGE_LENGTH + OGG_MIN_PAGE_LENGTH)
+            {
+                long granule = samples * (raf.getFilePointer() + OGG_FULL_PAGE_LENGTH - audioStart) / audioSize;
+                raf.write(createOggPage(0, granule, sequence++, fullPageSegments, fullPageData), 0, OGG_FULL_PAGE_LENGTH - OGG_FULL_PAGE_DATA_LENGTH);
+                raf.seek(raf.getFilePointer() + OGG_FULL_PAGE_DATA_LENGTH);
+            }
+
+            //The rest is too long for one page but too short for a full page and a page after it, so split it
+            long remaining = size - raf.getFilePointer();
+            if (remaining > OGG_FULL_PAGE_LENGTH)
+            {
+                long granule = samples * (raf.getFilePointer() + remaining / 2 - audioStart) / audioSize;
+                writeOggPage(raf, 0, granule, sequence++, (int) (remaining / 2));
+            }
+            writeOggPage(raf, OGG_HEADER_TYPE_END, samples, sequence, (int) (size - raf.getFilePointer()));
+            raf.setLength(raf.getFilePointer());
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * Write a page holding one packet of zeroes
+     *
+     * @param pageLength length of the page, the page written can be one byte shorter if no packet fits exactly
+     */
+    private static void writeOggPage(RandomAccessFile raf, int headerType, long granule, int sequence, int pageLength) throws IOException
+    {
+        int available = pageLength - OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH;
+        int dataLength = available - (available / 256 + 1);
+        raf.write(createOggPage(headerType, granule, sequence, lacing(dataLength), new byte[dataLength]));
+    }
+
+    /**
+     * @param packetLength
+     * @return the lacing values of a packet
+     */
+    private static List<Integer> lacing(int packetLength)
+    {
+        List<Integer> segments = new ArrayList<Integer>(packetLength / 255 + 1);
+        for (int i = 0; i < packetLength / 255; i++)
+        {
+            segments.add(255);
+        }
+        segments.add(packetLength % 255);
+        return segments;
+    }
+
+    private static byte[] createOggPage(int headerType, long granule, int sequence, List<Integer> segments, byte[] data)
+    {
+        ByteBuffer page = ByteBuffer.allocate(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + segments.size() + data.length).order(ByteOrder.LITTLE_ENDIAN);
+        page.put(OggPageHeader.CAPTURE_PATTERN);
+        page.put((byte) 0);
+        page.put((byte) headerType);
+        page.putLong(granule);
+        page.putInt(OGG_SERIAL_NUMBER);
+        page.putInt(sequence);
+        page.putInt(0);
+        page.put((byte) segments.size());
+        for (int segment : segments)
+        {
+            page.put((byte) segment);
+        }
+        page.put(data);
+
+        byte[] crc = OggCRCFactory.computeCRC(page.array());
+        for (int i = 0; i < crc.length; i++)
+        {
+            page.put(OggPageHeader.FIELD_PAGE_CHECKSUM_POS + i, crc[i]);
+        }
+        return page.array();
+    }
+
+    /**
+     * An AAC track described by a single chunk of constant size samples, the tag is held in moov/udta/meta and
+     * padding is a free atom after the ilst
+     */
+    private void createM4a(File file, long size) throws Exception
+    {
+        Mp4Tag tag = new Mp4Tag();
+        addFields(tag);
+        ByteBuffer ilst = new Mp4TagCreator().convert(tag);
+
+        byte[] metaHdlr = new byte[Mp4HdlrBox.ITUNES_META_HDLR_DAT_LENGTH];
+        System.arraycopy(new byte[]{'m', 'd', 'i', 'r', 'a', 'p', 'p', 'l'}, 0, metaHdlr, Mp4HdlrBox.HANDLER_POS, 8);
+        byte[] meta = mp4Box("meta", new byte[4], mp4Box("hdlr", metaHdlr), ilst.array(), padding > 0 ? mp4Box("free", new byte[padding]) : new byte[0]);
+
+        byte[] ftyp = mp4Box("ftyp", new byte[]{'M', '4', 'A', ' ', 0, 0, 0, 0, 'M', '4', 'A', ' ', 'm', 'p', '4', '2', 'i', 's', 'o', 'm'});
+
+        //The size of moov does not depend on the values in it, so build it once to find where the audio starts
+        byte[] moov = createM4aMoov(meta, 0, 0);
+        long audioStart = ftyp.length + moov.length + 8;
+        long audioSize = size - audioStart;
+        checkAudioSize(Format.M4A, audioSize, MP4_SAMPLES_PER_FRAME, Integer.MAX_VALUE - 8);
+        moov = createM4aMoov(meta, audioStart, audioSize);
+
+        RandomAccessFile raf = createSparseFile(file, size);
+        try
+        {
+            raf.write(ftyp);
+            raf.write(moov);
+            raf.writeInt((int) (audioSize + 8));
+            raf.write(new byte[]{'m', 'd', 'a', 't'});
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static byte[] createM4aMoov(byte[] meta, long audioStart, long audioSize) throws IOException
+    {
+        long samples = audioSize * 8 * SAMPLE_RATE / Format.M4A.getBitrate();
+        int frameCount = (int) Math.max(1, samples / MP4_SAMPLES_PER_FRAME);
+        int durationMillis = (int) (samples * 1000 / SAMPLE_RATE);
+        int[] matrix = {0x10000, 0, 0, 0, 0x10000, 0, 0, 0, 0x40000000};
+
+        ByteBuffer mvhd = ByteBuffer.allocate(100);
+        mvhd.position(12);
+        mvhd.putInt(1000);
+        mvhd.putInt(durationMillis);
+        mvhd.putInt(0x10000);
+        mvhd.putShort((short) 0x100);
+        mvhd.position(mvhd.position() + 10);
+        for (int value : matrix)
+        {
+            mvhd.putInt(value);
+        }
+        mvhd.position(mvhd.position() + 24);
+        mvhd.putInt(2);
+
+        ByteBuffer tkhd = ByteBuffer.allocate(84);
+        tkhd.putInt(0x07);
+        tkhd.position(12);
+        tkhd.putInt(1);
+        tkhd.position(20);
+        tkhd.putInt(durationMillis);
+        tkhd.position(36);
+        tkhd.putShort((short) 0x100);
+        tkhd.position(40);
+        for (int value : matrix)
+        {
+            tkhd.putInt(value);
+        }
+
+        ByteBuffer mdhd = ByteBuffer.allocate(24);
+        mdhd.position(12);
+        mdhd.putInt(SAMPLE_RATE);
+        mdhd.putInt((int) samples);
+        mdhd.putShort((short) 0x55C4);
+
+        byte[] hdlr = new byte[25];
+        System.arraycopy(new byte[]{'s', 'o', 'u', 'n'}, 0, hdlr, 8, 4);
+
+        ByteBuffer mp4a = ByteBuffer.allocate(28);
+        mp4a.position(6);
+        mp4a.putShort((short) 1);
+        mp4a.position(16);
+        mp4a.putShort((short) CHANNELS);
+        mp4a.putShort((short) 16);
+        mp4a.position(24);
+        mp4a.putInt(SAMPLE_RATE << 16);
+
+        //ES descriptor, decoder config for AAC LC 44.1kHz stereo, sl config
+        ByteBuffer esds = ByteBuffer.allocate(4 + 27);
+        esds.position(4);
+        esds.put(new byte[]{0x03, 25, 0, 0, 0});
+        esds.put(new byte[]{0x04, 17, 0x40, 0x15, 0, 0, 0});
+        esds.putInt(Format.M4A.getBitrate());
+        esds.putInt(Format.M4A.getBitrate());
+        esds.put(new byte[]{0x05, 2, 0x12, 0x10});
+        esds.put(new byte[]{0x06, 1, 0x02});
+
+        byte[] stsd = mp4Box("stsd", new byte[]{0, 0, 0, 0, 0, 0, 0, 1}, mp4Box("mp4a", mp4a.array(), mp4Box("esds", esds.array())));
+        byte[] stts = mp4Box("stts", ByteBuffer.allocate(16).putInt(4, 1).putInt(8, frameCount).putInt(12, MP4_SAMPLES_PER_FRAME).array());
+        byte[] stsc = mp4Box("stsc", ByteBuffer.allocate(20).putInt(4, 1).putInt(8, 1).putInt(12, frameCount).putInt(16, 1).array());
+        byte[] stsz = mp4Box("stsz", ByteBuffer.allocate(12).putInt(4, (int) (audioSize / frameCount)).putInt(8, frameCount).array());
+        byte[] stco = mp4Box("stco", ByteBuffer.allocate(12).putInt(4, 1).putInt(8, (int) audioStart).array());
+        byte[] dinf = mp4Box("dinf", mp4Box("dref", new byte[]{0, 0, 0, 0, 0, 0, 0, 1}, mp4Box("url ", new byte[]{0, 0, 0, 1})));
+
+        byte[] minf = mp4Box("minf", mp4Box("smhd", new byte[8]), dinf, mp4Box("stbl", stsd, stts, stsc, stsz, stco));
+        byte[] trak = mp4Box("trak", mp4Box("tkhd", tkhd.array()), mp4Box("mdia", mp4Box("mdhd", mdhd.array()), mp4Box("hdlr", hdlr), minf));
+        return mp4Box("moov", mp4Box("mvhd", mvhd.array()), trak, mp4Box("udta", meta));
+    }
+
+    private static byte[] mp4Box(String type, byte[]... contents) throws IOException
+    {
+        ByteArrayOutputStream box = new ByteArrayOutputStream();
+        box.write(new byte[4]);
+        box.write(type.getBytes("ISO-8859-1"));
+        for (byte[] content : contents)
+        {
+            box.write(content);
+        }
+        byte[] bytes = box.toByteArray();
+        ByteBuffer.wrap(bytes).putInt(bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Header object holding file and stream properties, the metadata containers and padding, followed by a data
+     * object
+     */
+    private void createWma(File file, long size) throws Exception
+    {
+        AsfTag tag = new AsfTag(true);
+        addFields(tag);
+
+        ByteArrayOutputStream topLevel = new ByteArrayOutputStream();
+        ByteArrayOutputStream extension = new ByteArrayOutputStream();
+        int topLevelCount = 0;
+        for (MetadataContainer container : TagConverter.distributeMetadata(tag))
+        {
+            if (container.isEmpty())
+            {
+                continue;
+            }
+            if (container.getContainerType() == ContainerType.METADATA_OBJECT || container.getContainerType() == ContainerType.METADATA_LIBRARY_OBJECT)
+            {
+                container.writeInto(extension);
+            }
+            else
+            {
+                container.writeInto(topLevel);
+                topLevelCount++;
+            }
+        }
+        if (padding > 0)
+        {
+            topLevel.write(asfObject(GUID.GUID_PADDING, new byte[padding]));
+            topLevelCount++;
+        }
+
+        ByteBuffer extensionData = ByteBuffer.allocate(22).order(ByteOrder.LITTLE_ENDIAN);
+        extensionData.put(ASF_HEADER_EXTENSION_RESERVED.getBytes());
+        extensionData.putShort((short) 6);
+        extensionData.putInt(extension.size());
+        byte[] headerExtension = asfObject(GUID.GUID_HEADER_EXTENSION, extensionData.array(), extension.toByteArray());
+
+        ByteBuffer stream = ByteBuffer.allocate(72).order(ByteOrder.LITTLE_ENDIAN);
+        stream.put(GUID.GUID_AUDIOSTREAM.getBytes());
+        stream.put(GUID.GUID_AUDIO_ERROR_CONCEALEMENT_ABSENT.getBytes());
+        stream.putLong(0);
+        stream.putInt(18);
+        stream.putInt(0);
+        stream.putShort((short) 1);
+        stream.putInt(0);
+        stream.putShort((short) ASF_CODEC_WMA2);
+        stream.putShort((short) CHANNELS);
+        stream.putInt(SAMPLE_RATE);
+        stream.putInt(Format.WMA.getBitrate() / 8);
+        stream.putShort((short) 2048);
+        stream.putShort((short) 16);
+        stream.putShort((short) 0);
+        byte[] streamProperties = asfObject(GUID.GUID_STREAM, stream.array());
+
+        //File properties are the same size whatever the values, so the audio start is known before they are filled in
+        int headerLength = 30 + 104 + streamProperties.length + headerExtension.length + topLevel.size();
+        long audioSize = size - headerLength - 50;
+        checkAudioSize(Format.WMA, audioSize, ASF_PACKET_SIZE, Long.MAX_VALUE);
+        long packets = audioSize / ASF_PACKET_SIZE;
+        long duration = audioSize * 8 * ASF_TIME_UNITS_PER_SECOND / Format.WMA.getBitrate();
+
+        ByteBuffer properties = ByteBuffer.allocate(80).order(ByteOrder.LITTLE_ENDIAN);
+        properties.put(ASF_FILE_ID.getBytes());
+        properties.putLong(size);
+        properties.putLong(0);
+        properties.putLong(packets);
+        properties.putLong(duration);
+        properties.putLong(duration);
+        properties.putLong(0);
+        properties.putInt(0x02);
+        properties.putInt(ASF_PACKET_SIZE);
+        properties.putInt(ASF_PACKET_SIZE);
+        properties.putInt(Format.WMA.getBitrate());
+        byte[] fileProperties = asfObject(GUID.GUID_FILE, properties.array());
+
+        ByteBuffer header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(GUID.GUID_HEADER.getBytes());
+        header.putLong(headerLength);
+        header.putInt(3 + topLevelCount);
+        header.put((byte) 0x01);
+        header.put((byte) 0x02);
+
+        ByteBuffer data = ByteBuffer.allocate(50).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(ASF_DATA.getBytes());
+        data.putLong(50 + audioSize);
+        data.put(ASF_FILE_ID.getBytes());
+        data.putLong(packets);
+        data.put((byte) 0x01);
+        data.put((byte) 0x01);
+
+        RandomAccessFile raf = createSparseFile(file, size);
+        try
+        {
+            raf.write(header.array());
+            raf.write(fileProperties);
+            raf.write(streamProperties);
+            raf.write(headerExtension);
+            raf.write(topLevel.toByteArray());
+            raf.write(data.array());
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static byte[] asfObject(GUID guid, byte[]... contents) throws IOException
+    {
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        object.write(guid.getBytes());
+        object.write(new byte[8]);
+        for (byte[] content : contents)
+        {
+            object.write(content);
+        }
+        byte[] bytes = object.toByteArray();
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(GUID.GUID_LENGTH, bytes.length);
+        return bytes;
+    }
+}
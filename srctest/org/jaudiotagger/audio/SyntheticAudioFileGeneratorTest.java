@@ -0,0 +1,141 @@
+package org.jaudiotagger.audio;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Files created by the generator can be read and written like real files
+ */
+public class SyntheticAudioFileGeneratorTest extends TestCase
+{
+    private static final long SIZE = 20 * 1024 * 1024;
+
+    private static File createFile(SyntheticAudioFileGenerator generator, SyntheticAudioFileGenerator.Format format, long size) throws Exception
+    {
+        File file = new File("testdatatmp", "testSynthetic" + format + "." + format.getExtension());
+        file.getParentFile().mkdirs();
+        return generator.create(format, file, size);
+    }
+
+    /**
+     * @param audioSize size of the file less the artwork and padding
+     */
+    private static void checkRead(SyntheticAudioFileGenerator.Format format, File file, long audioSize) throws Exception
+    {
+        AudioFile audioFile = AudioFileIO.read(file);
+        //Track length is in whole seconds and the mp3 frame length is rounded down, so allow for a small difference
+        float expectedLength = (float) audioSize * 8 / format.getBitrate();
+        assertEquals(format.toString(), expectedLength, audioFile.getAudioHeader().getTrackLength(), Math.max(1f, expectedLength / 100));
+        assertEquals(format.toString(), "Synthetic Artist", audioFile.getTag().getFirst(FieldKey.ARTIST));
+        assertEquals(format.toString(), "Synthetic Title", audioFile.getTag().getFirst(FieldKey.TITLE));
+        assertEquals(format.toString(), "1", audioFile.getTag().getFirst(FieldKey.TRACK));
+    }
+
+    public void testReadEachFormat() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        for (SyntheticAudioFileGenerator.Format format : SyntheticAudioFileGenerator.Format.values())
+        {
+            File file = createFile(generator, format, SIZE);
+            long length = file.length();
+            assertTrue(format.toString(), length == SIZE || (format == SyntheticAudioFileGenerator.Format.OGG && length == SIZE - 1));
+            checkRead(format, file, SIZE);
+        }
+
+        assertFalse(AudioFileIO.read(createFile(generator, SyntheticAudioFileGenerator.Format.MP3_CBR, SIZE)).getAudioHeader().isVariableBitRate());
+        assertTrue(AudioFileIO.read(createFile(generator, SyntheticAudioFileGenerator.Format.MP3_XING, SIZE)).getAudioHeader().isVariableBitRate());
+        assertTrue(AudioFileIO.read(createFile(generator, SyntheticAudioFileGenerator.Format.MP3_VBRI, SIZE)).getAudioHeader().isVariableBitRate());
+    }
+
+    public void testArtworkAndPadding() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        generator.setArtworkSize(200000);
+        generator.setPadding(4096);
+        for (SyntheticAudioFileGenerator.Format format : SyntheticAudioFileGenerator.Format.values())
+        {
+            File file = createFile(generator, format, SIZE);
+            checkRead(format, file, SIZE - 200000 - 4096);
+            assertEquals(format.toString(), 200000, AudioFileIO.read(file).getTag().getFirstArtwork().getBinaryData().length);
+        }
+    }
+
+    /**
+     * The files are valid enough for the writers, which have to find the audio to preserve it
+     */
+    public void testWriteEachFormat() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        generator.setPadding(1024);
+        for (SyntheticAudioFileGenerator.Format format : SyntheticAudioFileGenerator.Format.values())
+        {
+            File file = createFile(generator, format, 1024 * 1024);
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.TITLE, "Changed Title");
+            audioFile.commit();
+
+            Tag tag = AudioFileIO.read(file).getTag();
+            assertEquals(format.toString(), "Changed Title", tag.getFirst(FieldKey.TITLE));
+            assertEquals(format.toString(), "Synthetic Album", tag.getFirst(FieldKey.ALBUM));
+        }
+    }
+
+    public void testTextSize() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        generator.setTextSize(20000);
+        for (SyntheticAudioFileGenerator.Format format : SyntheticAudioFileGenerator.Format.values())
+        {
+            Tag tag = AudioFileIO.read(createFile(generator, format, SIZE)).getTag();
+            assertEquals(format.toString(), 8192, tag.getFirst(FieldKey.COMMENT).length());
+            assertEquals(format.toString(), 20000 - 2 * 8192, tag.getFirst(FieldKey.CONDUCTOR).length());
+            assertEquals(format.toString(), "", tag.getFirst(FieldKey.LYRICIST));
+        }
+    }
+
+    public void testOggPageBoundaries() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        for (long size = 200000; size < 200000 + 300; size++)
+        {
+            File file = createFile(generator, SyntheticAudioFileGenerator.Format.OGG, size);
+            assertTrue(file.length() == size || file.length() == size - 1);
+            assertEquals("Synthetic Title", AudioFileIO.read(file).getTag().getFirst(FieldKey.TITLE));
+        }
+    }
+
+    public void testCreateAlbum() throws Exception
+    {
+        SyntheticAudioFileGenerator generator = new SyntheticAudioFileGenerator();
+        List<File> files = generator.createAlbum(SyntheticAudioFileGenerator.Format.MP3_CBR, new File("testdatatmp", "testSyntheticAlbum"), 20, 100000);
+        assertEquals(20, files.size());
+        for (int i = 0; i < files.size(); i++)
+        {
+            Tag tag = AudioFileIO.read(files.get(i)).getTag();
+            assertEquals("Track " + (i + 1), tag.getFirst(FieldKey.TITLE));
+            assertEquals(String.valueOf(i + 1), tag.getFirst(FieldKey.TRACK));
+        }
+        assertEquals("Synthetic Title", generator.getField(FieldKey.TITLE));
+    }
+
+    /**
+     * A large file is created without writing its audio
+     */
+    public void testLargeFile() throws Exception
+    {
+        long size = 1024L * 1024 * 1024;
+        File file = createFile(new SyntheticAudioFileGenerator(), SyntheticAudioFileGenerator.Format.FLAC, size);
+        try
+        {
+            checkRead(SyntheticAudioFileGenerator.Format.FLAC, file, size);
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
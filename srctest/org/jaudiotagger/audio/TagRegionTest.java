@@ -0,0 +1,145 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.TagRegion;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Test probing the tag region of each format
+ */
+public class TagRegionTest extends AbstractTestCase
+{
+    private static String readId(File file, long pos, int length) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            byte[] b = new byte[length];
+            raf.seek(pos);
+            raf.readFully(b);
+            return new String(b, "ISO-8859-1");
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    public void testProbeMp3WithoutPadding() throws Exception
+    {
+        File testFile = new File("testdata", "testV1Cbr128ID3v2.mp3");
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertTrue(region.hasTag());
+        assertEquals(0, region.getTagStart());
+        assertEquals(AbstractID3v2Tag.getV2TagSizeIfExists(testFile), region.getTagSize());
+        assertEquals(0, region.getPaddingSize());
+        assertEquals(region.getTagSize(), region.getAudioStart());
+    }
+
+    public void testProbeMp3WithPadding() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v2.mp3", new File("testProbeMp3WithPadding.mp3"));
+        long originalSize = AbstractID3v2Tag.getV2TagSizeIfExists(testFile);
+
+        //Tag no longer fits so is rewritten with extra padding
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, "a comment that is too long to fit in the original tag");
+        af.commit();
+
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertTrue(region.getTagSize() > originalSize);
+        assertEquals(AbstractID3v2Tag.getV2TagSizeIfExists(testFile), region.getTagSize());
+        assertEquals(100, region.getPaddingSize());
+        assertTrue(region.hasPaddingFor(100));
+        assertFalse(region.hasPaddingFor(101));
+    }
+
+    public void testProbeMp3WithFramesBeyondFirstRead() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v2.mp3", new File("testProbeMp3LargeFrame.mp3"));
+
+        //Comment is larger than the window read at once, so the frames after it need another read
+        StringBuilder comment = new StringBuilder();
+        for (int i = 0; i < 200000; i++)
+        {
+            comment.append('c');
+        }
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, "title");
+        af.getTag().setField(FieldKey.COMMENT, comment.toString());
+        af.getTag().setField(FieldKey.LYRICS, "lyrics");
+        af.getTag().setField(FieldKey.COMPOSER, "composer");
+        af.commit();
+
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertTrue(region.getTagSize() > 200000);
+        assertEquals(AbstractID3v2Tag.getV2TagSizeIfExists(testFile), region.getTagSize());
+        assertEquals(100, region.getPaddingSize());
+    }
+
+    public void testProbeMp3WithoutTag() throws Exception
+    {
+        TagRegion region = AudioFileIO.readTagRegion(new File("testdata", "testV1.mp3"));
+        assertFalse(region.hasTag());
+        assertEquals(0, region.getAudioStart());
+    }
+
+    public void testProbeFlac() throws Exception
+    {
+        File testFile = new File("testdata", "test2.flac");
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertEquals(4, region.getTagStart());
+        assertEquals(region.getTagStart() + region.getTagSize(), region.getAudioStart());
+        assertTrue(region.getPaddingSize() > 0);
+        assertTrue(region.getPaddingSize() < region.getTagSize());
+    }
+
+    public void testProbeMp4() throws Exception
+    {
+        File testFile = new File("testdata", "test.m4a");
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertEquals("ilst", readId(testFile, region.getTagStart() + 4, 4));
+        assertEquals("mdat", readId(testFile, region.getAudioStart() - 4, 4));
+        assertTrue(region.getPaddingSize() > 0);
+    }
+
+    public void testProbeOgg() throws Exception
+    {
+        File testFile = new File("testdata", "test.ogg");
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertEquals("OggS", readId(testFile, region.getTagStart(), 4));
+        assertEquals("OggS", readId(testFile, region.getAudioStart(), 4));
+        assertEquals(0, region.getPaddingSize());
+        assertTrue(region.getTagStart() + region.getTagSize() <= region.getAudioStart());
+    }
+
+    public void testProbeWma() throws Exception
+    {
+        File testFile = new File("testdata", "test1.wma");
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertEquals(0, region.getTagStart());
+        assertEquals(region.getTagSize(), region.getAudioStart());
+        assertTrue(region.getPaddingSize() > 0);
+        //Data object follows header object
+        assertEquals((byte) 0x36, readId(testFile, region.getAudioStart(), 1).getBytes("ISO-8859-1")[0]);
+    }
+
+    public void testProbeUnsupportedFormat() throws Exception
+    {
+        Exception exceptionCaught = null;
+        try
+        {
+            AudioFileIO.readTagRegion(new File("testdata", "test.wav"));
+        }
+        catch (CannotReadException e)
+        {
+            exceptionCaught = e;
+        }
+        assertNotNull(exceptionCaught);
+    }
+}
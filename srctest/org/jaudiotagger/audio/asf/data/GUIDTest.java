@@ -4,6 +4,12 @@ import org.jaudiotagger.AbstractTestCase;
 
 import junit.framework.TestCase;
 
+import org.jaudiotagger.audio.asf.util.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Locale;
 
 /**
@@ -27,6 +33,36 @@ public class GUIDTest extends AbstractTestCase {
         }
     }
 
+    /**
+     * Reading a known GUID returns the configured instance, other values are
+     * equal to a GUID created from their bytes.
+     */
+    public void testRead() throws Exception {
+        for (GUID curr : GUID.KNOWN_GUIDS) {
+            assertSame(curr, Utils.readGUID(new ByteArrayInputStream(curr
+                    .getBytes())));
+            assertSame(curr, Utils.readGUID(ByteBuffer.wrap(curr.getBytes())
+                    .order(ByteOrder.LITTLE_ENDIAN)));
+        }
+        final byte[] unknown = new byte[GUID.GUID_LENGTH];
+        for (int i = 0; i < unknown.length; i++) {
+            unknown[i] = (byte) (0xF0 + i);
+        }
+        final GUID read = Utils.readGUID(ByteBuffer.wrap(unknown));
+        assertNull(GUID.getConfigured(read));
+        assertEquals(new GUID(unknown), read);
+        assertEquals(new GUID(unknown).hashCode(), read.hashCode());
+        assertEquals(0xF0, read.getGUID()[0]);
+        assertEquals((byte) 0xFF, read.getBytes()[15]);
+        assertEquals(read, Utils.readGUID(new ByteArrayInputStream(unknown)));
+        try {
+            Utils.readGUID(new ByteArrayInputStream(unknown, 0, 15));
+            fail("Exception expected");
+        } catch (EOFException eof) {
+            // expected
+        }
+    }
+
     /**
      * Test method for
      * {@link org.jaudiotagger.audio.asf.data.GUID#parseGUID(java.lang.String)}.
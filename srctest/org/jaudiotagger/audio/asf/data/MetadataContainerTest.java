@@ -133,4 +133,41 @@ public class MetadataContainerTest extends
         }
     }
 
+    /**
+     * Descriptors are returned in the order they have been added, and the
+     * returned lists are views.
+     */
+    public void testDescriptorOrder() {
+        for (MetadataContainer curr : createTestContainers()) {
+            final List<MetadataDescriptor> byName = curr
+                    .getDescriptorsByName("b");
+            assertTrue(byName.isEmpty());
+            final List<MetadataDescriptor> all = curr.getDescriptors();
+            for (String name : new String[] { "c", "a", "b" }) {
+                MetadataDescriptor desc = new MetadataDescriptor(curr
+                        .getContainerType(), name,
+                        MetadataDescriptor.TYPE_STRING);
+                desc.setStringValue(name);
+                curr.addDescriptor(desc);
+            }
+            assertEquals(3, all.size());
+            assertEquals("c", all.get(0).getName());
+            assertEquals("a", all.get(1).getName());
+            assertEquals("b", all.get(2).getName());
+            assertEquals("a", curr.getDescriptorsByName("a").get(0)
+                    .getString());
+            try {
+                all.clear();
+                fail("Exception expected");
+            } catch (UnsupportedOperationException uoe) {
+                // expected
+            }
+            curr.removeDescriptorsByName("a");
+            assertEquals(2, all.size());
+            assertEquals("b", all.get(1).getName());
+            assertTrue(curr.getDescriptorsByName("a").isEmpty());
+            assertFalse(curr.hasDescriptor("a"));
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package org.jaudiotagger.audio.asf.data;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
@@ -19,6 +20,8 @@ public final class MetadataContainerUtils {
     public static boolean equals(List<MetadataDescriptor> l1,
             List<MetadataDescriptor> l2) {
         boolean result = true;// l1.size() == l2.size();
+        l1 = new ArrayList<MetadataDescriptor>(l1);
+        l2 = new ArrayList<MetadataDescriptor>(l2);
         Collections.sort(l1, new MetadataDescriptorComparator());
         Collections.sort(l2, new MetadataDescriptorComparator());
         for (int i = 0; result && i < l1.size(); i++) {
@@ -0,0 +1,101 @@
+package org.jaudiotagger.audio.asf.io;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.audio.asf.data.AsfHeader;
+import org.jaudiotagger.audio.asf.data.Chunk;
+import org.jaudiotagger.audio.asf.util.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Tests reading the ASF header object from a file channel
+ */
+public class AsfHeaderReaderTest extends TestCase
+{
+    private static AsfHeaderReader createReader()
+    {
+        final List<Class<? extends ChunkReader>> readers = new ArrayList<Class<? extends ChunkReader>>();
+        readers.add(ContentDescriptionReader.class);
+        readers.add(ContentBrandingReader.class);
+        readers.add(LanguageListReader.class);
+        readers.add(MetadataReader.class);
+        readers.add(FileHeaderReader.class);
+        readers.add(StreamChunkReader.class);
+        final AsfHeaderReader reader = new AsfHeaderReader(readers, false);
+        reader.setExtendedHeaderReader(new AsfExtHeaderReader(readers, true));
+        return reader;
+    }
+
+    /**
+     * The header read into memory should parse to the same chunks as reading it through a stream, and leave
+     * the file positioned at the data object
+     */
+    public void testReadHeaderFromChannel() throws Exception
+    {
+        File testFile = new File("testdata", "test1.wma");
+        RandomAccessFile raf = new RandomAccessFile(testFile, "r");
+        AsfHeader header;
+        try
+        {
+            header = createReader().read(raf);
+            assertEquals(header.getChunkEnd(), raf.getFilePointer());
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        InputStream stream = new FullRequestInputStream(new BufferedInputStream(new FileInputStream(testFile)));
+        AsfHeader streamHeader;
+        try
+        {
+            streamHeader = createReader().read(Utils.readGUID(stream), stream, 0);
+        }
+        finally
+        {
+            stream.close();
+        }
+
+        assertEquals(streamHeader.getChunkLength(), header.getChunkLength());
+        assertEquals(streamHeader.getChunks().size(), header.getChunks().size());
+        Iterator<Chunk> expected = streamHeader.getChunks().iterator();
+        for (Chunk chunk : header.getChunks())
+        {
+            Chunk expectedChunk = expected.next();
+            assertEquals(expectedChunk.getGuid(), chunk.getGuid());
+            assertEquals(expectedChunk.getPosition(), chunk.getPosition());
+            assertEquals(expectedChunk.getChunkLength(), chunk.getChunkLength());
+        }
+        assertNotNull(header.getFileHeader());
+        assertNotNull(header.getExtendedHeader());
+    }
+
+    /**
+     * A file that does not start with an ASF header object is rejected after reading only its first chunk header
+     */
+    public void testReadHeaderFromNonAsfFile() throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(new File("testdata", "test.ogg"), "r");
+        Exception exceptionCaught = null;
+        try
+        {
+            createReader().read(raf);
+        }
+        catch (IllegalArgumentException iae)
+        {
+            exceptionCaught = iae;
+        }
+        finally
+        {
+            raf.close();
+        }
+        assertNotNull(exceptionCaught);
+    }
+}
@@ -0,0 +1,173 @@
+package org.jaudiotagger.audio.mp3;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Locating the ID3v1, APEv2 and Lyrics3 tags at the end of mp3 files
+ */
+public class MP3TrailerTest extends TestCase
+{
+    public void testID3v1Only() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1.mp3");
+        MP3Trailer trailer = readTrailer(testFile);
+        assertTrue(trailer.hasID3v1Tag());
+        assertFalse(trailer.hasApev2Tag());
+        assertFalse(trailer.hasLyrics3Tag());
+        assertEquals(testFile.length() - 128, trailer.getAudioEnd());
+
+        MP3File mp3File = new MP3File(testFile);
+        assertEquals(testFile.length() - 128, mp3File.getMP3AudioHeader().getMp3EndByte());
+    }
+
+    public void testNoTrailer() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128.mp3");
+        MP3Trailer trailer = readTrailer(testFile);
+        assertFalse(trailer.hasID3v1Tag());
+        assertEquals(testFile.length(), trailer.getAudioEnd());
+    }
+
+    /**
+     * APEv2 tag followed by a Lyrics3v2 tag and an ID3v1 tag
+     */
+    public void testApev2AndLyrics3v2() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1.mp3", new File("testApev2AndLyrics3v2.mp3"));
+        long audioEnd = testFile.length() - 128;
+        byte[] ape = createApev2Tag();
+        byte[] lyrics3 = "LYRICSBEGININD0000210LYR00005hello000034LYRICS200".getBytes("ISO-8859-1");
+        insertBeforeID3v1(testFile, ape, lyrics3);
+        String title = new MP3File(AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1.mp3")).getID3v1Tag().getFirst(FieldKey.TITLE);
+
+        MP3Trailer trailer = readTrailer(testFile);
+        assertTrue(trailer.hasID3v1Tag());
+        assertEquals(audioEnd, trailer.getApev2TagStart());
+        assertEquals(ape.length, trailer.getApev2TagSize());
+        assertEquals(audioEnd + ape.length, trailer.getLyrics3TagStart());
+        assertEquals(lyrics3.length, trailer.getLyrics3TagSize());
+        assertEquals(2, trailer.getLyrics3Version());
+        assertEquals(audioEnd, trailer.getAudioEnd());
+
+        MP3File mp3File = new MP3File(testFile);
+        assertEquals(audioEnd, mp3File.getMP3AudioHeader().getMp3EndByte());
+        assertEquals(title, mp3File.getID3v1Tag().getFirst(FieldKey.TITLE));
+    }
+
+    /**
+     * Lyrics3v1 tag followed by an APEv2 tag, the Lyrics3v1 tag has no size so its start is searched for
+     */
+    public void testLyrics3v1AndApev2() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1.mp3", new File("testLyrics3v1AndApev2.mp3"));
+        long audioEnd = testFile.length() - 128;
+        byte[] lyrics3 = "LYRICSBEGINsome words of the songLYRICSEND".getBytes("ISO-8859-1");
+        byte[] ape = createApev2Tag();
+        insertBeforeID3v1(testFile, lyrics3, ape);
+
+        MP3Trailer trailer = readTrailer(testFile);
+        assertEquals(audioEnd, trailer.getLyrics3TagStart());
+        assertEquals(1, trailer.getLyrics3Version());
+        assertEquals(audioEnd + lyrics3.length, trailer.getApev2TagStart());
+        assertEquals(audioEnd, trailer.getAudioEnd());
+    }
+
+    /**
+     * When enabled saving removes the APEv2 and Lyrics3 tags and keeps the ID3v1 tag
+     */
+    public void testStripApev2AndLyrics3() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1.mp3", new File("testStripApev2AndLyrics3.mp3"));
+        long originalLength = testFile.length();
+        insertBeforeID3v1(testFile, createApev2Tag(), "LYRICSBEGININD0000210LYR00005hello000034LYRICS200".getBytes("ISO-8859-1"));
+
+        TagOptionSingleton.getInstance().setStripApev2AndLyrics3Tags(true);
+        try
+        {
+            MP3File mp3File = new MP3File(testFile);
+            mp3File.getID3v1Tag().setField(FieldKey.TITLE, "stripped");
+            mp3File.save();
+        }
+        finally
+        {
+            TagOptionSingleton.getInstance().setToDefault();
+        }
+
+        assertEquals(originalLength, testFile.length());
+        MP3Trailer trailer = readTrailer(testFile);
+        assertFalse(trailer.hasApev2Tag());
+        assertFalse(trailer.hasLyrics3Tag());
+        assertTrue(trailer.hasID3v1Tag());
+        assertEquals("stripped", new MP3File(testFile).getID3v1Tag().getFirst(FieldKey.TITLE));
+    }
+
+    /**
+     * Create an APEv2 tag with a header and a single Title item
+     */
+    private static byte[] createApev2Tag() throws Exception
+    {
+        ByteArrayOutputStream items = new ByteArrayOutputStream();
+        ByteBuffer item = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        item.putInt(5).putInt(0);
+        items.write(item.array());
+        items.write("Title\0apetl".getBytes("ISO-8859-1"));
+
+        ByteArrayOutputStream tag = new ByteArrayOutputStream();
+        tag.write(createApev2HeaderOrFooter(items.size() + 32, true));
+        items.writeTo(tag);
+        tag.write(createApev2HeaderOrFooter(items.size() + 32, false));
+        return tag.toByteArray();
+    }
+
+    private static byte[] createApev2HeaderOrFooter(int size, boolean isHeader) throws Exception
+    {
+        ByteBuffer b = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("APETAGEX".getBytes("ISO-8859-1")).putInt(2000).putInt(size).putInt(1);
+        b.putInt(0x80000000 | (isHeader ? 0x20000000 : 0));
+        return b.array();
+    }
+
+    /**
+     * Insert the trailers between the audio and the ID3v1 tag
+     */
+    private static void insertBeforeID3v1(File file, byte[] first, byte[] second) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try
+        {
+            byte[] id3v1 = new byte[128];
+            raf.seek(raf.length() - 128);
+            raf.readFully(id3v1);
+            raf.seek(raf.length() - 128);
+            raf.write(first);
+            raf.write(second);
+            raf.write(id3v1);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static MP3Trailer readTrailer(File file) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            return MP3Trailer.read(raf);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.jaudiotagger.audio.scan;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Scanning a directory tree for changed audio files
+ */
+public class LibraryScannerTest extends TestCase
+{
+    private File root;
+
+    public void setUp() throws Exception
+    {
+        root = new File("testdatatmp", "libraryScan");
+        delete(root);
+        new File(root, "artist/album").mkdirs();
+        new File(root, ".hidden").mkdirs();
+        copy("test.flac", "artist/album/one.flac");
+        copy("test.m4a", "artist/album/two.m4a");
+        copy("test.ogg", "three.OGG");
+        copy("test.flac", ".hidden/four.flac");
+        copy("test.flac", "artist/.five.flac");
+        FileOutputStream out = new FileOutputStream(new File(root, "artist/album/cover.txt"));
+        out.write(1);
+        out.close();
+    }
+
+    private void copy(String testFile, String path) throws Exception
+    {
+        File copy = AbstractTestCase.copyAudioToTmp(testFile);
+        File target = new File(root, path);
+        assertTrue(copy.renameTo(target));
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File file(String path)
+    {
+        return new File(root, path).getAbsoluteFile();
+    }
+
+    public void testScanChanges() throws Exception
+    {
+        LibraryScanner scanner = new LibraryScanner(3);
+        LibraryChanges changes = scanner.scan(root, LibrarySnapshot.EMPTY);
+        assertEquals(Arrays.asList(file("artist/album/one.flac"), file("artist/album/two.m4a"), file("three.OGG")), changes.getAdded());
+        assertTrue(changes.getChanged().isEmpty());
+        assertTrue(changes.getRemoved().isEmpty());
+        assertEquals(3, changes.getSnapshot().size());
+
+        LibrarySnapshot snapshot = changes.getSnapshot();
+        assertTrue(scanner.scan(root, snapshot).isEmpty());
+
+        File changed = file("artist/album/two.m4a");
+        changed.setLastModified(changed.lastModified() - 10000);
+        assertTrue(file("three.OGG").delete());
+        copy("test.m4a", "artist/six.m4a");
+
+        changes = scanner.scan(root, snapshot);
+        assertEquals(Arrays.asList(file("artist/six.m4a")), changes.getAdded());
+        assertEquals(Arrays.asList(changed), changes.getChanged());
+        assertEquals(Arrays.asList(file("three.OGG")), changes.getRemoved());
+        assertEquals(3, changes.getSnapshot().size());
+
+        Map<File, AudioFile> audioFiles = scanner.read(changes.getAddedAndChanged());
+        assertEquals(2, audioFiles.size());
+        assertEquals(file("artist/six.m4a"), audioFiles.keySet().iterator().next());
+        assertNotNull(audioFiles.get(changed).getAudioHeader());
+    }
+
+    /**
+     * A link back to a parent directory does not make the scan report files more than once
+     */
+    public void testLinkToParentDirectory() throws Exception
+    {
+        File link = new File(root, "artist/album/loop");
+        Process process;
+        try
+        {
+            process = Runtime.getRuntime().exec(new String[]{"ln", "-s", "..", link.getPath()});
+        }
+        catch (IOException ioe)
+        {
+            //No symbolic links on this platform
+            return;
+        }
+        if (process.waitFor() != 0)
+        {
+            return;
+        }
+        try
+        {
+            LibraryChanges changes = new LibraryScanner(3).scan(root, LibrarySnapshot.EMPTY);
+            assertEquals(Arrays.asList(file("artist/album/one.flac"), file("artist/album/two.m4a"), file("three.OGG")), changes.getAdded());
+        }
+        finally
+        {
+            //Remove the link before the tree is deleted so it is not followed
+            assertTrue(link.delete());
+        }
+    }
+
+    public void testSaveAndLoadSnapshot() throws Exception
+    {
+        LibraryScanner scanner = new LibraryScanner();
+        LibrarySnapshot snapshot = scanner.scan(root, LibrarySnapshot.EMPTY).getSnapshot();
+        File snapshotFile = new File("testdatatmp", "libraryScan.snapshot");
+        snapshot.save(snapshotFile);
+
+        LibrarySnapshot loaded = LibrarySnapshot.load(snapshotFile);
+        assertEquals(snapshot.getPaths(), loaded.getPaths());
+        assertTrue(scanner.scan(root, loaded).isEmpty());
+
+        assertSame(LibrarySnapshot.EMPTY, LibrarySnapshot.load(new File("testdatatmp", "libraryScanMissing.snapshot")));
+    }
+
+    /**
+     * A file that cannot be read is left out of the files read
+     */
+    public void testReadUnreadableFile() throws Exception
+    {
+        FileOutputStream out = new FileOutputStream(new File(root, "broken.mp3"));
+        out.write(new byte[100]);
+        out.close();
+        LibraryScanner scanner = new LibraryScanner(2);
+        LibraryChanges changes = scanner.scan(root, LibrarySnapshot.EMPTY);
+        assertEquals(4, changes.getAdded().size());
+        assertEquals(3, scanner.read(changes.getAdded()).size());
+    }
+}
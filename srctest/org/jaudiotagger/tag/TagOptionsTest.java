@@ -0,0 +1,114 @@
+package org.jaudiotagger.tag;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+
+import java.io.File;
+
+/**
+ * Snapshots of the options held by TagOptionSingleton
+ */
+public class TagOptionsTest extends TestCase
+{
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testSnapshotIsNotChangedBySetters()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        TagOptions options = TagOptionSingleton.getInstance().getOptions();
+        assertSame(options, TagOptionSingleton.getInstance().getOptions());
+        assertFalse(options.isUnsyncTags());
+
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        TagOptionSingleton.getInstance().setId3v24DefaultTextEncoding(TextEncoding.UTF_8);
+        assertFalse(options.isUnsyncTags());
+        assertEquals(TextEncoding.ISO_8859_1, options.getId3v24DefaultTextEncoding());
+
+        TagOptions changed = TagOptionSingleton.getInstance().getOptions();
+        assertNotSame(options, changed);
+        assertTrue(changed.isUnsyncTags());
+        assertEquals(TextEncoding.UTF_8, changed.getId3v24DefaultTextEncoding());
+
+        TagOptionSingleton.getInstance().setToDefault();
+        assertFalse(TagOptionSingleton.getInstance().getOptions().isUnsyncTags());
+    }
+
+    public void testBuilderDefaultsMatchSingletonDefaults()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        TagOptions defaults = TagOptionSingleton.getInstance().getOptions();
+        TagOptions built = new TagOptions.Builder().build();
+        assertEquals(defaults.isId3v1Save(), built.isId3v1Save());
+        assertEquals(defaults.isId3v2Save(), built.isId3v2Save());
+        assertEquals(defaults.getLanguage(), built.getLanguage());
+        assertEquals(defaults.getTimeStampFormat(), built.getTimeStampFormat());
+        assertEquals(defaults.getNumberMP3SyncFrame(), built.getNumberMP3SyncFrame());
+        assertEquals(defaults.getId3v2CompressFramesMinimumSize(), built.getId3v2CompressFramesMinimumSize());
+        assertEquals(defaults.getId3v24UnicodeTextEncoding(), built.getId3v24UnicodeTextEncoding());
+        assertEquals(defaults.isEncodeUTF16BomAsLittleEndian(), built.isEncodeUTF16BomAsLittleEndian());
+        assertEquals(defaults.getWriteChunkSize(), built.getWriteChunkSize());
+    }
+
+    public void testToBuilder()
+    {
+        TagOptions options = new TagOptions.Builder().setPadNumbers(true).setWriteChunkSize(1000).build();
+        TagOptions copy = options.toBuilder().setId3v1Save(false).build();
+        assertTrue(copy.isPadNumbers());
+        assertEquals(1000, copy.getWriteChunkSize());
+        assertFalse(copy.isId3v1Save());
+        assertTrue(options.isId3v1Save());
+    }
+
+    public void testCurrentOptionsInUse()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        assertSame(TagOptionSingleton.getInstance().getOptions(), TagOptions.current());
+
+        TagOptions options = new TagOptions.Builder().setUnsyncTags(true).build();
+        TagOptions previous = options.use();
+        assertNull(previous);
+        try
+        {
+            //Changes to the singleton do not affect the read or write in progress
+            TagOptionSingleton.getInstance().setUnsyncTags(false);
+            assertSame(options, TagOptions.current());
+
+            TagOptions nestedPrevious = TagOptions.current().use();
+            assertSame(options, nestedPrevious);
+            TagOptions.restore(nestedPrevious);
+            assertSame(options, TagOptions.current());
+        }
+        finally
+        {
+            TagOptions.restore(previous);
+        }
+        assertSame(TagOptionSingleton.getInstance().getOptions(), TagOptions.current());
+    }
+
+    public void testWriteWithOptions() throws Exception
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testWriteWithOptions.mp3"));
+        assertEquals(0, AbstractID3v2Tag.getV2TagSizeIfExists(testFile));
+
+        //Only the ID3v1 tag is written with these options
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "v1only");
+        AudioFileIO.write(af, new TagOptions.Builder().setId3v2Save(false).build());
+        assertEquals(0, AbstractID3v2Tag.getV2TagSizeIfExists(testFile));
+        assertSame(TagOptionSingleton.getInstance().getOptions(), TagOptions.current());
+
+        //The singleton options are used again
+        af = AudioFileIO.read(testFile);
+        af.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "both");
+        AudioFileIO.write(af);
+        assertTrue(AbstractID3v2Tag.getV2TagSizeIfExists(testFile) > 0);
+    }
+}
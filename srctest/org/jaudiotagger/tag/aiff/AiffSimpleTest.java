@@ -0,0 +1,302 @@
+package org.jaudiotagger.tag.aiff;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.aiff.AiffTag;
+import org.jaudiotagger.audio.aiff.util.AiffChunkHeader;
+import org.jaudiotagger.audio.aiff.util.AiffChunkReader;
+import org.jaudiotagger.audio.aiff.util.AiffInfoReader;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkReader;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reading and writing AIFF files, the test files are created from the audio of test.wav
+ */
+public class AiffSimpleTest extends AbstractTestCase
+{
+    private static final int SAMPLE_RATE = 22050;
+
+    public void testReadFile() throws Exception
+    {
+        File testFile = createAiffFile("testRead.aif", new byte[0]);
+        AudioFile f = AudioFileIO.read(testFile);
+
+        assertEquals("176", f.getAudioHeader().getBitRate());
+        assertEquals("AIFF 8 bits", f.getAudioHeader().getEncodingType());
+        assertEquals("1", f.getAudioHeader().getChannels());
+        assertEquals("22050", f.getAudioHeader().getSampleRate());
+        assertTrue(((GenericAudioHeader) f.getAudioHeader()).isLossless());
+        assertEquals(getSampleData().length / (float) SAMPLE_RATE, ((GenericAudioHeader) f.getAudioHeader()).getPreciseLength());
+
+        assertTrue(f.getTag() instanceof AiffTag);
+        assertTrue(f.getTag().isEmpty());
+    }
+
+    public void testReadExtended()
+    {
+        assertEquals(22050.0, AiffInfoReader.readExtended(ByteBuffer.wrap(getExtended(22050)), 0));
+        assertEquals(44100.0, AiffInfoReader.readExtended(ByteBuffer.wrap(getExtended(44100)), 0));
+        assertEquals(96000.0, AiffInfoReader.readExtended(ByteBuffer.wrap(getExtended(96000)), 0));
+    }
+
+    /**
+     * Tags are written as text chunks and an ID3 chunk after the sound data chunk, leaving the audio in place, and are
+     * then rewritten in place
+     */
+    public void testWriteFile() throws Exception
+    {
+        File testFile = createAiffFile("testWrite.aif", new byte[0]);
+        long originalLength = testFile.length();
+        byte[] original = readBytes(testFile, 0, (int) originalLength);
+
+        AudioFile f = AudioFileIO.read(testFile);
+        AiffTag tag = (AiffTag) f.getTag();
+        tag.setField(FieldKey.ARTIST, "artist2");
+        tag.setField(FieldKey.TITLE, "title2");
+        tag.setField(FieldKey.COMMENT, "comment2");
+        tag.setField(FieldKey.ALBUM, "album2");
+        tag.setField(FieldKey.YEAR, "1972");
+        f.commit();
+
+        //The header and sound data are unchanged apart from the FORM size
+        byte[] written = readBytes(testFile, 0, (int) originalLength);
+        assertTrue(Arrays.equals(Arrays.copyOfRange(original, 8, original.length), Arrays.copyOfRange(written, 8, written.length)));
+        assertEquals(testFile.length() - 8, readFormSize(testFile));
+        List<AiffChunkHeader> chunks = readChunks(testFile);
+        assertNotNull(AiffChunkReader.findChunk(chunks, AiffChunkReader.NAME_CHUNK));
+        assertNotNull(AiffChunkReader.findChunk(chunks, AiffChunkReader.ID3_CHUNK));
+
+        f = AudioFileIO.read(testFile);
+        tag = (AiffTag) f.getTag();
+        assertEquals("artist2", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("title2", tag.getFirst(FieldKey.TITLE));
+        assertEquals("comment2", tag.getFirst(FieldKey.COMMENT));
+        assertEquals("album2", tag.getFirst(FieldKey.ALBUM));
+        assertEquals("1972", tag.getFirst(FieldKey.YEAR));
+        assertNotNull(tag.getID3Tag());
+        assertEquals("album2", tag.getID3Tag().getFirst(FieldKey.ALBUM));
+
+        //Rewrite in place and then delete
+        tag.setField(FieldKey.ALBUM, "a");
+        f.commit();
+        assertEquals("a", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.ALBUM));
+        assertEquals(testFile.length() - 8, readFormSize(testFile));
+
+        AudioFileIO.delete(AudioFileIO.read(testFile));
+        assertEquals(originalLength, testFile.length());
+        assertTrue(Arrays.equals(original, readBytes(testFile, 0, (int) originalLength)));
+    }
+
+    /**
+     * A value that text chunks cannot hold is written to an ID3 chunk as well, and read back from it, comments after
+     * the first are still read from their ANNO chunks
+     */
+    public void testNonLatin1Value() throws Exception
+    {
+        File testFile = createAiffFile("testNonLatin1Value.aif", new byte[0]);
+        AudioFile f = AudioFileIO.read(testFile);
+        AiffTag tag = (AiffTag) f.getTag();
+        tag.setField(FieldKey.TITLE, "\u6771\u4eac Bj\u00f6rk");
+        tag.setField(FieldKey.COMMENT, "\u6771\u4eac");
+        tag.addField(FieldKey.COMMENT, "second");
+        f.commit();
+        assertNotNull(AiffChunkReader.findChunk(readChunks(testFile), AiffChunkReader.ID3_CHUNK));
+
+        tag = (AiffTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("\u6771\u4eac Bj\u00f6rk", tag.getFirst(FieldKey.TITLE));
+        assertEquals("\u6771\u4eac", tag.getValue(FieldKey.COMMENT, 0));
+        assertEquals("second", tag.getValue(FieldKey.COMMENT, 1));
+
+        //Latin-1 text chunk values alone do not need an ID3 chunk
+        testFile = createAiffFile("testLatin1Value.aif", new byte[0]);
+        f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "Bj\u00f6rk");
+        f.commit();
+        assertEquals("Bj\u00f6rk", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+        assertNull(AiffChunkReader.findChunk(readChunks(testFile), AiffChunkReader.ID3_CHUNK));
+    }
+
+    /**
+     * Text chunks before the sound data chunk are read, and moved after the sound data chunk when the file is written
+     */
+    public void testMetadataBeforeSoundData() throws Exception
+    {
+        ByteBuffer text = ByteBuffer.allocate(36);
+        text.put("NAME".getBytes("ISO-8859-1")).putInt(6).put("before".getBytes("ISO-8859-1"));
+        text.put("ANNO".getBytes("ISO-8859-1")).putInt(5).put("one\0\0\0".getBytes("ISO-8859-1"));
+        text.put("ANNO".getBytes("ISO-8859-1")).putInt(0);
+        File testFile = createAiffFile("testMetadataBeforeSoundData.aiff", text.array());
+
+        AudioFile f = AudioFileIO.read(testFile);
+        AiffTag tag = (AiffTag) f.getTag();
+        assertEquals("before", tag.getFirst(FieldKey.TITLE));
+        assertEquals("one", tag.getFirst(FieldKey.COMMENT));
+
+        tag.setField(FieldKey.TITLE, "after");
+        f.commit();
+
+        List<AiffChunkHeader> chunks = readChunks(testFile);
+        AiffChunkHeader name = AiffChunkReader.findChunk(chunks, AiffChunkReader.NAME_CHUNK);
+        assertTrue(name.getStart() > AiffChunkReader.findChunk(chunks, AiffChunkReader.SOUND_DATA_CHUNK).getStart());
+        assertNull(AiffChunkReader.findChunk(chunks, AiffChunkReader.ID3_CHUNK));
+        tag = (AiffTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("after", tag.getFirst(FieldKey.TITLE));
+        assertEquals("one", tag.getFirst(FieldKey.COMMENT));
+        assertEquals(testFile.length() - 8, readFormSize(testFile));
+    }
+
+    /**
+     * An odd sized sound data chunk at the end of the file without its pad byte is padded when the metadata chunks
+     * before it are moved after it, so the moved chunks are word aligned
+     */
+    public void testMetadataBeforeOddSoundDataWithoutPadByte() throws Exception
+    {
+        ByteBuffer text = ByteBuffer.allocate(14);
+        text.put("NAME".getBytes("ISO-8859-1")).putInt(6).put("before".getBytes("ISO-8859-1"));
+        File testFile = createAiffFile("testOddSoundDataWithoutPad.aiff", text.array());
+        AiffChunkHeader sound = AiffChunkReader.findChunk(readChunks(testFile), AiffChunkReader.SOUND_DATA_CHUNK);
+        long soundSize = sound.getSize() | 1;
+        if (soundSize > sound.getSize())
+        {
+            soundSize -= 2;
+        }
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.setLength(sound.getDataStart() + soundSize);
+            raf.seek(sound.getStart() + 4);
+            raf.writeInt((int) soundSize);
+            raf.seek(4);
+            raf.writeInt((int) raf.length() - 8);
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        //Year can only be held in the ID3 chunk
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "after");
+        f.getTag().setField(FieldKey.YEAR, "1999");
+        f.commit();
+
+        List<AiffChunkHeader> chunks = readChunks(testFile);
+        assertEquals(soundSize, AiffChunkReader.findChunk(chunks, AiffChunkReader.SOUND_DATA_CHUNK).getSize());
+        AiffChunkHeader name = AiffChunkReader.findChunk(chunks, AiffChunkReader.NAME_CHUNK);
+        assertEquals(0, name.getStart() % 2);
+        assertEquals(0, readBytes(testFile, name.getStart() - 1, 1)[0]);
+        assertNotNull(AiffChunkReader.findChunk(chunks, AiffChunkReader.ID3_CHUNK));
+        AiffTag tag = (AiffTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("after", tag.getFirst(FieldKey.TITLE));
+        assertEquals("1999", tag.getFirst(FieldKey.YEAR));
+        assertEquals(testFile.length() - 8, readFormSize(testFile));
+    }
+
+    /**
+     * Create an AIFF file holding the audio of test.wav
+     *
+     * @param fileName
+     * @param chunksBeforeSound chunks to write between the common chunk and the sound data chunk
+     */
+    private static File createAiffFile(String fileName, byte[] chunksBeforeSound) throws Exception
+    {
+        byte[] samples = getSampleData();
+        //8 bit AIFF samples are signed
+        for (int i = 0; i < samples.length; i++)
+        {
+            samples[i] = (byte) (samples[i] - 128);
+        }
+        ByteBuffer aiff = ByteBuffer.allocate(12 + 26 + chunksBeforeSound.length + 16 + samples.length + (samples.length & 1));
+        aiff.put("FORM".getBytes("ISO-8859-1")).putInt(aiff.capacity() - 8).put("AIFF".getBytes("ISO-8859-1"));
+        aiff.put("COMM".getBytes("ISO-8859-1")).putInt(18);
+        aiff.putShort((short) 1).putInt(samples.length).putShort((short) 8).put(getExtended(SAMPLE_RATE));
+        aiff.put(chunksBeforeSound);
+        aiff.put("SSND".getBytes("ISO-8859-1")).putInt(samples.length + 8).putInt(0).putInt(0).put(samples);
+
+        File testFile = new File("testdatatmp", fileName);
+        testFile.getParentFile().mkdirs();
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.setLength(0);
+            raf.write(aiff.array());
+        }
+        finally
+        {
+            raf.close();
+        }
+        return testFile;
+    }
+
+    private static byte[] getSampleData() throws Exception
+    {
+        File wavFile = new File("testdata", "test.wav");
+        RandomAccessFile raf = new RandomAccessFile(wavFile, "r");
+        try
+        {
+            WavChunkHeader data = WavChunkReader.findChunk(new WavChunkReader().read(raf), WavChunkReader.DATA_CHUNK);
+            byte[] samples = new byte[(int) Math.min(data.getSize(), raf.length() - data.getDataStart())];
+            raf.seek(data.getDataStart());
+            raf.readFully(samples);
+            return samples;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    /**
+     * @return the 80 bit extended representation of a positive whole number
+     */
+    private static byte[] getExtended(int value)
+    {
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        ByteBuffer extended = ByteBuffer.allocate(10);
+        extended.putShort((short) (16383 + exponent)).putLong((long) value << (63 - exponent));
+        return extended.array();
+    }
+
+    private static List<AiffChunkHeader> readChunks(File file) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            return new AiffChunkReader().read(raf);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static long readFormSize(File file) throws Exception
+    {
+        return ByteBuffer.wrap(readBytes(file, 4, 4)).getInt() & 0xffffffffL;
+    }
+
+    private static byte[] readBytes(File file, long pos, int length) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            byte[] b = new byte[length];
+            raf.seek(pos);
+            raf.readFully(b);
+            return b;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+}
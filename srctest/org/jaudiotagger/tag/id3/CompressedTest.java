@@ -4,6 +4,8 @@ import org.jaudiotagger.AbstractTestCase;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
 import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyAPIC;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyCOMM;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyTIT2;
@@ -88,4 +90,64 @@ public class CompressedTest extends AbstractTestCase
         assertEquals(27,v24tag.getFieldCount());
     }
 
+    /**
+     * Large lyrics frames are compressed on write when enabled, and can be read back
+     *
+     * @throws Exception
+     */
+    public void testWriteCompressedLyricsFrame() throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+        {
+            sb.append("Line ").append(i).append(" of the lyrics, la la la\n");
+        }
+        final String LYRICS = sb.toString();
+
+        TagOptionSingleton.getInstance().setId3v2CompressFrames(true);
+
+        //v23
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testWriteCompressedLyricsv23.mp3"));
+        AudioFile af = AudioFileIO.read(testFile);
+        af.setTag(new ID3v23Tag());
+        af.getTag().setField(FieldKey.LYRICS, LYRICS);
+        af.getTag().setField(FieldKey.TITLE, "title");
+        af.commit();
+        assertTrue(AbstractID3v2Tag.getV2TagSizeIfExists(testFile) < LYRICS.length());
+
+        af = AudioFileIO.read(testFile);
+        ID3v23Tag v23tag = (ID3v23Tag) af.getTag();
+        ID3v23Frame frame = (ID3v23Frame) v23tag.getFrame(ID3v23Frames.FRAME_ID_V3_UNSYNC_LYRICS);
+        assertTrue(((ID3v23Frame.EncodingFlags) frame.getEncodingFlags()).isCompression());
+        assertEquals(LYRICS, v23tag.getFirst(FieldKey.LYRICS));
+        frame = (ID3v23Frame) v23tag.getFrame(ID3v23Frames.FRAME_ID_V3_TITLE);
+        assertFalse(((ID3v23Frame.EncodingFlags) frame.getEncodingFlags()).isCompression());
+        assertEquals("title", v23tag.getFirst(FieldKey.TITLE));
+
+        //v24, with unsynchronization as well
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testWriteCompressedLyricsv24.mp3"));
+        af = AudioFileIO.read(testFile);
+        af.setTag(new ID3v24Tag());
+        af.getTag().setField(FieldKey.LYRICS, LYRICS);
+        af.getTag().setField(FieldKey.TITLE, "title");
+        af.commit();
+
+        af = AudioFileIO.read(testFile);
+        ID3v24Tag v24tag = (ID3v24Tag) af.getTag();
+        ID3v24Frame v24frame = (ID3v24Frame) v24tag.getFrame(ID3v24Frames.FRAME_ID_UNSYNC_LYRICS);
+        assertTrue(((ID3v24Frame.EncodingFlags) v24frame.getEncodingFlags()).isCompression());
+        assertTrue(((ID3v24Frame.EncodingFlags) v24frame.getEncodingFlags()).isDataLengthIndicator());
+        assertEquals(LYRICS, v24tag.getFirst(FieldKey.LYRICS));
+        assertEquals("title", v24tag.getFirst(FieldKey.TITLE));
+
+        //Disabled again so written uncompressed
+        TagOptionSingleton.getInstance().setId3v2CompressFrames(false);
+        af.commit();
+        af = AudioFileIO.read(testFile);
+        v24tag = (ID3v24Tag) af.getTag();
+        v24frame = (ID3v24Frame) v24tag.getFrame(ID3v24Frames.FRAME_ID_UNSYNC_LYRICS);
+        assertFalse(((ID3v24Frame.EncodingFlags) v24frame.getEncodingFlags()).isCompression());
+        assertEquals(LYRICS, v24tag.getFirst(FieldKey.LYRICS));
+    }
 }
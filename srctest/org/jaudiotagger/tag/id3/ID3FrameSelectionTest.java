@@ -0,0 +1,85 @@
+package org.jaudiotagger.tag.id3;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadProjection;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+
+/**
+ * Reading only the selected frames of an ID3v2 tag
+ */
+public class ID3FrameSelectionTest extends TestCase
+{
+    private static File createFile(String name, AbstractID3v2Tag tag) throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File(name));
+        MP3File mp3File = new MP3File(testFile);
+        tag.setField(FieldKey.ARTIST, "artist");
+        tag.setField(FieldKey.TITLE, "title");
+        tag.setField(FieldKey.ALBUM, "album");
+        tag.setField(FieldKey.TRACK, "3");
+        tag.setField(FieldKey.TRACK_TOTAL, "10");
+        tag.setField(FieldKey.COMMENT, "comment");
+        tag.setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png")));
+        mp3File.setID3v2Tag(tag);
+        mp3File.save();
+        return testFile;
+    }
+
+    private static AbstractID3v2Tag read(File testFile, ReadProjection projection) throws Exception
+    {
+        return new MP3File(testFile, MP3File.LOAD_IDV2TAG | MP3File.SKIP_AUDIO_HEADER, true, projection).getID3v2Tag();
+    }
+
+    private void checkSelection(File testFile, String titleId, String artworkId) throws Exception
+    {
+        AbstractID3v2Tag tag = read(testFile, ReadProjection.fields(FieldKey.TITLE, FieldKey.TRACK));
+        assertEquals(1, tag.getFields(titleId).size());
+        assertEquals("title", tag.getFirst(FieldKey.TITLE));
+        assertEquals("3", tag.getFirst(FieldKey.TRACK));
+        assertEquals("10", tag.getFirst(FieldKey.TRACK_TOTAL));
+        assertEquals("", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("", tag.getFirst(FieldKey.COMMENT));
+        assertFalse(tag.hasFrame(artworkId));
+        assertEquals(2, tag.getFieldCount());
+
+        tag = read(testFile, ReadProjection.TAG_WITHOUT_ARTWORK);
+        assertFalse(tag.hasFrame(artworkId));
+        assertEquals("artist", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("comment", tag.getFirst(FieldKey.COMMENT));
+
+        tag = read(testFile, ReadProjection.fields(FieldKey.COVER_ART));
+        assertTrue(tag.hasFrame(artworkId));
+        assertEquals(1, tag.getFieldCount());
+        assertEquals(read(testFile, ReadProjection.ALL).getFirstArtwork().getBinaryData().length, tag.getFirstArtwork().getBinaryData().length);
+    }
+
+    public void testSelectV24() throws Exception
+    {
+        checkSelection(createFile("testFrameSelectionV24.mp3", new ID3v24Tag()), "TIT2", "APIC");
+    }
+
+    public void testSelectV23() throws Exception
+    {
+        checkSelection(createFile("testFrameSelectionV23.mp3", new ID3v23Tag()), "TIT2", "APIC");
+    }
+
+    public void testSelectV22() throws Exception
+    {
+        checkSelection(createFile("testFrameSelectionV22.mp3", new ID3v22Tag()), "TT2", "PIC");
+    }
+
+    public void testReadThroughAudioFileIO() throws Exception
+    {
+        File testFile = createFile("testFrameSelectionIO.mp3", new ID3v24Tag());
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile, ReadProjection.fields(FieldKey.ALBUM).withHeader());
+        assertNotNull(mp3File.getAudioHeader());
+        assertEquals(1, mp3File.getID3v2Tag().getFieldCount());
+        assertEquals("album", mp3File.getTag().getFirst(FieldKey.ALBUM));
+    }
+}
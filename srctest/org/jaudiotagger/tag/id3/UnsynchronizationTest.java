@@ -14,7 +14,14 @@ import org.jaudiotagger.tag.images.ArtworkFactory;
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
 
 /**
  * Test Itunes problems
@@ -121,6 +128,45 @@ public class UnsynchronizationTest extends AbstractTestCase
 
     }
 
+    /**
+     * The tag is synchronized within a writable buffer, a read only buffer is left unchanged
+     */
+    public void testReadUnsyncedTagFromReadOnlyBuffer() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("Issue1.id3", "testV1.mp3");
+        MP3File mp3File = new MP3File(testFile);
+        mp3File.setID3v2Tag(new ID3v23Tag((AbstractTag) mp3File.getID3v2Tag()));
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        try
+        {
+            mp3File.save();
+        }
+        finally
+        {
+            TagOptionSingleton.getInstance().setUnsyncTags(false);
+        }
+
+        byte[] tagData = new byte[(int) AbstractID3v2Tag.getV2TagSizeIfExists(testFile)];
+        RandomAccessFile raf = new RandomAccessFile(testFile, "r");
+        try
+        {
+            raf.readFully(tagData);
+        }
+        finally
+        {
+            raf.close();
+        }
+        byte[] original = tagData.clone();
+
+        ID3v23Tag readOnlyTag = new ID3v23Tag(ByteBuffer.wrap(tagData).asReadOnlyBuffer(), testFile.getName());
+        assertTrue(readOnlyTag.isUnsynchronization());
+        assertTrue(Arrays.equals(original, tagData));
+
+        ID3v23Tag inPlaceTag = new ID3v23Tag(ByteBuffer.wrap(tagData), testFile.getName());
+        assertFalse(Arrays.equals(original, tagData));
+        assertTrue(Arrays.equals(readOnlyTag.getFirstArtwork().getBinaryData(), inPlaceTag.getFirstArtwork().getBinaryData()));
+    }
+
     /**
      * This tests unsynchronizing tags in v22
      *
@@ -242,5 +288,81 @@ public class UnsynchronizationTest extends AbstractTestCase
         assertNull(exceptionCaught);
     }
 
+    /**
+     * Unsynchronizing as the buffer is written must give the same bytes, and the same size, as unsynchronizing
+     * the byte array up front
+     */
+    public void testUnsynchronizeToChannelMatchesByteArray() throws Exception
+    {
+        byte[][] sources = new byte[][]
+                {
+                        {(byte) 0x01, (byte) 0xFF, (byte) 0xE0, (byte) 0x02},
+                        {(byte) 0xFF, (byte) 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xF3},
+                        {(byte) 0x03, (byte) 0xFF, (byte) 0xFB, (byte) 0x04, (byte) 0xFF},
+                        {(byte) 0x05, (byte) 0x06, (byte) 0x07},
+                };
+        for (byte[] source : sources)
+        {
+            byte[] expected = ID3Unsynchronization.unsynchronize(source);
+
+            ByteBuffer sourceBuffer = ByteBuffer.wrap(source);
+            assertEquals(expected.length, ID3Unsynchronization.getUnsynchronizedSize(sourceBuffer));
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            int written = ID3Unsynchronization.unsynchronize(sourceBuffer, Channels.newChannel(baos));
+            assertEquals(expected.length, written);
+            assertTrue(Arrays.equals(expected, baos.toByteArray()));
+            assertEquals(0, sourceBuffer.position());
+        }
+
+        //Large enough to need several chunks
+        File artworkFile = new File("testdata/coverart_large.jpg");
+        byte[] artwork = new byte[(int) artworkFile.length()];
+        DataInputStream dis = new DataInputStream(new FileInputStream(artworkFile));
+        dis.readFully(artwork);
+        dis.close();
+
+        byte[] expected = ID3Unsynchronization.unsynchronize(artwork);
+        assertEquals(expected.length, ID3Unsynchronization.getUnsynchronizedSize(ByteBuffer.wrap(artwork)));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ID3Unsynchronization.unsynchronize(ByteBuffer.wrap(artwork), Channels.newChannel(baos));
+        assertTrue(Arrays.equals(expected, baos.toByteArray()));
+    }
 
+    /**
+     * Unsynchronizing then synchronizing a slice of a larger buffer must give back the original bytes without
+     * touching anything outside the slice
+     */
+    public void testSynchronizeInPlaceOnSlice() throws Exception
+    {
+        byte[] original = {(byte) 0x01, (byte) 0xFF, (byte) 0xE0, (byte) 0xFF, (byte) 0x00, (byte) 0x02, (byte) 0xFF};
+        byte[] unsynced = ID3Unsynchronization.unsynchronize(original);
+        assertTrue(Arrays.equals(new byte[]{(byte) 0x01, (byte) 0xFF, (byte) 0x00, (byte) 0xE0, (byte) 0xFF, (byte) 0x00, (byte) 0x00, (byte) 0x02, (byte) 0xFF, (byte) 0x00}, unsynced));
+        assertEquals(unsynced.length, ID3Unsynchronization.getUnsynchronizedSizeIfRequired(ByteBuffer.wrap(original)));
+        assertEquals(ID3Unsynchronization.NOT_REQUIRED, ID3Unsynchronization.getUnsynchronizedSizeIfRequired(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0x00, (byte) 0x12})));
+
+        //Surround the unsynchronized data with markers that must survive
+        ByteBuffer tagBuffer = ByteBuffer.allocate(unsynced.length + 4);
+        tagBuffer.put(new byte[]{(byte) 0x7A, (byte) 0x7B});
+        tagBuffer.put(unsynced);
+        tagBuffer.put(new byte[]{(byte) 0x7C, (byte) 0x7D});
+        tagBuffer.position(2);
+        ByteBuffer slice = tagBuffer.slice();
+        slice.limit(unsynced.length);
+
+        ByteBuffer synced = ID3Unsynchronization.synchronizeInPlace(slice);
+        assertEquals(original.length, synced.remaining());
+        byte[] result = new byte[synced.remaining()];
+        synced.get(result);
+        assertTrue(Arrays.equals(original, result));
+        assertSame(tagBuffer.array(), synced.array());
+        assertEquals((byte) 0x7B, tagBuffer.get(1));
+        assertEquals((byte) 0x7C, tagBuffer.get(unsynced.length + 2));
+
+        //The copying variant must leave the source alone
+        ByteBuffer source = ByteBuffer.wrap(unsynced.clone());
+        ByteBuffer copy = ID3Unsynchronization.synchronize(source);
+        assertEquals(original.length, copy.remaining());
+        assertTrue(Arrays.equals(unsynced, source.array()));
+    }
 }
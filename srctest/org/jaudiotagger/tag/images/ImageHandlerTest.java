@@ -0,0 +1,67 @@
+package org.jaudiotagger.tag.images;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Resizing artwork with the standard image handler
+ */
+public class ImageHandlerTest extends TestCase
+{
+    public void testMakeThumbnails() throws Exception
+    {
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart_large.jpg"));
+        artwork.setDescription("cover");
+        List<Artwork> thumbnails = StandardImageHandler.getInstanceOf().makeThumbnails(artwork, 300, 50, 100);
+        assertEquals(3, thumbnails.size());
+        int[] sizes = new int[]{300, 50, 100};
+        for (int i = 0; i < sizes.length; i++)
+        {
+            Artwork thumbnail = thumbnails.get(i);
+            assertEquals(ImageFormats.MIME_TYPE_JPEG, thumbnail.getMimeType());
+            assertEquals("cover", thumbnail.getDescription());
+            assertEquals(PictureTypes.DEFAULT_ID.intValue(), thumbnail.getPictureType());
+            assertEquals(sizes[i], thumbnail.getWidth());
+            assertEquals(sizes[i], thumbnail.getHeight());
+
+            ImageInfo info = ImageInfo.read(thumbnail.getBinaryData());
+            assertEquals(sizes[i], info.getWidth());
+            assertEquals(sizes[i], info.getHeight());
+        }
+    }
+
+    /**
+     * Gif cannot always be written so thumbnails may be written as png, either way they must be readable
+     */
+    public void testMakeThumbnailsGif() throws Exception
+    {
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart.gif"));
+        Artwork thumbnail = StandardImageHandler.getInstanceOf().makeThumbnails(artwork, 40).get(0);
+        ImageInfo info = ImageInfo.read(thumbnail.getBinaryData());
+        assertEquals(thumbnail.getMimeType(), info.getMimeType());
+        assertEquals(40, info.getWidth());
+    }
+
+    public void testMakeSmaller() throws Exception
+    {
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart.png"));
+        StandardImageHandler.getInstanceOf().makeSmaller(artwork, 64);
+        ImageInfo info = ImageInfo.read(artwork.getBinaryData());
+        assertEquals(ImageFormats.MIME_TYPE_PNG, info.getMimeType());
+        assertEquals(64, info.getWidth());
+        assertEquals(64, info.getHeight());
+    }
+
+    public void testReduceQuality() throws Exception
+    {
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart_large.jpg"));
+        int maxSize = artwork.getBinaryData().length / 4;
+        StandardImageHandler.getInstanceOf().reduceQuality(artwork, maxSize);
+        assertTrue(artwork.getBinaryData().length <= maxSize);
+        assertNotNull(ImageInfo.read(artwork.getBinaryData()));
+    }
+}
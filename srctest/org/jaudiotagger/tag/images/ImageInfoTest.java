@@ -0,0 +1,76 @@
+package org.jaudiotagger.tag.images;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Reading the image dimensions from the image header should give the same result as decoding the image
+ */
+public class ImageInfoTest extends TestCase
+{
+    private void checkImage(String fileName, String mimeType) throws Exception
+    {
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", fileName));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(artwork.getBinaryData()));
+
+        ImageInfo info = ImageInfo.read(artwork.getBinaryData());
+        assertNotNull(info);
+        assertEquals(mimeType, info.getMimeType());
+        assertEquals(image.getWidth(), info.getWidth());
+        assertEquals(image.getHeight(), info.getHeight());
+
+        assertEquals(image.getWidth(), artwork.getWidth());
+        assertEquals(image.getHeight(), artwork.getHeight());
+
+        artwork.setMimeType("");
+        artwork.setWidth(0);
+        artwork.setHeight(0);
+        assertTrue(artwork.setImageFromData());
+        assertEquals(mimeType, artwork.getMimeType());
+        assertEquals(image.getWidth(), artwork.getWidth());
+        assertEquals(image.getHeight(), artwork.getHeight());
+    }
+
+    public void testJpeg() throws Exception
+    {
+        checkImage("coverart.jpg", ImageFormats.MIME_TYPE_JPEG);
+        checkImage("coverart_large.jpg", ImageFormats.MIME_TYPE_JPEG);
+    }
+
+    public void testPng() throws Exception
+    {
+        checkImage("coverart.png", ImageFormats.MIME_TYPE_PNG);
+        checkImage("coverart_small.png", ImageFormats.MIME_TYPE_PNG);
+    }
+
+    public void testGif() throws Exception
+    {
+        checkImage("coverart.gif", ImageFormats.MIME_TYPE_GIF);
+    }
+
+    public void testBmp() throws Exception
+    {
+        checkImage("coverart.bmp", ImageFormats.MIME_TYPE_BMP);
+    }
+
+    /**
+     * Truncated or unknown data is not understood rather than throwing an exception
+     */
+    public void testInvalid() throws Exception
+    {
+        assertNull(ImageInfo.read(null));
+        assertNull(ImageInfo.read(new byte[]{1, 2, 3, 4, 5, 6}));
+
+        StandardArtwork artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart.jpg"));
+        assertNull(ImageInfo.read(Arrays.copyOf(artwork.getBinaryData(), 20)));
+
+        artwork = StandardArtwork.createArtworkFromFile(new File("testdata", "coverart.png"));
+        assertNull(ImageInfo.read(Arrays.copyOf(artwork.getBinaryData(), 20)));
+    }
+}
@@ -12,6 +12,8 @@ import org.jaudiotagger.tag.TagException;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 
 public class RealReadTagTest extends AbstractTestCase
 {
@@ -71,6 +73,34 @@ public class RealReadTagTest extends AbstractTestCase
         checkRealTag("test10.rm", "Nobody Cares If I'm Blue", "Annette Hanshaw", "1930 (Harmony 1196-H)");
     }
 
+    /**
+     * A CONT chunk beyond the first block of the header region is still found, intermediate MDPR chunks are skipped
+     */
+    public void testLargeMediaProperties() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test01.ra");
+        byte[] original = new byte[(int) testFile.length()];
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.readFully(original);
+            //Insert an extra 10000 byte MDPR chunk after PROP, the PROP chunk ends at 68
+            ByteBuffer mdpr = ByteBuffer.allocate(10000);
+            mdpr.put("MDPR".getBytes("ISO-8859-1")).putInt(10000);
+            raf.seek(68);
+            raf.write(mdpr.array());
+            raf.write(original, 68, original.length - 68);
+        }
+        finally
+        {
+            raf.close();
+        }
+        AudioFile f = AudioFileIO.read(testFile);
+        assertEquals("Temptation Rag", f.getTag().getFirst(FieldKey.TITLE));
+        assertEquals("Prince's Military Band", f.getTag().getFirst(FieldKey.ARTIST));
+        assertEquals(original.length + 10000, testFile.length());
+    }
+
     public void checkRealTag(String filename, String title, String artist, String comment) throws InvalidAudioFrameException, IOException, ReadOnlyFileException, TagException, CannotReadException
     {
         File testFile = AbstractTestCase.copyAudioToTmp(filename);
@@ -3,11 +3,23 @@ package org.jaudiotagger.tag.wav;
 import org.jaudiotagger.AbstractTestCase;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.GenericTag;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.wav.WavTag;
+import org.jaudiotagger.audio.wav.util.WavBextChunk;
+import org.jaudiotagger.audio.wav.util.WavChunkHeader;
+import org.jaudiotagger.audio.wav.util.WavChunkReader;
 import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * User: paul
@@ -49,51 +61,394 @@ public class WavSimpleTest extends AbstractTestCase
         assertNull(exceptionCaught);
     }
 
-    /* Doesnt support writing currently
-     public void testWriteFile()
+    /**
+     * Tags are written as a LIST INFO chunk after the data chunk, leaving the audio in place
+     */
+    public void testWriteFile() throws Exception
     {
-        Exception exceptionCaught = null;
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testwrite1.wav"));
+        long originalLength = testFile.length();
+        byte[] original = readBytes(testFile, 0, (int) originalLength);
+        AudioFile f = AudioFileIO.read(testFile);
+        float length = ((GenericAudioHeader) f.getAudioHeader()).getPreciseLength();
+
+        WavTag tag = (WavTag) f.getTag();
+        tag.setField(FieldKey.ARTIST, "artist2");
+        tag.setField(FieldKey.ALBUM, "album2");
+        tag.setField(FieldKey.TITLE, "tracktitle2");
+        tag.setField(FieldKey.COMMENT, "comments2");
+        tag.setField(FieldKey.YEAR, "1972");
+        tag.setField(FieldKey.GENRE, "genre2");
+        tag.setField(FieldKey.TRACK, "4");
+        f.commit();
+
+        f = AudioFileIO.read(testFile);
+        tag = (WavTag) f.getTag();
+        assertEquals("artist2", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("album2", tag.getFirst(FieldKey.ALBUM));
+        assertEquals("tracktitle2", tag.getFirst(FieldKey.TITLE));
+        assertEquals("comments2", tag.getFirst(FieldKey.COMMENT));
+        assertEquals("1972", tag.getFirst(FieldKey.YEAR));
+        assertEquals("4", tag.getFirst(FieldKey.TRACK));
+        assertEquals("genre2", tag.getFirst(FieldKey.GENRE));
+
+        //Length comes from the data chunk so is not affected by the new chunk
+        assertEquals(length, ((GenericAudioHeader) f.getAudioHeader()).getPreciseLength());
+        assertEquals("22050", f.getAudioHeader().getSampleRate());
+
+        //Everything but the RIFF size is unchanged, the INFO chunk is appended
+        byte[] modified = readBytes(testFile, 0, (int) originalLength);
+        assertTrue(Arrays.equals(Arrays.copyOfRange(original, 8, original.length), Arrays.copyOfRange(modified, 8, modified.length)));
+        assertEquals(testFile.length() - 8, readRiffSize(testFile));
+        List<WavChunkHeader> chunks = readChunks(testFile);
+        assertTrue(WavChunkReader.isInfoChunk(chunks.get(chunks.size() - 1)));
+    }
+
+    /**
+     * Once the metadata follows the data chunk later writes rewrite just the metadata, and deleting the tag removes it
+     */
+    public void testWriteInPlaceAndDelete() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testWriteInPlace.wav"));
+        long originalLength = testFile.length();
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "a long title that will be shortened");
+        f.commit();
+        long longerLength = testFile.length();
+        WavChunkHeader dataChunk = WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.DATA_CHUNK);
+
+        f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "short");
+        f.commit();
+        assertTrue(testFile.length() < longerLength);
+        assertEquals(testFile.length() - 8, readRiffSize(testFile));
+        assertEquals(dataChunk.getStart(), WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.DATA_CHUNK).getStart());
+        assertEquals("short", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+
+        AudioFileIO.delete(AudioFileIO.read(testFile));
+        assertEquals(originalLength, testFile.length());
+        assertTrue(AudioFileIO.read(testFile).getTag().isEmpty());
+    }
+
+    /**
+     * A LIST INFO chunk before the data chunk is read, and moved after the data chunk when the file is written. INFO
+     * subchunks that are not mapped to fields are kept.
+     */
+    public void testMetadataBeforeData() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testMetadataBeforeData.wav"));
+        List<WavChunkHeader> chunks = readChunks(testFile);
+        WavChunkHeader dataChunk = WavChunkReader.findChunk(chunks, WavChunkReader.DATA_CHUNK);
+        byte[] original = readBytes(testFile, 0, (int) testFile.length());
+
+        //LIST INFO with an odd sized INAM and an unmapped ISFT subchunk
+        ByteBuffer info = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+        info.put("LIST".getBytes("ISO-8859-1")).putInt(32).put("INFO".getBytes("ISO-8859-1"));
+        info.put("INAM".getBytes("ISO-8859-1")).putInt(7).put("before\0\0".getBytes("ISO-8859-1"));
+        info.put("ISFT".getBytes("ISO-8859-1")).putInt(4).put("sox\0".getBytes("ISO-8859-1"));
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
         try
         {
-            File testFile = AbstractTestCase.copyAudioToTmp("test.wav",new File("testwrite1.wav"));
-            AudioFile f = AudioFileIO.read(testFile);
+            raf.seek(dataChunk.getStart());
+            raf.write(info.array());
+            raf.write(original, (int) dataChunk.getStart(), original.length - (int) dataChunk.getStart());
+            raf.seek(4);
+            raf.write(Utils.getSizeLEInt32((int) raf.length() - 8));
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        AudioFile f = AudioFileIO.read(testFile);
+        WavTag tag = (WavTag) f.getTag();
+        assertEquals("before", tag.getFirst(FieldKey.TITLE));
+        assertEquals("sox", tag.getOtherInfoFields().get("ISFT"));
 
-            assertEquals("176",f.getAudioHeader().getBitRate());
-            assertEquals("WAV-RIFF 8 bits",f.getAudioHeader().getEncodingType());
-            assertEquals("1",f.getAudioHeader().getChannels());
-            assertEquals("22050",f.getAudioHeader().getSampleRate());
+        tag.setField(FieldKey.TITLE, "after");
+        f.commit();
 
+        chunks = readChunks(testFile);
+        WavChunkHeader last = chunks.get(chunks.size() - 1);
+        assertTrue(WavChunkReader.isInfoChunk(last));
+        assertEquals(1, countInfoChunks(chunks));
+        assertTrue(last.getStart() > WavChunkReader.findChunk(chunks, WavChunkReader.DATA_CHUNK).getStart());
+        tag = (WavTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("after", tag.getFirst(FieldKey.TITLE));
+        assertEquals("sox", tag.getOtherInfoFields().get("ISFT"));
+        assertEquals(testFile.length() - 8, readRiffSize(testFile));
+    }
+
+    /**
+     * An odd sized data chunk at the end of the file without its pad byte is padded when a LIST INFO chunk before it is
+     * moved after it, so the moved chunk is word aligned
+     */
+    public void testMetadataBeforeOddDataWithoutPadByte() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testOddDataWithoutPad.wav"));
+        List<WavChunkHeader> chunks = readChunks(testFile);
+        WavChunkHeader formatChunk = WavChunkReader.findChunk(chunks, WavChunkReader.FORMAT_CHUNK);
+        WavChunkHeader dataChunk = WavChunkReader.findChunk(chunks, WavChunkReader.DATA_CHUNK);
+        byte[] original = readBytes(testFile, 0, (int) testFile.length());
+        int dataSize = (int) dataChunk.getSize() | 1;
+        if (dataSize > dataChunk.getSize())
+        {
+            dataSize -= 2;
+        }
 
-            assertTrue(f.getTag() instanceof GenericTag);        //TODO Flawed concept hould be wavtag
-            GenericTag tag = (GenericTag)f.getTag();
+        //LIST INFO, fmt and then an odd sized data chunk with no pad byte at the end of the file
+        ByteBuffer info = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        info.put("LIST".getBytes("ISO-8859-1")).putInt(12).put("INFO".getBytes("ISO-8859-1"));
+        info.put("INAM".getBytes("ISO-8859-1")).putInt(0);
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.setLength(0);
+            raf.write(original, 0, 12);
+            raf.write(info.array());
+            raf.write(original, (int) formatChunk.getStart(), (int) (formatChunk.getEnd() - formatChunk.getStart()));
+            raf.write("data".getBytes("ISO-8859-1"));
+            raf.write(Utils.getSizeLEInt32(dataSize));
+            raf.write(original, (int) dataChunk.getDataStart(), dataSize);
+            raf.seek(4);
+            raf.write(Utils.getSizeLEInt32((int) raf.length() - 8));
+        }
+        finally
+        {
+            raf.close();
+        }
 
-            //Write some new values and save
-            tag.setField(FieldKey.ARTIST,("artist2");
-            tag.setField(FieldKey.ALBUM,"album2");
-            tag.setField(FieldKey.TITLE,"tracktitle2");
-            tag.setField(FieldKey.COMMENT,"comments2");
-            tag.setField(FieldKey.YEAR,"1972");
-            tag.setField(FieldKey.GENRE,("genre2");
-            tag.setField(FieldKey.TRACK,"4");
-            f.commit();
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "aligned");
+        f.commit();
 
-            f = AudioFileIO.read(testFile);
-            tag = (GenericTag)f.getTag();
+        chunks = readChunks(testFile);
+        WavChunkHeader last = chunks.get(chunks.size() - 1);
+        assertTrue(WavChunkReader.isInfoChunk(last));
+        assertEquals(0, last.getStart() % 2);
+        assertEquals(dataSize, WavChunkReader.findChunk(chunks, WavChunkReader.DATA_CHUNK).getSize());
+        assertEquals(0, readBytes(testFile, last.getStart() - 1, 1)[0]);
+        assertEquals("aligned", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+        assertEquals(testFile.length() - 8, readRiffSize(testFile));
+    }
 
-            assertEquals("artist2", tag.getFirst(FieldKey.ARTIST));
-            assertEquals("album2", tag.getFirst(FieldKey.ALBUM));
-            assertEquals("tracktitle2", tag.getFirst(FieldKey.TITLE));
-            assertEquals("comments2", tag.getFirstComment());
-            assertEquals("1972", tag.getFirst(FieldKey.YEAR));
-            assertEquals("4", tag.getFirst(FieldKey.TRACK));
-            assertEquals("genre2", tag.getFirst(FieldKey.GENRE));
+    /**
+     * Fields missing from the INFO chunk are read from an id3 chunk, and the ID3v2 tag is written back with the common
+     * fields updated
+     */
+    public void testId3Chunk() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testId3Chunk.wav"));
+        ID3v23Tag id3Tag = new ID3v23Tag();
+        id3Tag.setField(FieldKey.ARTIST, "id3artist");
+        id3Tag.setField(FieldKey.COMPOSER, "id3composer");
+        ByteArrayOutputStream id3 = new ByteArrayOutputStream();
+        id3Tag.write(id3);
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.seek(raf.length());
+            raf.write("id3 ".getBytes("ISO-8859-1"));
+            raf.write(Utils.getSizeLEInt32(id3.size()));
+            raf.write(id3.toByteArray());
+            if (id3.size() % 2 != 0)
+            {
+                raf.write(0);
+            }
+            raf.seek(4);
+            raf.write(Utils.getSizeLEInt32((int) raf.length() - 8));
         }
-        catch(Exception e)
+        finally
         {
-             e.printStackTrace();
-             exceptionCaught = e;
+            raf.close();
+        }
+
+        AudioFile f = AudioFileIO.read(testFile);
+        WavTag tag = (WavTag) f.getTag();
+        assertNotNull(tag.getID3Tag());
+        assertEquals("id3artist", tag.getFirst(FieldKey.ARTIST));
+        tag.setField(FieldKey.TITLE, "infotitle");
+        f.commit();
+
+        tag = (WavTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("id3artist", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("infotitle", tag.getFirst(FieldKey.TITLE));
+        assertEquals("infotitle", tag.getID3Tag().getFirst(FieldKey.TITLE));
+        assertEquals("id3composer", tag.getID3Tag().getFirst(FieldKey.COMPOSER));
+        List<WavChunkHeader> chunks = readChunks(testFile);
+        assertEquals(1, countInfoChunks(chunks));
+        assertNotNull(WavChunkReader.findChunk(chunks, WavChunkReader.ID3_CHUNK));
+    }
+
+    /**
+     * A value that INFO text cannot hold is written to an id3 chunk as well, and read back from it
+     */
+    public void testNonLatin1Value() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testNonLatin1Value.wav"));
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.ARTIST, "\u6771\u4eac Bj\u00f6rk");
+        f.getTag().setField(FieldKey.TITLE, "Bj\u00f6rk");
+        f.commit();
+
+        WavTag tag = (WavTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("\u6771\u4eac Bj\u00f6rk", tag.getFirst(FieldKey.ARTIST));
+        assertEquals("Bj\u00f6rk", tag.getFirst(FieldKey.TITLE));
+        assertNotNull(tag.getID3Tag());
+        assertNotNull(WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.ID3_CHUNK));
+
+        //Latin-1 values alone do not need an id3 chunk
+        testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testLatin1Value.wav"));
+        f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.ARTIST, "Bj\u00f6rk");
+        f.commit();
+        assertEquals("Bj\u00f6rk", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.ARTIST));
+        assertNull(WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.ID3_CHUNK));
+    }
+
+    /**
+     * The data chunk size of an RF64 file is read from the ds64 chunk, and writing updates the 64 bit RIFF size held
+     * in the ds64 chunk
+     */
+    public void testRf64() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testRf64.wav"));
+        AudioFile f = AudioFileIO.read(testFile);
+        float length = ((GenericAudioHeader) f.getAudioHeader()).getPreciseLength();
+        WavChunkHeader dataChunk = WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.DATA_CHUNK);
+        byte[] original = readBytes(testFile, 0, (int) testFile.length());
+
+        //RF64 header and ds64 chunk with no table, the data chunk size is replaced by 0xFFFFFFFF
+        int ds64Size = 36;
+        ByteBuffer header = ByteBuffer.allocate(12 + ds64Size).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RF64".getBytes("ISO-8859-1")).putInt(0xffffffff).put("WAVE".getBytes("ISO-8859-1"));
+        header.put("ds64".getBytes("ISO-8859-1")).putInt(28);
+        header.putLong(original.length + ds64Size - 8).putLong(dataChunk.getSize()).putLong(0).putInt(0);
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.write(header.array());
+            raf.write(original, 12, original.length - 12);
+            raf.seek(dataChunk.getStart() + ds64Size + 4);
+            raf.writeInt(0xffffffff);
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        f = AudioFileIO.read(testFile);
+        assertEquals("WAV-RF64 8 bits", f.getAudioHeader().getEncodingType());
+        assertEquals("22050", f.getAudioHeader().getSampleRate());
+        assertEquals(length, ((GenericAudioHeader) f.getAudioHeader()).getPreciseLength());
+        assertEquals(dataChunk.getSize(), WavChunkReader.findChunk(readChunks(testFile), WavChunkReader.DATA_CHUNK).getSize());
+
+        f.getTag().setField(FieldKey.TITLE, "rf64title");
+        f.commit();
+
+        assertEquals("rf64title", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+        assertEquals(0xffffffffL, readRiffSize(testFile));
+        ByteBuffer ds64 = ByteBuffer.wrap(readBytes(testFile, 20, 8)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(testFile.length() - 8, ds64.getLong());
+    }
+
+    /**
+     * The bext chunk of a Broadcast Wave file is read and kept when the file is written
+     */
+    public void testBext() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testBext.wav"));
+        ByteBuffer bext = ByteBuffer.allocate(8 + 602 + 6).order(ByteOrder.LITTLE_ENDIAN);
+        bext.put("bext".getBytes("ISO-8859-1")).putInt(602 + 6);
+        bext.put("Session 12".getBytes("ISO-8859-1"));
+        bext.position(8 + 256);
+        bext.put("Recorder".getBytes("ISO-8859-1"));
+        bext.position(8 + 320);
+        bext.put("2011-04-01".getBytes("ISO-8859-1")).put("10:20:30".getBytes("ISO-8859-1"));
+        bext.putLong(0x1234567890L).putShort((short) 2);
+        bext.position(8 + 412);
+        bext.putShort((short) -2300);
+        bext.position(8 + 602);
+        bext.put("A=PCM\0".getBytes("ISO-8859-1"));
+        byte[] original = readBytes(testFile, 0, (int) testFile.length());
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        try
+        {
+            raf.seek(12);
+            raf.write(bext.array());
+            raf.write(original, 12, original.length - 12);
+            raf.seek(4);
+            raf.write(Utils.getSizeLEInt32((int) raf.length() - 8));
+        }
+        finally
+        {
+            raf.close();
+        }
+
+        AudioFile f = AudioFileIO.read(testFile);
+        WavBextChunk bextChunk = ((WavTag) f.getTag()).getBextChunk();
+        assertNotNull(bextChunk);
+        assertEquals("Session 12", bextChunk.getDescription());
+        assertEquals("Recorder", bextChunk.getOriginator());
+        assertEquals("", bextChunk.getOriginatorReference());
+        assertEquals("2011-04-01", bextChunk.getOriginationDate());
+        assertEquals("10:20:30", bextChunk.getOriginationTime());
+        assertEquals(0x1234567890L, bextChunk.getTimeReference());
+        assertEquals(2, bextChunk.getVersion());
+        assertEquals(-2300, bextChunk.getLoudnessValue());
+        assertEquals("A=PCM", bextChunk.getCodingHistory());
+
+        f.getTag().setField(FieldKey.TITLE, "bexttitle");
+        f.commit();
+        WavTag tag = (WavTag) AudioFileIO.read(testFile).getTag();
+        assertEquals("bexttitle", tag.getFirst(FieldKey.TITLE));
+        assertEquals("Session 12", tag.getBextChunk().getDescription());
+    }
+
+    private static int countInfoChunks(List<WavChunkHeader> chunks)
+    {
+        int count = 0;
+        for (WavChunkHeader chunk : chunks)
+        {
+            if (WavChunkReader.isInfoChunk(chunk))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<WavChunkHeader> readChunks(File file) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            return new WavChunkReader().read(raf);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static long readRiffSize(File file) throws Exception
+    {
+        return Utils.getIntLE(readBytes(file, 4, 4)) & 0xffffffffL;
+    }
+
+    private static byte[] readBytes(File file, long pos, int length) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            byte[] b = new byte[length];
+            raf.seek(pos);
+            raf.readFully(b);
+            return b;
+        }
+        finally
+        {
+            raf.close();
         }
-        assertNull(exceptionCaught);
     }
-    */
 }
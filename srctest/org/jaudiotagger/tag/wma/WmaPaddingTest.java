@@ -0,0 +1,98 @@
+package org.jaudiotagger.tag.wma;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.asf.io.AsfHeaderReader;
+import org.jaudiotagger.audio.generic.TagRegion;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Tests that tags are written in place when the ASF header has enough padding, and that the audio
+ * is copied unchanged when it does not
+ */
+public class WmaPaddingTest extends AbstractTestCase
+{
+    private static byte[] readAudio(File file, long audioStart) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            byte[] audio = new byte[(int) (raf.length() - audioStart)];
+            raf.seek(audioStart);
+            raf.readFully(audio);
+            return audio;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static String createString(int length)
+    {
+        StringBuffer sb = new StringBuffer(length);
+        for (int i = 0; i < length; i++)
+        {
+            sb.append((char) ('a' + (i % 26)));
+        }
+        return sb.toString();
+    }
+
+    public void testWriteInPlaceUsingPadding() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test1.wma", new File("testWriteInPlaceUsingPadding.wma"));
+        long originalLength = testFile.length();
+        TagRegion original = AudioFileIO.readTagRegion(testFile);
+        byte[] originalAudio = readAudio(testFile, original.getAudioStart());
+        assertTrue(original.getPaddingSize() > 1000);
+
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, "in place title");
+        af.getTag().setField(FieldKey.COMMENT, createString(200));
+        af.commit();
+
+        //Header has stayed the same size, the padding absorbing the difference
+        assertEquals(originalLength, testFile.length());
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertEquals(original.getTagSize(), region.getTagSize());
+        assertTrue(region.getPaddingSize() < original.getPaddingSize());
+        assertTrue(Arrays.equals(originalAudio, readAudio(testFile, region.getAudioStart())));
+
+        af = AudioFileIO.read(testFile);
+        assertEquals("in place title", af.getTag().getFirst(FieldKey.TITLE));
+        assertEquals(createString(200), af.getTag().getFirst(FieldKey.COMMENT));
+        assertEquals(originalLength, AsfHeaderReader.readHeader(testFile).getFileHeader().getFileSize().longValue());
+
+        //Shrinking the tag grows the padding again
+        af.getTag().setField(FieldKey.COMMENT, "short");
+        af.commit();
+        assertEquals(originalLength, testFile.length());
+        assertTrue(AudioFileIO.readTagRegion(testFile).getPaddingSize() > region.getPaddingSize());
+        assertEquals("short", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.COMMENT));
+    }
+
+    public void testWriteCopyWhenPaddingTooSmall() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test1.wma", new File("testWriteCopyWhenPaddingTooSmall.wma"));
+        long originalLength = testFile.length();
+        TagRegion original = AudioFileIO.readTagRegion(testFile);
+        byte[] originalAudio = readAudio(testFile, original.getAudioStart());
+
+        AudioFile af = AudioFileIO.read(testFile);
+        String comment = createString((int) original.getPaddingSize() * 2);
+        af.getTag().setField(FieldKey.COMMENT, comment);
+        af.commit();
+
+        TagRegion region = AudioFileIO.readTagRegion(testFile);
+        assertTrue(testFile.length() > originalLength);
+        assertEquals(testFile.length() - originalLength, region.getTagSize() - original.getTagSize());
+        assertTrue(Arrays.equals(originalAudio, readAudio(testFile, region.getAudioStart())));
+        assertEquals(comment, AudioFileIO.read(testFile).getTag().getFirst(FieldKey.COMMENT));
+        assertEquals(testFile.length(), AsfHeaderReader.readHeader(testFile).getFileHeader().getFileSize().longValue());
+    }
+}